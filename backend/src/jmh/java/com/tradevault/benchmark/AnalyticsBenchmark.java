@@ -0,0 +1,126 @@
+package com.tradevault.benchmark;
+
+import com.tradevault.analytics.AnalyticsDataset;
+import com.tradevault.analytics.AnalyticsMetrics;
+import com.tradevault.analytics.AnalyticsResultCache;
+import com.tradevault.analytics.AnalyticsSectionExecutor;
+import com.tradevault.analytics.AnalyticsService;
+import com.tradevault.analytics.TradeCoachService;
+import com.tradevault.config.AnalyticsCacheConfig;
+import com.tradevault.config.AnalyticsParallelConfig;
+import com.tradevault.config.TradeCoachConfig;
+import com.tradevault.domain.entity.User;
+import com.tradevault.dto.analytics.AnalyticsBreakdownResponse;
+import com.tradevault.dto.analytics.AnalyticsResponse;
+import com.tradevault.dto.analytics.AnalyticsTimeseriesResponse;
+import com.tradevault.dto.analytics.CoachResponse;
+import com.tradevault.repository.TradeAnalyticsRow;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.service.CurrentUserService;
+import com.tradevault.service.DemoDataService;
+import com.tradevault.service.TradeVersionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the analytics and coach engines on a cache miss, without Spring or Postgres: the repository
+ * hands back a prebuilt row list, and every invocation starts from a fresh {@link AnalyticsDataset}, so the
+ * columnar build is part of the measured cost just as it is for a real request. {@link #summarizeSections}
+ * is the exception: it reuses one built snapshot, so it times the summary pass on its own. Journals come from
+ * {@link DemoDataService#syntheticTrade} and are identical between runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+    private static final LocalDate START_DATE = LocalDate.of(2022, 1, 3);
+    private static final int SPAN_DAYS = 1_459;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int trades;
+
+    private TradeRepository tradeRepository;
+    private User user;
+    private AnalyticsService analyticsService;
+    private TradeCoachService tradeCoachService;
+    private AnalyticsDataset snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = User.builder().id(new UUID(0, 1)).email("bench@example.com").timezone("Europe/Bucharest").build();
+        List<TradeAnalyticsRow> rows = new ArrayList<>(trades);
+        for (int i = 0; i < trades; i++) {
+            rows.add(TradeAnalyticsRow.from(DemoDataService.syntheticTrade(user, START_DATE, SPAN_DAYS, i)));
+        }
+        // Stub-only, so repeated calls do not pile up recorded invocations across iterations.
+        tradeRepository = Mockito.mock(TradeRepository.class, Mockito.withSettings().stubOnly());
+        when(tradeRepository.findAnalyticsRows(Mockito.any())).thenReturn(rows);
+        when(tradeRepository.findFilterOptionValues(Mockito.any())).thenReturn(List.of());
+        CurrentUserService currentUserService = Mockito.mock(CurrentUserService.class, Mockito.withSettings().stubOnly());
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+
+        AnalyticsCacheConfig cacheConfig = new AnalyticsCacheConfig();
+        cacheConfig.setEnabled(false);
+        AnalyticsResultCache cache = new AnalyticsResultCache(cacheConfig, new TradeVersionService(), new SimpleMeterRegistry());
+        AnalyticsSectionExecutor sections = new AnalyticsSectionExecutor(new AnalyticsParallelConfig(), new SimpleMeterRegistry());
+        AnalyticsMetrics metrics = new AnalyticsMetrics(new SimpleMeterRegistry());
+        analyticsService = new AnalyticsService(tradeRepository, currentUserService, cache, sections, metrics);
+        TradeCoachConfig coachConfig = new TradeCoachConfig();
+        coachConfig.setStoredAdvice(false);
+        tradeCoachService = new TradeCoachService(tradeRepository, currentUserService, coachConfig, cache, metrics, null);
+        snapshot = dataset();
+        snapshot.columns();
+    }
+
+    @Benchmark
+    public AnalyticsResponse summarize() {
+        return analyticsService.summarize(dataset(), false, null, false, null);
+    }
+
+    @Benchmark
+    public AnalyticsResponse summarizeSections() {
+        return analyticsService.summarize(snapshot, false, null, false, null);
+    }
+
+    @Benchmark
+    public AnalyticsTimeseriesResponse timeseries() {
+        return analyticsService.timeseries(dataset(), "day", null, null, null);
+    }
+
+    @Benchmark
+    public AnalyticsBreakdownResponse breakdown() {
+        return analyticsService.breakdown(dataset(), "symbol");
+    }
+
+    @Benchmark
+    public CoachResponse coach() {
+        return tradeCoachService.coach(dataset(), false, false);
+    }
+
+    private AnalyticsDataset dataset() {
+        return AnalyticsDataset.of(tradeRepository, user, null, null, null, null, null, null, null, null, null, "CLOSE");
+    }
+}
@@ -0,0 +1,123 @@
+package com.tradevault.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with a baseline one and exits with status 1 when any benchmark got slower, or
+ * allocates more per operation, by more than the allowed fraction. Benchmarks only present on one side are
+ * reported but never fail the run, and a missing baseline file is not an error, so a first run just
+ * records its result.
+ *
+ * <p>Usage: {@code BenchmarkComparison <result.json> <baseline.json> [maxRegression]}, where
+ * {@code maxRegression} defaults to 0.10.
+ */
+public final class BenchmarkComparison {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <result.json> <baseline.json> [maxRegression]");
+            System.exit(2);
+        }
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double maxRegression = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        if (!Files.exists(baseline)) {
+            System.out.println("No benchmark baseline at " + baseline + "; copy " + result + " there to start comparing.");
+            return;
+        }
+        List<String> regressions = compare(read(result), read(baseline), maxRegression);
+        if (!regressions.isEmpty()) {
+            System.out.println(regressions.size() + " benchmark regression(s) above " + percent(maxRegression) + ":");
+            regressions.forEach(line -> System.out.println("  " + line));
+            System.exit(1);
+        }
+        System.out.println("No benchmark regressed by more than " + percent(maxRegression) + ".");
+    }
+
+    static List<String> compare(Map<String, Score> current, Map<String, Score> baseline, double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        current.forEach((name, score) -> {
+            Score before = baseline.get(name);
+            if (before == null) {
+                System.out.println("new       " + name + "  " + score.describe());
+                return;
+            }
+            double timeChange = change(before.time(), score.time());
+            double allocationChange = change(before.allocation(), score.allocation());
+            System.out.printf(Locale.ROOT, "%-9s %s  %s -> %s (time %s, alloc %s)%n",
+                    timeChange > maxRegression || allocationChange > maxRegression ? "REGRESSED" : "ok",
+                    name, before.describe(), score.describe(), signed(timeChange), signed(allocationChange));
+            if (timeChange > maxRegression) {
+                regressions.add(name + " time " + signed(timeChange));
+            }
+            if (allocationChange > maxRegression) {
+                regressions.add(name + " allocation " + signed(allocationChange));
+            }
+        });
+        baseline.keySet().stream()
+                .filter(name -> !current.containsKey(name))
+                .forEach(name -> System.out.println("missing   " + name));
+        return regressions;
+    }
+
+    static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : MAPPER.readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String name = run.path("benchmark").asText() + (params.isEmpty() ? "" : params.toString());
+            JsonNode primary = run.path("primaryMetric");
+            double allocation = Double.NaN;
+            var secondary = run.path("secondaryMetrics").fields();
+            while (secondary.hasNext()) {
+                var metric = secondary.next();
+                if (metric.getKey().replace("·", "").equals(ALLOCATION_METRIC)) {
+                    allocation = metric.getValue().path("score").asDouble(Double.NaN);
+                }
+            }
+            scores.put(name, new Score(primary.path("score").asDouble(), primary.path("scoreUnit").asText(), allocation));
+        }
+        return scores;
+    }
+
+    /**
+     * Relative growth from {@code before} to {@code after}; 0 when either side was not measured.
+     */
+    private static double change(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before <= 0) {
+            return 0;
+        }
+        return (after - before) / before;
+    }
+
+    private static String signed(double fraction) {
+        return String.format(Locale.ROOT, "%+.1f%%", fraction * 100);
+    }
+
+    private static String percent(double fraction) {
+        return String.format(Locale.ROOT, "%.0f%%", fraction * 100);
+    }
+
+    record Score(double time, String unit, double allocation) {
+        String describe() {
+            String timed = String.format(Locale.ROOT, "%.3f %s", time, unit);
+            return Double.isNaN(allocation) ? timed : timed + String.format(Locale.ROOT, ", %.0f B/op", allocation);
+        }
+    }
+}
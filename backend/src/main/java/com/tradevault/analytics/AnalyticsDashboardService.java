@@ -0,0 +1,103 @@
+package com.tradevault.analytics;
+
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.AnalyticsBreakdownResponse;
+import com.tradevault.dto.analytics.AnalyticsDashboardResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers the analytics page in one request. Every requested section is computed from one shared
+ * {@link AnalyticsDataset}, so the trades are loaded at most once however many sections miss the cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsDashboardService {
+    static final Set<String> SECTIONS = Set.of("summary", "timeseries", "breakdown", "coach");
+    private static final int MAX_BREAKDOWNS = 8;
+
+    private final AnalyticsService analyticsService;
+    private final TradeCoachService tradeCoachService;
+
+    public AnalyticsDashboardResponse dashboard(OffsetDateTime from,
+                                                OffsetDateTime to,
+                                                String symbol,
+                                                Direction direction,
+                                                TradeStatus status,
+                                                String strategy,
+                                                String setup,
+                                                String catalyst,
+                                                String market,
+                                                String dateMode,
+                                                String sections,
+                                                String groupBy,
+                                                boolean excludeOutliers,
+                                                String holdingBucket,
+                                                boolean exact,
+                                                String bucket,
+                                                Integer rollingWindow,
+                                                String rollingWindows,
+                                                Integer maxPoints) {
+        Set<String> requested = parseSections(sections);
+        Set<String> dimensions = parseList(groupBy);
+        if (dimensions.size() > MAX_BREAKDOWNS) {
+            throw new IllegalArgumentException("At most " + MAX_BREAKDOWNS + " breakdown dimensions are supported");
+        }
+        AnalyticsDataset dataset = analyticsService.dataset(from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode);
+
+        AnalyticsDashboardResponse.AnalyticsDashboardResponseBuilder response = AnalyticsDashboardResponse.builder();
+        if (requested.contains("summary")) {
+            response.summary(analyticsService.summarize(dataset, excludeOutliers, holdingBucket, exact, maxPoints));
+        }
+        if (requested.contains("timeseries")) {
+            response.timeseries(analyticsService.timeseries(dataset, bucket, rollingWindow, rollingWindows, maxPoints));
+        }
+        if (requested.contains("breakdown")) {
+            Map<String, AnalyticsBreakdownResponse> breakdowns = new LinkedHashMap<>();
+            dimensions.forEach(dimension -> breakdowns.put(dimension, analyticsService.breakdown(dataset, dimension)));
+            response.breakdowns(breakdowns);
+        }
+        if (requested.contains("coach")) {
+            response.coach(tradeCoachService.coach(dataset, excludeOutliers, exact));
+        }
+        return response.build();
+    }
+
+    /**
+     * Parses a comma-separated section list; a missing list selects every section.
+     */
+    private Set<String> parseSections(String sections) {
+        Set<String> requested = parseList(sections);
+        if (requested.isEmpty()) {
+            return SECTIONS;
+        }
+        for (String section : requested) {
+            if (!SECTIONS.contains(section)) {
+                throw new IllegalArgumentException("Unknown dashboard section: " + section);
+            }
+        }
+        return requested;
+    }
+
+    private Set<String> parseList(String value) {
+        Set<String> values = new LinkedHashSet<>();
+        if (value == null || value.isBlank()) {
+            return values;
+        }
+        Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .map(item -> item.toLowerCase(Locale.ROOT))
+                .forEach(values::add);
+        return values;
+    }
+}
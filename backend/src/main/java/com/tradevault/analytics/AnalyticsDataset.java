@@ -0,0 +1,127 @@
+package com.tradevault.analytics;
+
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.domain.entity.User;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.DateMode;
+import com.tradevault.repository.TradeAnalyticsRow;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.repository.spec.TradeAnalyticsQuery;
+import com.tradevault.service.TimezoneService;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * The trades one analytics filter set selects for one user. Rows are read from the repository on first use
+ * only, so sections answered from the result cache never touch the database, and every other section
+ * computed from the same dataset shares a single load.
+ */
+public final class AnalyticsDataset {
+    private final TradeRepository tradeRepository;
+    private final User user;
+    private final OffsetDateTime from;
+    private final OffsetDateTime to;
+    private final String symbol;
+    private final Direction direction;
+    private final TradeStatus status;
+    private final String strategy;
+    private final String setup;
+    private final String catalyst;
+    private final String market;
+    private final String dateMode;
+    private List<TradeAnalyticsRow> rows;
+    private TradeColumns columns;
+
+    private AnalyticsDataset(TradeRepository tradeRepository, User user, OffsetDateTime from, OffsetDateTime to,
+                             String symbol, Direction direction, TradeStatus status, String strategy, String setup,
+                             String catalyst, String market, String dateMode) {
+        this.tradeRepository = tradeRepository;
+        this.user = user;
+        this.from = from;
+        this.to = to;
+        this.symbol = symbol;
+        this.direction = direction;
+        this.status = status;
+        this.strategy = strategy;
+        this.setup = setup;
+        this.catalyst = catalyst;
+        this.market = market;
+        this.dateMode = dateMode;
+    }
+
+    public static AnalyticsDataset of(TradeRepository tradeRepository,
+                                      User user,
+                                      OffsetDateTime from,
+                                      OffsetDateTime to,
+                                      String symbol,
+                                      Direction direction,
+                                      TradeStatus status,
+                                      String strategy,
+                                      String setup,
+                                      String catalyst,
+                                      String market,
+                                      String dateMode) {
+        return new AnalyticsDataset(tradeRepository, user, from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode);
+    }
+
+    public User user() {
+        return user;
+    }
+
+    /**
+     * The owner's profile zone, which local dates, hours and weekdays are grouped in.
+     */
+    public ZoneId zone() {
+        return TimezoneService.userZone(user);
+    }
+
+    public DateMode mode() {
+        return DateMode.fromString(dateMode);
+    }
+
+    /**
+     * Cache key for a result computed from this dataset with the given section-level options.
+     */
+    public AnalyticsFilterKey key(boolean excludeOutliers, String holdingBucket) {
+        return AnalyticsFilterKey.of(from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode, excludeOutliers, holdingBucket);
+    }
+
+    /**
+     * True when the dataset is the whole journal grouped by close time, with no filter applied.
+     */
+    public boolean isUnfiltered() {
+        return from == null && to == null && direction == null && status == null
+                && isBlank(symbol) && isBlank(strategy) && isBlank(setup) && isBlank(catalyst) && isBlank(market)
+                && mode() == DateMode.CLOSE;
+    }
+
+    public synchronized boolean rowsLoaded() {
+        return rows != null;
+    }
+
+    public synchronized boolean columnsBuilt() {
+        return columns != null;
+    }
+
+    public synchronized List<TradeAnalyticsRow> rows() {
+        if (rows == null) {
+            rows = List.copyOf(tradeRepository.findAnalyticsRows(
+                    TradeAnalyticsQuery.of(user.getId(), from, to, symbol, direction, status, strategy, setup, catalyst, market, mode())));
+        }
+        return rows;
+    }
+
+    public synchronized TradeColumns columns() {
+        if (columns == null) {
+            columns = TradeColumns.of(rows(), zone());
+        }
+        return columns;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
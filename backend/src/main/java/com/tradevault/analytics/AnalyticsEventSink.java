@@ -0,0 +1,18 @@
+package com.tradevault.analytics;
+
+import java.util.Map;
+
+/**
+ * Receives the sections of a streamed analytics response as they are computed. Every payload is keyed by
+ * the {@link com.tradevault.dto.analytics.AnalyticsResponse} fields it fills, so a client can merge the
+ * events into one response object.
+ */
+public interface AnalyticsEventSink {
+
+    void send(String event, Map<String, Object> data);
+
+    /**
+     * True once the client has gone away; the computation stops before its next section.
+     */
+    boolean isCancelled();
+}
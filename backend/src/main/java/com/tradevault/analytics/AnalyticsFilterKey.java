@@ -0,0 +1,71 @@
+package com.tradevault.analytics;
+
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.DateMode;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Normalized analytics filter tuple. Requests that select the same trades compare equal: instants ignore
+ * the offset they were sent with and comma lists ignore case, order, spacing and duplicates.
+ */
+public record AnalyticsFilterKey(Instant from,
+                                 Instant to,
+                                 String symbol,
+                                 Direction direction,
+                                 TradeStatus status,
+                                 String strategy,
+                                 String setup,
+                                 String catalyst,
+                                 String market,
+                                 DateMode dateMode,
+                                 boolean excludeOutliers,
+                                 String holdingBucket) {
+
+    public static AnalyticsFilterKey of(OffsetDateTime from,
+                                        OffsetDateTime to,
+                                        String symbol,
+                                        Direction direction,
+                                        TradeStatus status,
+                                        String strategy,
+                                        String setup,
+                                        String catalyst,
+                                        String market,
+                                        String dateMode,
+                                        boolean excludeOutliers,
+                                        String holdingBucket) {
+        return new AnalyticsFilterKey(
+                from == null ? null : from.toInstant(),
+                to == null ? null : to.toInstant(),
+                normalizeList(symbol),
+                direction,
+                status,
+                normalizeList(strategy),
+                normalizeList(setup),
+                normalizeList(catalyst),
+                normalizeList(market),
+                DateMode.fromString(dateMode),
+                excludeOutliers,
+                holdingBucket == null || holdingBucket.isBlank() ? null : holdingBucket
+        );
+    }
+
+    private static String normalizeList(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        // A list of only separators still filters everything out, so it must not collapse to "no filter".
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isBlank())
+                .map(s -> s.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,177 @@
+package com.tradevault.analytics;
+
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.AnalyticsBreakdownCubeResponse;
+import com.tradevault.dto.analytics.AnalyticsBreakdownResponse;
+import com.tradevault.dto.analytics.AnalyticsDashboardResponse;
+import com.tradevault.dto.analytics.AnalyticsResponse;
+import com.tradevault.dto.analytics.AnalyticsTimeseriesResponse;
+import com.tradevault.dto.analytics.AnalyticsWhatIfResponse;
+import com.tradevault.dto.analytics.CoachResponse;
+import com.tradevault.repository.TradeAnalyticsRow;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Stage-level meters for the analytics and coach engines, all tagged by {@code endpoint} and by a
+ * {@code trades} size bucket so a slow stage can be told apart per account size:
+ * <ul>
+ *     <li>{@code analytics.stage} times the load, columnar build, filter, advice builders and
+ *     serialization; sections are timed separately under {@code analytics.section}.</li>
+ *     <li>{@code analytics.rows} summarises rows loaded and rows used after filtering, and the
+ *     {@code analytics.rows.loaded} / {@code analytics.rows.used} gauges hold the latest of each.</li>
+ * </ul>
+ */
+@Component
+public class AnalyticsMetrics {
+    static final String STAGE_TIMER = "analytics.stage";
+    static final String ROWS_SUMMARY = "analytics.rows";
+    private static final String TRADES_ATTRIBUTE = AnalyticsMetrics.class.getName() + ".trades";
+    private static final Map<Class<?>, String> RESPONSE_ENDPOINTS = Map.of(
+            AnalyticsResponse.class, "summary",
+            AnalyticsTimeseriesResponse.class, "timeseries",
+            AnalyticsBreakdownResponse.class, "breakdown",
+            AnalyticsBreakdownCubeResponse.class, "breakdownCube",
+            AnalyticsDashboardResponse.class, "dashboard",
+            CoachResponse.class, "coach",
+            AnalyticsWhatIfResponse.class, "whatIf"
+    );
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> latestRows = new ConcurrentHashMap<>();
+
+    public AnalyticsMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Coarse size bucket for the {@code trades} tag, keeping its cardinality fixed.
+     */
+    public static String tradeBucket(int rows) {
+        if (rows < 1_000) return "lt1k";
+        if (rows < 10_000) return "1k-10k";
+        if (rows < 100_000) return "10k-100k";
+        if (rows < 1_000_000) return "100k-1m";
+        return "1m+";
+    }
+
+    /**
+     * The dataset's rows, timing the repository load under {@code load} when this call performs it.
+     */
+    public List<TradeAnalyticsRow> rows(String endpoint, AnalyticsDataset dataset) {
+        if (dataset.rowsLoaded()) {
+            return dataset.rows();
+        }
+        Timer.Sample load = start();
+        List<TradeAnalyticsRow> rows = dataset.rows();
+        stop(load, endpoint, "load", rows.size());
+        rememberTrades(rows.size());
+        return rows;
+    }
+
+    /**
+     * The dataset's columns, timing the load and the columnar build when this call performs them.
+     */
+    public TradeColumns columns(String endpoint, AnalyticsDataset dataset) {
+        int rows = rows(endpoint, dataset).size();
+        if (dataset.columnsBuilt()) {
+            return dataset.columns();
+        }
+        return time(endpoint, "columnar", rows, dataset::columns);
+    }
+
+    public <T> T time(String endpoint, String stage, int rows, Supplier<T> work) {
+        return stageTimer(endpoint, stage, rows).record(work);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, String endpoint, String stage, int rows) {
+        sample.stop(stageTimer(endpoint, stage, rows));
+    }
+
+    /**
+     * Records how many rows a computation was given and how many of them it used after its filters.
+     */
+    public void rowsUsed(String endpoint, int loaded, int used) {
+        recordRows(endpoint, "loaded", loaded);
+        recordRows(endpoint, "used", used);
+    }
+
+    /**
+     * Times the JSON write of an analytics response, tagged with the size of the journal the current request
+     * loaded. Other response types are written untimed.
+     */
+    public void recordSerialization(Object body, long nanos) {
+        String endpoint = body == null ? null : RESPONSE_ENDPOINTS.get(body.getClass());
+        if (endpoint == null) {
+            return;
+        }
+        Timer.builder(STAGE_TIMER)
+                .tag("endpoint", endpoint)
+                .tag("stage", "serialization")
+                .tag("trades", requestTrades())
+                .description("Time spent in one analytics stage")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer stageTimer(String endpoint, String stage, int rows) {
+        return Timer.builder(STAGE_TIMER)
+                .tag("endpoint", endpoint)
+                .tag("stage", stage)
+                .tag("trades", tradeBucket(rows))
+                .description("Time spent in one analytics stage")
+                .register(meterRegistry);
+    }
+
+    private void recordRows(String endpoint, String kind, int rows) {
+        DistributionSummary.builder(ROWS_SUMMARY)
+                .tag("endpoint", endpoint)
+                .tag("kind", kind)
+                .baseUnit("rows")
+                .description("Trade rows loaded, and used after filtering, per analytics computation")
+                .register(meterRegistry)
+                .record(rows);
+        latest(endpoint, kind).set(rows);
+    }
+
+    private AtomicLong latest(String endpoint, String kind) {
+        return latestRows.computeIfAbsent(endpoint + "|" + kind, ignored -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder(ROWS_SUMMARY + "." + kind, value, AtomicLong::get)
+                    .tag("endpoint", endpoint)
+                    .baseUnit("rows")
+                    .description("Rows " + kind + " by the latest analytics computation")
+                    .register(meterRegistry);
+            return value;
+        });
+    }
+
+    private static void rememberTrades(int rows) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(TRADES_ATTRIBUTE, tradeBucket(rows), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static String requestTrades() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Object trades = request == null ? null : request.getAttribute(TRADES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return trades == null ? "unknown" : trades.toString();
+    }
+}
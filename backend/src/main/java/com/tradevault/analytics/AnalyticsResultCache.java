@@ -0,0 +1,274 @@
+package com.tradevault.analytics;
+
+import com.tradevault.config.AnalyticsCacheConfig;
+import com.tradevault.dto.analytics.AnalyticsBreakdownCubeResponse;
+import com.tradevault.dto.analytics.AnalyticsBreakdownResponse;
+import com.tradevault.dto.analytics.AnalyticsResponse;
+import com.tradevault.dto.analytics.AnalyticsTimeseriesResponse;
+import com.tradevault.dto.analytics.AttributionSummary;
+import com.tradevault.dto.analytics.BreakdownCubeView;
+import com.tradevault.dto.analytics.CoachResponse;
+import com.tradevault.dto.analytics.FilterOptions;
+import com.tradevault.dto.analytics.RollingSeries;
+import com.tradevault.dto.analytics.TimeEdgeSummary;
+import com.tradevault.service.TradeVersionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of computed analytics responses. Entries are grouped per user and tagged with the user's
+ * trade version, so any trade write makes the user's cached results unreachable. Users are evicted least
+ * recently used first once the total entry count or total weight exceeds its bound; weight approximates
+ * the number of rows and points a response holds.
+ */
+@Component
+public class AnalyticsResultCache {
+    private static final String CACHE_NAME = "analytics";
+
+    private final AnalyticsCacheConfig config;
+    private final TradeVersionService tradeVersionService;
+    private final MeterRegistry meterRegistry;
+    private final Map<UUID, UserEntries> users = new LinkedHashMap<>(16, 0.75f, true);
+    private int totalEntries;
+    private long totalWeight;
+
+    public AnalyticsResultCache(AnalyticsCacheConfig config, TradeVersionService tradeVersionService, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.tradeVersionService = tradeVersionService;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("cache.size", this, AnalyticsResultCache::size)
+                .tag("cache", CACHE_NAME)
+                .description("Number of cached analytics responses")
+                .register(meterRegistry);
+        Gauge.builder("cache.weight", this, AnalyticsResultCache::weight)
+                .tag("cache", CACHE_NAME)
+                .description("Approximate rows and points held by cached analytics responses")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached response for the user, endpoint, filter and variant, computing and storing it on a
+     * miss. A result computed while the user's trades changed is returned but not stored.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID userId, String endpoint, AnalyticsFilterKey filter, Object variant, Supplier<T> loader) {
+        if (!config.isEnabled() || userId == null) {
+            return loader.get();
+        }
+        long version = tradeVersionService.currentVersion(userId);
+        EntryKey key = new EntryKey(endpoint, filter, variant);
+        Object cached = lookup(userId, version, key);
+        if (cached != null) {
+            count("cache.gets", "result", "hit", endpoint);
+            return (T) cached;
+        }
+        count("cache.gets", "result", "miss", endpoint);
+        T value = loader.get();
+        if (value != null) {
+            store(userId, version, key, value);
+        }
+        return value;
+    }
+
+    public synchronized int size() {
+        return totalEntries;
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    private synchronized Object lookup(UUID userId, long version, EntryKey key) {
+        UserEntries entries = users.get(userId);
+        if (entries == null) {
+            return null;
+        }
+        if (entries.version != version) {
+            if (entries.version < version) {
+                removeUser(userId, entries, "invalidated");
+            }
+            return null;
+        }
+        Entry entry = entries.values.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.values.remove(key);
+            release(entry, "expired");
+            if (entries.values.isEmpty()) {
+                users.remove(userId);
+            }
+            return null;
+        }
+        return entry.value;
+    }
+
+    private synchronized void store(UUID userId, long version, EntryKey key, Object value) {
+        long entryWeight = weigh(value);
+        if (entryWeight > config.getMaxWeight() || config.getMaxEntries() <= 0 || config.getMaxEntriesPerUser() <= 0) {
+            return;
+        }
+        UserEntries entries = users.get(userId);
+        if (entries != null && entries.version != version) {
+            if (entries.version > version) {
+                return;
+            }
+            removeUser(userId, entries, "invalidated");
+            entries = null;
+        }
+        if (entries == null) {
+            entries = new UserEntries(version);
+            users.put(userId, entries);
+        }
+        Entry previous = entries.values.put(key, new Entry(value, entryWeight, System.nanoTime()));
+        if (previous != null) {
+            totalEntries--;
+            totalWeight -= previous.weight;
+        }
+        totalEntries++;
+        totalWeight += entryWeight;
+
+        while (entries.values.size() > config.getMaxEntriesPerUser()) {
+            evictEldest(entries, "size");
+        }
+        while (!users.isEmpty() && (totalEntries > config.getMaxEntries() || totalWeight > config.getMaxWeight())) {
+            String cause = totalEntries > config.getMaxEntries() ? "size" : "weight";
+            Iterator<Map.Entry<UUID, UserEntries>> eldestUser = users.entrySet().iterator();
+            UserEntries eldest = eldestUser.next().getValue();
+            evictEldest(eldest, cause);
+            if (eldest.values.isEmpty()) {
+                eldestUser.remove();
+            }
+        }
+    }
+
+    private void evictEldest(UserEntries entries, String cause) {
+        Iterator<Entry> iterator = entries.values.values().iterator();
+        Entry eldest = iterator.next();
+        iterator.remove();
+        release(eldest, cause);
+    }
+
+    private void removeUser(UUID userId, UserEntries entries, String cause) {
+        users.remove(userId);
+        for (Entry entry : entries.values.values()) {
+            release(entry, cause);
+        }
+    }
+
+    private void release(Entry entry, String cause) {
+        totalEntries--;
+        totalWeight -= entry.weight;
+        count("cache.evictions", "cause", cause, null);
+    }
+
+    private boolean isExpired(Entry entry) {
+        Duration ttl = config.getTtl();
+        return ttl != null && !ttl.isZero() && !ttl.isNegative() && System.nanoTime() - entry.storedAtNanos > ttl.toNanos();
+    }
+
+    private void count(String name, String tagKey, String tagValue, String endpoint) {
+        Counter.Builder builder = Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tag(tagKey, tagValue);
+        if (endpoint != null) {
+            builder.tag("endpoint", endpoint);
+        }
+        builder.register(meterRegistry).increment();
+    }
+
+    static long weigh(Object value) {
+        if (value instanceof AnalyticsResponse response) {
+            return 1
+                    + size(response.getEquityCurve())
+                    + size(response.getGroupedPnl())
+                    + size(response.getDrawdownSeries())
+                    + size(response.getWeeklyPnl())
+                    + size(response.getRolling20())
+                    + size(response.getRolling50())
+                    + (response.getBreakdown() == null ? 0 : response.getBreakdown().size())
+                    + weigh(response.getTimeEdge())
+                    + weigh(response.getAttribution())
+                    + weigh(response.getFilterOptions());
+        }
+        if (value instanceof AnalyticsTimeseriesResponse response) {
+            return 1
+                    + size(response.getEquityCurve())
+                    + size(response.getGroupedPnl())
+                    + size(response.getDrawdownSeries())
+                    + size(response.getWeeklyPnl())
+                    + size(response.getRolling())
+                    + weighAll(response.getRollingWindows());
+        }
+        if (value instanceof AnalyticsBreakdownResponse response) {
+            return 1 + size(response.getRows());
+        }
+        if (value instanceof AnalyticsBreakdownCubeResponse response) {
+            return 1 + weighAll(response.getViews());
+        }
+        if (value instanceof BreakdownCubeView view) {
+            return 1 + size(view.getRows());
+        }
+        if (value instanceof CoachResponse response) {
+            return 1 + size(response.getAdvice());
+        }
+        if (value instanceof AnalyticsWhatIfService.WhatIfSnapshot snapshot) {
+            return 1 + snapshot.columns().size();
+        }
+        if (value instanceof RollingSeries series) {
+            return 1 + size(series.getPoints());
+        }
+        if (value instanceof TimeEdgeSummary timeEdge) {
+            return size(timeEdge.getHoldingBuckets()) + size(timeEdge.getDayOfWeek()) + size(timeEdge.getHourOfDay());
+        }
+        if (value instanceof AttributionSummary attribution) {
+            return size(attribution.getSymbols())
+                    + size(attribution.getStrategies())
+                    + size(attribution.getSetups())
+                    + size(attribution.getCatalysts())
+                    + size(attribution.getBottomSymbols())
+                    + size(attribution.getBottomTags());
+        }
+        if (value instanceof FilterOptions options) {
+            return size(options.getSymbols())
+                    + size(options.getStrategies())
+                    + size(options.getSetups())
+                    + size(options.getCatalysts());
+        }
+        return value == null ? 0 : 1;
+    }
+
+    private static long weighAll(Collection<?> values) {
+        return values == null ? 0 : values.stream().mapToLong(AnalyticsResultCache::weigh).sum();
+    }
+
+    private static int size(Collection<?> values) {
+        return values == null ? 0 : values.size();
+    }
+
+    private record EntryKey(String endpoint, AnalyticsFilterKey filter, Object variant) {
+    }
+
+    private record Entry(Object value, long weight, long storedAtNanos) {
+    }
+
+    private static final class UserEntries {
+        private final long version;
+        private final LinkedHashMap<EntryKey, Entry> values = new LinkedHashMap<>(16, 0.75f, true);
+
+        private UserEntries(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.tradevault.analytics;
+
+import com.tradevault.analytics.metrics.MetricAccumulator;
+import com.tradevault.analytics.metrics.MetricPass;
+import com.tradevault.config.AnalyticsParallelConfig;
+import com.tradevault.exception.AnalyticsTimeoutException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sections of an analytics response. A section owns its accumulators and a finisher
+ * that turns them into a result. Small inputs feed every accumulator from one pass on the request thread;
+ * inputs of at least {@code analytics.parallel.min-trades} rows, when enabled, give each section its own
+ * pass on a bounded fork-join pool. Each section is timed under {@code analytics.section}, tagged with the
+ * {@link AnalyticsMetrics#tradeBucket trade-count bucket} of its input.
+ */
+@Component
+public class AnalyticsSectionExecutor {
+    private static final String TIMER_NAME = "analytics.section";
+
+    private final AnalyticsParallelConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ForkJoinPool pool;
+
+    public AnalyticsSectionExecutor(AnalyticsParallelConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.pool = config.isEnabled() ? new ForkJoinPool(Math.max(1, config.getParallelism())) : null;
+    }
+
+    public Sections sections(String endpoint, int rowCount) {
+        return new Sections(endpoint, AnalyticsMetrics.tradeBucket(rowCount), pool != null && rowCount >= config.getMinTrades());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private Timer timer(String endpoint, String trades, String section, boolean parallel) {
+        return Timer.builder(TIMER_NAME)
+                .tag("endpoint", endpoint)
+                .tag("section", section)
+                .tag("mode", parallel ? "parallel" : "serial")
+                .tag("trades", trades)
+                .description("Time spent computing one analytics section")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The result of a section, available once {@link Sections#run(int[])} returns.
+     */
+    public static final class Section<T> {
+        private final String name;
+        private final Supplier<T> finisher;
+        private final MetricAccumulator<?>[] accumulators;
+        private T value;
+
+        private Section(String name, Supplier<T> finisher, MetricAccumulator<?>[] accumulators) {
+            this.name = name;
+            this.finisher = finisher;
+            this.accumulators = accumulators;
+        }
+
+        public T get() {
+            return value;
+        }
+    }
+
+    public final class Sections {
+        private final String endpoint;
+        private final String trades;
+        private final boolean parallel;
+        private final List<Section<?>> sections = new ArrayList<>();
+
+        private Sections(String endpoint, String trades, boolean parallel) {
+            this.endpoint = endpoint;
+            this.trades = trades;
+            this.parallel = parallel;
+        }
+
+        public boolean parallel() {
+            return parallel;
+        }
+
+        public <T> Section<T> add(String name, Supplier<T> finisher, MetricAccumulator<?>... accumulators) {
+            Section<T> section = new Section<>(name, finisher, accumulators);
+            sections.add(section);
+            return section;
+        }
+
+        /**
+         * Feeds the rows to every section and finishes them. A parallel section still running when its
+         * timeout elapses fails the request; the pool cannot interrupt it, so it runs on and its result is
+         * discarded.
+         */
+        public void run(int[] rows) {
+            if (parallel) {
+                runParallel(rows);
+                return;
+            }
+            List<MetricAccumulator<?>> all = new ArrayList<>();
+            sections.forEach(section -> all.addAll(List.of(section.accumulators)));
+            timer(endpoint, trades, "pass", false).record(() -> MetricPass.run(rows, all.toArray(MetricAccumulator<?>[]::new)));
+            sections.forEach(section -> finish(section, false));
+        }
+
+        /**
+         * Runs the sections one after another in the order they were added, each with its own pass, and
+         * hands every result to {@code listener} as soon as it is finished. Stops with a
+         * {@link CancellationException} before the next section once {@code cancelled} reports true.
+         */
+        public void stream(int[] rows, BiConsumer<String, Object> listener, BooleanSupplier cancelled) {
+            for (Section<?> section : sections) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Analytics stream cancelled before section '" + section.name + "'");
+                }
+                timer(endpoint, trades, section.name, false).record(() -> {
+                    MetricPass.run(rows, section.accumulators);
+                    complete(section);
+                });
+                listener.accept(section.name, section.value);
+            }
+        }
+
+        private void runParallel(int[] rows) {
+            List<Future<?>> futures = new ArrayList<>(sections.size());
+            for (Section<?> section : sections) {
+                futures.add(pool.submit(() -> {
+                    timer(endpoint, trades, section.name, true).record(() -> {
+                        MetricPass.run(rows, section.accumulators);
+                        complete(section);
+                    });
+                }));
+            }
+            long deadline = System.nanoTime() + config.getSectionTimeout().toNanos();
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    await(futures.get(i), sections.get(i).name, deadline);
+                }
+            } finally {
+                futures.forEach(future -> future.cancel(false));
+            }
+        }
+
+        private void await(Future<?> future, String section, long deadline) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                throw new AnalyticsTimeoutException("Analytics section '" + section + "' timed out");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AnalyticsTimeoutException("Interrupted while computing analytics section '" + section + "'");
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (ex.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+
+        private void finish(Section<?> section, boolean parallel) {
+            timer(endpoint, trades, section.name, parallel).record(() -> complete(section));
+        }
+
+        private <T> void complete(Section<T> section) {
+            section.value = section.finisher.get();
+        }
+    }
+}
@@ -1,24 +1,24 @@
 package com.tradevault.analytics;
 
-import com.tradevault.domain.entity.Trade;
+import com.tradevault.analytics.columnar.DecimalColumn;
+import com.tradevault.analytics.columnar.FixedPoint;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.analytics.metrics.*;
 import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.TradeStatus;
 import com.tradevault.dto.analytics.*;
 import com.tradevault.repository.TradeRepository;
 import com.tradevault.service.CurrentUserService;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.Duration;
-import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.WeekFields;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,8 +26,16 @@ import java.util.stream.Collectors;
 public class AnalyticsService {
     private final TradeRepository tradeRepository;
     private final CurrentUserService currentUserService;
-    private static final ZoneId DISPLAY_ZONE = ZoneId.of("Europe/Bucharest");
-    private static final int LOW_SAMPLE_THRESHOLD = 20;
+    private final AnalyticsResultCache analyticsResultCache;
+    private final AnalyticsSectionExecutor sectionExecutor;
+    private final AnalyticsMetrics analyticsMetrics;
+    private static final int MAX_ROLLING_WINDOWS = 8;
+    private static final int MAX_CUBE_VIEWS = 8;
+
+    /**
+     * Streamed summary events in the order they are sent, each with the response fields it carries.
+     */
+    public static final Map<String, Function<AnalyticsResponse, Map<String, Object>>> SUMMARY_EVENTS = summaryEvents();
 
     public AnalyticsResponse summarize(OffsetDateTime from,
                                        OffsetDateTime to,
@@ -40,61 +48,211 @@ public class AnalyticsService {
                                        String market,
                                        String dateMode,
                                        boolean excludeOutliers,
-                                       String holdingBucket) {
-        User user = currentUserService.getCurrentUser();
-        List<Trade> trades = tradeRepository.findByUserId(user.getId());
-        DateMode mode = DateMode.fromString(dateMode);
-        List<Trade> filtered = filterTrades(trades, from, to, symbol, direction, status, strategy, setup, catalyst, market, mode, holdingBucket);
-        FilterOptions filterOptions = buildFilterOptions(trades);
-
-        List<Trade> closedTrades = filtered.stream()
-                .filter(t -> t.getStatus() == TradeStatus.CLOSED && t.getClosedAt() != null)
-                .toList();
-        List<Trade> openTrades = filtered.stream()
-                .filter(t -> t.getStatus() == TradeStatus.OPEN)
-                .toList();
-
-        OutlierResult outlierResult = calculateOutliers(closedTrades);
-        List<Trade> closedForMetrics = excludeOutliers ? filterOutliers(closedTrades, outlierResult) : closedTrades;
-
-        KpiSummary kpi = buildKpi(closedForMetrics, openTrades.size(), closedTrades.size());
-        CostSummary costs = buildCosts(closedForMetrics);
-        DrawdownResult drawdownResult = buildDrawdown(closedForMetrics);
-        DistributionSummary distribution = buildDistribution(closedForMetrics, outlierResult);
-        List<TimeSeriesPoint> equity = drawdownResult.equityCurve;
-        List<TimeSeriesPoint> grouped = groupByDate(closedForMetrics, mode);
-        List<TimeSeriesPoint> weekly = groupByWeek(closedForMetrics, mode);
-        ConsistencySummary consistency = buildConsistency(closedForMetrics, grouped, weekly);
-        TimeEdgeSummary timeEdge = buildTimeEdge(closedForMetrics, mode);
-        AttributionSummary attribution = buildAttribution(closedForMetrics);
-        RiskSummary risk = buildRisk(closedForMetrics);
-        DataQualitySummary dataQuality = buildDataQuality(filtered);
-        TraderReadSummary traderRead = buildTraderRead(attribution, timeEdge, drawdownResult, kpi, closedForMetrics.size());
-
-        Map<String, Double> breakdown = closedForMetrics.stream().collect(Collectors.groupingBy(
-                t -> Optional.ofNullable(t.getStrategyTag()).filter(s -> !s.isBlank()).orElse("Unspecified"),
-                Collectors.summingDouble(t -> t.getPnlNet() == null ? 0 : t.getPnlNet().doubleValue())));
-
-        return AnalyticsResponse.builder()
+                                       String holdingBucket,
+                                       boolean exact) {
+        return summarize(from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode, excludeOutliers, holdingBucket, exact, null);
+    }
+
+    public AnalyticsResponse summarize(OffsetDateTime from,
+                                       OffsetDateTime to,
+                                       String symbol,
+                                       Direction direction,
+                                       TradeStatus status,
+                                       String strategy,
+                                       String setup,
+                                       String catalyst,
+                                       String market,
+                                       String dateMode,
+                                       boolean excludeOutliers,
+                                       String holdingBucket,
+                                       boolean exact,
+                                       Integer maxPoints) {
+        return summarize(dataset(from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode), excludeOutliers, holdingBucket, exact, maxPoints);
+    }
+
+    /**
+     * Summary of an already selected dataset; used by the dashboard so every section shares one load.
+     * {@code maxPoints} caps the equity, drawdown and rolling series; null keeps one point per trade.
+     */
+    public AnalyticsResponse summarize(AnalyticsDataset dataset, boolean excludeOutliers, String holdingBucket, boolean exact, Integer maxPoints) {
+        AnalyticsFilterKey key = dataset.key(excludeOutliers, holdingBucket);
+        int points = resolveMaxPoints(maxPoints);
+        return analyticsResultCache.get(dataset.user().getId(), "summary", key, List.of(exact, points),
+                () -> computeSummary(dataset, excludeOutliers, holdingBucket, exact, points, null));
+    }
+
+    /**
+     * The summary sent to {@code sink} one section at a time, cheapest first, in the order of
+     * {@link #SUMMARY_EVENTS}. A cached summary is replayed at once; a computed one is cached like
+     * {@link #summarize(AnalyticsDataset, boolean, String, boolean, Integer)} would.
+     */
+    public AnalyticsResponse summarizeStreaming(AnalyticsDataset dataset,
+                                                boolean excludeOutliers,
+                                                String holdingBucket,
+                                                boolean exact,
+                                                Integer maxPoints,
+                                                AnalyticsEventSink sink) {
+        AnalyticsFilterKey key = dataset.key(excludeOutliers, holdingBucket);
+        int points = resolveMaxPoints(maxPoints);
+        boolean[] computed = {false};
+        AnalyticsResponse response = analyticsResultCache.get(dataset.user().getId(), "summary", key, List.of(exact, points), () -> {
+            computed[0] = true;
+            return computeSummary(dataset, excludeOutliers, holdingBucket, exact, points, sink);
+        });
+        if (!computed[0]) {
+            SUMMARY_EVENTS.forEach((event, fields) -> sink.send(event, fields.apply(response)));
+        }
+        return response;
+    }
+
+    private AnalyticsResponse computeSummary(AnalyticsDataset dataset,
+                                             boolean excludeOutliers,
+                                             String holdingBucket,
+                                             boolean exact,
+                                             int maxPoints,
+                                             AnalyticsEventSink sink) {
+        DateMode mode = dataset.mode();
+        TradeColumns columns = analyticsMetrics.columns("summary", dataset);
+        FilterOptions filterOptions = analyticsMetrics.time("summary", "filterOptions", columns.size(), () -> loadFilterOptions(dataset.user()));
+
+        Timer.Sample filter = analyticsMetrics.start();
+        int[] filtered = filterByHoldingBucket(columns, holdingBucket);
+        int[] closedRows = closedRows(columns, filtered);
+        int openTrades = countStatus(columns, filtered, TradeStatus.OPEN);
+
+        OutlierResult outlierResult = calculateOutliers(columns, closedRows, exact);
+        int[] closedForMetrics = excludeOutliers ? filterOutliers(columns, closedRows, outlierResult) : closedRows;
+        int[] chronological = columns.inCloseOrder(closedForMetrics);
+        analyticsMetrics.stop(filter, "summary", "filter", columns.size());
+        analyticsMetrics.rowsUsed("summary", columns.size(), chronological.length);
+
+        ValueDistribution pnlOrder = ValueDistribution.of(columns.pnlNet(), chronological.length, false, exact);
+        KpiAccumulator kpiAccumulator = new KpiAccumulator(columns, pnlOrder, openTrades, closedRows.length);
+        CostAccumulator costAccumulator = new CostAccumulator(columns);
+        DrawdownAccumulator drawdownAccumulator = new DrawdownAccumulator(columns, chronological.length, maxPoints);
+        PeriodPnlAccumulator dailyAccumulator = new PeriodPnlAccumulator(columns, mode, false, chronological.length);
+        PeriodPnlAccumulator weeklyAccumulator = new PeriodPnlAccumulator(columns, mode, true, chronological.length);
+        StreakAccumulator streakAccumulator = new StreakAccumulator(columns);
+        TimeEdgeAccumulator timeEdgeAccumulator = new TimeEdgeAccumulator(columns, mode, chronological.length);
+        AttributionAccumulator attributionAccumulator = new AttributionAccumulator(columns);
+        RiskAccumulator riskAccumulator = new RiskAccumulator(columns, chronological.length, exact);
+        StrategyPnlAccumulator strategyPnlAccumulator = new StrategyPnlAccumulator(columns);
+        RollingAccumulator rollingAccumulator = new RollingAccumulator(columns, chronological.length, new int[]{20, 50}, maxPoints, false);
+
+        AnalyticsSectionExecutor.Sections sections = sectionExecutor.sections("summary", chronological.length);
+        var kpiSection = sections.add("kpi",
+                () -> new PnlSections(kpiAccumulator.finish(), buildDistribution(pnlOrder.finish(), outlierResult)),
+                pnlOrder, kpiAccumulator);
+        var costSection = sections.add("costs", costAccumulator::finish, costAccumulator);
+        var drawdownSection = sections.add("drawdown", drawdownAccumulator::finish, drawdownAccumulator);
+        var periodSection = sections.add("consistency", () -> {
+            List<TimeSeriesPoint> daily = dailyAccumulator.finish();
+            List<TimeSeriesPoint> weekly = weeklyAccumulator.finish();
+            return new PeriodSections(daily, weekly, buildConsistency(daily, weekly, streakAccumulator.finish()));
+        }, dailyAccumulator, weeklyAccumulator, streakAccumulator);
+        var timeEdgeSection = sections.add("timeEdge", timeEdgeAccumulator::finish, timeEdgeAccumulator);
+        var attributionSection = sections.add("attribution", attributionAccumulator::finish, attributionAccumulator);
+        var riskSection = sections.add("risk", riskAccumulator::finish, riskAccumulator);
+        var breakdownSection = sections.add("breakdown", strategyPnlAccumulator::finish, strategyPnlAccumulator);
+        var dataQualitySection = sections.add("dataQuality", () -> buildDataQuality(columns, filtered));
+        var rollingSection = sections.add("rolling", rollingAccumulator::finish, rollingAccumulator);
+        if (sink == null) {
+            sections.run(chronological);
+        } else {
+            sections.stream(chronological, (name, value) -> sendSection(sink, name, value), sink::isCancelled);
+        }
+
+        KpiSummary kpi = kpiSection.get().kpi();
+        DrawdownResult drawdownResult = drawdownSection.get();
+        PeriodSections periods = periodSection.get();
+        TimeEdgeSummary timeEdge = timeEdgeSection.get();
+        AttributionSummary attribution = attributionSection.get();
+        List<RollingSeries> rolling = rollingSection.get();
+
+        AnalyticsResponse response = AnalyticsResponse.builder()
                 .kpi(kpi)
-                .costs(costs)
-                .drawdown(drawdownResult.summary)
-                .distribution(distribution)
-                .consistency(consistency)
+                .costs(costSection.get())
+                .drawdown(drawdownResult.summary())
+                .distribution(kpiSection.get().distribution())
+                .consistency(periods.consistency())
                 .timeEdge(timeEdge)
                 .attribution(attribution)
-                .risk(risk)
-                .dataQuality(dataQuality)
-                .traderRead(traderRead)
+                .risk(riskSection.get())
+                .dataQuality(dataQualitySection.get())
+                .traderRead(buildTraderRead(attribution, timeEdge, drawdownResult, kpi, closedForMetrics.length))
                 .filterOptions(filterOptions)
-                .equityCurve(equity)
-                .groupedPnl(grouped)
-                .drawdownSeries(drawdownResult.drawdownSeries)
-                .weeklyPnl(weekly)
-                .rolling20(buildRolling(closedForMetrics, 20))
-                .rolling50(buildRolling(closedForMetrics, 50))
-                .breakdown(breakdown)
+                .equityCurve(drawdownResult.equityCurve())
+                .groupedPnl(periods.daily())
+                .drawdownSeries(drawdownResult.drawdownSeries())
+                .weeklyPnl(periods.weekly())
+                .rolling20(RollingAccumulator.points(rolling, 20))
+                .rolling50(RollingAccumulator.points(rolling, 50))
+                .breakdown(breakdownSection.get())
                 .build();
+        if (sink != null) {
+            for (String event : List.of("distribution", "traderRead", "filterOptions")) {
+                sink.send(event, SUMMARY_EVENTS.get(event).apply(response));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Streams a finished summary section. The distribution is finished with the KPIs, which need its
+     * median, but is sent after the cheaper sections together with the parts built from several sections.
+     */
+    private void sendSection(AnalyticsEventSink sink, String section, Object value) {
+        AnalyticsResponse.AnalyticsResponseBuilder partial = AnalyticsResponse.builder();
+        String event = switch (section) {
+            case "kpi" -> {
+                partial.kpi(((PnlSections) value).kpi());
+                yield "kpi";
+            }
+            case "costs" -> {
+                partial.costs((CostSummary) value);
+                yield "costs";
+            }
+            case "drawdown" -> {
+                DrawdownResult drawdown = (DrawdownResult) value;
+                partial.drawdown(drawdown.summary()).equityCurve(drawdown.equityCurve()).drawdownSeries(drawdown.drawdownSeries());
+                yield "equity";
+            }
+            case "consistency" -> {
+                PeriodSections periods = (PeriodSections) value;
+                partial.consistency(periods.consistency()).groupedPnl(periods.daily()).weeklyPnl(periods.weekly());
+                yield "consistency";
+            }
+            case "timeEdge" -> {
+                partial.timeEdge((TimeEdgeSummary) value);
+                yield "timeEdge";
+            }
+            case "attribution" -> {
+                partial.attribution((AttributionSummary) value);
+                yield "attribution";
+            }
+            case "risk" -> {
+                partial.risk((RiskSummary) value);
+                yield "risk";
+            }
+            case "breakdown" -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Double> breakdown = (Map<String, Double>) value;
+                partial.breakdown(breakdown);
+                yield "breakdown";
+            }
+            case "dataQuality" -> {
+                partial.dataQuality((DataQualitySummary) value);
+                yield "dataQuality";
+            }
+            case "rolling" -> {
+                @SuppressWarnings("unchecked")
+                List<RollingSeries> rolling = (List<RollingSeries>) value;
+                partial.rolling20(RollingAccumulator.points(rolling, 20)).rolling50(RollingAccumulator.points(rolling, 50));
+                yield "rolling";
+            }
+            default -> throw new IllegalStateException("Unknown summary section: " + section);
+        };
+        sink.send(event, SUMMARY_EVENTS.get(event).apply(partial.build()));
     }
 
     public AnalyticsTimeseriesResponse timeseries(OffsetDateTime from,
@@ -108,24 +266,77 @@ public class AnalyticsService {
                                                   String market,
                                                   String dateMode,
                                                   String bucket,
-                                                  Integer rollingWindow) {
-        User user = currentUserService.getCurrentUser();
-        List<Trade> trades = tradeRepository.findByUserId(user.getId());
-        DateMode mode = DateMode.fromString(dateMode);
-        List<Trade> filtered = filterTrades(trades, from, to, symbol, direction, status, strategy, setup, catalyst, market, mode, null);
-        List<Trade> closedTrades = filtered.stream()
-                .filter(t -> t.getStatus() == TradeStatus.CLOSED && t.getClosedAt() != null)
-                .toList();
-        DrawdownResult drawdown = buildDrawdown(closedTrades);
-        List<TimeSeriesPoint> grouped = "week".equalsIgnoreCase(bucket) ? groupByWeek(closedTrades, mode) : groupByDate(closedTrades, mode);
-        List<RollingMetricPoint> rolling = rollingWindow == null ? List.of() : buildRolling(closedTrades, rollingWindow);
+                                                  Integer rollingWindow,
+                                                  String rollingWindows) {
+        return timeseries(from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode, bucket, rollingWindow, rollingWindows, null);
+    }
 
+    public AnalyticsTimeseriesResponse timeseries(OffsetDateTime from,
+                                                  OffsetDateTime to,
+                                                  String symbol,
+                                                  Direction direction,
+                                                  TradeStatus status,
+                                                  String strategy,
+                                                  String setup,
+                                                  String catalyst,
+                                                  String market,
+                                                  String dateMode,
+                                                  String bucket,
+                                                  Integer rollingWindow,
+                                                  String rollingWindows,
+                                                  Integer maxPoints) {
+        return timeseries(dataset(from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode), bucket, rollingWindow, rollingWindows, maxPoints);
+    }
+
+    public AnalyticsTimeseriesResponse timeseries(AnalyticsDataset dataset, String bucket, Integer rollingWindow, String rollingWindows, Integer maxPoints) {
+        AnalyticsFilterKey key = dataset.key(false, null);
+        int[] windows = parseRollingWindows(rollingWindows);
+        int points = resolveMaxPoints(maxPoints);
+        List<Object> variant = Arrays.asList("week".equalsIgnoreCase(bucket), rollingWindow, Arrays.toString(windows), points);
+        return analyticsResultCache.get(dataset.user().getId(), "timeseries", key, variant,
+                () -> computeTimeseries(dataset, bucket, rollingWindow, windows, points));
+    }
+
+    private AnalyticsTimeseriesResponse computeTimeseries(AnalyticsDataset dataset,
+                                                          String bucket,
+                                                          Integer rollingWindow,
+                                                          int[] rollingWindows,
+                                                          int maxPoints) {
+        DateMode mode = dataset.mode();
+        TradeColumns columns = analyticsMetrics.columns("timeseries", dataset);
+        Timer.Sample filter = analyticsMetrics.start();
+        int[] filtered = filterByHoldingBucket(columns, null);
+        int[] closedRows = closedRows(columns, filtered);
+        int[] chronological = columns.inCloseOrder(closedRows);
+        analyticsMetrics.stop(filter, "timeseries", "filter", columns.size());
+        analyticsMetrics.rowsUsed("timeseries", columns.size(), chronological.length);
+
+        DrawdownAccumulator drawdownAccumulator = new DrawdownAccumulator(columns, chronological.length, maxPoints);
+        PeriodPnlAccumulator dailyAccumulator = new PeriodPnlAccumulator(columns, mode, false, chronological.length);
+        PeriodPnlAccumulator weeklyAccumulator = new PeriodPnlAccumulator(columns, mode, true, chronological.length);
+        // Only the explicitly requested windows pay for the windowed median; `rolling` keeps its old shape.
+        RollingAccumulator rollingAccumulator = new RollingAccumulator(columns, chronological.length,
+                rollingWindow == null ? new int[0] : new int[]{rollingWindow}, maxPoints, false);
+        RollingAccumulator windowsAccumulator = new RollingAccumulator(columns, chronological.length, rollingWindows, maxPoints, true);
+        boolean week = "week".equalsIgnoreCase(bucket);
+        AnalyticsSectionExecutor.Sections sections = sectionExecutor.sections("timeseries", chronological.length);
+        var drawdownSection = sections.add("drawdown", drawdownAccumulator::finish, drawdownAccumulator);
+        var weeklySection = sections.add("weekly", weeklyAccumulator::finish, weeklyAccumulator);
+        var dailySection = week ? null : sections.add("daily", dailyAccumulator::finish, dailyAccumulator);
+        var rollingSection = sections.add("rolling", rollingAccumulator::finish, rollingAccumulator);
+        var windowsSection = sections.add("rollingWindows", windowsAccumulator::finish, windowsAccumulator);
+        sections.run(chronological);
+
+        DrawdownResult drawdown = drawdownSection.get();
+        List<TimeSeriesPoint> weekly = weeklySection.get();
+        List<RollingSeries> rolling = rollingSection.get();
         return AnalyticsTimeseriesResponse.builder()
-                .equityCurve(drawdown.equityCurve)
-                .groupedPnl(grouped)
-                .drawdownSeries(drawdown.drawdownSeries)
-                .weeklyPnl(groupByWeek(closedTrades, mode))
-                .rolling(rolling)
+                .equityCurve(drawdown.equityCurve())
+                .groupedPnl(week ? weekly : dailySection.get())
+                .drawdownSeries(drawdown.drawdownSeries())
+                .weeklyPnl(weekly)
+                .rolling(rollingWindow == null ? List.of() : RollingAccumulator.points(rolling, rollingWindow))
+                .rollingWindows(windowsSection.get())
                 .build();
     }
 
@@ -140,296 +351,253 @@ public class AnalyticsService {
                                                 String market,
                                                 String dateMode,
                                                 String groupBy) {
-        User user = currentUserService.getCurrentUser();
-        List<Trade> trades = tradeRepository.findByUserId(user.getId());
-        DateMode mode = DateMode.fromString(dateMode);
-        List<Trade> filtered = filterTrades(trades, from, to, symbol, direction, status, strategy, setup, catalyst, market, mode, null);
-        List<Trade> closedTrades = filtered.stream()
-                .filter(t -> t.getStatus() == TradeStatus.CLOSED && t.getClosedAt() != null)
-                .toList();
-
-        List<BreakdownRow> rows = switch (String.valueOf(groupBy).toLowerCase(Locale.ROOT)) {
-            case "symbol" -> buildBreakdown(closedTrades, Trade::getSymbol);
-            case "strategy" -> buildBreakdown(closedTrades, Trade::getStrategyTag);
-            case "setup" -> buildBreakdown(closedTrades, Trade::getSetup);
-            case "catalyst" -> buildBreakdown(closedTrades, Trade::getCatalystTag);
-            case "dow" -> buildBreakdownByDayOfWeek(closedTrades, mode);
-            case "hour" -> buildBreakdownByHour(closedTrades, mode);
-            case "holdingbucket" -> buildBreakdownByHoldingBucket(closedTrades);
+        return breakdown(dataset(from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode), groupBy);
+    }
+
+    public AnalyticsBreakdownResponse breakdown(AnalyticsDataset dataset, String groupBy) {
+        AnalyticsFilterKey key = dataset.key(false, null);
+        String dimension = String.valueOf(groupBy).toLowerCase(Locale.ROOT);
+        return analyticsResultCache.get(dataset.user().getId(), "breakdown", key, dimension,
+                () -> computeBreakdown(dataset, dimension));
+    }
+
+    private AnalyticsBreakdownResponse computeBreakdown(AnalyticsDataset dataset, String dimension) {
+        DateMode mode = dataset.mode();
+        TradeColumns columns = analyticsMetrics.columns("breakdown", dataset);
+        int[] closedRows = analyticsMetrics.time("breakdown", "filter", columns.size(),
+                () -> closedRows(columns, filterByHoldingBucket(columns, null)));
+        analyticsMetrics.rowsUsed("breakdown", columns.size(), closedRows.length);
+
+        List<BreakdownRow> rows = analyticsMetrics.time("breakdown", "group", columns.size(), () -> switch (dimension) {
+            case "symbol" -> breakdownRows(closedRows, new BreakdownAccumulator(columns, columns.symbol()));
+            case "strategy" -> breakdownRows(closedRows, new BreakdownAccumulator(columns, columns.strategy()));
+            case "setup" -> breakdownRows(closedRows, new BreakdownAccumulator(columns, columns.setup()));
+            case "catalyst" -> breakdownRows(closedRows, new BreakdownAccumulator(columns, columns.catalyst()));
+            case "dow" -> bucketRows(closedRows, BucketAccumulator.dayOfWeek(columns, mode));
+            case "hour" -> bucketRows(closedRows, BucketAccumulator.hourOfDay(columns, mode));
+            case "holdingbucket" -> bucketRows(closedRows, BucketAccumulator.holdingTime(columns));
             default -> List.of();
-        };
+        });
 
         return AnalyticsBreakdownResponse.builder().rows(rows).build();
     }
 
-    private List<Trade> filterTrades(List<Trade> trades,
-                                     OffsetDateTime from,
-                                     OffsetDateTime to,
-                                     String symbol,
-                                     Direction direction,
-                                     TradeStatus status,
-                                     String strategy,
-                                     String setup,
-                                     String catalyst,
-                                     String market,
-                                     DateMode mode,
-                                     String holdingBucket) {
-        List<Trade> filtered = trades;
-        if (symbol != null && !symbol.isBlank()) {
-            Set<String> symbols = parseFilterValues(symbol);
-            filtered = filtered.stream().filter(t -> t.getSymbol() != null && symbols.contains(t.getSymbol().toLowerCase(Locale.ROOT))).toList();
-        }
-        if (direction != null) {
-            filtered = filtered.stream().filter(t -> t.getDirection() == direction).toList();
-        }
-        if (market != null && !market.isBlank()) {
-            Set<String> markets = parseFilterValues(market);
-            filtered = filtered.stream().filter(t -> t.getMarket() != null && markets.contains(t.getMarket().name().toLowerCase(Locale.ROOT))).toList();
-        }
-        if (status != null) {
-            filtered = filtered.stream().filter(t -> t.getStatus() == status).toList();
-        }
-        if (strategy != null && !strategy.isBlank()) {
-            Set<String> strategies = parseFilterValues(strategy);
-            filtered = filtered.stream().filter(t -> t.getStrategyTag() != null && strategies.contains(t.getStrategyTag().toLowerCase(Locale.ROOT))).toList();
+    public AnalyticsBreakdownCubeResponse breakdownCube(OffsetDateTime from,
+                                                        OffsetDateTime to,
+                                                        String symbol,
+                                                        Direction direction,
+                                                        TradeStatus status,
+                                                        String strategy,
+                                                        String setup,
+                                                        String catalyst,
+                                                        String market,
+                                                        String dateMode,
+                                                        String dimensions,
+                                                        int topK) {
+        return breakdownCube(dataset(from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode), dimensions, topK);
+    }
+
+    /**
+     * Several breakdowns from one pass over the closed trades. {@code dimensions} is a comma-separated list
+     * of views, each a {@code groupBy} name or two joined by {@code :} for a cross, such as
+     * {@code symbol,strategy:hour}. Each view keeps its best {@code topK} groups; 0 keeps all of them.
+     */
+    public AnalyticsBreakdownCubeResponse breakdownCube(AnalyticsDataset dataset, String dimensions, int topK) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("topK must not be negative");
+        }
+        List<List<String>> views = parseCubeViews(dimensions);
+        String variant = views.stream().map(view -> String.join(":", view)).collect(Collectors.joining(",")) + "|" + topK;
+        return analyticsResultCache.get(dataset.user().getId(), "breakdownCube", dataset.key(false, null), variant,
+                () -> computeBreakdownCube(dataset, views, topK));
+    }
+
+    private AnalyticsBreakdownCubeResponse computeBreakdownCube(AnalyticsDataset dataset, List<List<String>> views, int topK) {
+        DateMode mode = dataset.mode();
+        TradeColumns columns = analyticsMetrics.columns("breakdownCube", dataset);
+        int[] closedRows = analyticsMetrics.time("breakdownCube", "filter", columns.size(),
+                () -> closedRows(columns, filterByHoldingBucket(columns, null)));
+        analyticsMetrics.rowsUsed("breakdownCube", columns.size(), closedRows.length);
+        BreakdownCubeAccumulator[] accumulators = views.stream()
+                .map(view -> new BreakdownCubeAccumulator(columns,
+                        view.stream().map(name -> BreakdownDimension.of(name, columns, mode)).toList(), topK))
+                .toArray(BreakdownCubeAccumulator[]::new);
+        Timer.Sample cube = analyticsMetrics.start();
+        MetricPass.run(closedRows, accumulators);
+        analyticsMetrics.stop(cube, "breakdownCube", "cube", columns.size());
+        return AnalyticsBreakdownCubeResponse.builder()
+                .views(Arrays.stream(accumulators).map(BreakdownCubeAccumulator::finish).toList())
+                .build();
+    }
+
+    private List<List<String>> parseCubeViews(String dimensions) {
+        if (dimensions == null || dimensions.isBlank()) {
+            throw new IllegalArgumentException("dimensions must name at least one breakdown view");
         }
-        if (setup != null && !setup.isBlank()) {
-            Set<String> setups = parseFilterValues(setup);
-            filtered = filtered.stream().filter(t -> t.getSetup() != null && setups.contains(t.getSetup().toLowerCase(Locale.ROOT))).toList();
+        List<List<String>> views = new ArrayList<>();
+        for (String view : dimensions.split(",")) {
+            if (view.isBlank()) {
+                continue;
+            }
+            List<String> names = Arrays.stream(view.split(":"))
+                    .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                    .toList();
+            if (names.size() > 2 || !BreakdownDimension.NAMES.containsAll(names)) {
+                throw new IllegalArgumentException("Invalid breakdown view: " + view.trim());
+            }
+            if (!views.contains(names)) {
+                views.add(names);
+            }
         }
-        if (catalyst != null && !catalyst.isBlank()) {
-            Set<String> catalysts = parseFilterValues(catalyst);
-            filtered = filtered.stream().filter(t -> t.getCatalystTag() != null && catalysts.contains(t.getCatalystTag().toLowerCase(Locale.ROOT))).toList();
+        if (views.isEmpty() || views.size() > MAX_CUBE_VIEWS) {
+            throw new IllegalArgumentException("dimensions must name between 1 and " + MAX_CUBE_VIEWS + " breakdown views");
+        }
+        return views;
+    }
+
+    /**
+     * 0 (one point per trade) when absent; otherwise at least {@link SeriesDownsampler#MIN_POINTS}.
+     */
+    private int resolveMaxPoints(Integer maxPoints) {
+        if (maxPoints == null) {
+            return 0;
+        }
+        if (maxPoints < SeriesDownsampler.MIN_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be at least " + SeriesDownsampler.MIN_POINTS);
+        }
+        return maxPoints;
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code 20,50,200} into distinct ascending window sizes.
+     */
+    private int[] parseRollingWindows(String rollingWindows) {
+        if (rollingWindows == null || rollingWindows.isBlank()) return new int[0];
+        int[] windows;
+        try {
+            windows = Arrays.stream(rollingWindows.split(","))
+                    .map(String::trim)
+                    .filter(value -> !value.isEmpty())
+                    .mapToInt(Integer::parseInt)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("rollingWindows must be a comma-separated list of trade counts");
+        }
+        if (windows.length > MAX_ROLLING_WINDOWS) {
+            throw new IllegalArgumentException("At most " + MAX_ROLLING_WINDOWS + " rolling windows can be requested");
+        }
+        if (windows.length > 0 && windows[0] < 1) {
+            throw new IllegalArgumentException("Rolling windows must be at least 1 trade");
+        }
+        return windows;
+    }
+
+    /**
+     * The current user's trades matching the filters, loaded on first use.
+     */
+    public AnalyticsDataset dataset(OffsetDateTime from,
+                                    OffsetDateTime to,
+                                    String symbol,
+                                    Direction direction,
+                                    TradeStatus status,
+                                    String strategy,
+                                    String setup,
+                                    String catalyst,
+                                    String market,
+                                    String dateMode) {
+        return AnalyticsDataset.of(tradeRepository, currentUserService.getCurrentUser(),
+                from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode);
+    }
+
+    /**
+     * The remaining filters run in SQL; the holding bucket depends on both timestamps, so it is applied here.
+     */
+    private int[] filterByHoldingBucket(TradeColumns columns, String holdingBucket) {
+        boolean holdingFilter = holdingBucket != null && !holdingBucket.isBlank();
+        int holdingIndex = holdingFilter ? TradeColumns.holdingBucketIndex(holdingBucket) : TradeColumns.NO_CODE;
+        int[] selected = new int[columns.size()];
+        int count = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            if (holdingFilter && (holdingIndex == TradeColumns.NO_CODE || columns.holdingBucket(row) != holdingIndex)) continue;
+            selected[count++] = row;
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private int[] closedRows(TradeColumns columns, int[] rows) {
+        int[] closed = new int[rows.length];
+        int count = 0;
+        for (int row : rows) {
+            if (columns.hasStatus(row, TradeStatus.CLOSED) && !columns.isClosedAtMissing(row)) {
+                closed[count++] = row;
+            }
         }
-        if (from != null || to != null) {
-            filtered = filtered.stream().filter(t -> {
-                OffsetDateTime time = getEventTime(t, mode);
-                if (time == null) return false;
-                boolean afterFrom = from == null || !time.isBefore(from);
-                boolean beforeTo = to == null || !time.isAfter(to);
-                return afterFrom && beforeTo;
-            }).toList();
+        return Arrays.copyOf(closed, count);
+    }
+
+    private int countStatus(TradeColumns columns, int[] rows, TradeStatus status) {
+        int count = 0;
+        for (int row : rows) {
+            if (columns.hasStatus(row, status)) count++;
         }
-        if (holdingBucket != null && !holdingBucket.isBlank()) {
-            filtered = filtered.stream()
-                    .filter(t -> holdingBucket.equals(bucketHoldingTime(t)))
-                    .toList();
+        return count;
+    }
+
+    private FilterOptions loadFilterOptions(User user) {
+        Map<String, TreeSet<String>> values = new HashMap<>();
+        for (TradeRepository.FilterOptionValue option : tradeRepository.findFilterOptionValues(user.getId())) {
+            String value = option.getValue();
+            if (value == null || value.isBlank()) continue;
+            values.computeIfAbsent(option.getKind(), kind -> new TreeSet<>()).add(value.trim());
         }
-        return filtered;
-    }
-
-    private FilterOptions buildFilterOptions(List<Trade> trades) {
-        List<String> symbols = trades.stream()
-                .map(Trade::getSymbol)
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isBlank())
-                .distinct()
-                .sorted()
-                .toList();
-        List<String> markets = trades.stream()
-                .map(Trade::getMarket)
-                .filter(Objects::nonNull)
-                .map(Enum::name)
-                .distinct()
-                .sorted()
-                .toList();
-        List<String> strategies = trades.stream()
-                .map(Trade::getStrategyTag)
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isBlank())
-                .distinct()
-                .sorted()
-                .toList();
-        List<String> setups = trades.stream()
-                .map(Trade::getSetup)
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isBlank())
-                .distinct()
-                .sorted()
-                .toList();
-        List<String> catalysts = trades.stream()
-                .map(Trade::getCatalystTag)
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isBlank())
-                .distinct()
-                .sorted()
-                .toList();
         return FilterOptions.builder()
-                .symbols(symbols)
-                .markets(markets)
-                .strategies(strategies)
-                .setups(setups)
-                .catalysts(catalysts)
+                .symbols(filterOptionList(values, "symbol"))
+                .markets(filterOptionList(values, "market"))
+                .strategies(filterOptionList(values, "strategy"))
+                .setups(filterOptionList(values, "setup"))
+                .catalysts(filterOptionList(values, "catalyst"))
                 .build();
     }
 
-    private KpiSummary buildKpi(List<Trade> trades, int openTrades, int closedTrades) {
-        BigDecimal totalNet = sum(trades, Trade::getPnlNet);
-        BigDecimal totalGross = sum(trades, t -> t.getPnlGross() != null ? t.getPnlGross() : t.getPnlNet());
-        List<BigDecimal> pnlValues = trades.stream()
-                .map(t -> t.getPnlNet() == null ? BigDecimal.ZERO : t.getPnlNet())
-                .toList();
-        List<BigDecimal> wins = pnlValues.stream().filter(v -> v.compareTo(BigDecimal.ZERO) > 0).toList();
-        List<BigDecimal> losses = pnlValues.stream().filter(v -> v.compareTo(BigDecimal.ZERO) < 0).toList();
-        int flatTrades = (int) pnlValues.stream().filter(v -> v.compareTo(BigDecimal.ZERO) == 0).count();
-        double winRate = trades.isEmpty() ? 0 : (double) wins.size() / trades.size() * 100;
-        double lossRate = trades.isEmpty() ? 0 : (double) losses.size() / trades.size() * 100;
-        BigDecimal avgWin = average(wins);
-        BigDecimal avgLoss = average(losses);
-        BigDecimal avgLossAbs = avgLoss.abs();
-        BigDecimal expectancy = trades.isEmpty() ? BigDecimal.ZERO : totalNet.divide(BigDecimal.valueOf(trades.size()), 2, RoundingMode.HALF_UP);
-        BigDecimal grossProfit = sumValues(wins);
-        BigDecimal grossLoss = sumValues(losses).abs();
-        BigDecimal profitFactor = grossLoss.compareTo(BigDecimal.ZERO) == 0 ? null : grossProfit.divide(grossLoss, 2, RoundingMode.HALF_UP);
-        BigDecimal payoffRatio = avgLossAbs.compareTo(BigDecimal.ZERO) == 0 ? null : avgWin.divide(avgLossAbs, 2, RoundingMode.HALF_UP);
-
-        return KpiSummary.builder()
-                .totalPnlNet(totalNet)
-                .totalPnlGross(totalGross)
-                .grossProfit(grossProfit)
-                .grossLoss(grossLoss)
-                .winRate(winRate)
-                .lossRate(lossRate)
-                .averageWin(avgWin)
-                .averageLoss(avgLossAbs)
-                .medianPnl(median(pnlValues))
-                .payoffRatio(payoffRatio)
-                .expectancy(expectancy)
-                .profitFactor(profitFactor)
-                .totalTrades(trades.size())
-                .winningTrades(wins.size())
-                .losingTrades(losses.size())
-                .flatTrades(flatTrades)
-                .openTrades(openTrades)
-                .closedTrades(closedTrades)
-                .build();
+    private List<String> filterOptionList(Map<String, TreeSet<String>> values, String kind) {
+        TreeSet<String> options = values.get(kind);
+        return options == null ? List.of() : List.copyOf(options);
     }
 
-    private CostSummary buildCosts(List<Trade> trades) {
-        BigDecimal totalFees = sum(trades, Trade::getFees);
-        BigDecimal totalCommission = sum(trades, Trade::getCommission);
-        BigDecimal totalSlippage = sum(trades, Trade::getSlippage);
-        BigDecimal totalCosts = totalFees.add(totalCommission).add(totalSlippage);
-        BigDecimal avgFees = averageValues(totalFees, trades.size());
-        BigDecimal avgCommission = averageValues(totalCommission, trades.size());
-        BigDecimal avgSlippage = averageValues(totalSlippage, trades.size());
-        BigDecimal avgCosts = averageValues(totalCosts, trades.size());
-        BigDecimal totalGross = sum(trades, t -> t.getPnlGross() != null ? t.getPnlGross() : t.getPnlNet());
-        BigDecimal totalNet = sum(trades, Trade::getPnlNet);
-        BigDecimal netVsGross = totalGross.subtract(totalNet);
-        return CostSummary.builder()
-                .totalFees(totalFees)
-                .totalCommission(totalCommission)
-                .totalSlippage(totalSlippage)
-                .totalCosts(totalCosts)
-                .avgFees(avgFees)
-                .avgCommission(avgCommission)
-                .avgSlippage(avgSlippage)
-                .avgCosts(avgCosts)
-                .netVsGrossDelta(netVsGross)
-                .build();
+    private List<BreakdownRow> breakdownRows(int[] rows, BreakdownAccumulator accumulator) {
+        MetricPass.run(rows, accumulator);
+        return accumulator.finish();
     }
 
-    private DrawdownResult buildDrawdown(List<Trade> trades) {
-        List<Trade> ordered = trades.stream()
-                .sorted(Comparator.comparing(Trade::getClosedAt, Comparator.nullsLast(Comparator.naturalOrder())))
-                .toList();
-        BigDecimal equity = BigDecimal.ZERO;
-        BigDecimal peak = BigDecimal.ZERO;
-        BigDecimal maxDrawdown = BigDecimal.ZERO;
-        BigDecimal maxDrawdownPercent = null;
-        List<TimeSeriesPoint> equityCurve = new ArrayList<>();
-        List<TimeSeriesPoint> drawdownSeries = new ArrayList<>();
-
-        int currentDurationTrades = 0;
-        int maxDurationTrades = 0;
-        OffsetDateTime drawdownStart = null;
-        long maxDurationDays = 0;
-
-        List<Double> drawdownPercents = new ArrayList<>();
-
-        for (Trade trade : ordered) {
-            if (trade.getClosedAt() == null) continue;
-            BigDecimal pnl = trade.getPnlNet() == null ? BigDecimal.ZERO : trade.getPnlNet();
-            equity = equity.add(pnl);
-            if (equity.compareTo(peak) >= 0) {
-                peak = equity;
-                currentDurationTrades = 0;
-                drawdownStart = null;
-            } else {
-                currentDurationTrades++;
-                if (drawdownStart == null) {
-                    drawdownStart = trade.getClosedAt();
-                }
-                if (currentDurationTrades > maxDurationTrades) {
-                    maxDurationTrades = currentDurationTrades;
-                    if (drawdownStart != null) {
-                        maxDurationDays = Duration.between(drawdownStart, trade.getClosedAt()).toDays();
-                    }
-                }
-            }
-            BigDecimal drawdown = equity.subtract(peak);
-            if (drawdown.compareTo(maxDrawdown) < 0) {
-                maxDrawdown = drawdown;
-            }
-            equityCurve.add(new TimeSeriesPoint(toLocalDate(trade.getClosedAt()), equity));
-            drawdownSeries.add(new TimeSeriesPoint(toLocalDate(trade.getClosedAt()), drawdown));
-            if (peak.compareTo(BigDecimal.ZERO) != 0) {
-                double pct = drawdown.divide(peak, 6, RoundingMode.HALF_UP).doubleValue() * 100;
-                drawdownPercents.add(pct);
-            }
-        }
-
-        if (peak.compareTo(BigDecimal.ZERO) != 0 && maxDrawdown.compareTo(BigDecimal.ZERO) < 0) {
-            maxDrawdownPercent = maxDrawdown.divide(peak, 6, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)).abs();
-        }
-        BigDecimal recoveryFactor = maxDrawdown.compareTo(BigDecimal.ZERO) == 0 ? null : sum(trades, Trade::getPnlNet).divide(maxDrawdown.abs(), 4, RoundingMode.HALF_UP);
-        Double ulcerIndex = drawdownPercents.isEmpty() ? null : Math.sqrt(drawdownPercents.stream().mapToDouble(p -> p * p).average().orElse(0));
-
-        DrawdownSummary summary = DrawdownSummary.builder()
-                .maxDrawdown(maxDrawdown.abs())
-                .maxDrawdownPercent(maxDrawdownPercent)
-                .maxDrawdownDurationTrades(maxDurationTrades)
-                .maxDrawdownDurationDays(maxDurationDays)
-                .recoveryFactor(recoveryFactor)
-                .ulcerIndex(ulcerIndex)
-                .build();
-
-        return new DrawdownResult(summary, equityCurve, drawdownSeries);
+    private List<BreakdownRow> bucketRows(int[] rows, BucketAccumulator accumulator) {
+        MetricPass.run(rows, accumulator);
+        return accumulator.breakdownRows();
     }
 
-    private DistributionSummary buildDistribution(List<Trade> trades, OutlierResult outlierResult) {
-        List<BigDecimal> pnlValues = trades.stream()
-                .map(t -> t.getPnlNet() == null ? BigDecimal.ZERO : t.getPnlNet())
-                .sorted()
-                .toList();
-        Double stdDev = pnlValues.isEmpty() ? null : standardDeviation(pnlValues);
+    private DistributionSummary buildDistribution(ValueDistribution pnlOrder, OutlierResult outlierResult) {
         return DistributionSummary.builder()
-                .standardDeviation(stdDev)
-                .p10(percentile(pnlValues, 10))
-                .p25(percentile(pnlValues, 25))
-                .p50(percentile(pnlValues, 50))
-                .p75(percentile(pnlValues, 75))
-                .p90(percentile(pnlValues, 90))
-                .pnlHistogram(buildHistogram(pnlValues, 8))
+                .standardDeviation(pnlOrder.size() == 0 ? null : pnlOrder.standardDeviation())
+                .p10(pnlOrder.percentile(10))
+                .p25(pnlOrder.percentile(25))
+                .p50(pnlOrder.percentile(50))
+                .p75(pnlOrder.percentile(75))
+                .p90(pnlOrder.percentile(90))
+                .pnlHistogram(pnlOrder.histogram(8))
                 .outlierLower(outlierResult.lowerThreshold)
                 .outlierUpper(outlierResult.upperThreshold)
                 .outlierCount(outlierResult.outlierCount)
                 .build();
     }
 
-    private ConsistencySummary buildConsistency(List<Trade> trades, List<TimeSeriesPoint> daily, List<TimeSeriesPoint> weekly) {
+    private ConsistencySummary buildConsistency(List<TimeSeriesPoint> daily, List<TimeSeriesPoint> weekly, StreakSummary streaks) {
         int greenWeeks = (int) weekly.stream().filter(p -> p.getValue().compareTo(BigDecimal.ZERO) > 0).count();
         int redWeeks = (int) weekly.stream().filter(p -> p.getValue().compareTo(BigDecimal.ZERO) < 0).count();
         TimeSeriesPoint bestDay = daily.stream().max(Comparator.comparing(TimeSeriesPoint::getValue)).orElse(null);
         TimeSeriesPoint worstDay = daily.stream().min(Comparator.comparing(TimeSeriesPoint::getValue)).orElse(null);
         TimeSeriesPoint bestWeek = weekly.stream().max(Comparator.comparing(TimeSeriesPoint::getValue)).orElse(null);
         TimeSeriesPoint worstWeek = weekly.stream().min(Comparator.comparing(TimeSeriesPoint::getValue)).orElse(null);
-        StreakSummary streaks = calculateStreaks(trades);
         return ConsistencySummary.builder()
                 .greenWeeks(greenWeeks)
                 .redWeeks(redWeeks)
@@ -441,124 +609,23 @@ public class AnalyticsService {
                 .build();
     }
 
-    private TimeEdgeSummary buildTimeEdge(List<Trade> trades, DateMode mode) {
-        Map<String, List<Trade>> dayBuckets = new LinkedHashMap<>();
-        Map<String, List<Trade>> hourBuckets = new LinkedHashMap<>();
-        for (int day = 1; day <= 7; day++) {
-            dayBuckets.put(String.valueOf(day), new ArrayList<>());
-        }
-        for (int hour = 0; hour < 24; hour++) {
-            hourBuckets.put(String.format("%02d", hour), new ArrayList<>());
-        }
-
-        List<Long> holdingSeconds = new ArrayList<>();
-
-        for (Trade trade : trades) {
-            OffsetDateTime eventTime = getEventTime(trade, mode);
-            if (eventTime != null) {
-                ZonedDateTime zoned = eventTime.atZoneSameInstant(DISPLAY_ZONE);
-                dayBuckets.get(String.valueOf(zoned.getDayOfWeek().getValue())).add(trade);
-                hourBuckets.get(String.format("%02d", zoned.getHour())).add(trade);
-            }
-            if (trade.getOpenedAt() != null && trade.getClosedAt() != null) {
-                long seconds = Duration.between(trade.getOpenedAt(), trade.getClosedAt()).getSeconds();
-                if (seconds >= 0) {
-                    holdingSeconds.add(seconds);
-                }
-            }
-        }
-
-        List<BucketStats> dayStats = dayBuckets.entrySet().stream()
-                .map(entry -> buildBucketStats(dayLabel(entry.getKey()), entry.getValue()))
-                .toList();
-        List<BucketStats> hourStats = hourBuckets.entrySet().stream()
-                .map(entry -> buildBucketStats(entry.getKey(), entry.getValue()))
-                .toList();
-        List<BucketStats> holdingBuckets = buildHoldingBuckets(trades);
-
-        Long avgHolding = holdingSeconds.isEmpty() ? null : Math.round(holdingSeconds.stream().mapToLong(Long::longValue).average().orElse(0));
-        Long medianHolding = holdingSeconds.isEmpty() ? null : holdingSeconds.stream().sorted().skip((holdingSeconds.size() - 1) / 2).findFirst().orElse(0L);
-
-        return TimeEdgeSummary.builder()
-                .averageHoldingSeconds(avgHolding)
-                .medianHoldingSeconds(medianHolding)
-                .holdingBuckets(holdingBuckets)
-                .dayOfWeek(dayStats)
-                .hourOfDay(hourStats)
-                .build();
-    }
-
-    private AttributionSummary buildAttribution(List<Trade> trades) {
-        List<BreakdownRow> symbols = buildBreakdown(trades, Trade::getSymbol);
-        List<BreakdownRow> strategies = buildBreakdown(trades, Trade::getStrategyTag);
-        List<BreakdownRow> setups = buildBreakdown(trades, Trade::getSetup);
-        List<BreakdownRow> catalysts = buildBreakdown(trades, Trade::getCatalystTag);
-
-        ConcentrationSummary concentration = buildConcentration(symbols, trades.size());
-        List<BreakdownRow> bottomSymbols = symbols.stream()
-                .sorted(Comparator.comparing(BreakdownRow::getNetPnl))
-                .filter(row -> row.getTrades() >= 5)
-                .limit(3)
-                .toList();
-        List<BreakdownRow> bottomTags = strategies.stream()
-                .sorted(Comparator.comparing(BreakdownRow::getNetPnl))
-                .filter(row -> row.getTrades() >= 5)
-                .limit(3)
-                .toList();
-
-        return AttributionSummary.builder()
-                .symbols(symbols)
-                .strategies(strategies)
-                .setups(setups)
-                .catalysts(catalysts)
-                .bottomSymbols(bottomSymbols)
-                .bottomTags(bottomTags)
-                .concentration(concentration)
-                .build();
-    }
-
-    private RiskSummary buildRisk(List<Trade> trades) {
-        List<BigDecimal> rMultiples = trades.stream()
-                .map(Trade::getRMultiple)
-                .filter(Objects::nonNull)
-                .toList();
-        List<BigDecimal> riskAmounts = trades.stream()
-                .map(Trade::getRiskAmount)
-                .filter(Objects::nonNull)
-                .toList();
-        List<BigDecimal> riskPercents = trades.stream()
-                .map(Trade::getRiskPercent)
-                .filter(Objects::nonNull)
-                .toList();
-        boolean available = !rMultiples.isEmpty() || !riskAmounts.isEmpty() || !riskPercents.isEmpty();
-        if (!available) {
-            return RiskSummary.builder().available(false).tradesWithRisk(0).build();
+    private DataQualitySummary buildDataQuality(TradeColumns columns, int[] rows) {
+        int missingClosedAt = 0;
+        int inconsistentStatus = 0;
+        int missingStrategy = 0;
+        int missingSetup = 0;
+        int missingCatalyst = 0;
+        int missingPnlPercent = 0;
+        int missingRisk = 0;
+        for (int row : rows) {
+            if (columns.hasStatus(row, TradeStatus.CLOSED) && columns.isClosedAtMissing(row)) missingClosedAt++;
+            if (columns.hasStatus(row, TradeStatus.OPEN) && !columns.isClosedAtMissing(row)) inconsistentStatus++;
+            if (columns.strategy().isBlank(row)) missingStrategy++;
+            if (columns.setup().isBlank(row)) missingSetup++;
+            if (columns.catalyst().isBlank(row)) missingCatalyst++;
+            if (columns.pnlPercent().isNull(row)) missingPnlPercent++;
+            if (columns.riskAmount().isNull(row) && columns.riskPercent().isNull(row) && columns.rMultiple().isNull(row)) missingRisk++;
         }
-        BigDecimal avgR = average(rMultiples);
-        BigDecimal medR = median(rMultiples);
-        double winRateR = rMultiples.isEmpty() ? 0 : (double) rMultiples.stream().filter(r -> r.compareTo(BigDecimal.ZERO) > 0).count() / rMultiples.size() * 100;
-        BigDecimal expectancyR = rMultiples.isEmpty() ? BigDecimal.ZERO : sumValues(rMultiples).divide(BigDecimal.valueOf(rMultiples.size()), 2, RoundingMode.HALF_UP);
-        return RiskSummary.builder()
-                .available(available)
-                .averageR(avgR)
-                .medianR(medR)
-                .expectancyR(expectancyR)
-                .winRateR(winRateR)
-                .averageRiskAmount(average(riskAmounts))
-                .averageRiskPercent(average(riskPercents))
-                .rDistribution(buildHistogram(rMultiples, 6))
-                .tradesWithRisk(rMultiples.size())
-                .build();
-    }
-
-    private DataQualitySummary buildDataQuality(List<Trade> trades) {
-        int missingClosedAt = (int) trades.stream().filter(t -> t.getStatus() == TradeStatus.CLOSED && t.getClosedAt() == null).count();
-        int inconsistentStatus = (int) trades.stream().filter(t -> t.getStatus() == TradeStatus.OPEN && t.getClosedAt() != null).count();
-        int missingStrategy = (int) trades.stream().filter(t -> t.getStrategyTag() == null || t.getStrategyTag().isBlank()).count();
-        int missingSetup = (int) trades.stream().filter(t -> t.getSetup() == null || t.getSetup().isBlank()).count();
-        int missingCatalyst = (int) trades.stream().filter(t -> t.getCatalystTag() == null || t.getCatalystTag().isBlank()).count();
-        int missingPnlPercent = (int) trades.stream().filter(t -> t.getPnlPercent() == null).count();
-        int missingRisk = (int) trades.stream().filter(t -> t.getRiskAmount() == null && t.getRiskPercent() == null && t.getRMultiple() == null).count();
         return DataQualitySummary.builder()
                 .missingClosedAtCount(missingClosedAt)
                 .inconsistentStatusCount(inconsistentStatus)
@@ -567,7 +634,7 @@ public class AnalyticsService {
                 .missingCatalystCount(missingCatalyst)
                 .missingPnlPercentCount(missingPnlPercent)
                 .missingRiskCount(missingRisk)
-                .timezoneNote("Stored in UTC, displayed in Europe/Bucharest")
+                .timezoneNote("Stored in UTC, displayed in " + columns.zone().getId())
                 .build();
     }
 
@@ -600,354 +667,100 @@ public class AnalyticsService {
                                     bucket.getTrades()))
                             .build()));
         }
-        if (drawdown != null && drawdown.summary.getMaxDrawdown() != null) {
+        if (drawdown != null && drawdown.summary().getMaxDrawdown() != null) {
             insights.add(InsightItem.builder()
                     .text(String.format("Max drawdown is %s; recovery factor %s (N=%d).",
-                            drawdown.summary.getMaxDrawdown().setScale(2, RoundingMode.HALF_UP),
-                            drawdown.summary.getRecoveryFactor() == null ? "N/A" : drawdown.summary.getRecoveryFactor().setScale(2, RoundingMode.HALF_UP),
+                            drawdown.summary().getMaxDrawdown().setScale(2, RoundingMode.HALF_UP),
+                            drawdown.summary().getRecoveryFactor() == null ? "N/A" : drawdown.summary().getRecoveryFactor().setScale(2, RoundingMode.HALF_UP),
                             tradeCount))
                     .build());
         }
         return TraderReadSummary.builder().insights(insights).build();
     }
 
-    private List<TimeSeriesPoint> groupByDate(List<Trade> trades, DateMode mode) {
-        Map<LocalDate, BigDecimal> grouped = new TreeMap<>();
-        for (Trade trade : trades) {
-            OffsetDateTime time = getEventTime(trade, mode);
-            if (time == null) continue;
-            LocalDate date = toLocalDate(time);
-            BigDecimal pnl = trade.getPnlNet() == null ? BigDecimal.ZERO : trade.getPnlNet();
-            grouped.merge(date, pnl, BigDecimal::add);
-        }
-        return grouped.entrySet().stream().map(e -> new TimeSeriesPoint(e.getKey(), e.getValue())).toList();
-    }
-
-    private List<TimeSeriesPoint> groupByWeek(List<Trade> trades, DateMode mode) {
-        Map<LocalDate, BigDecimal> grouped = new TreeMap<>();
-        WeekFields weekFields = WeekFields.ISO;
-        for (Trade trade : trades) {
-            OffsetDateTime time = getEventTime(trade, mode);
-            if (time == null) continue;
-            LocalDate date = toLocalDate(time);
-            LocalDate weekStart = date.with(weekFields.dayOfWeek(), 1);
-            BigDecimal pnl = trade.getPnlNet() == null ? BigDecimal.ZERO : trade.getPnlNet();
-            grouped.merge(weekStart, pnl, BigDecimal::add);
-        }
-        return grouped.entrySet().stream().map(e -> new TimeSeriesPoint(e.getKey(), e.getValue())).toList();
-    }
-
-    private List<RollingMetricPoint> buildRolling(List<Trade> trades, int window) {
-        List<Trade> ordered = trades.stream()
-                .sorted(Comparator.comparing(Trade::getClosedAt, Comparator.nullsLast(Comparator.naturalOrder())))
-                .toList();
-        List<RollingMetricPoint> points = new ArrayList<>();
-        for (int i = window - 1; i < ordered.size(); i++) {
-            List<Trade> slice = ordered.subList(i - window + 1, i + 1);
-            KpiSummary kpi = buildKpi(slice, 0, slice.size());
-            OffsetDateTime date = ordered.get(i).getClosedAt();
-            if (date == null) continue;
-            points.add(RollingMetricPoint.builder()
-                    .date(toLocalDate(date))
-                    .winRate(kpi.getWinRate())
-                    .profitFactor(kpi.getProfitFactor())
-                    .expectancy(kpi.getExpectancy())
-                    .averagePnl(kpi.getTotalPnlNet().divide(BigDecimal.valueOf(slice.size()), 2, RoundingMode.HALF_UP))
-                    .build());
-        }
-        return points;
-    }
-
-    private List<BreakdownRow> buildBreakdown(List<Trade> trades, java.util.function.Function<Trade, String> keyExtractor) {
-        Map<String, List<Trade>> grouped = trades.stream()
-                .collect(Collectors.groupingBy(t -> Optional.ofNullable(keyExtractor.apply(t)).filter(s -> !s.isBlank()).orElse("Unspecified")));
-        return grouped.entrySet().stream()
-                .map(entry -> buildBreakdownRow(entry.getKey(), entry.getValue()))
-                .sorted(Comparator.comparing(BreakdownRow::getNetPnl).reversed())
-                .toList();
-    }
-
-    private BreakdownRow buildBreakdownRow(String name, List<Trade> trades) {
-        List<BigDecimal> pnlValues = trades.stream().map(t -> t.getPnlNet() == null ? BigDecimal.ZERO : t.getPnlNet()).toList();
-        int wins = (int) pnlValues.stream().filter(v -> v.compareTo(BigDecimal.ZERO) > 0).count();
-        int losses = (int) pnlValues.stream().filter(v -> v.compareTo(BigDecimal.ZERO) < 0).count();
-        BigDecimal grossProfit = sumValues(pnlValues.stream().filter(v -> v.compareTo(BigDecimal.ZERO) > 0).toList());
-        BigDecimal grossLoss = sumValues(pnlValues.stream().filter(v -> v.compareTo(BigDecimal.ZERO) < 0).toList()).abs();
-        BigDecimal pf = grossLoss.compareTo(BigDecimal.ZERO) == 0 ? null : grossProfit.divide(grossLoss, 2, RoundingMode.HALF_UP);
-        return BreakdownRow.builder()
-                .name(name)
-                .trades(trades.size())
-                .netPnl(sumValues(pnlValues))
-                .winRate(trades.isEmpty() ? 0 : (double) wins / trades.size() * 100)
-                .averagePnl(trades.isEmpty() ? BigDecimal.ZERO : sumValues(pnlValues).divide(BigDecimal.valueOf(trades.size()), 2, RoundingMode.HALF_UP))
-                .profitFactor(pf)
-                .lowSample(trades.size() < LOW_SAMPLE_THRESHOLD)
-                .build();
-    }
-
-    private List<BreakdownRow> buildBreakdownByDayOfWeek(List<Trade> trades, DateMode mode) {
-        Map<String, List<Trade>> grouped = new LinkedHashMap<>();
-        for (int day = 1; day <= 7; day++) {
-            grouped.put(dayLabel(String.valueOf(day)), new ArrayList<>());
-        }
-        for (Trade trade : trades) {
-            OffsetDateTime time = getEventTime(trade, mode);
-            if (time == null) continue;
-            String label = dayLabel(String.valueOf(time.atZoneSameInstant(DISPLAY_ZONE).getDayOfWeek().getValue()));
-            grouped.get(label).add(trade);
-        }
-        return grouped.entrySet().stream().map(entry -> buildBreakdownRow(entry.getKey(), entry.getValue())).toList();
-    }
-
-    private List<BreakdownRow> buildBreakdownByHour(List<Trade> trades, DateMode mode) {
-        Map<String, List<Trade>> grouped = new LinkedHashMap<>();
-        for (int hour = 0; hour < 24; hour++) {
-            grouped.put(String.format("%02d", hour), new ArrayList<>());
-        }
-        for (Trade trade : trades) {
-            OffsetDateTime time = getEventTime(trade, mode);
-            if (time == null) continue;
-            String label = String.format("%02d", time.atZoneSameInstant(DISPLAY_ZONE).getHour());
-            grouped.get(label).add(trade);
-        }
-        return grouped.entrySet().stream().map(entry -> buildBreakdownRow(entry.getKey(), entry.getValue())).toList();
-    }
-
-    private List<BreakdownRow> buildBreakdownByHoldingBucket(List<Trade> trades) {
-        Map<String, List<Trade>> grouped = new LinkedHashMap<>();
-        List<String> buckets = List.of("<5m", "5-15m", "15-60m", "1-4h", ">4h");
-        buckets.forEach(b -> grouped.put(b, new ArrayList<>()));
-        for (Trade trade : trades) {
-            String bucket = bucketHoldingTime(trade);
-            if (bucket != null) {
-                grouped.get(bucket).add(trade);
+    /**
+     * Flags trades more than three standard deviations from the mean. Large samples take mean and
+     * deviation from a single Welford pass unless {@code exact} asks for the two-pass sums.
+     */
+    private OutlierResult calculateOutliers(TradeColumns columns, int[] rows, boolean exact) {
+        if (rows.length == 0) {
+            return new OutlierResult(null, null, 0, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        DecimalColumn pnl = columns.pnlNet();
+        int scale = columns.decimalScale();
+        long[] values = new long[rows.length];
+        double mean;
+        Double stdDevValue;
+        if (exact || rows.length <= ValueDistribution.EXACT_SAMPLE_LIMIT) {
+            for (int i = 0; i < rows.length; i++) {
+                values[i] = pnl.units(rows[i]);
             }
-        }
-        return grouped.entrySet().stream().map(entry -> buildBreakdownRow(entry.getKey(), entry.getValue())).toList();
-    }
-
-    private ConcentrationSummary buildConcentration(List<BreakdownRow> symbols, int totalTrades) {
-        if (symbols.isEmpty()) {
-            return ConcentrationSummary.builder().build();
-        }
-        double totalPnl = symbols.stream().map(BreakdownRow::getNetPnl).mapToDouble(BigDecimal::doubleValue).sum();
-        List<BreakdownRow> top3 = symbols.stream().limit(3).toList();
-        double top1Pnl = symbols.get(0).getNetPnl().doubleValue();
-        double top3Pnl = top3.stream().map(BreakdownRow::getNetPnl).mapToDouble(BigDecimal::doubleValue).sum();
-        int top1Trades = symbols.get(0).getTrades();
-        int top3Trades = top3.stream().mapToInt(BreakdownRow::getTrades).sum();
-        return ConcentrationSummary.builder()
-                .top1PnlShare(totalPnl == 0 ? null : top1Pnl / totalPnl * 100)
-                .top3PnlShare(totalPnl == 0 ? null : top3Pnl / totalPnl * 100)
-                .top1TradeShare(totalTrades == 0 ? null : (double) top1Trades / totalTrades * 100)
-                .top3TradeShare(totalTrades == 0 ? null : (double) top3Trades / totalTrades * 100)
-                .build();
-    }
-
-    private List<BucketStats> buildHoldingBuckets(List<Trade> trades) {
-        Map<String, List<Trade>> grouped = new LinkedHashMap<>();
-        grouped.put("<5m", new ArrayList<>());
-        grouped.put("5-15m", new ArrayList<>());
-        grouped.put("15-60m", new ArrayList<>());
-        grouped.put("1-4h", new ArrayList<>());
-        grouped.put(">4h", new ArrayList<>());
-
-        for (Trade trade : trades) {
-            String bucket = bucketHoldingTime(trade);
-            if (bucket != null) {
-                grouped.get(bucket).add(trade);
+            mean = MetricMath.mean(values, scale);
+            stdDevValue = MetricMath.standardDeviation(values, scale);
+        } else {
+            RunningMoments moments = new RunningMoments();
+            for (int i = 0; i < rows.length; i++) {
+                values[i] = pnl.units(rows[i]);
+                moments.accept(FixedPoint.toDouble(values[i], scale));
             }
+            mean = moments.mean();
+            stdDevValue = moments.standardDeviation();
         }
-        return grouped.entrySet().stream()
-                .map(entry -> buildBucketStats(entry.getKey(), entry.getValue()))
-                .toList();
-    }
-
-    private BucketStats buildBucketStats(String label, List<Trade> trades) {
-        int wins = (int) trades.stream().filter(t -> (t.getPnlNet() != null ? t.getPnlNet() : BigDecimal.ZERO).compareTo(BigDecimal.ZERO) > 0).count();
-        BigDecimal net = sum(trades, Trade::getPnlNet);
-        double winRate = trades.isEmpty() ? 0 : (double) wins / trades.size() * 100;
-        return BucketStats.builder()
-                .bucket(label)
-                .trades(trades.size())
-                .netPnl(net)
-                .winRate(winRate)
-                .build();
-    }
-
-    private String bucketHoldingTime(Trade trade) {
-        if (trade.getOpenedAt() == null || trade.getClosedAt() == null) return null;
-        long minutes = Duration.between(trade.getOpenedAt(), trade.getClosedAt()).toMinutes();
-        if (minutes < 5) return "<5m";
-        if (minutes < 15) return "5-15m";
-        if (minutes < 60) return "15-60m";
-        if (minutes < 240) return "1-4h";
-        return ">4h";
-    }
-
-    private OffsetDateTime getEventTime(Trade trade, DateMode mode) {
-        return mode == DateMode.OPEN ? trade.getOpenedAt() : trade.getClosedAt();
-    }
-
-    private LocalDate toLocalDate(OffsetDateTime time) {
-        return time.atZoneSameInstant(DISPLAY_ZONE).toLocalDate();
-    }
-
-    private BigDecimal sum(List<Trade> trades, java.util.function.Function<Trade, BigDecimal> getter) {
-        return trades.stream()
-                .map(t -> {
-                    BigDecimal value = getter.apply(t);
-                    return value == null ? BigDecimal.ZERO : value;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal sumValues(List<BigDecimal> values) {
-        return values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal average(List<BigDecimal> values) {
-        if (values == null || values.isEmpty()) return BigDecimal.ZERO;
-        return sumValues(values).divide(BigDecimal.valueOf(values.size()), 2, RoundingMode.HALF_UP);
-    }
-
-    private BigDecimal averageValues(BigDecimal total, int count) {
-        if (count == 0) return BigDecimal.ZERO;
-        return total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
-    }
-
-    private BigDecimal median(List<BigDecimal> values) {
-        if (values == null || values.isEmpty()) return BigDecimal.ZERO;
-        List<BigDecimal> sorted = values.stream().sorted().toList();
-        int mid = sorted.size() / 2;
-        if (sorted.size() % 2 == 0) {
-            return sorted.get(mid - 1).add(sorted.get(mid)).divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
-        }
-        return sorted.get(mid);
-    }
-
-    private BigDecimal percentile(List<BigDecimal> values, double percentile) {
-        if (values == null || values.isEmpty()) return BigDecimal.ZERO;
-        List<BigDecimal> sorted = values.stream().sorted().toList();
-        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
-        index = Math.max(0, Math.min(index, sorted.size() - 1));
-        return sorted.get(index);
-    }
-
-    private Double standardDeviation(List<BigDecimal> values) {
-        if (values == null || values.isEmpty()) return null;
-        double mean = values.stream().mapToDouble(BigDecimal::doubleValue).average().orElse(0);
-        double variance = values.stream().mapToDouble(v -> Math.pow(v.doubleValue() - mean, 2)).average().orElse(0);
-        return Math.sqrt(variance);
-    }
-
-    private List<HistogramBucket> buildHistogram(List<BigDecimal> values, int buckets) {
-        if (values == null || values.isEmpty()) return List.of();
-        BigDecimal min = values.stream().min(Comparator.naturalOrder()).orElse(BigDecimal.ZERO);
-        BigDecimal max = values.stream().max(Comparator.naturalOrder()).orElse(BigDecimal.ZERO);
-        if (min.compareTo(max) == 0) {
-            return List.of(HistogramBucket.builder().label(min.toPlainString()).min(min).max(max).count(values.size()).build());
-        }
-        BigDecimal range = max.subtract(min);
-        BigDecimal bucketSize = range.divide(BigDecimal.valueOf(buckets), 6, RoundingMode.HALF_UP);
-        List<HistogramBucket> result = new ArrayList<>();
-        for (int i = 0; i < buckets; i++) {
-            BigDecimal start = min.add(bucketSize.multiply(BigDecimal.valueOf(i)));
-            BigDecimal end = i == buckets - 1 ? max : start.add(bucketSize);
-            int finalI = i;
-            int count = (int) values.stream()
-                    .filter(v -> v.compareTo(start) >= 0 && (finalI == buckets - 1 ? v.compareTo(end) <= 0 : v.compareTo(end) < 0))
-                    .count();
-            result.add(HistogramBucket.builder()
-                    .label(String.format("%s-%s", start.setScale(2, RoundingMode.HALF_UP), end.setScale(2, RoundingMode.HALF_UP)))
-                    .min(start)
-                    .max(end)
-                    .count(count)
-                    .build());
-        }
-        return result;
-    }
-
-    private OutlierResult calculateOutliers(List<Trade> trades) {
-        List<BigDecimal> pnlValues = trades.stream()
-                .map(t -> t.getPnlNet() == null ? BigDecimal.ZERO : t.getPnlNet())
-                .toList();
-        if (pnlValues.isEmpty()) {
-            return new OutlierResult(null, null, 0);
-        }
-        double mean = pnlValues.stream().mapToDouble(BigDecimal::doubleValue).average().orElse(0);
-        Double stdDevValue = standardDeviation(pnlValues);
         double stdDev = stdDevValue == null ? 0 : stdDevValue;
         BigDecimal lower = BigDecimal.valueOf(mean - 3 * stdDev);
         BigDecimal upper = BigDecimal.valueOf(mean + 3 * stdDev);
-        int outliers = (int) pnlValues.stream().filter(v -> v.compareTo(lower) < 0 || v.compareTo(upper) > 0).count();
-        return new OutlierResult(lower, upper, outliers);
-    }
-
-    private List<Trade> filterOutliers(List<Trade> trades, OutlierResult outlierResult) {
-        if (outlierResult.lowerThreshold == null || outlierResult.upperThreshold == null) return trades;
-        return trades.stream()
-                .filter(t -> {
-                    BigDecimal pnl = t.getPnlNet() == null ? BigDecimal.ZERO : t.getPnlNet();
-                    return pnl.compareTo(outlierResult.lowerThreshold) >= 0 && pnl.compareTo(outlierResult.upperThreshold) <= 0;
-                })
-                .toList();
-    }
-
-    private StreakSummary calculateStreaks(List<Trade> trades) {
-        int currentWin = 0;
-        int currentLoss = 0;
-        int maxWin = 0;
-        int maxLoss = 0;
-        String currentType = "NONE";
-        for (Trade trade : trades.stream().sorted(Comparator.comparing(Trade::getClosedAt, Comparator.nullsLast(Comparator.naturalOrder()))).toList()) {
-            BigDecimal pnl = trade.getPnlNet() == null ? BigDecimal.ZERO : trade.getPnlNet();
-            if (pnl.compareTo(BigDecimal.ZERO) > 0) {
-                currentWin++;
-                currentLoss = 0;
-                currentType = "WIN";
-            } else if (pnl.compareTo(BigDecimal.ZERO) < 0) {
-                currentLoss++;
-                currentWin = 0;
-                currentType = "LOSS";
-            } else {
-                currentLoss = 0;
-                currentWin = 0;
-                currentType = "FLAT";
+        long lowerUnits = FixedPoint.ceilUnits(lower, scale);
+        long upperUnits = FixedPoint.floorUnits(upper, scale);
+        int outliers = 0;
+        for (long value : values) {
+            if (value < lowerUnits || value > upperUnits) outliers++;
+        }
+        return new OutlierResult(lower, upper, outliers, lowerUnits, upperUnits);
+    }
+
+    private int[] filterOutliers(TradeColumns columns, int[] rows, OutlierResult outlierResult) {
+        if (outlierResult.lowerThreshold == null || outlierResult.upperThreshold == null) return rows;
+        int[] kept = new int[rows.length];
+        int count = 0;
+        for (int row : rows) {
+            long value = columns.pnlNet().units(row);
+            if (value >= outlierResult.lowerUnits && value <= outlierResult.upperUnits) {
+                kept[count++] = row;
             }
-            maxWin = Math.max(maxWin, currentWin);
-            maxLoss = Math.max(maxLoss, currentLoss);
         }
-        int currentStreak = currentType.equals("WIN") ? currentWin : currentType.equals("LOSS") ? currentLoss : 0;
-        return StreakSummary.builder()
-                .maxWinStreak(maxWin)
-                .maxLossStreak(maxLoss)
-                .currentStreakType(currentType)
-                .currentStreakCount(currentStreak)
-                .build();
+        return Arrays.copyOf(kept, count);
     }
 
-    private String dayLabel(String day) {
-        return switch (day) {
-            case "1" -> "Mon";
-            case "2" -> "Tue";
-            case "3" -> "Wed";
-            case "4" -> "Thu";
-            case "5" -> "Fri";
-            case "6" -> "Sat";
-            default -> "Sun";
-        };
+    private record OutlierResult(BigDecimal lowerThreshold, BigDecimal upperThreshold, int outlierCount, long lowerUnits, long upperUnits) {}
+
+    private static Map<String, Function<AnalyticsResponse, Map<String, Object>>> summaryEvents() {
+        Map<String, Function<AnalyticsResponse, Map<String, Object>>> events = new LinkedHashMap<>();
+        events.put("kpi", r -> fields("kpi", r.getKpi()));
+        events.put("costs", r -> fields("costs", r.getCosts()));
+        events.put("equity", r -> fields("drawdown", r.getDrawdown(), "equityCurve", r.getEquityCurve(), "drawdownSeries", r.getDrawdownSeries()));
+        events.put("consistency", r -> fields("consistency", r.getConsistency(), "groupedPnl", r.getGroupedPnl(), "weeklyPnl", r.getWeeklyPnl()));
+        events.put("timeEdge", r -> fields("timeEdge", r.getTimeEdge()));
+        events.put("attribution", r -> fields("attribution", r.getAttribution()));
+        events.put("risk", r -> fields("risk", r.getRisk()));
+        events.put("breakdown", r -> fields("breakdown", r.getBreakdown()));
+        events.put("dataQuality", r -> fields("dataQuality", r.getDataQuality()));
+        events.put("rolling", r -> fields("rolling20", r.getRolling20(), "rolling50", r.getRolling50()));
+        events.put("distribution", r -> fields("distribution", r.getDistribution()));
+        events.put("traderRead", r -> fields("traderRead", r.getTraderRead()));
+        events.put("filterOptions", r -> fields("filterOptions", r.getFilterOptions()));
+        return Collections.unmodifiableMap(events);
     }
 
-    private record DrawdownResult(DrawdownSummary summary, List<TimeSeriesPoint> equityCurve, List<TimeSeriesPoint> drawdownSeries) {}
+    private static Map<String, Object> fields(Object... namesAndValues) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            fields.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return fields;
+    }
 
-    private record OutlierResult(BigDecimal lowerThreshold, BigDecimal upperThreshold, int outlierCount) {}
+    private record PnlSections(KpiSummary kpi, DistributionSummary distribution) {}
+
+    private record PeriodSections(List<TimeSeriesPoint> daily, List<TimeSeriesPoint> weekly, ConsistencySummary consistency) {}
 
-    private Set<String> parseFilterValues(String value) {
-        return Arrays.stream(value.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isBlank())
-                .map(s -> s.toLowerCase(Locale.ROOT))
-                .collect(Collectors.toSet());
-    }
 }
@@ -0,0 +1,128 @@
+package com.tradevault.analytics;
+
+import com.tradevault.exception.AnalyticsTimeoutException;
+import com.tradevault.exception.ApiErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+
+/**
+ * Streams the analytics summary as server-sent events: one event per section in
+ * {@link AnalyticsService#SUMMARY_EVENTS} order, then {@code coach}, then {@code done}. A failure ends the
+ * stream with an {@code error} event carrying an {@link ApiErrorResponse}. When the client disconnects, the
+ * computation stops before its next section.
+ */
+@Service
+@Slf4j
+public class AnalyticsStreamService {
+    private static final long EMITTER_TIMEOUT_MS = 300_000L;
+
+    private final AnalyticsService analyticsService;
+    private final TradeCoachService tradeCoachService;
+    private final ThreadPoolTaskExecutor executor;
+
+    public AnalyticsStreamService(AnalyticsService analyticsService,
+                                  TradeCoachService tradeCoachService,
+                                  @Qualifier("analyticsStreamExecutor") ThreadPoolTaskExecutor executor) {
+        this.analyticsService = analyticsService;
+        this.tradeCoachService = tradeCoachService;
+        this.executor = executor;
+    }
+
+    public SseEmitter streamSummary(AnalyticsDataset dataset, boolean excludeOutliers, String holdingBucket, boolean exact, Integer maxPoints) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        EmitterSink sink = new EmitterSink(emitter);
+        emitter.onCompletion(sink::cancel);
+        emitter.onTimeout(() -> {
+            sink.cancel();
+            emitter.complete();
+        });
+        emitter.onError(throwable -> sink.cancel());
+        try {
+            sink.task = executor.submit(() -> run(sink, dataset, excludeOutliers, holdingBucket, exact, maxPoints));
+        } catch (TaskRejectedException ex) {
+            sink.fail("ANALYTICS_BUSY", "Too many analytics streams are running, try again shortly");
+        }
+        return emitter;
+    }
+
+    private void run(EmitterSink sink, AnalyticsDataset dataset, boolean excludeOutliers, String holdingBucket, boolean exact,
+                     Integer maxPoints) {
+        try {
+            analyticsService.summarizeStreaming(dataset, excludeOutliers, holdingBucket, exact, maxPoints, sink);
+            if (sink.isCancelled()) {
+                throw new CancellationException("Analytics stream cancelled before coach");
+            }
+            sink.send("coach", Map.of("coach", tradeCoachService.coach(dataset, excludeOutliers, exact)));
+            sink.send("done", Map.of());
+            sink.emitter.complete();
+        } catch (CancellationException ex) {
+            log.debug("Analytics stream for user {} stopped: {}", dataset.user().getId(), ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            sink.fail("VALIDATION_ERROR", ex.getMessage());
+        } catch (AnalyticsTimeoutException ex) {
+            sink.fail("ANALYTICS_TIMEOUT", ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.warn("Analytics stream for user {} failed", dataset.user().getId(), ex);
+            sink.fail("INTERNAL_ERROR", "Unable to compute analytics");
+        }
+    }
+
+    private static final class EmitterSink implements AnalyticsEventSink {
+        private final SseEmitter emitter;
+        private volatile boolean cancelled;
+        private volatile Future<?> task;
+
+        private EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(String event, Map<String, Object> data) {
+            if (cancelled) {
+                throw new CancellationException("Analytics stream cancelled before '" + event + "'");
+            }
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data));
+            } catch (IOException | IllegalStateException ex) {
+                cancel();
+                throw new CancellationException("Client went away before '" + event + "'");
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Marks the stream abandoned. A task still queued never starts; a running one stops at its next
+         * section. It is not interrupted, so a query in flight finishes cleanly on its pooled connection.
+         */
+        private void cancel() {
+            cancelled = true;
+            Future<?> running = task;
+            if (running != null) {
+                running.cancel(false);
+            }
+        }
+
+        private void fail(String error, String message) {
+            try {
+                emitter.send(SseEmitter.event().name("error")
+                        .data(ApiErrorResponse.builder().error(error).message(message).build()));
+                emitter.complete();
+            } catch (IOException | IllegalStateException ex) {
+                cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.tradevault.analytics;
+
+import com.tradevault.analytics.columnar.RowSelection;
+import com.tradevault.analytics.columnar.TradeBitmapIndex;
+import com.tradevault.analytics.columnar.TradeBitmapIndex.Dimension;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.analytics.metrics.KpiAccumulator;
+import com.tradevault.analytics.metrics.MetricPass;
+import com.tradevault.analytics.metrics.ValueDistribution;
+import com.tradevault.dto.analytics.AnalyticsWhatIfResponse;
+import com.tradevault.dto.analytics.DateMode;
+import com.tradevault.dto.analytics.KpiDelta;
+import com.tradevault.dto.analytics.KpiSummary;
+import com.tradevault.repository.spec.TradeAnalyticsQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers "what if only these trades counted" against a per-user snapshot of the whole journal. The
+ * snapshot and its {@link TradeBitmapIndex} are built once per trade version and cached, so toggling a
+ * filter costs a few bitmap operations and one KPI pass instead of a reload. Lists within a dimension are
+ * OR-ed, dimensions are AND-ed and exclusions are subtracted; the result is compared against the
+ * unfiltered journal.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsWhatIfService {
+    private static final String ENDPOINT = "whatIf";
+    private static final List<String> DAY_NAMES = List.of("mon", "tue", "wed", "thu", "fri", "sat", "sun");
+
+    private final AnalyticsService analyticsService;
+    private final AnalyticsResultCache analyticsResultCache;
+    private final AnalyticsMetrics analyticsMetrics;
+
+    /**
+     * {@code hour} and {@code dayOfWeek} accept ranges such as {@code 9-11} or {@code mon-fri};
+     * {@code exclude} is a comma list of {@code dimension:value} pairs such as {@code symbol:TSLA,hour:12}.
+     * Exclusions keep trades without a value in that dimension.
+     */
+    public AnalyticsWhatIfResponse whatIf(OffsetDateTime from,
+                                          OffsetDateTime to,
+                                          String symbol,
+                                          String direction,
+                                          String status,
+                                          String strategy,
+                                          String setup,
+                                          String catalyst,
+                                          String market,
+                                          String hour,
+                                          String dayOfWeek,
+                                          String holdingBucket,
+                                          String exclude,
+                                          String dateMode,
+                                          boolean exact) {
+        long started = System.nanoTime();
+        DateMode mode = DateMode.fromString(dateMode);
+        Map<Dimension, Set<String>> includes = new EnumMap<>(Dimension.class);
+        include(includes, Dimension.SYMBOL, symbol);
+        include(includes, Dimension.DIRECTION, direction);
+        include(includes, Dimension.STATUS, status);
+        include(includes, Dimension.STRATEGY, strategy);
+        include(includes, Dimension.SETUP, setup);
+        include(includes, Dimension.CATALYST, catalyst);
+        include(includes, Dimension.MARKET, market);
+        include(includes, Dimension.HOUR, hour);
+        include(includes, Dimension.DAY_OF_WEEK, dayOfWeek);
+        include(includes, Dimension.HOLDING_BUCKET, holdingBucket);
+        Map<Dimension, Set<String>> excludes = parseExclusions(exclude);
+
+        AnalyticsDataset dataset = analyticsService.dataset(null, null, null, null, null, null, null, null, null, null);
+        AnalyticsFilterKey key = dataset.key(false, null);
+        WhatIfSnapshot snapshot = analyticsResultCache.get(dataset.user().getId(), "whatIfSnapshot", key, null,
+                () -> buildSnapshot(dataset));
+        TradeColumns columns = snapshot.columns();
+        TradeBitmapIndex index = snapshot.index();
+        KpiSummary baseline = analyticsResultCache.get(dataset.user().getId(), "whatIfBaseline", key, exact,
+                () -> kpis(columns, index, RowSelection.all(index.size()), exact));
+
+        RowSelection selection = analyticsMetrics.time(ENDPOINT, "filter", index.size(),
+                () -> select(columns, index, includes, excludes, from, to, mode));
+        int matched = selection.cardinality();
+        KpiSummary scenario = analyticsMetrics.time(ENDPOINT, "kpi", matched, () -> kpis(columns, index, selection, exact));
+        analyticsMetrics.rowsUsed(ENDPOINT, index.size(), matched);
+
+        return AnalyticsWhatIfResponse.builder()
+                .baseline(baseline)
+                .scenario(scenario)
+                .delta(delta(baseline, scenario))
+                .matchedTrades(matched)
+                .totalTrades(index.size())
+                .elapsedMillis((System.nanoTime() - started) / 1_000_000.0)
+                .build();
+    }
+
+    private WhatIfSnapshot buildSnapshot(AnalyticsDataset dataset) {
+        TradeColumns columns = analyticsMetrics.columns(ENDPOINT, dataset);
+        TradeBitmapIndex index = analyticsMetrics.time(ENDPOINT, "index", columns.size(), () -> TradeBitmapIndex.of(columns));
+        return new WhatIfSnapshot(columns, index);
+    }
+
+    private RowSelection select(TradeColumns columns,
+                                TradeBitmapIndex index,
+                                Map<Dimension, Set<String>> includes,
+                                Map<Dimension, Set<String>> excludes,
+                                OffsetDateTime from,
+                                OffsetDateTime to,
+                                DateMode mode) {
+        RowSelection selection = RowSelection.all(index.size());
+        includes.forEach((dimension, keys) -> {
+            RowSelection any = RowSelection.none(index.size());
+            for (String key : keys) {
+                any.or(index.get(dimension, key, mode));
+            }
+            selection.and(any);
+        });
+        excludes.forEach((dimension, keys) -> {
+            for (String key : keys) {
+                selection.andNot(index.get(dimension, key, mode));
+            }
+        });
+        if (from != null || to != null) {
+            long fromMicros = from == null ? Long.MIN_VALUE : TradeColumns.ceilMicros(from);
+            long toMicros = to == null ? Long.MAX_VALUE : TradeColumns.toMicros(to);
+            selection.retain(row -> {
+                long micros = columns.eventMicros(row, mode);
+                return micros != TradeColumns.NO_TIME && micros >= fromMicros && micros <= toMicros;
+            });
+        }
+        return selection;
+    }
+
+    /**
+     * The summary KPIs of the selected rows, computed over the closed ones in close order like the summary
+     * endpoint does.
+     */
+    private KpiSummary kpis(TradeColumns columns, TradeBitmapIndex index, RowSelection selection, boolean exact) {
+        int openTrades = selection.intersectionCount(index.get(Dimension.STATUS, "open", DateMode.CLOSE));
+        RowSelection closed = RowSelection.none(index.size()).or(index.closedWithTime()).and(selection);
+        int[] chronological = columns.inCloseOrder(closed.toRows());
+        ValueDistribution pnlOrder = ValueDistribution.of(columns.pnlNet(), chronological.length, false, exact);
+        KpiAccumulator kpiAccumulator = new KpiAccumulator(columns, pnlOrder, openTrades, chronological.length);
+        MetricPass.run(chronological, pnlOrder, kpiAccumulator);
+        return kpiAccumulator.finish();
+    }
+
+    private static KpiDelta delta(KpiSummary baseline, KpiSummary scenario) {
+        return KpiDelta.builder()
+                .totalPnlNet(scenario.getTotalPnlNet().subtract(baseline.getTotalPnlNet()))
+                .winRate(scenario.getWinRate() - baseline.getWinRate())
+                .expectancy(scenario.getExpectancy().subtract(baseline.getExpectancy()))
+                .profitFactor(subtract(scenario.getProfitFactor(), baseline.getProfitFactor()))
+                .averageWin(scenario.getAverageWin().subtract(baseline.getAverageWin()))
+                .averageLoss(scenario.getAverageLoss().subtract(baseline.getAverageLoss()))
+                .closedTrades(scenario.getClosedTrades() - baseline.getClosedTrades())
+                .openTrades(scenario.getOpenTrades() - baseline.getOpenTrades())
+                .build();
+    }
+
+    private static BigDecimal subtract(BigDecimal value, BigDecimal baseline) {
+        return value == null || baseline == null ? null : value.subtract(baseline);
+    }
+
+    private static void include(Map<Dimension, Set<String>> includes, Dimension dimension, String value) {
+        Set<String> values = TradeAnalyticsQuery.parseFilterValues(value);
+        if (values != null) {
+            includes.put(dimension, keys(dimension, values));
+        }
+    }
+
+    private static Map<Dimension, Set<String>> parseExclusions(String exclude) {
+        Map<Dimension, Set<String>> excludes = new EnumMap<>(Dimension.class);
+        Set<String> pairs = TradeAnalyticsQuery.parseFilterValues(exclude);
+        if (pairs == null) {
+            return excludes;
+        }
+        for (String pair : pairs) {
+            int separator = pair.indexOf(':');
+            if (separator <= 0 || separator == pair.length() - 1) {
+                throw new IllegalArgumentException("Exclusions must look like dimension:value, got: " + pair);
+            }
+            Dimension dimension = Dimension.of(pair.substring(0, separator));
+            Set<String> value = Set.of(pair.substring(separator + 1).trim());
+            excludes.computeIfAbsent(dimension, ignored -> new LinkedHashSet<>()).addAll(keys(dimension, value));
+        }
+        return excludes;
+    }
+
+    /**
+     * Index keys for parsed list values: hour and day of week expand ranges and day names, the other
+     * dimensions are keyed by the lower-case value itself.
+     */
+    private static Set<String> keys(Dimension dimension, Set<String> values) {
+        if (dimension != Dimension.HOUR && dimension != Dimension.DAY_OF_WEEK) {
+            return values;
+        }
+        int min = dimension == Dimension.HOUR ? 0 : 1;
+        int max = dimension == Dimension.HOUR ? 23 : 7;
+        Set<String> keys = new LinkedHashSet<>();
+        for (String value : values) {
+            int dash = value.indexOf('-');
+            int first = number(dimension, dash < 0 ? value : value.substring(0, dash), min, max);
+            int last = dash < 0 ? first : number(dimension, value.substring(dash + 1), min, max);
+            if (last < first) {
+                throw new IllegalArgumentException("Range must not run backwards: " + value);
+            }
+            for (int i = first; i <= last; i++) {
+                keys.add(Integer.toString(i));
+            }
+        }
+        return keys;
+    }
+
+    private static int number(Dimension dimension, String value, int min, int max) {
+        String trimmed = value.trim();
+        if (dimension == Dimension.DAY_OF_WEEK && DAY_NAMES.contains(trimmed)) {
+            return DAY_NAMES.indexOf(trimmed) + 1;
+        }
+        try {
+            int number = Integer.parseInt(trimmed);
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        String name = dimension == Dimension.HOUR ? "Hour" : "Day of week";
+        throw new IllegalArgumentException(name + " must be between " + min + " and " + max + ", got: " + value);
+    }
+
+    /**
+     * The whole journal as columns with its bitmap index; cached per user until the next trade write.
+     */
+    record WhatIfSnapshot(TradeColumns columns, TradeBitmapIndex index) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.tradevault.analytics;
+
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.CoachDataQuality;
+import com.tradevault.repository.TradeAnalyticsRow;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Everything the coach advice is built from: closed-trade stats overall, per close hour, symbol, holding bucket
+ * and local day, and for trades placed in rapid-fire clusters, plus the logging-quality counters over all trades.
+ * Each total is a plain sum, so the aggregates of a journal can be persisted and kept current one trade at a
+ * time by adding the new version of a trade and subtracting the old one.
+ */
+final class CoachAggregates {
+    /**
+     * Upper bound on the up-front size of the symbol and day maps, so a long journal of few symbols does not
+     * allocate a table per trade; maps still grow past it when a journal really has more keys.
+     */
+    static final int MAX_PRESIZE = 1024;
+
+    final CoachGroupStats overall = new CoachGroupStats();
+    final Map<Integer, CoachGroupStats> hours = HashMap.newHashMap(24);
+    final Map<String, CoachGroupStats> symbols;
+    final Map<String, CoachGroupStats> holdingBuckets = HashMap.newHashMap(TradeColumns.HOLDING_BUCKETS.length);
+    final Map<LocalDate, CoachGroupStats> days;
+    final CoachGroupStats clusters = new CoachGroupStats();
+    int totalTrades;
+    int closedTrades;
+    int missingClosedAt;
+    int missingPnlNet;
+    int missingEntryExit;
+    int inconsistentPnl;
+
+    CoachAggregates() {
+        this(0, 0);
+    }
+
+    /**
+     * Aggregates sized for about {@code expectedSymbols} symbols and {@code expectedDays} days, each capped at
+     * {@link #MAX_PRESIZE}.
+     */
+    CoachAggregates(int expectedSymbols, int expectedDays) {
+        symbols = HashMap.newHashMap(Math.min(expectedSymbols, MAX_PRESIZE));
+        days = HashMap.newHashMap(Math.min(expectedDays, MAX_PRESIZE));
+    }
+
+    /**
+     * Aggregates {@code rows} for data quality and {@code metrics}, the closed trades left after filtering, for
+     * the advice stats.
+     */
+    static CoachAggregates of(List<TradeAnalyticsRow> rows, List<CoachTradeMetrics> metrics, int clusterMinutes) {
+        CoachAggregates aggregates = new CoachAggregates(metrics.size(), metrics.size());
+        rows.forEach(row -> aggregates.addRow(row, 1));
+        metrics.forEach(metric -> aggregates.addTrade(metric, 1));
+        aggregates.clusters.merge(clusterStats(metrics, clusterMinutes));
+        return aggregates;
+    }
+
+    /**
+     * Counts {@code row} in the data-quality totals, or takes it out with {@code sign = -1}.
+     */
+    void addRow(TradeAnalyticsRow row, int sign) {
+        totalTrades += sign;
+        if (row.status() != TradeStatus.CLOSED) {
+            return;
+        }
+        closedTrades += sign;
+        if (row.closedAt() == null) {
+            missingClosedAt += sign;
+        } else if (row.pnlNet() == null) {
+            missingPnlNet += sign;
+        }
+        if (row.entryPrice() == null || row.exitPrice() == null || row.quantity() == null) {
+            missingEntryExit += sign;
+        }
+        if (row.pnlNet() != null && isPnlInconsistent(row)) {
+            inconsistentPnl += sign;
+        }
+    }
+
+    /**
+     * Adds a closed trade to the overall, hour, symbol, holding-bucket and day stats, or takes it out with
+     * {@code sign = -1}. Groups whose totals all return to zero are dropped.
+     */
+    void addTrade(CoachTradeMetrics metric, int sign) {
+        overall.add(metric, sign);
+        add(hours, metric.hourOfDay(), metric, sign);
+        add(symbols, metric.symbol(), metric, sign);
+        add(holdingBuckets, metric.holdingBucket(), metric, sign);
+        add(days, metric.localDate(), metric, sign);
+    }
+
+    /**
+     * Adds the change in cluster stats from replacing {@code before} with {@code after} (either may be null).
+     * A trade's membership depends only on trades less than one window away, so the change can only flip
+     * trades within one window of the old or new time, and their neighbours lie within two. {@code neighbours}
+     * must hold every other closed trade in that range; trades further out are classified the same way with
+     * and without the change, so they cancel.
+     */
+    void addClusterChange(Collection<CoachTradeMetrics> neighbours, CoachTradeMetrics before, CoachTradeMetrics after,
+                          int clusterMinutes) {
+        addClusterChange(neighbours, before == null ? List.of() : List.of(before),
+                after == null ? List.of() : List.of(after), clusterMinutes);
+    }
+
+    /**
+     * The same for several trades changed at once: {@code before} and {@code after} hold their old and new
+     * versions and {@code neighbours} every other closed trade within two windows of any of them.
+     */
+    void addClusterChange(Collection<CoachTradeMetrics> neighbours, Collection<CoachTradeMetrics> before,
+                          Collection<CoachTradeMetrics> after, int clusterMinutes) {
+        clusters.merge(clusterStats(with(neighbours, before), clusterMinutes), -1);
+        clusters.merge(clusterStats(with(neighbours, after), clusterMinutes), 1);
+    }
+
+    CoachDataQuality dataQuality() {
+        return CoachDataQuality.builder()
+                .totalTrades(totalTrades)
+                .closedTrades(closedTrades)
+                .missingClosedAtCount(missingClosedAt)
+                .missingPnlNetCount(missingPnlNet)
+                .missingEntryExitCount(missingEntryExit)
+                .inconsistentPnlCount(inconsistentPnl)
+                .build();
+    }
+
+    /**
+     * Stats of the trades placed less than {@code clusterMinutes} after or before another trade, each counted
+     * once. One sort by event time, then a single sweep that compares each trade with the previous one and
+     * adds members straight into the stats, so no cluster list is built and any threshold costs the same.
+     * Membership only depends on a trade's neighbours within that distance, which is what lets a single write
+     * re-evaluate a bounded window instead of the journal.
+     */
+    static CoachGroupStats clusterStats(Collection<CoachTradeMetrics> metrics, int clusterMinutes) {
+        CoachGroupStats stats = new CoachGroupStats();
+        if (metrics.size() < 2) return stats;
+        CoachTradeMetrics[] sorted = metrics.toArray(CoachTradeMetrics[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(CoachTradeMetrics::eventNanos));
+        long window = TimeUnit.MINUTES.toNanos(clusterMinutes);
+        long previous = sorted[0].eventNanos();
+        boolean previousCounted = false;
+        for (int i = 1; i < sorted.length; i++) {
+            long current = sorted[i].eventNanos();
+            if (current - previous < window) {
+                if (!previousCounted) {
+                    stats.add(sorted[i - 1]);
+                }
+                stats.add(sorted[i]);
+                previousCounted = true;
+            } else {
+                previousCounted = false;
+            }
+            previous = current;
+        }
+        return stats;
+    }
+
+    private static List<CoachTradeMetrics> with(Collection<CoachTradeMetrics> neighbours, Collection<CoachTradeMetrics> changed) {
+        List<CoachTradeMetrics> trades = new ArrayList<>(neighbours.size() + changed.size());
+        trades.addAll(neighbours);
+        trades.addAll(changed);
+        return trades;
+    }
+
+    private static <K> void add(Map<K, CoachGroupStats> groups, K key, CoachTradeMetrics metric, int sign) {
+        if (key == null) return;
+        CoachGroupStats stats = groups.computeIfAbsent(key, k -> new CoachGroupStats());
+        stats.add(metric, sign);
+        if (stats.isEmpty()) {
+            groups.remove(key);
+        }
+    }
+
+    private static boolean isPnlInconsistent(TradeAnalyticsRow trade) {
+        if (trade.entryPrice() == null || trade.exitPrice() == null || trade.quantity() == null || trade.direction() == null) {
+            return false;
+        }
+        BigDecimal qty = trade.quantity();
+        BigDecimal entry = trade.entryPrice();
+        BigDecimal exit = trade.exitPrice();
+        BigDecimal expected = trade.direction() == Direction.LONG
+                ? exit.subtract(entry).multiply(qty)
+                : entry.subtract(exit).multiply(qty);
+        BigDecimal actual = trade.pnlNet();
+        BigDecimal diff = expected.subtract(actual).abs();
+        BigDecimal threshold = expected.abs().multiply(BigDecimal.valueOf(0.1));
+        if (threshold.compareTo(BigDecimal.ONE) < 0) {
+            threshold = BigDecimal.ONE;
+        }
+        return diff.compareTo(threshold) > 0;
+    }
+}
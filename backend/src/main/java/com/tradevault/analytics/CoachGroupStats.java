@@ -0,0 +1,112 @@
+package com.tradevault.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Running totals of the closed trades in one coach group. Every field is a plain sum, so a trade can be taken
+ * out again with {@code sign = -1} and disjoint groups can be merged without revisiting their trades.
+ */
+final class CoachGroupStats {
+    int count = 0;
+    int wins = 0;
+    int losses = 0;
+    BigDecimal totalNet = BigDecimal.ZERO;
+    BigDecimal totalCosts = BigDecimal.ZERO;
+    BigDecimal sumWins = BigDecimal.ZERO;
+    BigDecimal sumLosses = BigDecimal.ZERO;
+    BigDecimal totalR = BigDecimal.ZERO;
+    int rCount = 0;
+
+    void add(CoachTradeMetrics metric) {
+        add(metric, 1);
+    }
+
+    void add(CoachTradeMetrics metric, int sign) {
+        if (metric == null) return;
+        count += sign;
+        BigDecimal pnl = metric.pnlNet() == null ? BigDecimal.ZERO : metric.pnlNet();
+        totalNet = plus(totalNet, pnl, sign);
+        totalCosts = plus(totalCosts, metric.costs() == null ? BigDecimal.ZERO : metric.costs(), sign);
+        if (pnl.signum() > 0) {
+            wins += sign;
+            sumWins = plus(sumWins, pnl, sign);
+        } else if (pnl.signum() < 0) {
+            losses += sign;
+            sumLosses = plus(sumLosses, pnl, sign);
+        }
+        if (metric.rMultiple() != null) {
+            totalR = plus(totalR, metric.rMultiple(), sign);
+            rCount += sign;
+        }
+    }
+
+    /**
+     * Adds the totals of a disjoint group, so per-day stats can be rolled up without revisiting trades.
+     */
+    void merge(CoachGroupStats other) {
+        merge(other, 1);
+    }
+
+    void merge(CoachGroupStats other, int sign) {
+        count += sign * other.count;
+        wins += sign * other.wins;
+        losses += sign * other.losses;
+        totalNet = plus(totalNet, other.totalNet, sign);
+        totalCosts = plus(totalCosts, other.totalCosts, sign);
+        sumWins = plus(sumWins, other.sumWins, sign);
+        sumLosses = plus(sumLosses, other.sumLosses, sign);
+        totalR = plus(totalR, other.totalR, sign);
+        rCount += sign * other.rCount;
+    }
+
+    /**
+     * True when every total is zero: the group holds no trades, or a delta that cancelled out.
+     */
+    boolean isEmpty() {
+        return count == 0 && wins == 0 && losses == 0 && rCount == 0
+                && totalNet.signum() == 0 && totalCosts.signum() == 0
+                && sumWins.signum() == 0 && sumLosses.signum() == 0 && totalR.signum() == 0;
+    }
+
+    double winRate() {
+        if (count == 0) return 0;
+        return (double) wins / count * 100;
+    }
+
+    BigDecimal expectancy() {
+        if (count == 0) return BigDecimal.ZERO;
+        return totalNet.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    BigDecimal averageWin() {
+        if (wins == 0) return BigDecimal.ZERO;
+        return sumWins.divide(BigDecimal.valueOf(wins), 2, RoundingMode.HALF_UP);
+    }
+
+    BigDecimal averageLoss() {
+        if (losses == 0) return BigDecimal.ZERO;
+        return sumLosses.divide(BigDecimal.valueOf(losses), 2, RoundingMode.HALF_UP);
+    }
+
+    Double profitFactor() {
+        if (sumLosses.compareTo(BigDecimal.ZERO) == 0) return null;
+        BigDecimal pf = sumWins.divide(sumLosses.abs(), 4, RoundingMode.HALF_UP);
+        return pf.doubleValue();
+    }
+
+    BigDecimal payoffRatio() {
+        BigDecimal avgLoss = averageLoss();
+        if (avgLoss.compareTo(BigDecimal.ZERO) == 0) return null;
+        return averageWin().divide(avgLoss.abs(), 2, RoundingMode.HALF_UP);
+    }
+
+    BigDecimal averageR() {
+        if (rCount == 0) return null;
+        return totalR.divide(BigDecimal.valueOf(rCount), 4, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal plus(BigDecimal total, BigDecimal value, int sign) {
+        return sign < 0 ? total.subtract(value) : total.add(value);
+    }
+}
@@ -0,0 +1,87 @@
+package com.tradevault.analytics;
+
+import com.tradevault.dto.analytics.DateMode;
+import com.tradevault.repository.TradeAnalyticsRow;
+import com.tradevault.repository.TradeLocalFields;
+import com.tradevault.service.TradeDerivedColumns;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * The per-trade values the coach groups by and sums, derived once from a closed trade.
+ */
+record CoachTradeMetrics(
+        UUID id,
+        BigDecimal pnlNet,
+        BigDecimal costs,
+        Long holdingMinutes,
+        Integer hourOfDay,
+        Integer dayOfWeek,
+        BigDecimal rMultiple,
+        String holdingBucket,
+        OffsetDateTime eventTime,
+        LocalDate localDate,
+        String symbol,
+        String market,
+        String direction,
+        String strategyTag,
+        String setup,
+        String catalystTag
+) {
+    /**
+     * The trade's metrics, or null when it has no event time for {@code mode}. Hour, weekday and local date are
+     * in {@code zone}, the owner's zone. Uses the derived columns stored with the trade when present, and its
+     * local fields when they were stored in {@code zone}.
+     */
+    static CoachTradeMetrics of(TradeAnalyticsRow trade, DateMode mode, ZoneId zone) {
+        if (trade.closedAt() == null && trade.openedAt() == null) return null;
+        OffsetDateTime eventTime = mode == DateMode.OPEN ? trade.openedAt() : trade.closedAt();
+        if (eventTime == null) return null;
+        BigDecimal pnlNet = trade.pnlNet() == null ? BigDecimal.ZERO : trade.pnlNet();
+        BigDecimal fees = trade.fees() == null ? BigDecimal.ZERO : trade.fees();
+        BigDecimal commission = trade.commission() == null ? BigDecimal.ZERO : trade.commission();
+        BigDecimal slippage = trade.slippage() == null ? BigDecimal.ZERO : trade.slippage();
+        BigDecimal costs = fees.add(commission).add(slippage);
+        TradeLocalFields local = trade.local();
+        Long holdingMinutes;
+        String holdingBucket;
+        BigDecimal r;
+        if (local != null) {
+            holdingMinutes = local.holdingMinutes();
+            holdingBucket = local.holdingBucket();
+            r = local.rEstimate();
+        } else {
+            holdingMinutes = TradeDerivedColumns.holdingMinutes(trade.openedAt(), trade.closedAt());
+            holdingBucket = TradeDerivedColumns.holdingBucket(holdingMinutes);
+            r = TradeDerivedColumns.rEstimate(trade.rMultiple(), trade.riskAmount(), trade.pnlNet());
+        }
+        int hour;
+        int dayOfWeek;
+        LocalDate localDate;
+        if (local != null && local.isIn(zone)) {
+            hour = mode == DateMode.OPEN ? local.openedHour() : local.closedHour();
+            dayOfWeek = mode == DateMode.OPEN ? local.openedDow() : local.closedDow();
+            localDate = mode == DateMode.OPEN ? local.openedDate() : local.closedDate();
+        } else {
+            ZonedDateTime zoned = eventTime.atZoneSameInstant(zone);
+            hour = zoned.getHour();
+            dayOfWeek = zoned.getDayOfWeek().getValue();
+            localDate = zoned.toLocalDate();
+        }
+
+        return new CoachTradeMetrics(trade.id(), pnlNet, costs, holdingMinutes, hour, dayOfWeek, r, holdingBucket, eventTime, localDate, trade.symbol(), trade.market() == null ? null : trade.market().name(), trade.direction() == null ? null : trade.direction().name(),
+                trade.strategyTag(), trade.setup(), trade.catalystTag());
+    }
+
+    /**
+     * The event time as nanoseconds since the epoch, which orders and spaces trades without allocating.
+     */
+    long eventNanos() {
+        return eventTime.toEpochSecond() * 1_000_000_000L + eventTime.getNano();
+    }
+}
@@ -0,0 +1,100 @@
+package com.tradevault.analytics;
+
+import com.tradevault.config.TradeCoachConfig;
+import com.tradevault.repository.TradeCoachAggregateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputes the default coach view for users with trades but no stored advice, which covers new users and
+ * every write since the last read, and periodically rebuilds the oldest aggregates so any drift from writes
+ * outside the app is corrected.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TradeCoachAggregateScheduler {
+    private final TradeCoachService tradeCoachService;
+    private final TradeCoachAggregateService tradeCoachAggregateService;
+    private final TradeCoachAggregateRepository tradeCoachAggregateRepository;
+    private final TradeCoachConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${trades.coach.rebuild.batch-size:50}")
+    private int batchSize;
+
+    @Value("${trades.coach.rebuild.max-age-ms:86400000}")
+    private long maxAgeMs;
+
+    @Value("${trades.coach.rebuild.pg-lock-key:92100420261017}")
+    private long advisoryLockKey;
+
+    @Scheduled(initialDelayString = "${trades.coach.rebuild.initial-delay-ms:150000}",
+            fixedDelayString = "${trades.coach.rebuild.fixed-delay-ms:300000}")
+    public void refreshAdvice() {
+        if (!config.isStoredAdvice()) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Skipping coach advice refresh: previous run is still active");
+            return;
+        }
+
+        boolean lockAcquired = false;
+        try {
+            lockAcquired = tryAcquireDistributedLock();
+            if (!lockAcquired) {
+                log.debug("Skipping coach advice refresh: advisory lock is held by another instance");
+                return;
+            }
+            int rebuilt = 0;
+            OffsetDateTime builtBefore = OffsetDateTime.now().minusNanos(maxAgeMs * 1_000_000L);
+            for (UUID userId : tradeCoachAggregateRepository.findStatesBuiltBefore(builtBefore, batchSize)) {
+                tradeCoachAggregateService.rebuild(userId);
+                rebuilt++;
+            }
+            int precomputed = 0;
+            for (UUID userId : tradeCoachAggregateRepository.findUsersWithoutAdvice(batchSize)) {
+                tradeCoachService.precompute(userId);
+                precomputed++;
+            }
+            log.debug("Coach advice refresh completed rebuilt={} precomputed={} batchSize={}", rebuilt, precomputed, batchSize);
+        } catch (RuntimeException ex) {
+            log.warn("Coach advice refresh failed", ex);
+        } finally {
+            if (lockAcquired) {
+                releaseDistributedLock();
+            }
+            running.set(false);
+        }
+    }
+
+    private boolean tryAcquireDistributedLock() {
+        Boolean acquired = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_lock(?)",
+                Boolean.class,
+                advisoryLockKey
+        );
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    private void releaseDistributedLock() {
+        Boolean released = jdbcTemplate.queryForObject(
+                "SELECT pg_advisory_unlock(?)",
+                Boolean.class,
+                advisoryLockKey
+        );
+        if (!Boolean.TRUE.equals(released)) {
+            log.warn("Failed to release coach advice advisory lock key={}", advisoryLockKey);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.tradevault.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradevault.config.TradeCoachConfig;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.CoachResponse;
+import com.tradevault.dto.analytics.DateMode;
+import com.tradevault.repository.TradeAnalyticsRow;
+import com.tradevault.repository.TradeCoachAggregateRepository;
+import com.tradevault.repository.TradeCoachAggregateRepository.CoachState;
+import com.tradevault.repository.TradeCoachAggregateRepository.GroupRow;
+import com.tradevault.repository.TradeCoachAggregateRepository.QualityCounts;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.repository.UserRepository;
+import com.tradevault.repository.spec.TradeAnalyticsQuery;
+import com.tradevault.service.TimezoneService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Maintains the persisted coach aggregates behind the default coach view (no filters, close-time grouping,
+ * outliers kept). They are built from the whole journal on first read; after that each trade write applies
+ * the signed difference between the trade's old and new version, and re-evaluates cluster membership only
+ * for the trades within two cluster windows of its old and new close time. Bulk writes apply the delta of
+ * all their trades at once, or drop the aggregates when they are too large so the next read rebuilds them.
+ * The advice cards computed from the aggregates are stored alongside them until the next write or a coach
+ * config change. Hours, weekdays and days are grouped in the user's profile zone, so a zone change drops them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TradeCoachAggregateService {
+    static final String OVERALL = "overall";
+    static final String HOUR = "hour";
+    static final String SYMBOL = "symbol";
+    static final String HOLDING = "holding";
+    static final String DAY = "day";
+    static final String CLUSTER = "cluster";
+
+    private final TradeCoachAggregateRepository aggregateRepository;
+    private final TradeRepository tradeRepository;
+    private final UserRepository userRepository;
+    private final TradeCoachConfig config;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The stored default coach view, or the one {@code advisor} builds from the aggregates when none is stored
+     * for the current config. The aggregates are built first when missing or built for another cluster window.
+     */
+    @Transactional
+    CoachResponse storedCoach(UUID userId, Function<CoachAggregates, CoachResponse> advisor) {
+        String adviceConfig = adviceConfig();
+        Optional<CoachState> state = aggregateRepository.findState(userId)
+                .filter(existing -> existing.clusterMinutes() == config.getOvertradingClusterMinutes());
+        CoachAggregates aggregates;
+        long revision;
+        if (state.isPresent()) {
+            if (state.get().advice() != null && adviceConfig.equals(state.get().adviceConfig())) {
+                CoachResponse stored = readAdvice(state.get().advice());
+                if (stored != null) {
+                    return stored;
+                }
+            }
+            aggregates = toAggregates(state.get().counts(), aggregateRepository.findGroups(userId));
+            revision = state.get().revision();
+        } else {
+            entityManager.flush();
+            aggregateRepository.lockUser(userId);
+            aggregates = build(userId, userZone(userId));
+            revision = aggregateRepository.findState(userId).map(CoachState::revision).orElse(0L);
+        }
+        CoachResponse response = advisor.apply(aggregates);
+        String advice = writeAdvice(response);
+        if (advice != null) {
+            aggregateRepository.saveAdvice(userId, revision, adviceConfig, advice);
+        }
+        return response;
+    }
+
+    /**
+     * Applies one write to trade {@code tradeId}: {@code before} is the trade as it was loaded (null on create).
+     * The new version is read back after the flush, so deltas carry the values as stored rather than the
+     * unrounded ones computed in memory. Does nothing until the user's aggregates have been built.
+     */
+    @Transactional
+    public void apply(UUID userId, UUID tradeId, TradeAnalyticsRow before) {
+        Map<UUID, TradeAnalyticsRow> previous = new HashMap<>();
+        previous.put(tradeId, before);
+        apply(userId, previous);
+    }
+
+    /**
+     * Applies one write to several trades, as a bulk request makes: {@code before} maps each written trade id
+     * to the trade as it was loaded, or to null for trades the write created. The new versions are read back
+     * in one query and cluster membership is re-evaluated once over the neighbours of all of them, since
+     * applying the trades one by one would compare each old version with neighbours already rewritten.
+     */
+    @Transactional
+    public void apply(UUID userId, Map<UUID, TradeAnalyticsRow> before) {
+        entityManager.flush();
+        aggregateRepository.lockUser(userId);
+        if (before.isEmpty() || aggregateRepository.findState(userId).isEmpty()) {
+            return;
+        }
+        ZoneId zone = userZone(userId);
+        CoachAggregates delta = new CoachAggregates();
+        List<CoachTradeMetrics> removed = new ArrayList<>();
+        List<CoachTradeMetrics> added = new ArrayList<>();
+        for (TradeAnalyticsRow row : before.values()) {
+            if (row != null) {
+                addVersion(delta, row, -1, removed, zone);
+            }
+        }
+        for (TradeAnalyticsRow row : tradeRepository.findAnalyticsRows(userId, before.keySet())) {
+            addVersion(delta, row, 1, added, zone);
+        }
+        addClusterDelta(userId, zone, before.keySet(), removed, added, delta);
+        aggregateRepository.applyDelta(userId, counts(delta), groupRows(delta));
+    }
+
+    private static void addVersion(CoachAggregates delta, TradeAnalyticsRow row, int sign, List<CoachTradeMetrics> closed,
+                                   ZoneId zone) {
+        delta.addRow(row, sign);
+        CoachTradeMetrics metric = closedMetrics(row, zone);
+        if (metric != null) {
+            delta.addTrade(metric, sign);
+            closed.add(metric);
+        }
+    }
+
+    /**
+     * Drops the user's aggregates after a bulk write too large to apply as a delta; they are rebuilt on the
+     * next read or scheduler run.
+     */
+    @Transactional
+    public void invalidate(UUID userId) {
+        entityManager.flush();
+        aggregateRepository.lockUser(userId);
+        aggregateRepository.delete(userId);
+    }
+
+    @Transactional
+    public void rebuild(UUID userId) {
+        entityManager.flush();
+        aggregateRepository.lockUser(userId);
+        build(userId, userZone(userId));
+    }
+
+    private CoachAggregates build(UUID userId, ZoneId zone) {
+        List<TradeAnalyticsRow> rows = tradeRepository.findAnalyticsRows(TradeAnalyticsQuery.forUser(userId));
+        List<CoachTradeMetrics> metrics = rows.stream()
+                .map(row -> closedMetrics(row, zone))
+                .filter(Objects::nonNull)
+                .toList();
+        CoachAggregates aggregates = CoachAggregates.of(rows, metrics, config.getOvertradingClusterMinutes());
+        aggregateRepository.replace(userId, config.getOvertradingClusterMinutes(), counts(aggregates), groupRows(aggregates));
+        return aggregates;
+    }
+
+    /**
+     * Reads the closed trades within two cluster windows of the changed trades' old and new close times, which
+     * is all {@link CoachAggregates#addClusterChange} needs to re-evaluate membership exactly. Overlapping
+     * windows are merged so trades written close together cost one query.
+     */
+    private void addClusterDelta(UUID userId, ZoneId zone, Collection<UUID> changed, List<CoachTradeMetrics> removed,
+                                 List<CoachTradeMetrics> added, CoachAggregates delta) {
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        Duration reach = Duration.ofMinutes(2L * config.getOvertradingClusterMinutes());
+        List<OffsetDateTime> anchors = new ArrayList<>(removed.size() + added.size());
+        removed.forEach(metric -> anchors.add(metric.eventTime()));
+        added.forEach(metric -> anchors.add(metric.eventTime()));
+        anchors.sort(Comparator.naturalOrder());
+        Map<UUID, CoachTradeMetrics> neighbours = new HashMap<>();
+        OffsetDateTime from = anchors.get(0).minus(reach);
+        OffsetDateTime to = anchors.get(0).plus(reach);
+        for (OffsetDateTime anchor : anchors.subList(1, anchors.size())) {
+            if (anchor.minus(reach).isAfter(to)) {
+                addNeighbours(userId, zone, from, to, neighbours);
+                from = anchor.minus(reach);
+            }
+            to = anchor.plus(reach);
+        }
+        addNeighbours(userId, zone, from, to, neighbours);
+        neighbours.keySet().removeAll(changed);
+        delta.addClusterChange(neighbours.values(), removed, added, config.getOvertradingClusterMinutes());
+    }
+
+    private void addNeighbours(UUID userId, ZoneId zone, OffsetDateTime from, OffsetDateTime to, Map<UUID, CoachTradeMetrics> neighbours) {
+        TradeAnalyticsQuery window = TradeAnalyticsQuery.of(userId, from, to,
+                null, null, TradeStatus.CLOSED, null, null, null, null, DateMode.CLOSE);
+        for (TradeAnalyticsRow row : tradeRepository.findAnalyticsRows(window)) {
+            CoachTradeMetrics metric = closedMetrics(row, zone);
+            if (metric != null) {
+                neighbours.put(row.id(), metric);
+            }
+        }
+    }
+
+    /**
+     * The metrics the default view uses for a trade, or null when it is not a closed trade with a close time.
+     */
+    static CoachTradeMetrics closedMetrics(TradeAnalyticsRow row, ZoneId zone) {
+        if (row == null || row.status() != TradeStatus.CLOSED || row.closedAt() == null) {
+            return null;
+        }
+        return CoachTradeMetrics.of(row, DateMode.CLOSE, zone);
+    }
+
+    /**
+     * The zone the user's stored aggregates group hours, weekdays and days in.
+     */
+    private ZoneId userZone(UUID userId) {
+        return TimezoneService.userZone(userRepository.findById(userId).orElse(null));
+    }
+
+    static QualityCounts counts(CoachAggregates aggregates) {
+        return new QualityCounts(aggregates.totalTrades, aggregates.closedTrades, aggregates.missingClosedAt,
+                aggregates.missingPnlNet, aggregates.missingEntryExit, aggregates.inconsistentPnl);
+    }
+
+    static List<GroupRow> groupRows(CoachAggregates aggregates) {
+        List<GroupRow> rows = new ArrayList<>();
+        addGroup(rows, OVERALL, "", aggregates.overall);
+        addGroup(rows, CLUSTER, "", aggregates.clusters);
+        aggregates.hours.forEach((hour, stats) -> addGroup(rows, HOUR, String.valueOf(hour), stats));
+        aggregates.symbols.forEach((symbol, stats) -> addGroup(rows, SYMBOL, symbol, stats));
+        aggregates.holdingBuckets.forEach((bucket, stats) -> addGroup(rows, HOLDING, bucket, stats));
+        aggregates.days.forEach((day, stats) -> addGroup(rows, DAY, day.toString(), stats));
+        return rows;
+    }
+
+    static CoachAggregates toAggregates(QualityCounts counts, List<GroupRow> rows) {
+        int symbols = 0;
+        int days = 0;
+        for (GroupRow row : rows) {
+            if (SYMBOL.equals(row.dimension())) {
+                symbols++;
+            } else if (DAY.equals(row.dimension())) {
+                days++;
+            }
+        }
+        CoachAggregates aggregates = new CoachAggregates(symbols, days);
+        aggregates.totalTrades = counts.total();
+        aggregates.closedTrades = counts.closed();
+        aggregates.missingClosedAt = counts.missingClosedAt();
+        aggregates.missingPnlNet = counts.missingPnlNet();
+        aggregates.missingEntryExit = counts.missingEntryExit();
+        aggregates.inconsistentPnl = counts.inconsistentPnl();
+        for (GroupRow row : rows) {
+            CoachGroupStats stats = toStats(row);
+            switch (row.dimension()) {
+                case OVERALL -> aggregates.overall.merge(stats);
+                case CLUSTER -> aggregates.clusters.merge(stats);
+                case HOUR -> aggregates.hours.put(Integer.parseInt(row.key()), stats);
+                case SYMBOL -> aggregates.symbols.put(row.key(), stats);
+                case HOLDING -> aggregates.holdingBuckets.put(row.key(), stats);
+                case DAY -> aggregates.days.put(LocalDate.parse(row.key()), stats);
+                default -> log.warn("Ignoring unknown coach dimension {}", row.dimension());
+            }
+        }
+        return aggregates;
+    }
+
+    private static void addGroup(List<GroupRow> rows, String dimension, String key, CoachGroupStats stats) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        rows.add(new GroupRow(dimension, key, stats.count, stats.wins, stats.losses, stats.totalNet, stats.totalCosts,
+                stats.sumWins, stats.sumLosses, stats.totalR, stats.rCount));
+    }
+
+    private static CoachGroupStats toStats(GroupRow row) {
+        CoachGroupStats stats = new CoachGroupStats();
+        stats.count = row.count();
+        stats.wins = row.wins();
+        stats.losses = row.losses();
+        stats.totalNet = row.totalNet();
+        stats.totalCosts = row.totalCosts();
+        stats.sumWins = row.sumWins();
+        stats.sumLosses = row.sumLosses();
+        stats.totalR = row.totalR();
+        stats.rCount = row.rCount();
+        return stats;
+    }
+
+    /**
+     * Fingerprint of the thresholds the advice cards depend on, so stored cards are regenerated after a
+     * config change.
+     */
+    private String adviceConfig() {
+        return Integer.toHexString(Objects.hash(config.getMinTradesForFinding(), config.getBreakEvenBand(),
+                config.getCostDragPct(), config.getCostDragAvg(), config.getOvertradingClusterMinutes(),
+                config.getHoldingBucketDelta(), config.getHoldingBucketDeltaR(), config.getCriticalExpectancy(),
+                config.getDataQualityPenaltyRatio()));
+    }
+
+    private CoachResponse readAdvice(String advice) {
+        try {
+            return objectMapper.readValue(advice, CoachResponse.class);
+        } catch (Exception ex) {
+            log.warn("Discarding unreadable stored coach advice", ex);
+            return null;
+        }
+    }
+
+    private String writeAdvice(CoachResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (Exception ex) {
+            log.warn("Unable to store coach advice", ex);
+            return null;
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package com.tradevault.analytics;
 
+import com.tradevault.analytics.metrics.QuantileSketch;
+import com.tradevault.analytics.metrics.ValueDistribution;
 import com.tradevault.config.TradeCoachConfig;
-import com.tradevault.domain.entity.Trade;
-import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.TradeStatus;
 import com.tradevault.dto.analytics.*;
+import com.tradevault.repository.TradeAnalyticsRow;
 import com.tradevault.repository.TradeRepository;
 import com.tradevault.service.CurrentUserService;
 import lombok.RequiredArgsConstructor;
@@ -13,31 +14,29 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class TradeCoachService {
-    private static final ZoneId DISPLAY_ZONE = ZoneId.of("Europe/Bucharest");
+    static final int MAX_CLUSTER_MINUTES = 24 * 60;
 
     private final TradeRepository tradeRepository;
     private final CurrentUserService currentUserService;
     private final TradeCoachConfig config;
+    private final AnalyticsResultCache analyticsResultCache;
+    private final AnalyticsMetrics analyticsMetrics;
+    private final TradeCoachAggregateService tradeCoachAggregateService;
 
     public CoachResponse coach(OffsetDateTime from,
                                OffsetDateTime to,
@@ -49,134 +48,108 @@ public class TradeCoachService {
                                String catalyst,
                                String market,
                                String dateMode,
-                               boolean excludeOutliers) {
-        User user = currentUserService.getCurrentUser();
-        List<Trade> trades = tradeRepository.findByUserId(user.getId());
-        DateMode mode = DateMode.fromString(dateMode);
-        List<Trade> filtered = filterTrades(trades, from, to, symbol, direction, status, strategy, setup, catalyst, market, mode);
-        CoachDataQuality dataQuality = buildDataQuality(filtered);
-
-        List<Trade> closedTrades = filtered.stream()
-                .filter(t -> t.getStatus() == TradeStatus.CLOSED && t.getClosedAt() != null)
-                .toList();
+                               boolean excludeOutliers,
+                               boolean exact,
+                               Integer clusterMinutes) {
+        AnalyticsDataset dataset = AnalyticsDataset.of(tradeRepository, currentUserService.getCurrentUser(),
+                from, to, symbol, direction, status, strategy, setup, catalyst, market, dateMode);
+        return coach(dataset, excludeOutliers, exact, clusterMinutes);
+    }
 
-        List<Trade> closedForMetrics = excludeOutliers ? filterOutliers(closedTrades) : closedTrades;
-        List<TradeMetrics> metrics = closedForMetrics.stream()
-                .map(trade -> toMetrics(trade, mode))
-                .filter(Objects::nonNull)
-                .toList();
+    public CoachResponse coach(AnalyticsDataset dataset, boolean excludeOutliers, boolean exact) {
+        return coach(dataset, excludeOutliers, exact, null);
+    }
 
-        boolean dataQualityPenalty = hasDataQualityPenalty(dataQuality);
-        List<AdviceCard> advice = new ArrayList<>();
-        advice.addAll(buildHourAdvice(metrics, mode, dataQualityPenalty));
-        advice.addAll(buildSymbolAdvice(metrics, mode, dataQualityPenalty));
-        advice.addAll(buildHoldingBucketAdvice(metrics, mode, dataQualityPenalty));
-        advice.addAll(buildStyleAdvice(metrics, dataQualityPenalty));
-        advice.addAll(buildCostAdvice(metrics, dataQualityPenalty));
-        advice.addAll(buildOvertradingAdvice(metrics, mode, dataQualityPenalty));
-        advice.addAll(buildDataQualityAdvice(dataQuality, metrics.size(), mode));
+    /**
+     * {@code clusterMinutes} overrides {@code tradecoach.overtrading-cluster-minutes} for this request; null
+     * keeps the configured threshold.
+     */
+    public CoachResponse coach(AnalyticsDataset dataset, boolean excludeOutliers, boolean exact, Integer clusterMinutes) {
+        int minutes = resolveClusterMinutes(clusterMinutes);
+        AnalyticsFilterKey key = dataset.key(excludeOutliers, null);
+        return analyticsResultCache.get(dataset.user().getId(), "coach", key, List.of(exact, minutes),
+                () -> servedFromStore(dataset, excludeOutliers, minutes)
+                        ? storedCoach(dataset.user().getId())
+                        : computeCoach(dataset, excludeOutliers, exact, minutes));
+    }
 
-        return CoachResponse.builder()
-                .dataQuality(dataQuality)
-                .advice(advice)
-                .build();
+    /**
+     * The default view (whole journal, close time, outliers kept, configured cluster threshold) comes from the
+     * persisted aggregates and stored advice instead of a pass over every trade.
+     */
+    private boolean servedFromStore(AnalyticsDataset dataset, boolean excludeOutliers, int clusterMinutes) {
+        return config.isStoredAdvice() && !excludeOutliers && dataset.isUnfiltered()
+                && clusterMinutes == config.getOvertradingClusterMinutes();
     }
 
-    private List<Trade> filterTrades(List<Trade> trades,
-                                     OffsetDateTime from,
-                                     OffsetDateTime to,
-                                     String symbol,
-                                     Direction direction,
-                                     TradeStatus status,
-                                     String strategy,
-                                     String setup,
-                                     String catalyst,
-                                     String market,
-                                     DateMode mode) {
-        List<Trade> filtered = trades;
-        if (symbol != null && !symbol.isBlank()) {
-            Set<String> symbols = parseFilterValues(symbol);
-            filtered = filtered.stream().filter(t -> t.getSymbol() != null && symbols.contains(t.getSymbol().toLowerCase(Locale.ROOT))).toList();
-        }
-        if (direction != null) {
-            filtered = filtered.stream().filter(t -> t.getDirection() == direction).toList();
-        }
-        if (market != null && !market.isBlank()) {
-            Set<String> markets = parseFilterValues(market);
-            filtered = filtered.stream().filter(t -> t.getMarket() != null && markets.contains(t.getMarket().name().toLowerCase(Locale.ROOT))).toList();
-        }
-        if (status != null) {
-            filtered = filtered.stream().filter(t -> t.getStatus() == status).toList();
-        }
-        if (strategy != null && !strategy.isBlank()) {
-            Set<String> strategies = parseFilterValues(strategy);
-            filtered = filtered.stream().filter(t -> t.getStrategyTag() != null && strategies.contains(t.getStrategyTag().toLowerCase(Locale.ROOT))).toList();
+    private int resolveClusterMinutes(Integer clusterMinutes) {
+        if (clusterMinutes == null) {
+            return config.getOvertradingClusterMinutes();
         }
-        if (setup != null && !setup.isBlank()) {
-            Set<String> setups = parseFilterValues(setup);
-            filtered = filtered.stream().filter(t -> t.getSetup() != null && setups.contains(t.getSetup().toLowerCase(Locale.ROOT))).toList();
+        if (clusterMinutes < 1 || clusterMinutes > MAX_CLUSTER_MINUTES) {
+            throw new IllegalArgumentException("clusterMinutes must be between 1 and " + MAX_CLUSTER_MINUTES);
         }
-        if (catalyst != null && !catalyst.isBlank()) {
-            Set<String> catalysts = parseFilterValues(catalyst);
-            filtered = filtered.stream().filter(t -> t.getCatalystTag() != null && catalysts.contains(t.getCatalystTag().toLowerCase(Locale.ROOT))).toList();
-        }
-        if (from != null || to != null) {
-            filtered = filtered.stream().filter(t -> {
-                OffsetDateTime time = getEventTime(t, mode);
-                if (time == null) return false;
-                boolean afterFrom = from == null || !time.isBefore(from);
-                boolean beforeTo = to == null || !time.isAfter(to);
-                return afterFrom && beforeTo;
-            }).toList();
-        }
-        return filtered;
+        return clusterMinutes;
+    }
+
+    /**
+     * Builds and stores the default view ahead of the user's next read.
+     */
+    public void precompute(UUID userId) {
+        storedCoach(userId);
+    }
+
+    private CoachResponse storedCoach(UUID userId) {
+        return tradeCoachAggregateService.storedCoach(userId,
+                aggregates -> advise(aggregates, DateMode.CLOSE, aggregates.totalTrades));
+    }
+
+    private CoachResponse computeCoach(AnalyticsDataset dataset, boolean excludeOutliers, boolean exact, int clusterMinutes) {
+        DateMode mode = dataset.mode();
+        ZoneId zone = dataset.zone();
+        List<TradeAnalyticsRow> filtered = analyticsMetrics.rows("coach", dataset);
+        int size = filtered.size();
+
+        List<CoachTradeMetrics> metrics = analyticsMetrics.time("coach", "filter", size, () -> {
+            List<TradeAnalyticsRow> closedTrades = filtered.stream()
+                    .filter(t -> t.status() == TradeStatus.CLOSED && t.closedAt() != null)
+                    .toList();
+            List<TradeAnalyticsRow> closedForMetrics = excludeOutliers ? filterOutliers(closedTrades, exact) : closedTrades;
+            return closedForMetrics.stream()
+                    .map(trade -> CoachTradeMetrics.of(trade, mode, zone))
+                    .filter(Objects::nonNull)
+                    .toList();
+        });
+        analyticsMetrics.rowsUsed("coach", size, metrics.size());
+        CoachAggregates aggregates = analyticsMetrics.time("coach", "aggregate", size,
+                () -> CoachAggregates.of(filtered, metrics, clusterMinutes));
+        return advise(aggregates, mode, size);
     }
 
-    private CoachDataQuality buildDataQuality(List<Trade> trades) {
-        int total = trades.size();
-        int closed = (int) trades.stream().filter(t -> t.getStatus() == TradeStatus.CLOSED).count();
-        int missingClosedAt = (int) trades.stream()
-                .filter(t -> t.getStatus() == TradeStatus.CLOSED && t.getClosedAt() == null)
-                .count();
-        int missingPnlNet = (int) trades.stream()
-                .filter(t -> t.getStatus() == TradeStatus.CLOSED && t.getClosedAt() != null && t.getPnlNet() == null)
-                .count();
-        int missingEntryExit = (int) trades.stream()
-                .filter(t -> t.getStatus() == TradeStatus.CLOSED)
-                .filter(t -> t.getEntryPrice() == null || t.getExitPrice() == null || t.getQuantity() == null)
-                .count();
-        int inconsistentPnl = (int) trades.stream()
-                .filter(t -> t.getStatus() == TradeStatus.CLOSED && t.getPnlNet() != null)
-                .filter(this::isPnlInconsistent)
-                .count();
-
-        return CoachDataQuality.builder()
-                .totalTrades(total)
-                .closedTrades(closed)
-                .missingClosedAtCount(missingClosedAt)
-                .missingPnlNetCount(missingPnlNet)
-                .missingEntryExitCount(missingEntryExit)
-                .inconsistentPnlCount(inconsistentPnl)
+    /**
+     * Builds the advice cards from aggregated stats alone, so the same cards come from a fresh computation
+     * and from the persisted aggregates.
+     */
+    CoachResponse advise(CoachAggregates aggregates, DateMode mode, int size) {
+        CoachDataQuality dataQuality = aggregates.dataQuality();
+        boolean dataQualityPenalty = hasDataQualityPenalty(dataQuality);
+        List<AdviceCard> advice = new ArrayList<>();
+        advice.addAll(advice("hourAdvice", size, () -> buildHourAdvice(aggregates.hours, mode, dataQualityPenalty)));
+        advice.addAll(advice("symbolAdvice", size, () -> buildSymbolAdvice(aggregates.symbols, mode, dataQualityPenalty)));
+        advice.addAll(advice("holdingBucketAdvice", size, () -> buildHoldingBucketAdvice(aggregates.holdingBuckets, mode, dataQualityPenalty)));
+        advice.addAll(advice("styleAdvice", size, () -> buildStyleAdvice(aggregates.overall, dataQualityPenalty)));
+        advice.addAll(advice("costAdvice", size, () -> buildCostAdvice(aggregates.overall, dataQualityPenalty)));
+        advice.addAll(advice("overtradingAdvice", size, () -> buildOvertradingAdvice(aggregates, mode, dataQualityPenalty)));
+        advice.addAll(advice("dataQualityAdvice", size, () -> buildDataQualityAdvice(dataQuality, aggregates.overall.count, mode)));
+
+        return CoachResponse.builder()
+                .dataQuality(dataQuality)
+                .advice(advice)
                 .build();
     }
 
-    private boolean isPnlInconsistent(Trade trade) {
-        if (trade.getEntryPrice() == null || trade.getExitPrice() == null || trade.getQuantity() == null || trade.getDirection() == null) {
-            return false;
-        }
-        BigDecimal qty = trade.getQuantity();
-        BigDecimal entry = trade.getEntryPrice();
-        BigDecimal exit = trade.getExitPrice();
-        BigDecimal expected = trade.getDirection() == Direction.LONG
-                ? exit.subtract(entry).multiply(qty)
-                : entry.subtract(exit).multiply(qty);
-        BigDecimal actual = trade.getPnlNet();
-        BigDecimal diff = expected.subtract(actual).abs();
-        BigDecimal threshold = expected.abs().multiply(BigDecimal.valueOf(0.1));
-        if (threshold.compareTo(BigDecimal.ONE) < 0) {
-            threshold = BigDecimal.ONE;
-        }
-        return diff.compareTo(threshold) > 0;
+    private List<AdviceCard> advice(String stage, int rows, Supplier<List<AdviceCard>> builder) {
+        return analyticsMetrics.time("coach", stage, rows, builder);
     }
 
     private boolean hasDataQualityPenalty(CoachDataQuality dataQuality) {
@@ -189,28 +162,7 @@ public class TradeCoachService {
         return ratio >= config.getDataQualityPenaltyRatio();
     }
 
-    private TradeMetrics toMetrics(Trade trade, DateMode mode) {
-        if (trade.getClosedAt() == null && trade.getOpenedAt() == null) return null;
-        OffsetDateTime eventTime = getEventTime(trade, mode);
-        if (eventTime == null) return null;
-        BigDecimal pnlNet = trade.getPnlNet() == null ? BigDecimal.ZERO : trade.getPnlNet();
-        BigDecimal fees = trade.getFees() == null ? BigDecimal.ZERO : trade.getFees();
-        BigDecimal commission = trade.getCommission() == null ? BigDecimal.ZERO : trade.getCommission();
-        BigDecimal slippage = trade.getSlippage() == null ? BigDecimal.ZERO : trade.getSlippage();
-        BigDecimal costs = fees.add(commission).add(slippage);
-        Long holdingMinutes = holdingMinutes(trade);
-        ZonedDateTime zoned = eventTime.atZoneSameInstant(DISPLAY_ZONE);
-        int hour = zoned.getHour();
-        int dayOfWeek = zoned.getDayOfWeek().getValue();
-        BigDecimal r = rEstimate(trade, pnlNet);
-        String holdingBucket = bucketHoldingTime(trade);
-
-        return new TradeMetrics(trade.getId(), pnlNet, costs, holdingMinutes, hour, dayOfWeek, r, holdingBucket, eventTime, trade.getSymbol(), trade.getMarket() == null ? null : trade.getMarket().name(), trade.getDirection() == null ? null : trade.getDirection().name(),
-                trade.getStrategyTag(), trade.getSetup(), trade.getCatalystTag());
-    }
-
-    private List<AdviceCard> buildHourAdvice(List<TradeMetrics> metrics, DateMode mode, boolean dataQualityPenalty) {
-        Map<Integer, GroupStats> hourStats = groupBy(metrics, TradeMetrics::hourOfDay);
+    private List<AdviceCard> buildHourAdvice(Map<Integer, CoachGroupStats> hourStats, DateMode mode, boolean dataQualityPenalty) {
         List<GroupStatsEntry<Integer>> eligible = hourStats.entrySet().stream()
                 .filter(entry -> entry.getValue().count >= config.getMinTradesForFinding())
                 .map(entry -> new GroupStatsEntry<>(entry.getKey(), entry.getValue()))
@@ -254,8 +206,7 @@ public class TradeCoachService {
         return results;
     }
 
-    private List<AdviceCard> buildSymbolAdvice(List<TradeMetrics> metrics, DateMode mode, boolean dataQualityPenalty) {
-        Map<String, GroupStats> symbolStats = groupBy(metrics, TradeMetrics::symbol);
+    private List<AdviceCard> buildSymbolAdvice(Map<String, CoachGroupStats> symbolStats, DateMode mode, boolean dataQualityPenalty) {
         List<GroupStatsEntry<String>> eligible = symbolStats.entrySet().stream()
                 .filter(entry -> entry.getValue().count >= config.getMinTradesForFinding())
                 .map(entry -> new GroupStatsEntry<>(entry.getKey(), entry.getValue()))
@@ -305,8 +256,7 @@ public class TradeCoachService {
         return results;
     }
 
-    private List<AdviceCard> buildHoldingBucketAdvice(List<TradeMetrics> metrics, DateMode mode, boolean dataQualityPenalty) {
-        Map<String, GroupStats> holdingStats = groupBy(metrics, TradeMetrics::holdingBucket);
+    private List<AdviceCard> buildHoldingBucketAdvice(Map<String, CoachGroupStats> holdingStats, DateMode mode, boolean dataQualityPenalty) {
         List<GroupStatsEntry<String>> eligible = holdingStats.entrySet().stream()
                 .filter(entry -> entry.getValue().count >= config.getMinTradesForFinding())
                 .map(entry -> new GroupStatsEntry<>(entry.getKey(), entry.getValue()))
@@ -342,8 +292,7 @@ public class TradeCoachService {
                 .build());
     }
 
-    private List<AdviceCard> buildStyleAdvice(List<TradeMetrics> metrics, boolean dataQualityPenalty) {
-        GroupStats overall = summarize(metrics);
+    private List<AdviceCard> buildStyleAdvice(CoachGroupStats overall, boolean dataQualityPenalty) {
         if (overall.count < config.getMinTradesForFinding()) {
             return List.of();
         }
@@ -398,15 +347,11 @@ public class TradeCoachService {
         return results;
     }
 
-    private List<AdviceCard> buildCostAdvice(List<TradeMetrics> metrics, boolean dataQualityPenalty) {
-        GroupStats overall = summarize(metrics);
+    private List<AdviceCard> buildCostAdvice(CoachGroupStats overall, boolean dataQualityPenalty) {
         if (overall.count < config.getMinTradesForFinding()) {
             return List.of();
         }
-        BigDecimal grossProfit = metrics.stream()
-                .map(TradeMetrics::pnlNet)
-                .filter(pnl -> pnl.compareTo(BigDecimal.ZERO) > 0)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal grossProfit = overall.sumWins;
         BigDecimal totalCosts = overall.totalCosts;
         BigDecimal avgCosts = overall.count == 0 ? BigDecimal.ZERO : totalCosts.divide(BigDecimal.valueOf(overall.count), 2, RoundingMode.HALF_UP);
         boolean costPctTriggered = grossProfit.compareTo(BigDecimal.ZERO) > 0 &&
@@ -434,23 +379,20 @@ public class TradeCoachService {
                 .build());
     }
 
-    private List<AdviceCard> buildOvertradingAdvice(List<TradeMetrics> metrics, DateMode mode, boolean dataQualityPenalty) {
-        if (metrics.size() < config.getMinTradesForFinding()) {
+    private List<AdviceCard> buildOvertradingAdvice(CoachAggregates aggregates, DateMode mode, boolean dataQualityPenalty) {
+        if (aggregates.overall.count < config.getMinTradesForFinding()) {
             return List.of();
         }
-        Map<LocalDate, List<TradeMetrics>> byDay = metrics.stream()
-                .filter(m -> m.eventTime != null)
-                .collect(Collectors.groupingBy(m -> toLocalDate(m.eventTime)));
-        List<Integer> counts = byDay.values().stream().map(List::size).sorted().toList();
+        Map<LocalDate, CoachGroupStats> byDay = aggregates.days;
+        List<Integer> counts = byDay.values().stream().map(stats -> stats.count).sorted().toList();
         if (counts.isEmpty()) {
             return List.of();
         }
         int threshold = percentile(counts);
-        List<TradeMetrics> highVolumeTrades = byDay.values().stream()
-                .filter(list -> list.size() >= threshold)
-                .flatMap(List::stream)
-                .toList();
-        GroupStats highVolumeStats = summarize(highVolumeTrades);
+        CoachGroupStats highVolumeStats = new CoachGroupStats();
+        byDay.values().stream()
+                .filter(stats -> stats.count >= threshold)
+                .forEach(highVolumeStats::merge);
         List<AdviceCard> results = new ArrayList<>();
         if (highVolumeStats.count >= config.getMinTradesForFinding() && highVolumeStats.expectancy().compareTo(BigDecimal.ZERO) < 0) {
             results.add(AdviceCard.builder()
@@ -468,8 +410,7 @@ public class TradeCoachService {
                     .build());
         }
 
-        List<TradeMetrics> clusterTrades = findClusterTrades(metrics);
-        GroupStats clusterStats = summarize(clusterTrades);
+        CoachGroupStats clusterStats = aggregates.clusters;
         if (clusterStats.count >= config.getMinTradesForFinding() && clusterStats.expectancy().compareTo(BigDecimal.ZERO) < 0) {
             results.add(AdviceCard.builder()
                     .id("coach-overtrading-clusters")
@@ -527,44 +468,7 @@ public class TradeCoachService {
         return List.of(card);
     }
 
-    private List<TradeMetrics> findClusterTrades(List<TradeMetrics> metrics) {
-        List<TradeMetrics> sorted = metrics.stream()
-                .filter(m -> m.eventTime != null)
-                .sorted(Comparator.comparing(m -> m.eventTime))
-                .toList();
-        if (sorted.size() < 2) return List.of();
-        List<TradeMetrics> clusters = new ArrayList<>();
-        for (int i = 1; i < sorted.size(); i++) {
-            TradeMetrics prev = sorted.get(i - 1);
-            TradeMetrics current = sorted.get(i);
-            long minutes = Duration.between(prev.eventTime, current.eventTime).toMinutes();
-            if (minutes < config.getOvertradingClusterMinutes()) {
-                if (clusters.isEmpty() || clusters.get(clusters.size() - 1).id != prev.id) {
-                    clusters.add(prev);
-                }
-                clusters.add(current);
-            }
-        }
-        return clusters;
-    }
-
-    private GroupStats summarize(List<TradeMetrics> metrics) {
-        GroupStats stats = new GroupStats();
-        metrics.forEach(stats::add);
-        return stats;
-    }
-
-    private <K> Map<K, GroupStats> groupBy(List<TradeMetrics> metrics, java.util.function.Function<TradeMetrics, K> keyExtractor) {
-        Map<K, GroupStats> grouped = new HashMap<>();
-        for (TradeMetrics metric : metrics) {
-            K key = keyExtractor.apply(metric);
-            if (key == null) continue;
-            grouped.computeIfAbsent(key, k -> new GroupStats()).add(metric);
-        }
-        return grouped;
-    }
-
-    private List<AdviceEvidence> buildEvidence(GroupStats stats) {
+    private List<AdviceEvidence> buildEvidence(CoachGroupStats stats) {
         List<AdviceEvidence> evidence = new ArrayList<>();
         evidence.add(AdviceEvidence.builder().label("Trades").value((double) stats.count).kind("number").build());
         evidence.add(AdviceEvidence.builder().label("Expectancy").value(stats.expectancy().doubleValue()).kind("currency").build());
@@ -591,60 +495,32 @@ public class TradeCoachService {
         };
     }
 
-    private Long holdingMinutes(Trade trade) {
-        if (trade.getOpenedAt() == null || trade.getClosedAt() == null) return null;
-        return Duration.between(trade.getOpenedAt(), trade.getClosedAt()).toMinutes();
-    }
-
-    private String bucketHoldingTime(Trade trade) {
-        Long minutes = holdingMinutes(trade);
-        if (minutes == null) return null;
-        if (minutes < 5) return "<5m";
-        if (minutes < 15) return "5-15m";
-        if (minutes < 60) return "15-60m";
-        if (minutes < 240) return "1-4h";
-        return ">4h";
-    }
-
-    private BigDecimal rEstimate(Trade trade, BigDecimal pnlNet) {
-        if (trade.getRMultiple() != null) {
-            return trade.getRMultiple();
-        }
-        if (trade.getRiskAmount() != null && trade.getRiskAmount().compareTo(BigDecimal.ZERO) != 0) {
-            return pnlNet.divide(trade.getRiskAmount(), 4, RoundingMode.HALF_UP);
-        }
-        return null;
-    }
-
-    private OffsetDateTime getEventTime(Trade trade, DateMode mode) {
-        return mode == DateMode.OPEN ? trade.getOpenedAt() : trade.getClosedAt();
-    }
-
-    private LocalDate toLocalDate(OffsetDateTime time) {
-        return time.atZoneSameInstant(DISPLAY_ZONE).toLocalDate();
-    }
-
-    private Set<String> parseFilterValues(String value) {
-        return Arrays.stream(value.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isBlank())
-                .map(s -> s.toLowerCase(Locale.ROOT))
-                .collect(Collectors.toSet());
-    }
-
-    private List<Trade> filterOutliers(List<Trade> trades) {
-        List<BigDecimal> pnlValues = trades.stream()
-                .map(t -> t.getPnlNet() == null ? BigDecimal.ZERO : t.getPnlNet())
-                .sorted()
-                .toList();
-        if (pnlValues.isEmpty()) {
+    /**
+     * Drops trades outside the 1st-99th percentile band. Samples above
+     * {@link ValueDistribution#EXACT_SAMPLE_LIMIT} take the band from a quantile sketch unless {@code exact}.
+     */
+    private List<TradeAnalyticsRow> filterOutliers(List<TradeAnalyticsRow> trades, boolean exact) {
+        if (trades.isEmpty()) {
             return trades;
         }
-        BigDecimal p1 = percentileRank(pnlValues, 1);
-        BigDecimal p99 = percentileRank(pnlValues, 99);
+        BigDecimal p1;
+        BigDecimal p99;
+        if (exact || trades.size() <= ValueDistribution.EXACT_SAMPLE_LIMIT) {
+            List<BigDecimal> pnlValues = trades.stream()
+                    .map(t -> t.pnlNet() == null ? BigDecimal.ZERO : t.pnlNet())
+                    .sorted()
+                    .toList();
+            p1 = percentileRank(pnlValues, 1);
+            p99 = percentileRank(pnlValues, 99);
+        } else {
+            QuantileSketch sketch = new QuantileSketch();
+            trades.forEach(t -> sketch.accept(t.pnlNet() == null ? 0 : t.pnlNet().doubleValue()));
+            p1 = BigDecimal.valueOf(sketch.quantile(0.01));
+            p99 = BigDecimal.valueOf(sketch.quantile(0.99));
+        }
         return trades.stream()
                 .filter(t -> {
-                    BigDecimal pnl = t.getPnlNet() == null ? BigDecimal.ZERO : t.getPnlNet();
+                    BigDecimal pnl = t.pnlNet() == null ? BigDecimal.ZERO : t.pnlNet();
                     return pnl.compareTo(p1) >= 0 && pnl.compareTo(p99) <= 0;
                 })
                 .toList();
@@ -664,102 +540,5 @@ public class TradeCoachService {
         return values.get(index);
     }
 
-    private record TradeMetrics(
-            UUID id,
-            BigDecimal pnlNet,
-            BigDecimal costs,
-            Long holdingMinutes,
-            Integer hourOfDay,
-            Integer dayOfWeek,
-            BigDecimal rMultiple,
-            String holdingBucket,
-            OffsetDateTime eventTime,
-            String symbol,
-            String market,
-            String direction,
-            String strategyTag,
-            String setup,
-            String catalystTag
-    ) {}
-
-    private static class GroupStats {
-        private int count = 0;
-        private int wins = 0;
-        private int losses = 0;
-        private BigDecimal totalNet = BigDecimal.ZERO;
-        private BigDecimal totalCosts = BigDecimal.ZERO;
-        private BigDecimal sumWins = BigDecimal.ZERO;
-        private BigDecimal sumLosses = BigDecimal.ZERO;
-        private final List<BigDecimal> pnlValues = new ArrayList<>();
-        private final List<BigDecimal> rValues = new ArrayList<>();
-
-        void add(TradeMetrics metric) {
-            if (metric == null) return;
-            count++;
-            BigDecimal pnl = metric.pnlNet == null ? BigDecimal.ZERO : metric.pnlNet;
-            pnlValues.add(pnl);
-            totalNet = totalNet.add(pnl);
-            totalCosts = totalCosts.add(metric.costs == null ? BigDecimal.ZERO : metric.costs);
-            if (pnl.compareTo(BigDecimal.ZERO) > 0) {
-                wins++;
-                sumWins = sumWins.add(pnl);
-            } else if (pnl.compareTo(BigDecimal.ZERO) < 0) {
-                losses++;
-                sumLosses = sumLosses.add(pnl);
-            }
-            if (metric.rMultiple != null) {
-                rValues.add(metric.rMultiple);
-            }
-        }
-
-        double winRate() {
-            if (count == 0) return 0;
-            return (double) wins / count * 100;
-        }
-
-        BigDecimal expectancy() {
-            if (count == 0) return BigDecimal.ZERO;
-            return totalNet.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
-        }
-
-        BigDecimal averageWin() {
-            if (wins == 0) return BigDecimal.ZERO;
-            return sumWins.divide(BigDecimal.valueOf(wins), 2, RoundingMode.HALF_UP);
-        }
-
-        BigDecimal averageLoss() {
-            if (losses == 0) return BigDecimal.ZERO;
-            return sumLosses.divide(BigDecimal.valueOf(losses), 2, RoundingMode.HALF_UP);
-        }
-
-        Double profitFactor() {
-            if (sumLosses.compareTo(BigDecimal.ZERO) == 0) return null;
-            BigDecimal pf = sumWins.divide(sumLosses.abs(), 4, RoundingMode.HALF_UP);
-            return pf.doubleValue();
-        }
-
-        BigDecimal payoffRatio() {
-            BigDecimal avgLoss = averageLoss();
-            if (avgLoss.compareTo(BigDecimal.ZERO) == 0) return null;
-            return averageWin().divide(avgLoss.abs(), 2, RoundingMode.HALF_UP);
-        }
-
-        BigDecimal medianPnl() {
-            if (pnlValues.isEmpty()) return BigDecimal.ZERO;
-            List<BigDecimal> sorted = pnlValues.stream().sorted().toList();
-            int mid = sorted.size() / 2;
-            if (sorted.size() % 2 == 0) {
-                return sorted.get(mid - 1).add(sorted.get(mid)).divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
-            }
-            return sorted.get(mid);
-        }
-
-        BigDecimal averageR() {
-            if (rValues.isEmpty()) return null;
-            BigDecimal total = rValues.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-            return total.divide(BigDecimal.valueOf(rValues.size()), 4, RoundingMode.HALF_UP);
-        }
-    }
-
-    private record GroupStatsEntry<K>(K key, GroupStats stats) {}
+    private record GroupStatsEntry<K>(K key, CoachGroupStats stats) {}
 }
@@ -0,0 +1,155 @@
+package com.tradevault.analytics.columnar;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * A nullable decimal column stored as {@code long} units at the snapshot scale. The original scale of
+ * every value is kept next to it so a value picked out of the column renders exactly like the
+ * {@link BigDecimal} it came from. Null values read as {@link BigDecimal#ZERO}.
+ */
+public final class DecimalColumn {
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+
+    private final long[] units;
+    private final byte[] scales;
+    private final int unitScale;
+    private final int valueScale;
+    private final boolean uniformScale;
+
+    private DecimalColumn(long[] units, byte[] scales, int unitScale, int valueScale, boolean uniformScale) {
+        this.units = units;
+        this.scales = scales;
+        this.unitScale = unitScale;
+        this.valueScale = valueScale;
+        this.uniformScale = uniformScale;
+    }
+
+    static DecimalColumn of(BigDecimal[] values, int unitScale) {
+        long[] units = new long[values.length];
+        byte[] scales = new byte[values.length];
+        int valueScale = Integer.MIN_VALUE;
+        boolean uniform = true;
+        for (int row = 0; row < values.length; row++) {
+            BigDecimal value = values[row];
+            if (value == null) {
+                scales[row] = NULL_SCALE;
+                continue;
+            }
+            units[row] = FixedPoint.toUnits(value, unitScale);
+            scales[row] = (byte) value.scale();
+            if (valueScale == Integer.MIN_VALUE) {
+                valueScale = value.scale();
+            } else if (valueScale != value.scale()) {
+                uniform = false;
+            }
+        }
+        return new DecimalColumn(units, scales, unitScale, valueScale, uniform);
+    }
+
+    static int maxScale(BigDecimal[] values) {
+        int max = 0;
+        for (BigDecimal value : values) {
+            if (value != null && value.scale() > max) {
+                max = value.scale();
+            }
+        }
+        return max;
+    }
+
+    public boolean isNull(int row) {
+        return scales[row] == NULL_SCALE;
+    }
+
+    /**
+     * Units at {@link #unitScale()}; zero for null rows.
+     */
+    public long units(int row) {
+        return units[row];
+    }
+
+    /**
+     * Scale of the original value; zero for null rows, matching {@link BigDecimal#ZERO}.
+     */
+    public int scale(int row) {
+        byte scale = scales[row];
+        return scale == NULL_SCALE ? 0 : scale;
+    }
+
+    public int unitScale() {
+        return unitScale;
+    }
+
+    public BigDecimal value(int row) {
+        if (isNull(row)) return BigDecimal.ZERO;
+        return FixedPoint.toBigDecimal(units[row], unitScale, scales[row]);
+    }
+
+    public double doubleValue(int row) {
+        return FixedPoint.toDouble(units[row], unitScale);
+    }
+
+    /**
+     * Copies the units of the given rows into a new ascending array.
+     */
+    public long[] sortedUnits(int[] rows) {
+        long[] sorted = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            sorted[i] = units[rows[i]];
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * The value at {@code position} of {@code sorted}, rendered with the scale of the row a stable sort of
+     * {@code rows} would have put there.
+     */
+    public BigDecimal valueAt(int[] rows, long[] sorted, int position) {
+        long target = sorted[position];
+        if (uniformScale && (target != 0 || valueScale == 0)) {
+            return FixedPoint.toBigDecimal(target, unitScale, valueScale == Integer.MIN_VALUE ? 0 : valueScale);
+        }
+        int rank = position - lowerBound(sorted, target);
+        for (int row : rows) {
+            if (units[row] == target && rank-- == 0) {
+                return FixedPoint.toBigDecimal(target, unitScale, scale(row));
+            }
+        }
+        throw new IllegalArgumentException("Sorted units do not belong to the given rows");
+    }
+
+    /**
+     * First index of {@code sorted} holding a value {@code >= key}.
+     */
+    public static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First index of {@code sorted} holding a value {@code > key}.
+     */
+    public static int upperBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
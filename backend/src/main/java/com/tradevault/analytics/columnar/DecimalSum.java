@@ -0,0 +1,60 @@
+package com.tradevault.analytics.columnar;
+
+import java.math.BigDecimal;
+
+/**
+ * Exact running sum over {@link DecimalColumn} rows. The result carries the scale {@link BigDecimal#add}
+ * would have produced: the largest scale among the added values, optionally seeded like
+ * {@code BigDecimal.ZERO}.
+ */
+public final class DecimalSum {
+    private static final int NO_SCALE = Integer.MIN_VALUE;
+
+    private long units;
+    private int scale;
+
+    private DecimalSum(int scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * A sum that starts from {@link BigDecimal#ZERO}, like {@code reduce(BigDecimal.ZERO, BigDecimal::add)}.
+     */
+    public static DecimalSum zero() {
+        return new DecimalSum(0);
+    }
+
+    /**
+     * A sum whose scale comes only from the added values, like {@code Map.merge(key, value, BigDecimal::add)}.
+     */
+    public static DecimalSum empty() {
+        return new DecimalSum(NO_SCALE);
+    }
+
+    public void add(DecimalColumn column, int row) {
+        add(column.units(row), column.scale(row));
+    }
+
+    public void add(long valueUnits, int valueScale) {
+        units = Math.addExact(units, valueUnits);
+        if (valueScale > scale) {
+            scale = valueScale;
+        }
+    }
+
+    public long units() {
+        return units;
+    }
+
+    public int scale() {
+        return scale == NO_SCALE ? 0 : scale;
+    }
+
+    public boolean isZero() {
+        return units == 0;
+    }
+
+    public BigDecimal toBigDecimal(int unitScale) {
+        return FixedPoint.toBigDecimal(units, unitScale, scale());
+    }
+}
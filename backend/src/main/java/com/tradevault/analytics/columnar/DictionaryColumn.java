@@ -0,0 +1,111 @@
+package com.tradevault.analytics.columnar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary-encoded text column. Rows hold an id into the distinct raw values; a second mapping folds
+ * null and blank values into the {@value #UNSPECIFIED} label used by breakdowns.
+ */
+public final class DictionaryColumn {
+    public static final int NULL_ID = -1;
+    public static final String UNSPECIFIED = "Unspecified";
+
+    private final int[] ids;
+    private final String[] values;
+    private final boolean[] blank;
+    private final int[] valueLabels;
+    private final String[] labels;
+    private final int nullLabel;
+
+    private DictionaryColumn(int[] ids, String[] values, boolean[] blank, int[] valueLabels, String[] labels, int nullLabel) {
+        this.ids = ids;
+        this.values = values;
+        this.blank = blank;
+        this.valueLabels = valueLabels;
+        this.labels = labels;
+        this.nullLabel = nullLabel;
+    }
+
+    static DictionaryColumn of(String[] raw) {
+        int[] ids = new int[raw.length];
+        Map<String, Integer> valueIds = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        for (int row = 0; row < raw.length; row++) {
+            String value = raw[row];
+            if (value == null) {
+                ids[row] = NULL_ID;
+                continue;
+            }
+            Integer id = valueIds.get(value);
+            if (id == null) {
+                id = values.size();
+                valueIds.put(value, id);
+                values.add(value);
+            }
+            ids[row] = id;
+        }
+
+        Map<String, Integer> labelIds = new HashMap<>();
+        List<String> labels = new ArrayList<>();
+        boolean[] blank = new boolean[values.size()];
+        int[] valueLabels = new int[values.size()];
+        for (int id = 0; id < values.size(); id++) {
+            String value = values.get(id);
+            blank[id] = value.isBlank();
+            String label = blank[id] ? UNSPECIFIED : value;
+            valueLabels[id] = labelIds.computeIfAbsent(label, key -> {
+                labels.add(key);
+                return labels.size() - 1;
+            });
+        }
+        int nullLabel = labelIds.computeIfAbsent(UNSPECIFIED, key -> {
+            labels.add(key);
+            return labels.size() - 1;
+        });
+        return new DictionaryColumn(ids, values.toArray(String[]::new), blank, valueLabels, labels.toArray(String[]::new), nullLabel);
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    public String value(int row) {
+        int id = ids[row];
+        return id == NULL_ID ? null : values[id];
+    }
+
+    /**
+     * Number of distinct raw values; ids run from zero to one below it.
+     */
+    public int valueCount() {
+        return values.length;
+    }
+
+    public String valueOf(int id) {
+        return values[id];
+    }
+
+    /**
+     * True when the row is null or whitespace only.
+     */
+    public boolean isBlank(int row) {
+        int id = ids[row];
+        return id == NULL_ID || blank[id];
+    }
+
+    public int labelId(int row) {
+        int id = ids[row];
+        return id == NULL_ID ? nullLabel : valueLabels[id];
+    }
+
+    public String label(int labelId) {
+        return labels[labelId];
+    }
+
+    public int labelCount() {
+        return labels.length;
+    }
+}
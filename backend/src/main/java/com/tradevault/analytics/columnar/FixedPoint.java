@@ -0,0 +1,99 @@
+package com.tradevault.analytics.columnar;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for decimals stored as {@code long} units at a fixed scale. Every conversion is exact; a
+ * value that cannot be represented fails with {@link ArithmeticException} instead of losing precision.
+ */
+public final class FixedPoint {
+    public static final int MAX_SCALE = 18;
+
+    private static final long[] POW10 = new long[MAX_SCALE + 1];
+    private static final double[] DOUBLE_POW10 = new double[MAX_SCALE + 1];
+    private static final long MAX_EXACT_DOUBLE = 1L << 52;
+
+    static {
+        long value = 1;
+        for (int i = 0; i <= MAX_SCALE; i++) {
+            POW10[i] = value;
+            DOUBLE_POW10[i] = value;
+            value *= 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    public static long pow10(int scale) {
+        return POW10[scale];
+    }
+
+    public static long toUnits(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long units, int unitScale, int scale) {
+        BigDecimal value = BigDecimal.valueOf(units, unitScale);
+        return scale == unitScale ? value : value.setScale(scale, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Same result as {@code BigDecimal.valueOf(units, scale).doubleValue()}, without the allocation
+     * whenever the unscaled value fits in a double mantissa.
+     */
+    public static double toDouble(long units, int scale) {
+        if (units > -MAX_EXACT_DOUBLE && units < MAX_EXACT_DOUBLE) {
+            return scale == 0 ? (double) units : units / DOUBLE_POW10[scale];
+        }
+        return BigDecimal.valueOf(units, scale).doubleValue();
+    }
+
+    /**
+     * Smallest unit count {@code u} with {@code u / 10^scale >= value}, saturating at the long range.
+     */
+    public static long ceilUnits(BigDecimal value, int scale) {
+        return saturate(value.movePointRight(scale).setScale(0, RoundingMode.CEILING));
+    }
+
+    /**
+     * Largest unit count {@code u} with {@code u / 10^scale <= value}, saturating at the long range.
+     */
+    public static long floorUnits(BigDecimal value, int scale) {
+        return saturate(value.movePointRight(scale).setScale(0, RoundingMode.FLOOR));
+    }
+
+    /**
+     * {@code numerator / denominator} rounded HALF_UP to {@code resultScale} decimals, returned as units
+     * at that scale. Matches {@code BigDecimal.divide(divisor, resultScale, HALF_UP)} for operands
+     * sharing the same unit scale.
+     */
+    public static long divideHalfUp(long numerator, long denominator, int resultScale) {
+        long factor = POW10[resultScale];
+        long high = Math.multiplyHigh(numerator, factor);
+        long scaled = numerator * factor;
+        if (high != (scaled >> 63)) {
+            return BigDecimal.valueOf(numerator)
+                    .divide(BigDecimal.valueOf(denominator), resultScale, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        }
+        long quotient = scaled / denominator;
+        long remainder = scaled % denominator;
+        if (remainder != 0) {
+            long absRemainder = Math.abs(remainder);
+            long absDenominator = Math.abs(denominator);
+            if (absRemainder >= absDenominator - absRemainder) {
+                quotient += (scaled < 0) == (denominator < 0) ? 1 : -1;
+            }
+        }
+        return quotient;
+    }
+
+    private static long saturate(BigDecimal integral) {
+        if (integral.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0) return Long.MAX_VALUE;
+        if (integral.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) <= 0) return Long.MIN_VALUE;
+        return integral.longValueExact();
+    }
+}
@@ -0,0 +1,94 @@
+package com.tradevault.analytics.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, compressed set of row indices. Like a Roaring container it picks the smaller of two layouts:
+ * a sorted {@code int[]} while the set holds fewer than one row in 32, a plain bitset above that. Sets are
+ * combined by folding them into a {@link RowSelection}.
+ */
+public final class RowBitmap {
+    private static final int ARRAY_DENSITY = 32;
+
+    private final int[] rows;
+    private final long[] words;
+    private final int cardinality;
+
+    private RowBitmap(int[] rows, long[] words, int cardinality) {
+        this.rows = rows;
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * The first {@code count} entries of {@code sortedRows}, which must be ascending and below {@code size}.
+     */
+    public static RowBitmap of(int[] sortedRows, int count, int size) {
+        if ((long) count * ARRAY_DENSITY < size) {
+            return new RowBitmap(Arrays.copyOf(sortedRows, count), null, count);
+        }
+        long[] words = new long[RowSelection.wordCount(size)];
+        for (int i = 0; i < count; i++) {
+            int row = sortedRows[i];
+            words[row >>> 6] |= 1L << row;
+        }
+        return new RowBitmap(null, words, count);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isDense() {
+        return words != null;
+    }
+
+    public boolean contains(int row) {
+        if (words != null) {
+            int word = row >>> 6;
+            return word < words.length && (words[word] & (1L << row)) != 0;
+        }
+        return Arrays.binarySearch(rows, row) >= 0;
+    }
+
+    void orInto(long[] target) {
+        if (words != null) {
+            for (int i = 0; i < words.length; i++) {
+                target[i] |= words[i];
+            }
+            return;
+        }
+        for (int row : rows) {
+            target[row >>> 6] |= 1L << row;
+        }
+    }
+
+    void andInto(long[] target) {
+        if (words != null) {
+            for (int i = 0; i < words.length; i++) {
+                target[i] &= words[i];
+            }
+            return;
+        }
+        int next = 0;
+        for (int word = 0; word < target.length; word++) {
+            long mask = 0;
+            while (next < rows.length && rows[next] >>> 6 == word) {
+                mask |= 1L << rows[next++];
+            }
+            target[word] &= mask;
+        }
+    }
+
+    void andNotInto(long[] target) {
+        if (words != null) {
+            for (int i = 0; i < words.length; i++) {
+                target[i] &= ~words[i];
+            }
+            return;
+        }
+        for (int row : rows) {
+            target[row >>> 6] &= ~(1L << row);
+        }
+    }
+}
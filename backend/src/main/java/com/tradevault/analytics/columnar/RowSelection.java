@@ -0,0 +1,131 @@
+package com.tradevault.analytics.columnar;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Mutable, uncompressed set of row indices over a snapshot of {@code size} rows, used to evaluate a filter
+ * as a sequence of AND, OR and AND NOT steps against {@link RowBitmap}s. Each step costs one pass over the
+ * words of a dense bitmap or one touch per row of a sparse one.
+ */
+public final class RowSelection {
+    private final int size;
+    private final long[] words;
+
+    private RowSelection(int size, long[] words) {
+        this.size = size;
+        this.words = words;
+    }
+
+    public static RowSelection none(int size) {
+        return new RowSelection(size, new long[wordCount(size)]);
+    }
+
+    public static RowSelection all(int size) {
+        long[] words = new long[wordCount(size)];
+        Arrays.fill(words, -1L);
+        int tail = size & 63;
+        if (tail != 0) {
+            words[words.length - 1] = (1L << tail) - 1;
+        }
+        return new RowSelection(size, words);
+    }
+
+    static int wordCount(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds the rows of {@code bitmap}; a null bitmap stands for a value no row holds.
+     */
+    public RowSelection or(RowBitmap bitmap) {
+        if (bitmap != null) {
+            bitmap.orInto(words);
+        }
+        return this;
+    }
+
+    public RowSelection and(RowBitmap bitmap) {
+        if (bitmap == null) {
+            clear();
+        } else {
+            bitmap.andInto(words);
+        }
+        return this;
+    }
+
+    public RowSelection and(RowSelection other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    public RowSelection andNot(RowBitmap bitmap) {
+        if (bitmap != null) {
+            bitmap.andNotInto(words);
+        }
+        return this;
+    }
+
+    /**
+     * Keeps the selected rows that pass {@code test}; used for range conditions no bitmap indexes.
+     */
+    public RowSelection retain(IntPredicate test) {
+        for (int word = 0; word < words.length; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                long lowest = bits & -bits;
+                int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (!test.test(row)) {
+                    words[word] &= ~lowest;
+                }
+                bits ^= lowest;
+            }
+        }
+        return this;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Number of selected rows that are also in {@code bitmap}, without materialising the intersection.
+     */
+    public int intersectionCount(RowBitmap bitmap) {
+        if (bitmap == null) {
+            return 0;
+        }
+        RowSelection copy = new RowSelection(size, words.clone());
+        return copy.and(bitmap).cardinality();
+    }
+
+    /**
+     * The selected rows in ascending order.
+     */
+    public int[] toRows() {
+        int[] rows = new int[cardinality()];
+        int count = 0;
+        for (int word = 0; word < words.length; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                rows[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return rows;
+    }
+
+    private void clear() {
+        Arrays.fill(words, 0L);
+    }
+}
@@ -0,0 +1,196 @@
+package com.tradevault.analytics.columnar;
+
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.Market;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.DateMode;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * One {@link RowBitmap} per value of every filterable dimension of a {@link TradeColumns} snapshot, so any
+ * combination of filters is answered by bitmap operations instead of a reload. Values are keyed the way
+ * the SQL filters compare them: text columns by their raw value in lower case, enums by their lower-case
+ * name, hour as {@code 0..23}, day of week as ISO {@code 1..7} and holding time by its bucket label. Hour and
+ * day of week are indexed for both date modes. Rows without the value (null text or enum, no event time,
+ * no holding time) appear under no key.
+ */
+public final class TradeBitmapIndex {
+
+    public enum Dimension {
+        SYMBOL, STRATEGY, SETUP, CATALYST, MARKET, DIRECTION, STATUS, HOUR, DAY_OF_WEEK, HOLDING_BUCKET;
+
+        /**
+         * Resolves a dimension as the what-if endpoint spells it, or fails for an unknown one.
+         */
+        public static Dimension of(String name) {
+            return switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "symbol" -> SYMBOL;
+                case "strategy" -> STRATEGY;
+                case "setup" -> SETUP;
+                case "catalyst" -> CATALYST;
+                case "market" -> MARKET;
+                case "direction" -> DIRECTION;
+                case "status" -> STATUS;
+                case "hour" -> HOUR;
+                case "dow" -> DAY_OF_WEEK;
+                case "holdingbucket" -> HOLDING_BUCKET;
+                default -> throw new IllegalArgumentException("Unknown filter dimension: " + name);
+            };
+        }
+    }
+
+    private final int size;
+    private final Map<Dimension, Map<String, RowBitmap>> bitmaps = new EnumMap<>(Dimension.class);
+    private final Map<Dimension, Map<String, RowBitmap>> openedBitmaps = new EnumMap<>(Dimension.class);
+    private final RowBitmap closedWithTime;
+
+    private TradeBitmapIndex(TradeColumns columns) {
+        size = columns.size();
+        bitmaps.put(Dimension.SYMBOL, textBitmaps(columns.symbol()));
+        bitmaps.put(Dimension.STRATEGY, textBitmaps(columns.strategy()));
+        bitmaps.put(Dimension.SETUP, textBitmaps(columns.setup()));
+        bitmaps.put(Dimension.CATALYST, textBitmaps(columns.catalyst()));
+        bitmaps.put(Dimension.MARKET, codeBitmaps(enumKeys(Market.values()), columns::marketCode));
+        bitmaps.put(Dimension.DIRECTION, codeBitmaps(enumKeys(Direction.values()), row -> directionCode(columns, row)));
+        bitmaps.put(Dimension.STATUS, codeBitmaps(enumKeys(TradeStatus.values()), row -> statusCode(columns, row)));
+        bitmaps.put(Dimension.HOLDING_BUCKET, codeBitmaps(lowerCase(TradeColumns.HOLDING_BUCKETS), columns::holdingBucket));
+        bitmaps.put(Dimension.HOUR, codeBitmaps(numberKeys(0, 24), row -> hourCode(columns, row, DateMode.CLOSE)));
+        bitmaps.put(Dimension.DAY_OF_WEEK, codeBitmaps(numberKeys(1, 7), row -> dayOfWeekCode(columns, row, DateMode.CLOSE)));
+        openedBitmaps.put(Dimension.HOUR, codeBitmaps(numberKeys(0, 24), row -> hourCode(columns, row, DateMode.OPEN)));
+        openedBitmaps.put(Dimension.DAY_OF_WEEK, codeBitmaps(numberKeys(1, 7), row -> dayOfWeekCode(columns, row, DateMode.OPEN)));
+
+        int[] closed = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (columns.hasStatus(row, TradeStatus.CLOSED) && !columns.isClosedAtMissing(row)) {
+                closed[count++] = row;
+            }
+        }
+        closedWithTime = RowBitmap.of(closed, count, size);
+    }
+
+    public static TradeBitmapIndex of(TradeColumns columns) {
+        return new TradeBitmapIndex(columns);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rows holding {@code key} in {@code dimension}, or null when no row does. {@code mode} only matters for
+     * hour and day of week.
+     */
+    public RowBitmap get(Dimension dimension, String key, DateMode mode) {
+        Map<String, RowBitmap> values = mode == DateMode.OPEN && openedBitmaps.containsKey(dimension)
+                ? openedBitmaps.get(dimension)
+                : bitmaps.get(dimension);
+        return values.get(key);
+    }
+
+    /**
+     * Closed trades with a close time: the rows every closed-trade metric is computed from.
+     */
+    public RowBitmap closedWithTime() {
+        return closedWithTime;
+    }
+
+    private Map<String, RowBitmap> textBitmaps(DictionaryColumn column) {
+        String[] keys = new String[column.valueCount()];
+        int[] keyIds = new int[column.valueCount()];
+        Map<String, Integer> keyIndex = new HashMap<>();
+        for (int id = 0; id < keys.length; id++) {
+            String key = column.valueOf(id).toLowerCase(Locale.ROOT);
+            Integer index = keyIndex.get(key);
+            if (index == null) {
+                index = keyIndex.size();
+                keyIndex.put(key, index);
+                keys[index] = key;
+            }
+            keyIds[id] = index;
+        }
+        return codeBitmaps(Arrays.copyOf(keys, keyIndex.size()), row -> {
+            int id = column.id(row);
+            return id == DictionaryColumn.NULL_ID ? TradeColumns.NO_CODE : keyIds[id];
+        });
+    }
+
+    /**
+     * Bitmaps for codes {@code 0..keys.length-1} of {@code code}, keyed by {@code keys}; values without rows
+     * are left out.
+     */
+    private Map<String, RowBitmap> codeBitmaps(String[] keys, IntUnaryOperator code) {
+        int[] counts = new int[keys.length];
+        int[] codes = new int[size];
+        for (int row = 0; row < size; row++) {
+            codes[row] = code.applyAsInt(row);
+            if (codes[row] != TradeColumns.NO_CODE) {
+                counts[codes[row]]++;
+            }
+        }
+        int[][] rows = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            rows[i] = new int[counts[i]];
+        }
+        int[] filled = new int[keys.length];
+        for (int row = 0; row < size; row++) {
+            if (codes[row] != TradeColumns.NO_CODE) {
+                rows[codes[row]][filled[codes[row]]++] = row;
+            }
+        }
+        Map<String, RowBitmap> result = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] > 0) {
+                result.put(keys[i], RowBitmap.of(rows[i], counts[i], size));
+            }
+        }
+        return result;
+    }
+
+    private static int directionCode(TradeColumns columns, int row) {
+        for (Direction direction : Direction.values()) {
+            if (columns.hasDirection(row, direction)) return direction.ordinal();
+        }
+        return TradeColumns.NO_CODE;
+    }
+
+    private static int statusCode(TradeColumns columns, int row) {
+        for (TradeStatus status : TradeStatus.values()) {
+            if (columns.hasStatus(row, status)) return status.ordinal();
+        }
+        return TradeColumns.NO_CODE;
+    }
+
+    private static int hourCode(TradeColumns columns, int row, DateMode mode) {
+        return columns.eventMicros(row, mode) == TradeColumns.NO_TIME ? TradeColumns.NO_CODE : columns.eventHour(row, mode);
+    }
+
+    private static int dayOfWeekCode(TradeColumns columns, int row, DateMode mode) {
+        return columns.eventMicros(row, mode) == TradeColumns.NO_TIME ? TradeColumns.NO_CODE : columns.eventDayOfWeek(row, mode) - 1;
+    }
+
+    private static String[] enumKeys(Enum<?>[] values) {
+        return Arrays.stream(values).map(value -> value.name().toLowerCase(Locale.ROOT)).toArray(String[]::new);
+    }
+
+    private static String[] lowerCase(String[] values) {
+        return Arrays.stream(values).map(value -> value.toLowerCase(Locale.ROOT)).toArray(String[]::new);
+    }
+
+    /**
+     * Keys {@code first..first+count-1} for codes {@code 0..count-1}.
+     */
+    private static String[] numberKeys(int first, int count) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = Integer.toString(first + i);
+        }
+        return keys;
+    }
+}
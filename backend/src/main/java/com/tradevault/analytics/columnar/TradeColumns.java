@@ -0,0 +1,435 @@
+package com.tradevault.analytics.columnar;
+
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.DateMode;
+import com.tradevault.repository.TradeAnalyticsRow;
+import com.tradevault.repository.TradeLocalFields;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented, read-only snapshot of a user's trades. Enums are stored as ordinals, text as
+ * dictionary ids, decimals as fixed-point units and timestamps as epoch microseconds (the precision of
+ * {@code timestamptz}), with the local calendar fields of the snapshot zone precomputed so analytics can
+ * run over primitive arrays without touching {@link java.time} or {@link BigDecimal} per row. Local fields
+ * stored with a trade in the snapshot zone are copied as they are; other trades are converted here.
+ */
+public final class TradeColumns {
+    public static final long NO_TIME = Long.MIN_VALUE;
+    public static final byte NO_CODE = -1;
+    public static final String[] HOLDING_BUCKETS = {"<5m", "5-15m", "15-60m", "1-4h", ">4h"};
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final ZoneId zone;
+    private final int size;
+    private final byte[] status;
+    private final byte[] direction;
+    private final byte[] market;
+    private final DictionaryColumn symbol;
+    private final DictionaryColumn strategy;
+    private final DictionaryColumn setup;
+    private final DictionaryColumn catalyst;
+    private final long[] openedMicros;
+    private final long[] closedMicros;
+    private final int[] openedDay;
+    private final int[] closedDay;
+    private final byte[] openedHour;
+    private final byte[] closedHour;
+    private final byte[] openedDow;
+    private final byte[] closedDow;
+    private final long[] holdingSeconds;
+    private final byte[] holdingBucket;
+    private final int[] closeOrder;
+    private final int decimalScale;
+    private final DecimalColumn pnlNet;
+    private final DecimalColumn pnlGross;
+    private final DecimalColumn fees;
+    private final DecimalColumn commission;
+    private final DecimalColumn slippage;
+    private final DecimalColumn rMultiple;
+    private final DecimalColumn riskAmount;
+    private final DecimalColumn riskPercent;
+    private final DecimalColumn pnlPercent;
+
+    private TradeColumns(List<TradeAnalyticsRow> rows, ZoneId zone) {
+        this.zone = zone;
+        size = rows.size();
+        status = new byte[size];
+        direction = new byte[size];
+        market = new byte[size];
+        openedMicros = new long[size];
+        closedMicros = new long[size];
+        openedDay = new int[size];
+        closedDay = new int[size];
+        openedHour = new byte[size];
+        closedHour = new byte[size];
+        openedDow = new byte[size];
+        closedDow = new byte[size];
+        holdingSeconds = new long[size];
+        holdingBucket = new byte[size];
+        int[] closedOffsets = new int[size];
+
+        String[] symbols = new String[size];
+        String[] strategies = new String[size];
+        String[] setups = new String[size];
+        String[] catalysts = new String[size];
+        BigDecimal[][] decimals = new BigDecimal[9][size];
+        ZoneRules rules = zone.getRules();
+
+        for (int row = 0; row < size; row++) {
+            TradeAnalyticsRow trade = rows.get(row);
+            status[row] = code(trade.status());
+            direction[row] = code(trade.direction());
+            market[row] = code(trade.market());
+            symbols[row] = trade.symbol();
+            strategies[row] = trade.strategyTag();
+            setups[row] = trade.setup();
+            catalysts[row] = trade.catalystTag();
+            decimals[0][row] = trade.pnlNet();
+            decimals[1][row] = trade.pnlGross();
+            decimals[2][row] = trade.fees();
+            decimals[3][row] = trade.commission();
+            decimals[4][row] = trade.slippage();
+            decimals[5][row] = trade.rMultiple();
+            decimals[6][row] = trade.riskAmount();
+            decimals[7][row] = trade.riskPercent();
+            decimals[8][row] = trade.pnlPercent();
+
+            openedMicros[row] = toMicros(trade.openedAt());
+            closedMicros[row] = toMicros(trade.closedAt());
+            TradeLocalFields local = trade.local();
+            if (local != null && local.isIn(zone)) {
+                copyLocalFields(trade.openedAt(), local.openedDate(), local.openedHour(), local.openedDow(),
+                        row, openedDay, openedHour, openedDow);
+                copyLocalFields(trade.closedAt(), local.closedDate(), local.closedHour(), local.closedDow(),
+                        row, closedDay, closedHour, closedDow);
+            } else {
+                fillLocalFields(rules, openedMicros[row], row, openedDay, openedHour, openedDow);
+                fillLocalFields(rules, closedMicros[row], row, closedDay, closedHour, closedDow);
+            }
+            closedOffsets[row] = trade.closedAt() == null ? 0 : trade.closedAt().getOffset().getTotalSeconds();
+
+            if (openedMicros[row] == NO_TIME || closedMicros[row] == NO_TIME) {
+                holdingSeconds[row] = NO_TIME;
+                holdingBucket[row] = NO_CODE;
+            } else {
+                long seconds = Math.floorDiv(closedMicros[row] - openedMicros[row], MICROS_PER_SECOND);
+                holdingSeconds[row] = seconds;
+                holdingBucket[row] = bucketHoldingMinutes(seconds / 60);
+            }
+        }
+
+        symbol = DictionaryColumn.of(symbols);
+        strategy = DictionaryColumn.of(strategies);
+        setup = DictionaryColumn.of(setups);
+        catalyst = DictionaryColumn.of(catalysts);
+
+        int scale = 0;
+        for (BigDecimal[] column : decimals) {
+            scale = Math.max(scale, DecimalColumn.maxScale(column));
+        }
+        if (scale > FixedPoint.MAX_SCALE) {
+            throw new ArithmeticException("Decimal scale " + scale + " exceeds fixed-point precision");
+        }
+        decimalScale = scale;
+        pnlNet = DecimalColumn.of(decimals[0], scale);
+        pnlGross = DecimalColumn.of(decimals[1], scale);
+        fees = DecimalColumn.of(decimals[2], scale);
+        commission = DecimalColumn.of(decimals[3], scale);
+        slippage = DecimalColumn.of(decimals[4], scale);
+        rMultiple = DecimalColumn.of(decimals[5], scale);
+        riskAmount = DecimalColumn.of(decimals[6], scale);
+        riskPercent = DecimalColumn.of(decimals[7], scale);
+        pnlPercent = DecimalColumn.of(decimals[8], scale);
+
+        closeOrder = buildCloseOrder(closedMicros, closedOffsets);
+    }
+
+    public static TradeColumns of(List<TradeAnalyticsRow> rows, ZoneId zone) {
+        return new TradeColumns(rows, zone);
+    }
+
+    /**
+     * The zone local days, hours and weekdays are in.
+     */
+    public ZoneId zone() {
+        return zone;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean hasStatus(int row, TradeStatus value) {
+        return status[row] == value.ordinal();
+    }
+
+    public boolean hasDirection(int row, Direction value) {
+        return direction[row] == value.ordinal();
+    }
+
+    /**
+     * Market ordinal of the row, or {@link #NO_CODE}.
+     */
+    public int marketCode(int row) {
+        return market[row];
+    }
+
+    public DictionaryColumn symbol() {
+        return symbol;
+    }
+
+    public DictionaryColumn strategy() {
+        return strategy;
+    }
+
+    public DictionaryColumn setup() {
+        return setup;
+    }
+
+    public DictionaryColumn catalyst() {
+        return catalyst;
+    }
+
+    public boolean isClosedAtMissing(int row) {
+        return closedMicros[row] == NO_TIME;
+    }
+
+    public long closedMicros(int row) {
+        return closedMicros[row];
+    }
+
+    public int closedDay(int row) {
+        return closedDay[row];
+    }
+
+    /**
+     * Epoch microseconds of the event time selected by {@code mode}, or {@link #NO_TIME}.
+     */
+    public long eventMicros(int row, DateMode mode) {
+        return mode == DateMode.OPEN ? openedMicros[row] : closedMicros[row];
+    }
+
+    /**
+     * Local epoch day of the event time in the snapshot zone; only meaningful when the event time is set.
+     */
+    public int eventDay(int row, DateMode mode) {
+        return mode == DateMode.OPEN ? openedDay[row] : closedDay[row];
+    }
+
+    public int eventHour(int row, DateMode mode) {
+        return mode == DateMode.OPEN ? openedHour[row] : closedHour[row];
+    }
+
+    /**
+     * ISO day of week (1 = Monday) of the event time in the snapshot zone.
+     */
+    public int eventDayOfWeek(int row, DateMode mode) {
+        return mode == DateMode.OPEN ? openedDow[row] : closedDow[row];
+    }
+
+    /**
+     * Whole seconds between open and close, or {@link #NO_TIME} when either is missing.
+     */
+    public long holdingSeconds(int row) {
+        return holdingSeconds[row];
+    }
+
+    /**
+     * Index into {@link #HOLDING_BUCKETS}, or {@link #NO_CODE} when either timestamp is missing.
+     */
+    public int holdingBucket(int row) {
+        return holdingBucket[row];
+    }
+
+    /**
+     * Returns {@code rows} reordered by close time the way a stable sort on {@code closedAt} (nulls last)
+     * would order them. Runs in linear time over the precomputed close order.
+     */
+    public int[] inCloseOrder(int[] rows) {
+        boolean[] selected = new boolean[size];
+        for (int row : rows) {
+            selected[row] = true;
+        }
+        int[] ordered = new int[rows.length];
+        int count = 0;
+        for (int row : closeOrder) {
+            if (selected[row]) {
+                ordered[count++] = row;
+            }
+        }
+        return ordered;
+    }
+
+    public int decimalScale() {
+        return decimalScale;
+    }
+
+    public DecimalColumn pnlNet() {
+        return pnlNet;
+    }
+
+    public DecimalColumn pnlGross() {
+        return pnlGross;
+    }
+
+    public DecimalColumn fees() {
+        return fees;
+    }
+
+    public DecimalColumn commission() {
+        return commission;
+    }
+
+    public DecimalColumn slippage() {
+        return slippage;
+    }
+
+    public DecimalColumn rMultiple() {
+        return rMultiple;
+    }
+
+    public DecimalColumn riskAmount() {
+        return riskAmount;
+    }
+
+    public DecimalColumn riskPercent() {
+        return riskPercent;
+    }
+
+    public DecimalColumn pnlPercent() {
+        return pnlPercent;
+    }
+
+    public static String holdingBucketLabel(int bucket) {
+        return HOLDING_BUCKETS[bucket];
+    }
+
+    public static int holdingBucketIndex(String label) {
+        for (int i = 0; i < HOLDING_BUCKETS.length; i++) {
+            if (HOLDING_BUCKETS[i].equals(label)) return i;
+        }
+        return NO_CODE;
+    }
+
+    /**
+     * Epoch microseconds of {@code time}, rounded down; {@link #NO_TIME} for null.
+     */
+    public static long toMicros(OffsetDateTime time) {
+        if (time == null) return NO_TIME;
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(), MICROS_PER_SECOND), time.getNano() / 1_000);
+    }
+
+    /**
+     * Epoch microseconds of {@code time}, rounded up, so {@code micros >= ceilMicros(from)} matches
+     * {@code !time.isBefore(from)} for microsecond timestamps.
+     */
+    public static long ceilMicros(OffsetDateTime time) {
+        return toMicros(time) + (time.getNano() % 1_000 == 0 ? 0 : 1);
+    }
+
+    private static byte bucketHoldingMinutes(long minutes) {
+        if (minutes < 5) return 0;
+        if (minutes < 15) return 1;
+        if (minutes < 60) return 2;
+        if (minutes < 240) return 3;
+        return 4;
+    }
+
+    private static byte code(Enum<?> value) {
+        return value == null ? NO_CODE : (byte) value.ordinal();
+    }
+
+    private static void fillLocalFields(ZoneRules rules, long micros, int row, int[] days, byte[] hours, byte[] dows) {
+        if (micros == NO_TIME) return;
+        long epochSecond = Math.floorDiv(micros, MICROS_PER_SECOND);
+        long localSecond = epochSecond + rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        days[row] = Math.toIntExact(epochDay);
+        hours[row] = (byte) (Math.floorMod(localSecond, SECONDS_PER_DAY) / 3600);
+        dows[row] = (byte) (Math.floorMod(epochDay + 3, 7) + 1);
+    }
+
+    /**
+     * Copies the local fields stored with the trade, which were derived from the same timestamp in the same zone.
+     */
+    private static void copyLocalFields(OffsetDateTime time, LocalDate date, Integer hour, Integer dow, int row,
+                                        int[] days, byte[] hours, byte[] dows) {
+        if (time == null) return;
+        days[row] = Math.toIntExact(date.toEpochDay());
+        hours[row] = hour.byteValue();
+        dows[row] = dow.byteValue();
+    }
+
+    /**
+     * Row indices ordered like {@code OffsetDateTime}'s natural order: by instant, then by offset for equal
+     * instants, then by row. Rows without a close time go last.
+     */
+    private static int[] buildCloseOrder(long[] closedMicros, int[] closedOffsets) {
+        int size = closedMicros.length;
+        long[] distinct = new long[size];
+        int timed = 0;
+        for (long micros : closedMicros) {
+            if (micros != NO_TIME) {
+                distinct[timed++] = micros;
+            }
+        }
+        Arrays.sort(distinct, 0, timed);
+        int distinctCount = 0;
+        for (int i = 0; i < timed; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[distinctCount++] = distinct[i];
+            }
+        }
+
+        long[] packed = new long[timed];
+        int index = 0;
+        for (int row = 0; row < size; row++) {
+            if (closedMicros[row] != NO_TIME) {
+                long rank = Arrays.binarySearch(distinct, 0, distinctCount, closedMicros[row]);
+                packed[index++] = (rank << 32) | row;
+            }
+        }
+        Arrays.sort(packed);
+
+        int[] order = new int[size];
+        for (int i = 0; i < timed; i++) {
+            order[i] = (int) packed[i];
+        }
+        int runStart = 0;
+        for (int i = 1; i <= timed; i++) {
+            if (i == timed || (packed[i] >>> 32) != (packed[runStart] >>> 32)) {
+                sortRunByOffset(order, runStart, i, closedOffsets);
+                runStart = i;
+            }
+        }
+        for (int row = 0; row < size; row++) {
+            if (closedMicros[row] == NO_TIME) {
+                order[index++] = row;
+            }
+        }
+        return order;
+    }
+
+    private static void sortRunByOffset(int[] order, int from, int to, int[] offsets) {
+        for (int i = from + 1; i < to; i++) {
+            int row = order[i];
+            int j = i - 1;
+            while (j >= from && offsets[order[j]] > offsets[row]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = row;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.AttributionSummary;
+import com.tradevault.dto.analytics.BreakdownRow;
+import com.tradevault.dto.analytics.ConcentrationSummary;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+public final class AttributionAccumulator implements MetricAccumulator<AttributionSummary> {
+    private final BreakdownAccumulator symbols;
+    private final BreakdownAccumulator strategies;
+    private final BreakdownAccumulator setups;
+    private final BreakdownAccumulator catalysts;
+    private int trades;
+
+    public AttributionAccumulator(TradeColumns columns) {
+        this.symbols = new BreakdownAccumulator(columns, columns.symbol());
+        this.strategies = new BreakdownAccumulator(columns, columns.strategy());
+        this.setups = new BreakdownAccumulator(columns, columns.setup());
+        this.catalysts = new BreakdownAccumulator(columns, columns.catalyst());
+    }
+
+    @Override
+    public void accept(int row) {
+        trades++;
+        symbols.accept(row);
+        strategies.accept(row);
+        setups.accept(row);
+        catalysts.accept(row);
+    }
+
+    @Override
+    public AttributionSummary finish() {
+        List<BreakdownRow> symbolRows = symbols.finish();
+        List<BreakdownRow> strategyRows = strategies.finish();
+        return AttributionSummary.builder()
+                .symbols(symbolRows)
+                .strategies(strategyRows)
+                .setups(setups.finish())
+                .catalysts(catalysts.finish())
+                .bottomSymbols(bottom(symbolRows))
+                .bottomTags(bottom(strategyRows))
+                .concentration(concentration(symbolRows))
+                .build();
+    }
+
+    private List<BreakdownRow> bottom(List<BreakdownRow> rows) {
+        return rows.stream()
+                .sorted(Comparator.comparing(BreakdownRow::getNetPnl))
+                .filter(row -> row.getTrades() >= 5)
+                .limit(3)
+                .toList();
+    }
+
+    private ConcentrationSummary concentration(List<BreakdownRow> symbolRows) {
+        if (symbolRows.isEmpty()) {
+            return ConcentrationSummary.builder().build();
+        }
+        double totalPnl = symbolRows.stream().map(BreakdownRow::getNetPnl).mapToDouble(BigDecimal::doubleValue).sum();
+        List<BreakdownRow> top3 = symbolRows.stream().limit(3).toList();
+        double top1Pnl = symbolRows.get(0).getNetPnl().doubleValue();
+        double top3Pnl = top3.stream().map(BreakdownRow::getNetPnl).mapToDouble(BigDecimal::doubleValue).sum();
+        int top1Trades = symbolRows.get(0).getTrades();
+        int top3Trades = top3.stream().mapToInt(BreakdownRow::getTrades).sum();
+        return ConcentrationSummary.builder()
+                .top1PnlShare(totalPnl == 0 ? null : top1Pnl / totalPnl * 100)
+                .top3PnlShare(totalPnl == 0 ? null : top3Pnl / totalPnl * 100)
+                .top1TradeShare(trades == 0 ? null : (double) top1Trades / trades * 100)
+                .top3TradeShare(trades == 0 ? null : (double) top3Trades / trades * 100)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DictionaryColumn;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.BreakdownRow;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups rows by a dictionary column's label, best net P&L first. Groups are inserted into a
+ * {@link HashMap} in snapshot order of their first row, whatever order the rows arrive in, so groups with
+ * equal net P&L keep a stable, hash-defined order.
+ */
+public final class BreakdownAccumulator implements MetricAccumulator<List<BreakdownRow>> {
+    private final TradeColumns columns;
+    private final DictionaryColumn dimension;
+    private final BucketTotals[] totals;
+    private final int[] firstRow;
+    private final int[] encountered;
+    private int groups;
+
+    public BreakdownAccumulator(TradeColumns columns, DictionaryColumn dimension) {
+        this.columns = columns;
+        this.dimension = dimension;
+        this.totals = new BucketTotals[dimension.labelCount()];
+        this.firstRow = new int[dimension.labelCount()];
+        this.encountered = new int[dimension.labelCount()];
+    }
+
+    @Override
+    public void accept(int row) {
+        int label = dimension.labelId(row);
+        if (totals[label] == null) {
+            totals[label] = new BucketTotals();
+            firstRow[label] = row;
+            encountered[groups++] = label;
+        } else if (row < firstRow[label]) {
+            firstRow[label] = row;
+        }
+        totals[label].add(columns.pnlNet(), row);
+    }
+
+    @Override
+    public List<BreakdownRow> finish() {
+        long[] order = new long[groups];
+        for (int i = 0; i < groups; i++) {
+            order[i] = ((long) firstRow[encountered[i]] << 32) | encountered[i];
+        }
+        Arrays.sort(order);
+        Map<String, BucketTotals> grouped = new HashMap<>();
+        for (long packed : order) {
+            int label = (int) packed;
+            grouped.put(dimension.label(label), totals[label]);
+        }
+        int scale = columns.decimalScale();
+        return grouped.entrySet().stream()
+                .map(entry -> entry.getValue().toBreakdownRow(entry.getKey(), scale))
+                .sorted(Comparator.comparing(BreakdownRow::getNetPnl).reversed())
+                .toList();
+    }
+}
@@ -0,0 +1,209 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalColumn;
+import com.tradevault.analytics.columnar.FixedPoint;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.BreakdownCubeRow;
+import com.tradevault.dto.analytics.BreakdownCubeView;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * One view of the breakdown cube: rows grouped by one dimension or by the cross of two. A cell is keyed by
+ * its packed dimension codes and found through an open-addressing table; its totals live in parallel
+ * primitive arrays. {@link #finish()} keeps the {@code topK} cells with the best net P&L through a bounded
+ * heap (0 keeps every cell); cells with equal net P&L keep the order they were first seen in.
+ */
+public final class BreakdownCubeAccumulator implements MetricAccumulator<BreakdownCubeView> {
+    private static final int INITIAL_CELLS = 16;
+
+    private final TradeColumns columns;
+    private final DecimalColumn pnl;
+    private final BreakdownDimension[] dimensions;
+    private final int topK;
+
+    private long[] table = new long[INITIAL_CELLS * 2];
+    private int[] slots = new int[INITIAL_CELLS * 2];
+    private long[] keys = new long[INITIAL_CELLS];
+    private int[] trades = new int[INITIAL_CELLS];
+    private int[] wins = new int[INITIAL_CELLS];
+    private int[] losses = new int[INITIAL_CELLS];
+    private long[] netUnits = new long[INITIAL_CELLS];
+    private long[] profitUnits = new long[INITIAL_CELLS];
+    private long[] lossUnits = new long[INITIAL_CELLS];
+    private int[] netScale = new int[INITIAL_CELLS];
+    private int[] profitScale = new int[INITIAL_CELLS];
+    private int[] lossScale = new int[INITIAL_CELLS];
+    private int cells;
+
+    public BreakdownCubeAccumulator(TradeColumns columns, List<BreakdownDimension> dimensions, int topK) {
+        if (dimensions.isEmpty() || dimensions.size() > 2) {
+            throw new IllegalArgumentException("A breakdown view groups by one or two dimensions");
+        }
+        if (topK < 0) {
+            throw new IllegalArgumentException("topK must not be negative");
+        }
+        this.columns = columns;
+        this.pnl = columns.pnlNet();
+        this.dimensions = dimensions.toArray(BreakdownDimension[]::new);
+        this.topK = topK;
+        Arrays.fill(slots, -1);
+    }
+
+    @Override
+    public void accept(int row) {
+        long key = 0;
+        for (BreakdownDimension dimension : dimensions) {
+            int code = dimension.code(row);
+            if (code == TradeColumns.NO_CODE) {
+                return;
+            }
+            key = (key << 32) | code;
+        }
+        int cell = cell(key);
+        long units = pnl.units(row);
+        int scale = pnl.scale(row);
+        trades[cell]++;
+        netUnits[cell] = Math.addExact(netUnits[cell], units);
+        netScale[cell] = Math.max(netScale[cell], scale);
+        if (units > 0) {
+            wins[cell]++;
+            profitUnits[cell] = Math.addExact(profitUnits[cell], units);
+            profitScale[cell] = Math.max(profitScale[cell], scale);
+        } else if (units < 0) {
+            losses[cell]++;
+            lossUnits[cell] = Math.addExact(lossUnits[cell], units);
+            lossScale[cell] = Math.max(lossScale[cell], scale);
+        }
+    }
+
+    @Override
+    public BreakdownCubeView finish() {
+        int[] order = best();
+        int unitScale = columns.decimalScale();
+        List<BreakdownCubeRow> rows = new ArrayList<>(order.length);
+        for (int cell : order) {
+            rows.add(toRow(cell, unitScale));
+        }
+        List<String> names = Arrays.stream(dimensions).map(BreakdownDimension::name).toList();
+        return BreakdownCubeView.builder()
+                .name(String.join(":", names))
+                .dimensions(names)
+                .rows(rows)
+                .totalGroups(cells)
+                .truncated(order.length < cells)
+                .build();
+    }
+
+    /**
+     * Cell indexes ordered by net P&L descending, then by first appearance.
+     */
+    private int[] best() {
+        int limit = topK == 0 ? cells : Math.min(topK, cells);
+        // Min-heap on the same order, so the weakest kept cell is evicted first.
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, limit), (a, b) -> compare(b, a));
+        for (int cell = 0; cell < cells && limit > 0; cell++) {
+            if (heap.size() < limit) {
+                heap.add(cell);
+            } else if (compare(cell, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(cell);
+            }
+        }
+        int[] order = new int[heap.size()];
+        for (int i = order.length - 1; i >= 0; i--) {
+            order[i] = heap.poll();
+        }
+        return order;
+    }
+
+    private int compare(int a, int b) {
+        int byNet = Long.compare(netUnits[b], netUnits[a]);
+        return byNet != 0 ? byNet : Integer.compare(a, b);
+    }
+
+    private BreakdownCubeRow toRow(int cell, int unitScale) {
+        List<String> labels = new ArrayList<>(dimensions.length);
+        long key = keys[cell];
+        for (int i = dimensions.length - 1; i >= 0; i--) {
+            labels.add(0, dimensions[i].label((int) key));
+            key >>>= 32;
+        }
+        BigDecimal net = FixedPoint.toBigDecimal(netUnits[cell], unitScale, netScale[cell]);
+        BigDecimal profit = FixedPoint.toBigDecimal(profitUnits[cell], unitScale, profitScale[cell]);
+        BigDecimal loss = FixedPoint.toBigDecimal(lossUnits[cell], unitScale, lossScale[cell]);
+        return BreakdownCubeRow.builder()
+                .keys(labels)
+                .trades(trades[cell])
+                .wins(wins[cell])
+                .losses(losses[cell])
+                .netPnl(net)
+                .grossProfit(profit)
+                .grossLoss(loss)
+                .winRate(BucketTotals.winRate(wins[cell], trades[cell]))
+                .averagePnl(MetricMath.average(net, trades[cell]))
+                .profitFactor(BucketTotals.profitFactor(profit, loss))
+                .lowSample(trades[cell] < BucketTotals.LOW_SAMPLE_THRESHOLD)
+                .build();
+    }
+
+    private int cell(long key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (slots[slot] != -1) {
+            if (table[slot] == key) {
+                return slots[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (cells == keys.length) {
+            growCells();
+        }
+        int cell = cells++;
+        keys[cell] = key;
+        table[slot] = key;
+        slots[slot] = cell;
+        if (cells * 2 > table.length) {
+            rehash();
+        }
+        return cell;
+    }
+
+    private void growCells() {
+        int size = keys.length * 2;
+        keys = Arrays.copyOf(keys, size);
+        trades = Arrays.copyOf(trades, size);
+        wins = Arrays.copyOf(wins, size);
+        losses = Arrays.copyOf(losses, size);
+        netUnits = Arrays.copyOf(netUnits, size);
+        profitUnits = Arrays.copyOf(profitUnits, size);
+        lossUnits = Arrays.copyOf(lossUnits, size);
+        netScale = Arrays.copyOf(netScale, size);
+        profitScale = Arrays.copyOf(profitScale, size);
+        lossScale = Arrays.copyOf(lossScale, size);
+    }
+
+    private void rehash() {
+        table = new long[table.length * 2];
+        slots = new int[table.length];
+        Arrays.fill(slots, -1);
+        int mask = table.length - 1;
+        for (int cell = 0; cell < cells; cell++) {
+            int slot = hash(keys[cell]) & mask;
+            while (slots[slot] != -1) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = keys[cell];
+            slots[slot] = cell;
+        }
+    }
+
+    private static int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
@@ -0,0 +1,75 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DictionaryColumn;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.DateMode;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A breakdown dimension as a dense code per row: dictionary label ids for the text columns, fixed bucket
+ * indexes for calendar and holding time. Rows without a code (no event time, no holding time) are skipped.
+ */
+public final class BreakdownDimension {
+    public static final List<String> NAMES = List.of("symbol", "strategy", "setup", "catalyst", "dow", "hour", "holdingbucket");
+
+    private enum Kind { DICTIONARY, DAY_OF_WEEK, HOUR_OF_DAY, HOLDING }
+
+    private final String name;
+    private final Kind kind;
+    private final TradeColumns columns;
+    private final DictionaryColumn dictionary;
+    private final DateMode mode;
+    private final String[] labels;
+
+    private BreakdownDimension(String name, Kind kind, TradeColumns columns, DictionaryColumn dictionary, DateMode mode, String[] labels) {
+        this.name = name;
+        this.kind = kind;
+        this.columns = columns;
+        this.dictionary = dictionary;
+        this.mode = mode;
+        this.labels = labels;
+    }
+
+    /**
+     * Resolves a {@code groupBy} name as the breakdown endpoint spells it, or fails for an unknown one.
+     */
+    public static BreakdownDimension of(String name, TradeColumns columns, DateMode mode) {
+        String key = name.toLowerCase(Locale.ROOT);
+        return switch (key) {
+            case "symbol" -> new BreakdownDimension(key, Kind.DICTIONARY, columns, columns.symbol(), mode, null);
+            case "strategy" -> new BreakdownDimension(key, Kind.DICTIONARY, columns, columns.strategy(), mode, null);
+            case "setup" -> new BreakdownDimension(key, Kind.DICTIONARY, columns, columns.setup(), mode, null);
+            case "catalyst" -> new BreakdownDimension(key, Kind.DICTIONARY, columns, columns.catalyst(), mode, null);
+            case "dow" -> new BreakdownDimension(key, Kind.DAY_OF_WEEK, columns, null, mode, BucketAccumulator.DAY_LABELS);
+            case "hour" -> new BreakdownDimension(key, Kind.HOUR_OF_DAY, columns, null, mode, BucketAccumulator.HOUR_LABELS);
+            case "holdingbucket" -> new BreakdownDimension(key, Kind.HOLDING, columns, null, mode, TradeColumns.HOLDING_BUCKETS);
+            default -> throw new IllegalArgumentException("Unknown breakdown dimension: " + name);
+        };
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int cardinality() {
+        return kind == Kind.DICTIONARY ? dictionary.labelCount() : labels.length;
+    }
+
+    /**
+     * The row's code in {@code [0, cardinality())}, or {@link TradeColumns#NO_CODE}.
+     */
+    public int code(int row) {
+        return switch (kind) {
+            case DICTIONARY -> dictionary.labelId(row);
+            case DAY_OF_WEEK -> columns.eventMicros(row, mode) == TradeColumns.NO_TIME ? TradeColumns.NO_CODE : columns.eventDayOfWeek(row, mode) - 1;
+            case HOUR_OF_DAY -> columns.eventMicros(row, mode) == TradeColumns.NO_TIME ? TradeColumns.NO_CODE : columns.eventHour(row, mode);
+            case HOLDING -> columns.holdingBucket(row);
+        };
+    }
+
+    public String label(int code) {
+        return kind == Kind.DICTIONARY ? dictionary.label(code) : labels[code];
+    }
+}
@@ -0,0 +1,83 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.BreakdownRow;
+import com.tradevault.dto.analytics.BucketStats;
+import com.tradevault.dto.analytics.DateMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed calendar or holding-time buckets. Every bucket is reported, including empty ones.
+ */
+public final class BucketAccumulator implements MetricAccumulator<List<BucketStats>> {
+    static final String[] DAY_LABELS = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    static final String[] HOUR_LABELS = new String[24];
+
+    static {
+        for (int hour = 0; hour < 24; hour++) {
+            HOUR_LABELS[hour] = String.format("%02d", hour);
+        }
+    }
+
+    private enum Kind { DAY_OF_WEEK, HOUR_OF_DAY, HOLDING }
+
+    private final TradeColumns columns;
+    private final DateMode mode;
+    private final Kind kind;
+    private final String[] labels;
+    private final BucketTotals[] buckets;
+
+    private BucketAccumulator(TradeColumns columns, DateMode mode, Kind kind, String[] labels) {
+        this.columns = columns;
+        this.mode = mode;
+        this.kind = kind;
+        this.labels = labels;
+        this.buckets = BucketTotals.newBuckets(labels.length);
+    }
+
+    public static BucketAccumulator dayOfWeek(TradeColumns columns, DateMode mode) {
+        return new BucketAccumulator(columns, mode, Kind.DAY_OF_WEEK, DAY_LABELS);
+    }
+
+    public static BucketAccumulator hourOfDay(TradeColumns columns, DateMode mode) {
+        return new BucketAccumulator(columns, mode, Kind.HOUR_OF_DAY, HOUR_LABELS);
+    }
+
+    public static BucketAccumulator holdingTime(TradeColumns columns) {
+        return new BucketAccumulator(columns, null, Kind.HOLDING, TradeColumns.HOLDING_BUCKETS);
+    }
+
+    @Override
+    public void accept(int row) {
+        int bucket = switch (kind) {
+            case DAY_OF_WEEK -> columns.eventMicros(row, mode) == TradeColumns.NO_TIME ? TradeColumns.NO_CODE : columns.eventDayOfWeek(row, mode) - 1;
+            case HOUR_OF_DAY -> columns.eventMicros(row, mode) == TradeColumns.NO_TIME ? TradeColumns.NO_CODE : columns.eventHour(row, mode);
+            case HOLDING -> columns.holdingBucket(row);
+        };
+        if (bucket != TradeColumns.NO_CODE) {
+            buckets[bucket].add(columns.pnlNet(), row);
+        }
+    }
+
+    @Override
+    public List<BucketStats> finish() {
+        List<BucketStats> result = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            result.add(buckets[i].toBucketStats(labels[i], columns.decimalScale()));
+        }
+        return result;
+    }
+
+    /**
+     * The same buckets as breakdown rows, for the breakdown endpoint.
+     */
+    public List<BreakdownRow> breakdownRows() {
+        List<BreakdownRow> result = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            result.add(buckets[i].toBreakdownRow(labels[i], columns.decimalScale()));
+        }
+        return result;
+    }
+}
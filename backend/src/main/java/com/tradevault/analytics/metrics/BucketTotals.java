@@ -0,0 +1,86 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalColumn;
+import com.tradevault.analytics.columnar.DecimalSum;
+import com.tradevault.dto.analytics.BreakdownRow;
+import com.tradevault.dto.analytics.BucketStats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Per-group totals accumulated in one pass; every row adds to exactly one bucket.
+ */
+public final class BucketTotals {
+    static final int LOW_SAMPLE_THRESHOLD = 20;
+
+    private int trades;
+    private int wins;
+    private final DecimalSum net = DecimalSum.zero();
+    private final DecimalSum grossProfit = DecimalSum.zero();
+    private final DecimalSum grossLoss = DecimalSum.zero();
+
+    public static BucketTotals[] newBuckets(int count) {
+        BucketTotals[] buckets = new BucketTotals[count];
+        for (int i = 0; i < count; i++) {
+            buckets[i] = new BucketTotals();
+        }
+        return buckets;
+    }
+
+    public void add(DecimalColumn pnl, int row) {
+        trades++;
+        net.add(pnl, row);
+        long units = pnl.units(row);
+        if (units > 0) {
+            wins++;
+            grossProfit.add(pnl, row);
+        } else if (units < 0) {
+            grossLoss.add(pnl, row);
+        }
+    }
+
+    public int trades() {
+        return trades;
+    }
+
+    public BreakdownRow toBreakdownRow(String name, int scale) {
+        BigDecimal netPnl = net.toBigDecimal(scale);
+        BigDecimal profit = grossProfit.toBigDecimal(scale);
+        BigDecimal pf = profitFactor(profit, grossLoss.toBigDecimal(scale));
+        return BreakdownRow.builder()
+                .name(name)
+                .trades(trades)
+                .netPnl(netPnl)
+                .winRate(winRate())
+                .averagePnl(MetricMath.average(netPnl, trades))
+                .profitFactor(pf)
+                .lowSample(trades < LOW_SAMPLE_THRESHOLD)
+                .build();
+    }
+
+    public BucketStats toBucketStats(String label, int scale) {
+        return BucketStats.builder()
+                .bucket(label)
+                .trades(trades)
+                .netPnl(net.toBigDecimal(scale))
+                .winRate(winRate())
+                .build();
+    }
+
+    private double winRate() {
+        return winRate(wins, trades);
+    }
+
+    static double winRate(int wins, int trades) {
+        return trades == 0 ? 0 : (double) wins / trades * 100;
+    }
+
+    /**
+     * Gross profit over the absolute gross loss, or null when nothing was lost.
+     */
+    static BigDecimal profitFactor(BigDecimal grossProfit, BigDecimal grossLoss) {
+        BigDecimal loss = grossLoss.abs();
+        return loss.compareTo(BigDecimal.ZERO) == 0 ? null : grossProfit.divide(loss, 2, RoundingMode.HALF_UP);
+    }
+}
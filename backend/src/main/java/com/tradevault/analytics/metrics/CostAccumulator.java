@@ -0,0 +1,51 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalSum;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.CostSummary;
+
+import java.math.BigDecimal;
+
+public final class CostAccumulator implements MetricAccumulator<CostSummary> {
+    private final TradeColumns columns;
+    private final DecimalSum fees = DecimalSum.zero();
+    private final DecimalSum commission = DecimalSum.zero();
+    private final DecimalSum slippage = DecimalSum.zero();
+    private final DecimalSum gross = DecimalSum.zero();
+    private final DecimalSum net = DecimalSum.zero();
+    private int trades;
+
+    public CostAccumulator(TradeColumns columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public void accept(int row) {
+        trades++;
+        fees.add(columns.fees(), row);
+        commission.add(columns.commission(), row);
+        slippage.add(columns.slippage(), row);
+        gross.add(columns.pnlGross().isNull(row) ? columns.pnlNet() : columns.pnlGross(), row);
+        net.add(columns.pnlNet(), row);
+    }
+
+    @Override
+    public CostSummary finish() {
+        int scale = columns.decimalScale();
+        BigDecimal totalFees = fees.toBigDecimal(scale);
+        BigDecimal totalCommission = commission.toBigDecimal(scale);
+        BigDecimal totalSlippage = slippage.toBigDecimal(scale);
+        BigDecimal totalCosts = totalFees.add(totalCommission).add(totalSlippage);
+        return CostSummary.builder()
+                .totalFees(totalFees)
+                .totalCommission(totalCommission)
+                .totalSlippage(totalSlippage)
+                .totalCosts(totalCosts)
+                .avgFees(MetricMath.average(totalFees, trades))
+                .avgCommission(MetricMath.average(totalCommission, trades))
+                .avgSlippage(MetricMath.average(totalSlippage, trades))
+                .avgCosts(MetricMath.average(totalCosts, trades))
+                .netVsGrossDelta(gross.toBigDecimal(scale).subtract(net.toBigDecimal(scale)))
+                .build();
+    }
+}
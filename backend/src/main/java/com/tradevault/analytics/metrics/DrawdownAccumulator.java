@@ -0,0 +1,106 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalColumn;
+import com.tradevault.analytics.columnar.FixedPoint;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.DrawdownSummary;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.DoubleSummaryStatistics;
+
+/**
+ * Walks the equity curve. Rows must arrive in close order. The equity and drawdown series are downsampled
+ * to {@code maxPoints} as they are built; the summary always uses every row.
+ */
+public final class DrawdownAccumulator implements MetricAccumulator<DrawdownResult> {
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final TradeColumns columns;
+    private final SeriesDownsampler equityCurve;
+    private final SeriesDownsampler drawdownSeries;
+    private final DoubleSummaryStatistics squaredDrawdownPercents = new DoubleSummaryStatistics();
+    private long equity;
+    private int equityScale;
+    private long peak;
+    private int peakScale;
+    private long maxDrawdown;
+    private int maxDrawdownScale;
+    private int currentDurationTrades;
+    private int maxDurationTrades;
+    private long drawdownStart = TradeColumns.NO_TIME;
+    private long maxDurationDays;
+
+    public DrawdownAccumulator(TradeColumns columns, int expectedRows) {
+        this(columns, expectedRows, 0);
+    }
+
+    /**
+     * @param maxPoints upper bound on the points of each series, or 0 for one point per row
+     */
+    public DrawdownAccumulator(TradeColumns columns, int expectedRows, int maxPoints) {
+        this.columns = columns;
+        this.equityCurve = new SeriesDownsampler(expectedRows, maxPoints, columns.decimalScale());
+        this.drawdownSeries = new SeriesDownsampler(expectedRows, maxPoints, columns.decimalScale());
+    }
+
+    @Override
+    public void accept(int row) {
+        DecimalColumn pnl = columns.pnlNet();
+        equity = Math.addExact(equity, pnl.units(row));
+        equityScale = Math.max(equityScale, pnl.scale(row));
+        if (equity >= peak) {
+            peak = equity;
+            peakScale = equityScale;
+            currentDurationTrades = 0;
+            drawdownStart = TradeColumns.NO_TIME;
+        } else {
+            currentDurationTrades++;
+            if (drawdownStart == TradeColumns.NO_TIME) {
+                drawdownStart = columns.closedMicros(row);
+            }
+            if (currentDurationTrades > maxDurationTrades) {
+                maxDurationTrades = currentDurationTrades;
+                maxDurationDays = Math.floorDiv(columns.closedMicros(row) - drawdownStart, MICROS_PER_SECOND) / SECONDS_PER_DAY;
+            }
+        }
+        long drawdown = Math.subtractExact(equity, peak);
+        int drawdownScale = Math.max(equityScale, peakScale);
+        if (drawdown < maxDrawdown) {
+            maxDrawdown = drawdown;
+            maxDrawdownScale = drawdownScale;
+        }
+        int day = columns.closedDay(row);
+        equityCurve.add(day, equity, equityScale);
+        drawdownSeries.add(day, drawdown, drawdownScale);
+        if (peak != 0) {
+            double pct = FixedPoint.toDouble(FixedPoint.divideHalfUp(drawdown, peak, 6), 6) * 100;
+            squaredDrawdownPercents.accept(pct * pct);
+        }
+    }
+
+    @Override
+    public DrawdownResult finish() {
+        int unitScale = columns.decimalScale();
+        BigDecimal peakValue = FixedPoint.toBigDecimal(peak, unitScale, peakScale);
+        BigDecimal maxDrawdownValue = FixedPoint.toBigDecimal(maxDrawdown, unitScale, maxDrawdownScale);
+        BigDecimal totalNet = FixedPoint.toBigDecimal(equity, unitScale, equityScale);
+        BigDecimal maxDrawdownPercent = null;
+        if (peak != 0 && maxDrawdown < 0) {
+            maxDrawdownPercent = maxDrawdownValue.divide(peakValue, 6, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)).abs();
+        }
+        BigDecimal recoveryFactor = maxDrawdown == 0 ? null : totalNet.divide(maxDrawdownValue.abs(), 4, RoundingMode.HALF_UP);
+        Double ulcerIndex = squaredDrawdownPercents.getCount() == 0 ? null : Math.sqrt(squaredDrawdownPercents.getAverage());
+
+        DrawdownSummary summary = DrawdownSummary.builder()
+                .maxDrawdown(maxDrawdownValue.abs())
+                .maxDrawdownPercent(maxDrawdownPercent)
+                .maxDrawdownDurationTrades(maxDurationTrades)
+                .maxDrawdownDurationDays(maxDurationDays)
+                .recoveryFactor(recoveryFactor)
+                .ulcerIndex(ulcerIndex)
+                .build();
+        return new DrawdownResult(summary, equityCurve.finish(), drawdownSeries.finish());
+    }
+}
@@ -0,0 +1,9 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.dto.analytics.DrawdownSummary;
+import com.tradevault.dto.analytics.TimeSeriesPoint;
+
+import java.util.List;
+
+public record DrawdownResult(DrawdownSummary summary, List<TimeSeriesPoint> equityCurve, List<TimeSeriesPoint> drawdownSeries) {
+}
@@ -0,0 +1,56 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.FixedPoint;
+import com.tradevault.dto.analytics.HistogramBucket;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Equal-width buckets between the smallest and largest value. Counts come from rank lookups, so building
+ * a histogram never rescans the values; bucket bounds are converted to units once.
+ */
+final class Histograms {
+
+    private Histograms() {
+    }
+
+    /**
+     * @param countBelow number of values strictly below a unit value
+     * @param countAtMost number of values at or below a unit value
+     */
+    static List<HistogramBucket> build(BigDecimal min,
+                                       BigDecimal max,
+                                       int total,
+                                       int buckets,
+                                       int unitScale,
+                                       LongUnaryOperator countBelow,
+                                       LongUnaryOperator countAtMost) {
+        if (total == 0) return List.of();
+        if (min.compareTo(max) == 0) {
+            return List.of(HistogramBucket.builder().label(min.toPlainString()).min(min).max(max).count(total).build());
+        }
+        BigDecimal range = max.subtract(min);
+        BigDecimal bucketSize = range.divide(BigDecimal.valueOf(buckets), 6, RoundingMode.HALF_UP);
+        List<HistogramBucket> result = new ArrayList<>();
+        for (int i = 0; i < buckets; i++) {
+            BigDecimal start = min.add(bucketSize.multiply(BigDecimal.valueOf(i)));
+            boolean last = i == buckets - 1;
+            BigDecimal end = last ? max : start.add(bucketSize);
+            long from = countBelow.applyAsLong(FixedPoint.ceilUnits(start, unitScale));
+            long to = last
+                    ? countAtMost.applyAsLong(FixedPoint.floorUnits(end, unitScale))
+                    : countBelow.applyAsLong(FixedPoint.ceilUnits(end, unitScale));
+            result.add(HistogramBucket.builder()
+                    .label(String.format("%s-%s", start.setScale(2, RoundingMode.HALF_UP), end.setScale(2, RoundingMode.HALF_UP)))
+                    .min(start)
+                    .max(end)
+                    .count((int) Math.max(0, to - from))
+                    .build());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalColumn;
+import com.tradevault.analytics.columnar.DecimalSum;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.KpiSummary;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class KpiAccumulator implements MetricAccumulator<KpiSummary> {
+    private final TradeColumns columns;
+    private final ValueDistribution pnlOrder;
+    private final int openTrades;
+    private final int closedTrades;
+    private final DecimalSum netSum = DecimalSum.zero();
+    private final DecimalSum grossSum = DecimalSum.zero();
+    private final DecimalSum winSum = DecimalSum.zero();
+    private final DecimalSum lossSum = DecimalSum.zero();
+    private int trades;
+    private int wins;
+    private int losses;
+    private int flatTrades;
+
+    /**
+     * @param pnlOrder net P&L order statistics fed by the same pass
+     * @param closedTrades closed trades before outlier exclusion
+     */
+    public KpiAccumulator(TradeColumns columns, ValueDistribution pnlOrder, int openTrades, int closedTrades) {
+        this.columns = columns;
+        this.pnlOrder = pnlOrder;
+        this.openTrades = openTrades;
+        this.closedTrades = closedTrades;
+    }
+
+    @Override
+    public void accept(int row) {
+        DecimalColumn pnl = columns.pnlNet();
+        DecimalColumn gross = columns.pnlGross();
+        trades++;
+        netSum.add(pnl, row);
+        grossSum.add(gross.isNull(row) ? pnl : gross, row);
+        long units = pnl.units(row);
+        if (units > 0) {
+            wins++;
+            winSum.add(pnl, row);
+        } else if (units < 0) {
+            losses++;
+            lossSum.add(pnl, row);
+        } else {
+            flatTrades++;
+        }
+    }
+
+    @Override
+    public KpiSummary finish() {
+        int scale = columns.decimalScale();
+        BigDecimal totalNet = netSum.toBigDecimal(scale);
+        BigDecimal totalGross = grossSum.toBigDecimal(scale);
+        double winRate = trades == 0 ? 0 : (double) wins / trades * 100;
+        double lossRate = trades == 0 ? 0 : (double) losses / trades * 100;
+        BigDecimal grossProfit = winSum.toBigDecimal(scale);
+        BigDecimal avgWin = MetricMath.average(grossProfit, wins);
+        BigDecimal avgLoss = MetricMath.average(lossSum.toBigDecimal(scale), losses);
+        BigDecimal avgLossAbs = avgLoss.abs();
+        BigDecimal expectancy = MetricMath.average(totalNet, trades);
+        BigDecimal grossLoss = lossSum.toBigDecimal(scale).abs();
+        BigDecimal profitFactor = grossLoss.compareTo(BigDecimal.ZERO) == 0 ? null : grossProfit.divide(grossLoss, 2, RoundingMode.HALF_UP);
+        BigDecimal payoffRatio = avgLossAbs.compareTo(BigDecimal.ZERO) == 0 ? null : avgWin.divide(avgLossAbs, 2, RoundingMode.HALF_UP);
+
+        return KpiSummary.builder()
+                .totalPnlNet(totalNet)
+                .totalPnlGross(totalGross)
+                .grossProfit(grossProfit)
+                .grossLoss(grossLoss)
+                .winRate(winRate)
+                .lossRate(lossRate)
+                .averageWin(avgWin)
+                .averageLoss(avgLossAbs)
+                .medianPnl(pnlOrder.finish().median())
+                .payoffRatio(payoffRatio)
+                .expectancy(expectancy)
+                .profitFactor(profitFactor)
+                .totalTrades(trades)
+                .winningTrades(wins)
+                .losingTrades(losses)
+                .flatTrades(flatTrades)
+                .openTrades(openTrades)
+                .closedTrades(closedTrades)
+                .build();
+    }
+}
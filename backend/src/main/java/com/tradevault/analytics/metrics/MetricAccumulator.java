@@ -0,0 +1,17 @@
+package com.tradevault.analytics.metrics;
+
+/**
+ * Builds one analytics section incrementally. {@link MetricPass} feeds every accumulator the same
+ * snapshot rows, in close order for the summary, and {@link #finish()} is called once all rows were seen.
+ *
+ * @param <R> the section this accumulator produces
+ */
+public interface MetricAccumulator<R> {
+
+    /**
+     * Consumes one row of the {@link com.tradevault.analytics.columnar.TradeColumns} snapshot.
+     */
+    void accept(int row);
+
+    R finish();
+}
@@ -0,0 +1,40 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.FixedPoint;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.DoubleSummaryStatistics;
+
+/**
+ * Rounding rules shared by the accumulators. The double statistics go through
+ * {@link DoubleSummaryStatistics} so they sum exactly like the stream-based code they replaced.
+ */
+public final class MetricMath {
+
+    private MetricMath() {
+    }
+
+    public static BigDecimal average(BigDecimal total, int count) {
+        if (count == 0) return BigDecimal.ZERO;
+        return total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    public static double mean(long[] units, int scale) {
+        DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+        for (long value : units) {
+            stats.accept(FixedPoint.toDouble(value, scale));
+        }
+        return stats.getAverage();
+    }
+
+    public static Double standardDeviation(long[] units, int scale) {
+        if (units.length == 0) return null;
+        double mean = mean(units, scale);
+        DoubleSummaryStatistics squares = new DoubleSummaryStatistics();
+        for (long value : units) {
+            squares.accept(Math.pow(FixedPoint.toDouble(value, scale) - mean, 2));
+        }
+        return Math.sqrt(squares.getAverage());
+    }
+}
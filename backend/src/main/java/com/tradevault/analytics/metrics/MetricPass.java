@@ -0,0 +1,18 @@
+package com.tradevault.analytics.metrics;
+
+/**
+ * Feeds a set of accumulators from a single walk over the rows.
+ */
+public final class MetricPass {
+
+    private MetricPass() {
+    }
+
+    public static void run(int[] rows, MetricAccumulator<?>... accumulators) {
+        for (int row : rows) {
+            for (MetricAccumulator<?> accumulator : accumulators) {
+                accumulator.accept(row);
+            }
+        }
+    }
+}
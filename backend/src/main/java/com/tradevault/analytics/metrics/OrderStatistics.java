@@ -0,0 +1,106 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalColumn;
+import com.tradevault.dto.analytics.HistogramBucket;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects one decimal column and sorts it once, so every section that needs medians, percentiles,
+ * histograms or the standard deviation reads the same primitive array. Values picked out of the array keep
+ * the scale of the row a stable sort in snapshot order would have put there.
+ */
+public final class OrderStatistics implements ValueDistribution {
+    private final DecimalColumn column;
+    private final boolean skipNulls;
+    private long[] sorted;
+    private int[] rows;
+    private int count;
+    private boolean finished;
+
+    public OrderStatistics(DecimalColumn column, int expectedRows, boolean skipNulls) {
+        this.column = column;
+        this.skipNulls = skipNulls;
+        this.sorted = new long[Math.max(expectedRows, 1)];
+        this.rows = new int[Math.max(expectedRows, 1)];
+    }
+
+    @Override
+    public void accept(int row) {
+        if (skipNulls && column.isNull(row)) return;
+        if (count == sorted.length) {
+            sorted = Arrays.copyOf(sorted, count * 2);
+            rows = Arrays.copyOf(rows, count * 2);
+        }
+        sorted[count] = column.units(row);
+        rows[count] = row;
+        count++;
+    }
+
+    @Override
+    public OrderStatistics finish() {
+        if (!finished) {
+            sorted = Arrays.copyOf(sorted, count);
+            rows = Arrays.copyOf(rows, count);
+            Arrays.sort(sorted);
+            // Snapshot order is ascending row index; it decides which of several equal values comes first.
+            Arrays.sort(rows);
+            finished = true;
+        }
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int countAbove(long units) {
+        return count - DecimalColumn.upperBound(sorted, units);
+    }
+
+    @Override
+    public BigDecimal median() {
+        if (count == 0) return BigDecimal.ZERO;
+        int mid = count / 2;
+        if (count % 2 == 0) {
+            return BigDecimal.valueOf(Math.addExact(sorted[mid - 1], sorted[mid]), column.unitScale())
+                    .divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+        }
+        return valueAt(mid);
+    }
+
+    @Override
+    public BigDecimal percentile(double percentile) {
+        if (count == 0) return BigDecimal.ZERO;
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        index = Math.max(0, Math.min(index, count - 1));
+        return valueAt(index);
+    }
+
+    @Override
+    public Double standardDeviation() {
+        return MetricMath.standardDeviation(sorted, column.unitScale());
+    }
+
+    /**
+     * Bucket counts come from binary searches on the sorted array.
+     */
+    @Override
+    public List<HistogramBucket> histogram(int buckets) {
+        if (count == 0) return List.of();
+        BigDecimal min = valueAt(0);
+        BigDecimal max = valueAt(DecimalColumn.lowerBound(sorted, sorted[count - 1]));
+        return Histograms.build(min, max, count, buckets, column.unitScale(),
+                units -> DecimalColumn.lowerBound(sorted, units),
+                units -> DecimalColumn.upperBound(sorted, units));
+    }
+
+    private BigDecimal valueAt(int position) {
+        return column.valueAt(rows, sorted, position);
+    }
+}
@@ -0,0 +1,62 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalColumn;
+import com.tradevault.analytics.columnar.DecimalSum;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.DateMode;
+import com.tradevault.dto.analytics.TimeSeriesPoint;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sums P&L per local day, or per ISO week start, by sorting packed {@code day << 32 | row} keys, which
+ * keeps the pass free of maps and boxed dates.
+ */
+public final class PeriodPnlAccumulator implements MetricAccumulator<List<TimeSeriesPoint>> {
+    private final TradeColumns columns;
+    private final DateMode mode;
+    private final boolean weekly;
+    private long[] keys;
+    private int count;
+
+    public PeriodPnlAccumulator(TradeColumns columns, DateMode mode, boolean weekly, int expectedRows) {
+        this.columns = columns;
+        this.mode = mode;
+        this.weekly = weekly;
+        this.keys = new long[Math.max(expectedRows, 1)];
+    }
+
+    @Override
+    public void accept(int row) {
+        if (columns.eventMicros(row, mode) == TradeColumns.NO_TIME) return;
+        int day = columns.eventDay(row, mode);
+        if (weekly) {
+            day -= columns.eventDayOfWeek(row, mode) - 1;
+        }
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+        }
+        keys[count++] = ((long) day << 32) | row;
+    }
+
+    @Override
+    public List<TimeSeriesPoint> finish() {
+        Arrays.sort(keys, 0, count);
+        DecimalColumn pnl = columns.pnlNet();
+        List<TimeSeriesPoint> points = new ArrayList<>();
+        int index = 0;
+        while (index < count) {
+            int day = (int) (keys[index] >> 32);
+            DecimalSum total = DecimalSum.empty();
+            while (index < count && (int) (keys[index] >> 32) == day) {
+                total.add(pnl, (int) keys[index]);
+                index++;
+            }
+            points.add(new TimeSeriesPoint(LocalDate.ofEpochDay(day), total.toBigDecimal(columns.decimalScale())));
+        }
+        return points;
+    }
+}
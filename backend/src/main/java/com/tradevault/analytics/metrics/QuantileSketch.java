@@ -0,0 +1,193 @@
+package com.tradevault.analytics.metrics;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * KLL quantile sketch over doubles. Level {@code h} holds items that each stand for {@code 2^h} inputs;
+ * a full level is sorted and every other item is promoted, so memory stays around {@code 3k} items
+ * whatever the input size. Sketches built over disjoint inputs can be merged, for example per-day or
+ * per-symbol partials into an account-wide sketch.
+ * <p>
+ * Until the first compaction every item has weight one and answers are exact. Compaction coins come
+ * from a fixed seed so the same input in the same order always yields the same answers.
+ */
+public final class QuantileSketch {
+    public static final int DEFAULT_K = 200;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final long SEED = 0x5EED_CAFEL;
+
+    private final int k;
+    private final SplittableRandom coins = new SplittableRandom(SEED);
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private int levelCount = 1;
+    private int[] depthCapacities = new int[4];
+    private int totalCapacity;
+    private int retained;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8");
+        }
+        this.k = k;
+        this.levels[0] = new double[k];
+        this.depthCapacities[0] = k;
+        this.totalCapacity = k;
+    }
+
+    public void accept(double value) {
+        append(0, value);
+        count++;
+        min = Double.isNaN(min) ? value : Math.min(min, value);
+        max = Double.isNaN(max) ? value : Math.max(max, value);
+        compress();
+    }
+
+    /**
+     * Folds {@code other} into this sketch; {@code other} is left unchanged.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) return;
+        for (int level = 0; level < other.levelCount; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        count += other.count;
+        min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+        max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+        compress();
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /**
+     * Estimated number of inputs below {@code value}, or at or below it when {@code inclusive}.
+     */
+    public long rank(double value, boolean inclusive) {
+        long rank = 0;
+        for (int level = 0; level < levelCount; level++) {
+            long weight = 1L << level;
+            double[] items = levels[level];
+            for (int i = 0; i < sizes[level]; i++) {
+                if (items[i] < value || (inclusive && items[i] == value)) {
+                    rank += weight;
+                }
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Nearest-rank quantile: the smallest retained value whose cumulative weight reaches
+     * {@code ceil(fraction * count)}. Returns {@code NaN} for an empty sketch.
+     */
+    public double quantile(double fraction) {
+        if (count == 0) return Double.NaN;
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        if (target >= count) return max;
+        // Levels are multisets, so sorting them in place is free to keep; the walk then merges the sorted
+        // levels, taking the lowest level first on ties.
+        int[] heads = new int[levelCount];
+        for (int level = 0; level < levelCount; level++) {
+            Arrays.sort(levels[level], 0, sizes[level]);
+        }
+        long cumulative = 0;
+        while (true) {
+            int next = -1;
+            for (int level = 0; level < levelCount; level++) {
+                if (heads[level] < sizes[level]
+                        && (next < 0 || levels[level][heads[level]] < levels[next][heads[next]])) {
+                    next = level;
+                }
+            }
+            if (next < 0) return max;
+            double value = levels[next][heads[next]++];
+            cumulative += 1L << next;
+            if (cumulative >= target) return value;
+        }
+    }
+
+    private void append(int level, double value) {
+        while (level >= levelCount) {
+            addLevel();
+        }
+        double[] items = levels[level];
+        if (sizes[level] == items.length) {
+            levels[level] = items = Arrays.copyOf(items, Math.max(2, items.length * 2));
+        }
+        items[sizes[level]++] = value;
+        retained++;
+    }
+
+    private void addLevel() {
+        if (levelCount == levels.length) {
+            levels = Arrays.copyOf(levels, levelCount * 2);
+            sizes = Arrays.copyOf(sizes, levelCount * 2);
+        }
+        levels[levelCount] = new double[k];
+        sizes[levelCount] = 0;
+        if (levelCount == depthCapacities.length) {
+            depthCapacities = Arrays.copyOf(depthCapacities, levelCount * 2);
+        }
+        depthCapacities[levelCount] = Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, levelCount)));
+        totalCapacity += depthCapacities[levelCount];
+        levelCount++;
+    }
+
+    private void compress() {
+        while (retained > totalCapacity) {
+            for (int level = 0; level < levelCount; level++) {
+                if (sizes[level] >= capacity(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts the level and promotes every other item; an odd item out stays behind.
+     */
+    private void compact(int level) {
+        if (level + 1 == levelCount) {
+            addLevel();
+        }
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        int kept = size % 2;
+        int offset = coins.nextBoolean() ? 1 : 0;
+        for (int i = kept + offset; i < size; i += 2) {
+            append(level + 1, items[i]);
+        }
+        retained -= size - kept;
+        sizes[level] = kept;
+    }
+
+    /**
+     * Capacity shrinks with depth below the top level, so it is looked up by depth; the table only grows when a
+     * level is added.
+     */
+    private int capacity(int level) {
+        return depthCapacities[levelCount - level - 1];
+    }
+}
@@ -0,0 +1,61 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalSum;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.RiskSummary;
+
+import java.math.BigDecimal;
+
+public final class RiskAccumulator implements MetricAccumulator<RiskSummary> {
+    private final TradeColumns columns;
+    private final ValueDistribution rOrder;
+    private final DecimalSum totalR = DecimalSum.zero();
+    private final DecimalSum riskAmount = DecimalSum.zero();
+    private final DecimalSum riskPercent = DecimalSum.zero();
+    private int riskAmountTrades;
+    private int riskPercentTrades;
+
+    public RiskAccumulator(TradeColumns columns, int expectedRows, boolean exact) {
+        this.columns = columns;
+        this.rOrder = ValueDistribution.of(columns.rMultiple(), expectedRows, true, exact);
+    }
+
+    @Override
+    public void accept(int row) {
+        if (!columns.rMultiple().isNull(row)) {
+            rOrder.accept(row);
+            totalR.add(columns.rMultiple(), row);
+        }
+        if (!columns.riskAmount().isNull(row)) {
+            riskAmountTrades++;
+            riskAmount.add(columns.riskAmount(), row);
+        }
+        if (!columns.riskPercent().isNull(row)) {
+            riskPercentTrades++;
+            riskPercent.add(columns.riskPercent(), row);
+        }
+    }
+
+    @Override
+    public RiskSummary finish() {
+        ValueDistribution r = rOrder.finish();
+        int rTrades = r.size();
+        if (rTrades == 0 && riskAmountTrades == 0 && riskPercentTrades == 0) {
+            return RiskSummary.builder().available(false).tradesWithRisk(0).build();
+        }
+        int scale = columns.decimalScale();
+        BigDecimal averageR = MetricMath.average(totalR.toBigDecimal(scale), rTrades);
+        double winRateR = rTrades == 0 ? 0 : (double) r.countAbove(0) / rTrades * 100;
+        return RiskSummary.builder()
+                .available(true)
+                .averageR(averageR)
+                .medianR(r.median())
+                .expectancyR(averageR)
+                .winRateR(winRateR)
+                .averageRiskAmount(MetricMath.average(riskAmount.toBigDecimal(scale), riskAmountTrades))
+                .averageRiskPercent(MetricMath.average(riskPercent.toBigDecimal(scale), riskPercentTrades))
+                .rDistribution(r.histogram(6))
+                .tradesWithRisk(rTrades)
+                .build();
+    }
+}
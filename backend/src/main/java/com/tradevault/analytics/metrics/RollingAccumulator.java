@@ -0,0 +1,205 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.FixedPoint;
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.RollingMetricPoint;
+import com.tradevault.dto.analytics.RollingSeries;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sliding windows over rows in close order. Every window slides over the same sequence in one walk: each
+ * step adds the newest trade and drops the one that left the window, so sums, win counts and gross
+ * profit/loss cost O(1) per step. The windowed median is opt-in, and points carry a null median otherwise: it
+ * comes from a Fenwick tree of value ranks, which finds the k-th smallest value in the window in O(log n) but
+ * costs a sort of the sample and a tree update per step. With {@code maxPoints}, each series is thinned evenly
+ * while it is built; window averages are already smooth, and skipped points are never materialized.
+ */
+public final class RollingAccumulator implements MetricAccumulator<List<RollingSeries>> {
+    private final TradeColumns columns;
+    private final int[] windows;
+    private final int maxPoints;
+    private final boolean medians;
+    private int[] rows;
+    private int count;
+
+    /**
+     * @param windows window sizes in trades; sizes below 1 produce an empty series
+     */
+    public RollingAccumulator(TradeColumns columns, int expectedRows, int... windows) {
+        this(columns, expectedRows, windows, 0, false);
+    }
+
+    /**
+     * @param maxPoints upper bound on the points of each series, or 0 for one point per full window
+     * @param medians   whether points carry the windowed median
+     */
+    public RollingAccumulator(TradeColumns columns, int expectedRows, int[] windows, int maxPoints, boolean medians) {
+        this.columns = columns;
+        this.windows = windows.clone();
+        this.maxPoints = maxPoints;
+        this.medians = medians;
+        this.rows = new int[Math.max(expectedRows, 1)];
+    }
+
+    @Override
+    public void accept(int row) {
+        if (count == rows.length) {
+            rows = Arrays.copyOf(rows, count * 2);
+        }
+        rows[count++] = row;
+    }
+
+    @Override
+    public List<RollingSeries> finish() {
+        long[] units = new long[count];
+        for (int i = 0; i < count; i++) {
+            units[i] = columns.pnlNet().units(rows[i]);
+        }
+        long[] distinct = medians ? distinctSorted(units) : null;
+        long unit = FixedPoint.pow10(columns.decimalScale());
+
+        Window[] states = new Window[windows.length];
+        for (int w = 0; w < windows.length; w++) {
+            states[w] = new Window(windows[w], count, medians ? distinct.length : 0, unit);
+        }
+        for (int i = 0; i < count; i++) {
+            long entering = units[i];
+            int enteringRank = medians ? Arrays.binarySearch(distinct, entering) : -1;
+            LocalDate date = null;
+            for (Window state : states) {
+                if (!state.active) continue;
+                state.add(entering, enteringRank);
+                if (i >= state.size) {
+                    long leaving = units[i - state.size];
+                    state.remove(leaving, medians ? Arrays.binarySearch(distinct, leaving) : -1);
+                }
+                if (i < state.size - 1) continue;
+                if (!SeriesDownsampler.keepEvenly(i - state.size + 1, count - state.size + 1, maxPoints)) continue;
+                if (date == null) {
+                    date = LocalDate.ofEpochDay(columns.closedDay(rows[i]));
+                }
+                state.points.add(state.point(date, distinct));
+            }
+        }
+
+        List<RollingSeries> result = new ArrayList<>(states.length);
+        for (Window state : states) {
+            result.add(RollingSeries.builder().window(state.size).points(state.points).build());
+        }
+        return result;
+    }
+
+    /**
+     * Points of the given window, or an empty list when it was not requested.
+     */
+    public static List<RollingMetricPoint> points(List<RollingSeries> series, int window) {
+        for (RollingSeries candidate : series) {
+            if (candidate.getWindow() == window) return candidate.getPoints();
+        }
+        return List.of();
+    }
+
+    private static long[] distinctSorted(long[] units) {
+        long[] sorted = units.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || sorted[size - 1] != sorted[i]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    private static final class Window {
+        private final int size;
+        private final boolean active;
+        private final long unit;
+        private final long windowDivisor;
+        private final int[] tree;
+        private final int highestStep;
+        private final List<RollingMetricPoint> points;
+        private long net;
+        private long profit;
+        private long loss;
+        private int wins;
+
+        private Window(int size, int rows, int distinct, long unit) {
+            this.size = size;
+            this.active = size > 0 && rows >= size;
+            this.unit = unit;
+            this.windowDivisor = active ? Math.multiplyExact(size, unit) : 1;
+            this.tree = new int[active && distinct > 0 ? distinct + 1 : 0];
+            this.highestStep = Integer.highestOneBit(Math.max(distinct, 1));
+            this.points = new ArrayList<>(active ? rows - size + 1 : 0);
+        }
+
+        private void add(long units, int rank) {
+            net = Math.addExact(net, units);
+            if (units > 0) {
+                profit += units;
+                wins++;
+            } else if (units < 0) {
+                loss -= units;
+            }
+            update(rank, 1);
+        }
+
+        private void remove(long units, int rank) {
+            net -= units;
+            if (units > 0) {
+                profit -= units;
+                wins--;
+            } else if (units < 0) {
+                loss += units;
+            }
+            update(rank, -1);
+        }
+
+        private RollingMetricPoint point(LocalDate date, long[] distinct) {
+            BigDecimal average = BigDecimal.valueOf(FixedPoint.divideHalfUp(net, windowDivisor, 2), 2);
+            return RollingMetricPoint.builder()
+                    .date(date)
+                    .winRate((double) wins / size * 100)
+                    .profitFactor(loss == 0 ? null : BigDecimal.valueOf(FixedPoint.divideHalfUp(profit, loss, 2), 2))
+                    .expectancy(average)
+                    .averagePnl(average)
+                    .medianPnl(distinct == null ? null : median(distinct))
+                    .build();
+        }
+
+        private BigDecimal median(long[] distinct) {
+            int mid = size / 2;
+            long median = size % 2 == 0
+                    ? FixedPoint.divideHalfUp(Math.addExact(distinct[kth(mid)], distinct[kth(mid + 1)]), 2 * unit, 2)
+                    : FixedPoint.divideHalfUp(distinct[kth(mid + 1)], unit, 2);
+            return BigDecimal.valueOf(median, 2);
+        }
+
+        private void update(int rank, int delta) {
+            for (int i = rank + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        /**
+         * Rank of the k-th smallest value in the window, 1-based {@code k}.
+         */
+        private int kth(int k) {
+            int position = 0;
+            for (int step = highestStep; step > 0; step >>= 1) {
+                int next = position + step;
+                if (next < tree.length && tree[next] < k) {
+                    position = next;
+                    k -= tree[next];
+                }
+            }
+            return position;
+        }
+    }
+}
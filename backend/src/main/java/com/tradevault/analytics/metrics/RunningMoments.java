@@ -0,0 +1,49 @@
+package com.tradevault.analytics.metrics;
+
+/**
+ * Welford mean and variance in one pass. Partials over disjoint inputs combine with
+ * {@link #merge(RunningMoments)} using Chan's pairwise update.
+ */
+public final class RunningMoments {
+    private long count;
+    private double mean;
+    private double m2;
+
+    public void accept(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    public void merge(RunningMoments other) {
+        if (other.count == 0) return;
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * Population standard deviation, or {@code null} before the first value.
+     */
+    public Double standardDeviation() {
+        if (count == 0) return null;
+        return Math.sqrt(Math.max(0, m2 / count));
+    }
+}
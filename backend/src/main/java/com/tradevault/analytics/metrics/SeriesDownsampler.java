@@ -0,0 +1,117 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.FixedPoint;
+import com.tradevault.dto.analytics.TimeSeriesPoint;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a chart series of at most {@code maxPoints} points while the values stream in, without keeping
+ * the full-resolution series. The first and last points are always kept; the points between them are split
+ * by position into {@code (maxPoints - 2) / 2} buckets, and each bucket keeps its lowest and highest value
+ * in their original order, so extremes such as the maximum drawdown are never dropped. A {@code maxPoints}
+ * of 0, or one at least the series length, keeps every point.
+ */
+public final class SeriesDownsampler {
+    public static final int MIN_POINTS = 4;
+
+    private final int expected;
+    private final int buckets;
+    private final int unitScale;
+    private final List<TimeSeriesPoint> points;
+    private int index;
+    private int bucket = -1;
+    private int minIndex;
+    private long minUnits;
+    private int minScale;
+    private int minDay;
+    private int maxIndex;
+    private long maxUnits;
+    private int maxScale;
+    private int maxDay;
+
+    public SeriesDownsampler(int expected, int maxPoints, int unitScale) {
+        this.expected = expected;
+        this.buckets = downsamples(expected, maxPoints) ? (maxPoints - 2) / 2 : 0;
+        this.unitScale = unitScale;
+        this.points = new ArrayList<>(buckets == 0 ? expected : maxPoints);
+    }
+
+    /**
+     * Whether a series of {@code size} points is reduced at all for {@code maxPoints}.
+     */
+    public static boolean downsamples(int size, int maxPoints) {
+        return maxPoints > 0 && size > maxPoints;
+    }
+
+    /**
+     * Even thinning for series that are already smooth: the first and last of {@code size} points plus the
+     * last point of each of {@code maxPoints - 2} equal runs in between.
+     */
+    public static boolean keepEvenly(int position, int size, int maxPoints) {
+        if (!downsamples(size, maxPoints) || position == 0 || position >= size - 2) {
+            return true;
+        }
+        int interior = size - 2;
+        int runs = maxPoints - 2;
+        return (long) (position - 1) * runs / interior != (long) position * runs / interior;
+    }
+
+    public void add(int epochDay, long units, int scale) {
+        int position = index++;
+        if (buckets == 0 || position == 0 || position >= expected - 1) {
+            flush();
+            emit(epochDay, units, scale);
+            return;
+        }
+        int current = (int) ((long) (position - 1) * buckets / (expected - 2));
+        if (current != bucket) {
+            flush();
+            bucket = current;
+            minIndex = maxIndex = position;
+            minUnits = maxUnits = units;
+            minScale = maxScale = scale;
+            minDay = maxDay = epochDay;
+            return;
+        }
+        if (units < minUnits) {
+            minIndex = position;
+            minUnits = units;
+            minScale = scale;
+            minDay = epochDay;
+        }
+        if (units > maxUnits) {
+            maxIndex = position;
+            maxUnits = units;
+            maxScale = scale;
+            maxDay = epochDay;
+        }
+    }
+
+    public List<TimeSeriesPoint> finish() {
+        flush();
+        return points;
+    }
+
+    private void flush() {
+        if (bucket < 0) {
+            return;
+        }
+        if (minIndex == maxIndex) {
+            emit(minDay, minUnits, minScale);
+        } else if (minIndex < maxIndex) {
+            emit(minDay, minUnits, minScale);
+            emit(maxDay, maxUnits, maxScale);
+        } else {
+            emit(maxDay, maxUnits, maxScale);
+            emit(minDay, minUnits, minScale);
+        }
+        bucket = -1;
+    }
+
+    private void emit(int epochDay, long units, int scale) {
+        points.add(new TimeSeriesPoint(LocalDate.ofEpochDay(epochDay), FixedPoint.toBigDecimal(units, unitScale, scale)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalColumn;
+import com.tradevault.analytics.columnar.FixedPoint;
+import com.tradevault.dto.analytics.HistogramBucket;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Approximate order statistics for large samples: a {@link QuantileSketch} over the column's units plus
+ * {@link RunningMoments}, both in constant memory. Minimum and maximum stay exact. Quantiles are values
+ * that actually occurred, returned at the column's unit scale.
+ */
+public final class SketchStatistics implements ValueDistribution {
+    private final DecimalColumn column;
+    private final boolean skipNulls;
+    private final QuantileSketch sketch = new QuantileSketch();
+    private final RunningMoments moments = new RunningMoments();
+    private long minUnits = Long.MAX_VALUE;
+    private long maxUnits = Long.MIN_VALUE;
+
+    public SketchStatistics(DecimalColumn column, boolean skipNulls) {
+        this.column = column;
+        this.skipNulls = skipNulls;
+    }
+
+    @Override
+    public void accept(int row) {
+        if (skipNulls && column.isNull(row)) return;
+        long units = column.units(row);
+        // Units stay below 2^53 for any journal amount, so the double holds them exactly.
+        sketch.accept(units);
+        moments.accept(FixedPoint.toDouble(units, column.unitScale()));
+        minUnits = Math.min(minUnits, units);
+        maxUnits = Math.max(maxUnits, units);
+    }
+
+    @Override
+    public ValueDistribution finish() {
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return (int) sketch.count();
+    }
+
+    @Override
+    public int countAbove(long units) {
+        return (int) (sketch.count() - sketch.rank(units, true));
+    }
+
+    @Override
+    public BigDecimal median() {
+        if (sketch.count() == 0) return BigDecimal.ZERO;
+        return value((long) sketch.quantile(0.5));
+    }
+
+    @Override
+    public BigDecimal percentile(double percentile) {
+        if (sketch.count() == 0) return BigDecimal.ZERO;
+        return value((long) sketch.quantile(percentile / 100.0));
+    }
+
+    @Override
+    public Double standardDeviation() {
+        return moments.standardDeviation();
+    }
+
+    @Override
+    public List<HistogramBucket> histogram(int buckets) {
+        if (sketch.count() == 0) return List.of();
+        return Histograms.build(value(minUnits), value(maxUnits), size(), buckets, column.unitScale(),
+                units -> sketch.rank(units, false),
+                units -> sketch.rank(units, true));
+    }
+
+    private BigDecimal value(long units) {
+        return BigDecimal.valueOf(units, column.unitScale());
+    }
+}
@@ -0,0 +1,50 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DictionaryColumn;
+import com.tradevault.analytics.columnar.TradeColumns;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Net P&L per strategy label as doubles, for the legacy {@code breakdown} map of the summary. Double sums
+ * depend on the order they are added in, so rows are only marked during the pass and summed in snapshot
+ * order by {@link #finish()}.
+ */
+public final class StrategyPnlAccumulator implements MetricAccumulator<Map<String, Double>> {
+    private final TradeColumns columns;
+    private final boolean[] accepted;
+
+    public StrategyPnlAccumulator(TradeColumns columns) {
+        this.columns = columns;
+        this.accepted = new boolean[columns.size()];
+    }
+
+    @Override
+    public void accept(int row) {
+        accepted[row] = true;
+    }
+
+    @Override
+    public Map<String, Double> finish() {
+        DictionaryColumn strategies = columns.strategy();
+        DoubleSummaryStatistics[] totals = new DoubleSummaryStatistics[strategies.labelCount()];
+        int[] encountered = new int[strategies.labelCount()];
+        int groups = 0;
+        for (int row = 0; row < accepted.length; row++) {
+            if (!accepted[row]) continue;
+            int label = strategies.labelId(row);
+            if (totals[label] == null) {
+                totals[label] = new DoubleSummaryStatistics();
+                encountered[groups++] = label;
+            }
+            totals[label].accept(columns.pnlNet().doubleValue(row));
+        }
+        Map<String, Double> breakdown = new HashMap<>();
+        for (int i = 0; i < groups; i++) {
+            breakdown.put(strategies.label(encountered[i]), totals[encountered[i]].getSum());
+        }
+        return breakdown;
+    }
+}
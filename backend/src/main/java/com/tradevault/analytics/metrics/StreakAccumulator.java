@@ -0,0 +1,51 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.StreakSummary;
+
+/**
+ * Win and loss streaks. Rows must arrive in close order.
+ */
+public final class StreakAccumulator implements MetricAccumulator<StreakSummary> {
+    private final TradeColumns columns;
+    private int currentWin;
+    private int currentLoss;
+    private int maxWin;
+    private int maxLoss;
+    private String currentType = "NONE";
+
+    public StreakAccumulator(TradeColumns columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public void accept(int row) {
+        long pnl = columns.pnlNet().units(row);
+        if (pnl > 0) {
+            currentWin++;
+            currentLoss = 0;
+            currentType = "WIN";
+        } else if (pnl < 0) {
+            currentLoss++;
+            currentWin = 0;
+            currentType = "LOSS";
+        } else {
+            currentLoss = 0;
+            currentWin = 0;
+            currentType = "FLAT";
+        }
+        maxWin = Math.max(maxWin, currentWin);
+        maxLoss = Math.max(maxLoss, currentLoss);
+    }
+
+    @Override
+    public StreakSummary finish() {
+        int currentStreak = currentType.equals("WIN") ? currentWin : currentType.equals("LOSS") ? currentLoss : 0;
+        return StreakSummary.builder()
+                .maxWinStreak(maxWin)
+                .maxLossStreak(maxLoss)
+                .currentStreakType(currentType)
+                .currentStreakCount(currentStreak)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.dto.analytics.DateMode;
+import com.tradevault.dto.analytics.TimeEdgeSummary;
+
+import java.util.Arrays;
+
+public final class TimeEdgeAccumulator implements MetricAccumulator<TimeEdgeSummary> {
+    private final TradeColumns columns;
+    private final BucketAccumulator dayOfWeek;
+    private final BucketAccumulator hourOfDay;
+    private final BucketAccumulator holdingTime;
+    private long[] holdingSeconds;
+    private int holdingCount;
+    private long holdingTotal;
+
+    public TimeEdgeAccumulator(TradeColumns columns, DateMode mode, int expectedRows) {
+        this.columns = columns;
+        this.dayOfWeek = BucketAccumulator.dayOfWeek(columns, mode);
+        this.hourOfDay = BucketAccumulator.hourOfDay(columns, mode);
+        this.holdingTime = BucketAccumulator.holdingTime(columns);
+        this.holdingSeconds = new long[Math.max(expectedRows, 1)];
+    }
+
+    @Override
+    public void accept(int row) {
+        dayOfWeek.accept(row);
+        hourOfDay.accept(row);
+        holdingTime.accept(row);
+        long seconds = columns.holdingSeconds(row);
+        if (seconds != TradeColumns.NO_TIME && seconds >= 0) {
+            if (holdingCount == holdingSeconds.length) {
+                holdingSeconds = Arrays.copyOf(holdingSeconds, holdingCount * 2);
+            }
+            holdingSeconds[holdingCount++] = seconds;
+            holdingTotal += seconds;
+        }
+    }
+
+    @Override
+    public TimeEdgeSummary finish() {
+        Long avgHolding = holdingCount == 0 ? null : Math.round((double) holdingTotal / holdingCount);
+        Long medianHolding = null;
+        if (holdingCount > 0) {
+            Arrays.sort(holdingSeconds, 0, holdingCount);
+            medianHolding = holdingSeconds[(holdingCount - 1) / 2];
+        }
+        return TimeEdgeSummary.builder()
+                .averageHoldingSeconds(avgHolding)
+                .medianHoldingSeconds(medianHolding)
+                .holdingBuckets(holdingTime.finish())
+                .dayOfWeek(dayOfWeek.finish())
+                .hourOfDay(hourOfDay.finish())
+                .build();
+    }
+}
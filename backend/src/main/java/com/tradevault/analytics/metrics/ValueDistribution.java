@@ -0,0 +1,42 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.DecimalColumn;
+import com.tradevault.dto.analytics.HistogramBucket;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Order statistics of one decimal column, fed by a {@link MetricPass}. Query methods may only be called
+ * after {@link #finish()}.
+ */
+public interface ValueDistribution extends MetricAccumulator<ValueDistribution> {
+
+    /**
+     * Samples up to this size are always answered exactly; above it a sketch is used unless exact
+     * results were requested.
+     */
+    int EXACT_SAMPLE_LIMIT = 50_000;
+
+    static ValueDistribution of(DecimalColumn column, int expectedRows, boolean skipNulls, boolean exact) {
+        if (exact || expectedRows <= EXACT_SAMPLE_LIMIT) {
+            return new OrderStatistics(column, expectedRows, skipNulls);
+        }
+        return new SketchStatistics(column, skipNulls);
+    }
+
+    int size();
+
+    /**
+     * Number of values strictly above {@code units}.
+     */
+    int countAbove(long units);
+
+    BigDecimal median();
+
+    BigDecimal percentile(double percentile);
+
+    Double standardDeviation();
+
+    List<HistogramBucket> histogram(int buckets);
+}
@@ -0,0 +1,20 @@
+package com.tradevault.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "analytics.cache")
+@Getter
+@Setter
+public class AnalyticsCacheConfig {
+    private boolean enabled = true;
+    private int maxEntries = 5000;
+    private int maxEntriesPerUser = 64;
+    private long maxWeight = 5_000_000;
+    private Duration ttl = Duration.ofMinutes(30);
+}
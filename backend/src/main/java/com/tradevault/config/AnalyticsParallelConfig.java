@@ -0,0 +1,19 @@
+package com.tradevault.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "analytics.parallel")
+@Getter
+@Setter
+public class AnalyticsParallelConfig {
+    private boolean enabled = false;
+    private int minTrades = 20_000;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private Duration sectionTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,98 @@
+package com.tradevault.config;
+
+import com.tradevault.domain.entity.User;
+import com.tradevault.security.CustomUserDetails;
+import com.tradevault.service.TradeVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers conditional GETs for endpoints that only read the user's trades. The ETag combines the user's
+ * {@link TradeVersionService} version, their profile time zone, the request path, the sorted query
+ * parameters and the requested language, so a matching {@code If-None-Match} is answered with 304 before
+ * the controller, and therefore the database, is reached. Otherwise the ETag is left in
+ * {@link #ETAG_ATTRIBUTE} for {@link ConditionalGetResponseAdvice} to send with a successful response.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+    static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+
+    private final TradeVersionService tradeVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        User user = authenticatedUser();
+        if (user == null) {
+            return true;
+        }
+        String etag = etag(request, user);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, ConditionalGetResponseAdvice.CACHE_CONTROL);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    private String etag(HttpServletRequest request, User user) {
+        StringBuilder key = new StringBuilder()
+                .append(user.getId()).append('|')
+                .append(user.getTimezone()).append('|')
+                .append(request.getRequestURI()).append('|')
+                .append(request.getHeader(HttpHeaders.ACCEPT_LANGUAGE));
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        parameters.forEach((name, values) -> {
+            String[] present = Arrays.stream(values).filter(value -> value != null && !value.isBlank()).toArray(String[]::new);
+            if (present.length > 0) {
+                key.append('|').append(name).append('=').append(String.join(",", present));
+            }
+        });
+        long version = tradeVersionService.currentVersion(user.getId());
+        String digest = DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + version + "-" + digest + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || opaque(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static User authenticatedUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof CustomUserDetails details) {
+            return details.getUser();
+        }
+        return null;
+    }
+}
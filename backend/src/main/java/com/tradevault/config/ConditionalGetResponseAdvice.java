@@ -0,0 +1,44 @@
+package com.tradevault.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Sends the ETag computed by {@link ConditionalGetInterceptor} with successful responses only, so an
+ * error is never revalidated into a cached 304.
+ */
+@ControllerAdvice
+public class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest && response instanceof ServletServerHttpResponse servletResponse) {
+            HttpServletRequest httpRequest = servletRequest.getServletRequest();
+            HttpServletResponse httpResponse = servletResponse.getServletResponse();
+            Object etag = httpRequest.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+            if (etag != null && httpResponse.getStatus() >= 200 && httpResponse.getStatus() < 300) {
+                response.getHeaders().set(HttpHeaders.ETAG, etag.toString());
+                response.getHeaders().set(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            }
+        }
+        return body;
+    }
+}
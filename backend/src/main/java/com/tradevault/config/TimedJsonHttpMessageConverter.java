@@ -0,0 +1,28 @@
+package com.tradevault.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradevault.analytics.AnalyticsMetrics;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The application's JSON converter, additionally timing how long analytics responses take to serialize.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final AnalyticsMetrics analyticsMetrics;
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper, AnalyticsMetrics analyticsMetrics) {
+        super(objectMapper);
+        this.analyticsMetrics = analyticsMetrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long start = System.nanoTime();
+        super.writeInternal(object, type, outputMessage);
+        analyticsMetrics.recordSerialization(object, System.nanoTime() - start);
+    }
+}
@@ -19,4 +19,5 @@ public class TradeCoachConfig {
     private double holdingBucketDeltaR = 0.2;
     private double criticalExpectancy = -50.0;
     private double dataQualityPenaltyRatio = 0.2;
+    private boolean storedAdvice = true;
 }
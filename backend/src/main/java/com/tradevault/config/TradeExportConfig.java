@@ -0,0 +1,20 @@
+package com.tradevault.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the streaming CSV export. {@code requestTimeout} applies to export requests only; other async
+ * endpoints keep the MVC default.
+ */
+@Component
+@ConfigurationProperties(prefix = "trades.export")
+@Getter
+@Setter
+public class TradeExportConfig {
+    private Duration requestTimeout = Duration.ofMinutes(10);
+}
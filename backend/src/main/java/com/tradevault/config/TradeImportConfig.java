@@ -0,0 +1,15 @@
+package com.tradevault.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "trades.import")
+@Getter
+@Setter
+public class TradeImportConfig {
+    private int chunkSize = 500;
+    private int maxErrors = 1000;
+}
@@ -1,19 +1,30 @@
 package com.tradevault.controller;
 
+import com.tradevault.analytics.AnalyticsDashboardService;
+import com.tradevault.analytics.AnalyticsDataset;
 import com.tradevault.analytics.AnalyticsService;
+import com.tradevault.analytics.AnalyticsStreamService;
+import com.tradevault.analytics.AnalyticsWhatIfService;
 import com.tradevault.analytics.TradeCoachService;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.AnalyticsBreakdownCubeResponse;
 import com.tradevault.dto.analytics.AnalyticsBreakdownResponse;
+import com.tradevault.dto.analytics.AnalyticsDashboardResponse;
 import com.tradevault.dto.analytics.AnalyticsResponse;
 import com.tradevault.dto.analytics.AnalyticsTimeseriesResponse;
+import com.tradevault.dto.analytics.AnalyticsWhatIfResponse;
 import com.tradevault.dto.analytics.CoachResponse;
+import com.tradevault.service.CurrentUserService;
+import com.tradevault.service.TimezoneService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
@@ -26,8 +37,16 @@ import java.time.ZonedDateTime;
 public class AnalyticsController {
     private final AnalyticsService analyticsService;
     private final TradeCoachService tradeCoachService;
-    private static final ZoneId DISPLAY_ZONE = ZoneId.of("Europe/Bucharest");
+    private final AnalyticsDashboardService analyticsDashboardService;
+    private final AnalyticsStreamService analyticsStreamService;
+    private final AnalyticsWhatIfService analyticsWhatIfService;
+    private final CurrentUserService currentUserService;
 
+    /**
+     * Percentiles and outlier bounds are exact by default; {@code exact=false} lets samples above
+     * {@link com.tradevault.analytics.metrics.ValueDistribution#EXACT_SAMPLE_LIMIT} trades be answered from a
+     * sketch instead. The other endpoints taking {@code exact} share this default.
+     */
     @GetMapping("/summary")
     public AnalyticsResponse summary(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
@@ -40,10 +59,36 @@ public class AnalyticsController {
                                      @RequestParam(required = false) String market,
                                      @RequestParam(required = false) String dateMode,
                                      @RequestParam(required = false, defaultValue = "false") boolean excludeOutliers,
-                                     @RequestParam(required = false) String holdingBucket) {
+                                     @RequestParam(required = false) String holdingBucket,
+                                     @RequestParam(required = false, defaultValue = "true") boolean exact,
+                                     @RequestParam(required = false) Integer maxPoints) {
         OffsetDateTime fromDate = toStartOfDay(from);
         OffsetDateTime toDate = toEndOfDay(to);
-        return analyticsService.summarize(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode, excludeOutliers, holdingBucket);
+        return analyticsService.summarize(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode, excludeOutliers, holdingBucket, exact, maxPoints);
+    }
+
+    /**
+     * The summary as server-sent events, one per section as soon as it is computed.
+     */
+    @GetMapping(path = "/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter summaryStream(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    @RequestParam(required = false) String symbol,
+                                    @RequestParam(required = false) Direction direction,
+                                    @RequestParam(required = false) TradeStatus status,
+                                    @RequestParam(required = false) String strategy,
+                                    @RequestParam(required = false) String setup,
+                                    @RequestParam(required = false) String catalyst,
+                                    @RequestParam(required = false) String market,
+                                    @RequestParam(required = false) String dateMode,
+                                    @RequestParam(required = false, defaultValue = "false") boolean excludeOutliers,
+                                    @RequestParam(required = false) String holdingBucket,
+                                    @RequestParam(required = false, defaultValue = "true") boolean exact,
+                                    @RequestParam(required = false) Integer maxPoints) {
+        OffsetDateTime fromDate = toStartOfDay(from);
+        OffsetDateTime toDate = toEndOfDay(to);
+        AnalyticsDataset dataset = analyticsService.dataset(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode);
+        return analyticsStreamService.streamSummary(dataset, excludeOutliers, holdingBucket, exact, maxPoints);
     }
 
     @GetMapping("/timeseries")
@@ -58,10 +103,12 @@ public class AnalyticsController {
                                                   @RequestParam(required = false) String market,
                                                   @RequestParam(required = false) String dateMode,
                                                   @RequestParam(required = false) String bucket,
-                                                  @RequestParam(required = false) Integer window) {
+                                                  @RequestParam(required = false) Integer window,
+                                                  @RequestParam(required = false) String rollingWindows,
+                                                  @RequestParam(required = false) Integer maxPoints) {
         OffsetDateTime fromDate = toStartOfDay(from);
         OffsetDateTime toDate = toEndOfDay(to);
-        return analyticsService.timeseries(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode, bucket, window);
+        return analyticsService.timeseries(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode, bucket, window, rollingWindows, maxPoints);
     }
 
     @GetMapping("/breakdown")
@@ -81,6 +128,24 @@ public class AnalyticsController {
         return analyticsService.breakdown(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode, groupBy);
     }
 
+    @GetMapping("/breakdown/cube")
+    public AnalyticsBreakdownCubeResponse breakdownCube(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                        @RequestParam(required = false) String symbol,
+                                                        @RequestParam(required = false) Direction direction,
+                                                        @RequestParam(required = false) TradeStatus status,
+                                                        @RequestParam(required = false) String strategy,
+                                                        @RequestParam(required = false) String setup,
+                                                        @RequestParam(required = false) String catalyst,
+                                                        @RequestParam(required = false) String market,
+                                                        @RequestParam(required = false) String dateMode,
+                                                        @RequestParam String dimensions,
+                                                        @RequestParam(required = false, defaultValue = "0") int topK) {
+        OffsetDateTime fromDate = toStartOfDay(from);
+        OffsetDateTime toDate = toEndOfDay(to);
+        return analyticsService.breakdownCube(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode, dimensions, topK);
+    }
+
     @GetMapping("/coach")
     public CoachResponse coach(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
@@ -92,17 +157,71 @@ public class AnalyticsController {
                                @RequestParam(required = false) String catalyst,
                                @RequestParam(required = false) String market,
                                @RequestParam(required = false) String dateMode,
-                               @RequestParam(required = false, defaultValue = "false") boolean excludeOutliers) {
+                               @RequestParam(required = false, defaultValue = "false") boolean excludeOutliers,
+                               @RequestParam(required = false, defaultValue = "true") boolean exact,
+                               @RequestParam(required = false) Integer clusterMinutes) {
         OffsetDateTime fromDate = toStartOfDay(from);
         OffsetDateTime toDate = toEndOfDay(to);
-        return tradeCoachService.coach(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode, excludeOutliers);
+        return tradeCoachService.coach(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode, excludeOutliers, exact, clusterMinutes);
+    }
+
+    @GetMapping("/dashboard")
+    public AnalyticsDashboardResponse dashboard(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                @RequestParam(required = false) String symbol,
+                                                @RequestParam(required = false) Direction direction,
+                                                @RequestParam(required = false) TradeStatus status,
+                                                @RequestParam(required = false) String strategy,
+                                                @RequestParam(required = false) String setup,
+                                                @RequestParam(required = false) String catalyst,
+                                                @RequestParam(required = false) String market,
+                                                @RequestParam(required = false) String dateMode,
+                                                @RequestParam(required = false) String sections,
+                                                @RequestParam(required = false) String groupBy,
+                                                @RequestParam(required = false, defaultValue = "false") boolean excludeOutliers,
+                                                @RequestParam(required = false) String holdingBucket,
+                                                @RequestParam(required = false, defaultValue = "true") boolean exact,
+                                                @RequestParam(required = false) String bucket,
+                                                @RequestParam(required = false) Integer window,
+                                                @RequestParam(required = false) String rollingWindows,
+                                                @RequestParam(required = false) Integer maxPoints) {
+        OffsetDateTime fromDate = toStartOfDay(from);
+        OffsetDateTime toDate = toEndOfDay(to);
+        return analyticsDashboardService.dashboard(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market, dateMode,
+                sections, groupBy, excludeOutliers, holdingBucket, exact, bucket, window, rollingWindows, maxPoints);
+    }
+
+    /**
+     * KPIs of the journal narrowed by the given filters next to the unfiltered journal, answered from the
+     * cached per-user snapshot. Every list accepts several values; see {@link AnalyticsWhatIfService}.
+     */
+    @GetMapping("/what-if")
+    public AnalyticsWhatIfResponse whatIf(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(required = false) String symbol,
+                                          @RequestParam(required = false) String direction,
+                                          @RequestParam(required = false) String status,
+                                          @RequestParam(required = false) String strategy,
+                                          @RequestParam(required = false) String setup,
+                                          @RequestParam(required = false) String catalyst,
+                                          @RequestParam(required = false) String market,
+                                          @RequestParam(required = false) String hour,
+                                          @RequestParam(required = false) String dow,
+                                          @RequestParam(required = false) String holdingBucket,
+                                          @RequestParam(required = false) String exclude,
+                                          @RequestParam(required = false) String dateMode,
+                                          @RequestParam(required = false, defaultValue = "true") boolean exact) {
+        OffsetDateTime fromDate = toStartOfDay(from);
+        OffsetDateTime toDate = toEndOfDay(to);
+        return analyticsWhatIfService.whatIf(fromDate, toDate, symbol, direction, status, strategy, setup, catalyst, market,
+                hour, dow, holdingBucket, exclude, dateMode, exact);
     }
 
     private OffsetDateTime toStartOfDay(LocalDate date) {
         if (date == null) {
             return null;
         }
-        ZonedDateTime zoned = date.atStartOfDay(DISPLAY_ZONE);
+        ZonedDateTime zoned = date.atStartOfDay(userZone());
         return zoned.toOffsetDateTime();
     }
 
@@ -110,7 +229,14 @@ public class AnalyticsController {
         if (date == null) {
             return null;
         }
-        ZonedDateTime zoned = date.plusDays(1).atStartOfDay(DISPLAY_ZONE).minusNanos(1);
+        ZonedDateTime zoned = date.plusDays(1).atStartOfDay(userZone()).minusNanos(1);
         return zoned.toOffsetDateTime();
     }
+
+    /**
+     * Date filters are days in the user's profile zone, the zone analytics group by.
+     */
+    private ZoneId userZone() {
+        return TimezoneService.userZone(currentUserService.getCurrentUser());
+    }
 }
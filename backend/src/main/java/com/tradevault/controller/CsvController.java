@@ -1,22 +1,34 @@
 package com.tradevault.controller;
 
+import com.tradevault.config.TradeExportConfig;
 import com.tradevault.dto.trade.ImportResult;
 import com.tradevault.service.ImportExportService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class CsvController {
+    private static final Object EXPORT_TIMEOUT_KEY = CsvController.class.getName() + ".exportTimeout";
+
     private final ImportExportService importExportService;
+    private final TradeExportConfig tradeExportConfig;
 
     @PostMapping(value = "/import/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ImportResult importCsv(@RequestPart("file") MultipartFile file) throws IOException {
@@ -24,12 +36,31 @@ public class CsvController {
     }
 
     @GetMapping("/export/csv")
-    public ResponseEntity<String> exportCsv(@RequestParam(required = false) OffsetDateTime from,
-                                            @RequestParam(required = false) OffsetDateTime to) throws IOException {
-        String csv = importExportService.exportCsv(from, to);
+    public ResponseEntity<StreamingResponseBody> exportCsv(@RequestParam(required = false) OffsetDateTime from,
+                                                           @RequestParam(required = false) OffsetDateTime to,
+                                                           @RequestParam(defaultValue = "false") boolean gzip,
+                                                           HttpServletRequest request) {
+        StreamingResponseBody body = importExportService.exportCsv(from, to, gzip);
+        extendAsyncTimeout(request);
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=trades.csv")
-                .contentType(MediaType.TEXT_PLAIN)
-                .body(csv);
+                .header(HttpHeaders.CONTENT_DISPOSITION, gzip ? "attachment; filename=trades.csv.gz" : "attachment; filename=trades.csv")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    /**
+     * Long exports outlive the MVC async timeout, so this request alone gets the export timeout. It is applied
+     * right before the streaming body is handed to the async executor.
+     */
+    private void extendAsyncTimeout(HttpServletRequest request) {
+        long timeout = tradeExportConfig.getRequestTimeout().toMillis();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_TIMEOUT_KEY, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                if (webRequest instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(timeout);
+                }
+            }
+        });
     }
 }
@@ -4,9 +4,13 @@ import com.tradevault.domain.enums.PnlBasis;
 import com.tradevault.domain.enums.TradeStatus;
 import com.tradevault.dto.trade.DailyPnlResponse;
 import com.tradevault.dto.trade.DailySummaryResponse;
+import com.tradevault.dto.trade.TradeBulkRequest;
+import com.tradevault.dto.trade.TradeBulkResponse;
+import com.tradevault.dto.trade.TradeFeedResponse;
 import com.tradevault.dto.trade.TradeRequest;
 import com.tradevault.dto.trade.TradeResponse;
 import com.tradevault.dto.trade.TradeCsvImportSummary;
+import com.tradevault.repository.TradeListRow;
 import com.tradevault.service.TradeCalendarService;
 import com.tradevault.service.TradeCsvImportService;
 import com.tradevault.service.TradeService;
@@ -57,6 +61,65 @@ public class TradeController {
         return tradeService.search(page, size, openedAtFrom, openedAtTo, closedAtFrom, closedAtTo, closedDate, tz, symbol, strategy, parsedDirection, status);
     }
 
+    /**
+     * Keyset-paged trade list; pass the previous page's {@code nextCursor} as {@code cursor}.
+     */
+    @GetMapping("/feed")
+    public TradeFeedResponse<TradeResponse> feed(@RequestParam(defaultValue = "20") int limit,
+                                  @RequestParam(required = false) String cursor,
+                                  @RequestParam(required = false) String total) {
+        return tradeService.listFeed(limit, cursor, total);
+    }
+
+    @GetMapping("/search/feed")
+    public TradeFeedResponse<TradeResponse> searchFeed(@RequestParam(defaultValue = "20") int limit,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) String total,
+                                                       @RequestParam(required = false) String openedAtFrom,
+                                                       @RequestParam(required = false) String openedAtTo,
+                                                       @RequestParam(required = false) OffsetDateTime closedAtFrom,
+                                                       @RequestParam(required = false) OffsetDateTime closedAtTo,
+                                                       @RequestParam(required = false) LocalDate closedDate,
+                                                       @RequestParam(required = false) String tz,
+                                                       @RequestParam(required = false) String symbol,
+                                                       @RequestParam(required = false) String strategy,
+                                                       @RequestParam(required = false) String direction,
+                                                       @RequestParam(required = false) TradeStatus status) {
+        var parsedDirection = parseDirection(direction);
+        return tradeService.searchFeed(limit, cursor, total, openedAtFrom, openedAtTo, closedAtFrom, closedAtTo, closedDate, tz, symbol, strategy, parsedDirection, status);
+    }
+
+    /**
+     * Keyset-paged flat trade rows for table views; {@code fields} (e.g. {@code symbol,pnlNet,tags}) limits
+     * the columns read and returned.
+     */
+    @GetMapping("/rows")
+    public TradeFeedResponse<TradeListRow> rows(@RequestParam(defaultValue = "20") int limit,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) String total,
+                                                @RequestParam(required = false) String fields) {
+        return tradeService.listRows(limit, cursor, total, fields);
+    }
+
+    @GetMapping("/search/rows")
+    public TradeFeedResponse<TradeListRow> searchRows(@RequestParam(defaultValue = "20") int limit,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) String total,
+                                                      @RequestParam(required = false) String fields,
+                                                      @RequestParam(required = false) String openedAtFrom,
+                                                      @RequestParam(required = false) String openedAtTo,
+                                                      @RequestParam(required = false) OffsetDateTime closedAtFrom,
+                                                      @RequestParam(required = false) OffsetDateTime closedAtTo,
+                                                      @RequestParam(required = false) LocalDate closedDate,
+                                                      @RequestParam(required = false) String tz,
+                                                      @RequestParam(required = false) String symbol,
+                                                      @RequestParam(required = false) String strategy,
+                                                      @RequestParam(required = false) String direction,
+                                                      @RequestParam(required = false) TradeStatus status) {
+        var parsedDirection = parseDirection(direction);
+        return tradeService.searchRows(limit, cursor, total, fields, openedAtFrom, openedAtTo, closedAtFrom, closedAtTo, closedDate, tz, symbol, strategy, parsedDirection, status);
+    }
+
     private com.tradevault.domain.enums.Direction parseDirection(String direction) {
         if (direction == null || direction.isBlank()) {
             return null;
@@ -73,6 +136,14 @@ public class TradeController {
         return ResponseEntity.ok(tradeService.create(request));
     }
 
+    /**
+     * Creates, updates, patches and deletes many trades in one transaction; per-item outcomes are in the response.
+     */
+    @PostMapping("/bulk")
+    public TradeBulkResponse bulk(@RequestBody TradeBulkRequest request) {
+        return tradeService.bulk(request);
+    }
+
     @PostMapping(value = "/import/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<TradeCsvImportSummary> importCsv(@RequestParam("file") MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
@@ -10,6 +10,7 @@ import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.JdbcTypeCode;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -81,7 +82,7 @@ public class Trade {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
-    @Column(updatable = false)
+    @Column(updatable = false, nullable = false)
     private OffsetDateTime createdAt;
 
     private OffsetDateTime updatedAt;
@@ -89,6 +90,18 @@ public class Trade {
     @Column(name = "demo_seed_id")
     private UUID demoSeedId;
 
+    @Column(name = "local_tz")
+    private String localTz;
+    private LocalDate openedLocalDate;
+    private LocalDate closedLocalDate;
+    private Integer openedHour;
+    private Integer closedHour;
+    private Integer openedDow;
+    private Integer closedDow;
+    private Long holdingMinutes;
+    private String holdingBucket;
+    private BigDecimal rEstimate;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "trade_tags",
@@ -96,4 +109,14 @@ public class Trade {
             inverseJoinColumns = @JoinColumn(name = "tag_id")
     )
     private Set<Tag> tags = new HashSet<>();
+
+    /**
+     * Writers that do not set a creation time get the insert time; the list keyset needs one on every trade.
+     */
+    @PrePersist
+    void defaultCreatedAt() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package com.tradevault.dto.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class AnalyticsBreakdownCubeResponse {
+    private List<BreakdownCubeView> views;
+}
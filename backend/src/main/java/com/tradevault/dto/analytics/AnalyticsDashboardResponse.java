@@ -0,0 +1,15 @@
+package com.tradevault.dto.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class AnalyticsDashboardResponse {
+    private AnalyticsResponse summary;
+    private AnalyticsTimeseriesResponse timeseries;
+    private Map<String, AnalyticsBreakdownResponse> breakdowns;
+    private CoachResponse coach;
+}
@@ -13,4 +13,5 @@ public class AnalyticsTimeseriesResponse {
     private List<TimeSeriesPoint> drawdownSeries;
     private List<TimeSeriesPoint> weeklyPnl;
     private List<RollingMetricPoint> rolling;
+    private List<RollingSeries> rollingWindows;
 }
@@ -0,0 +1,15 @@
+package com.tradevault.dto.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AnalyticsWhatIfResponse {
+    private KpiSummary baseline;
+    private KpiSummary scenario;
+    private KpiDelta delta;
+    private int matchedTrades;
+    private int totalTrades;
+    private double elapsedMillis;
+}
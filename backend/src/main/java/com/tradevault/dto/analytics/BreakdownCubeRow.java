@@ -0,0 +1,23 @@
+package com.tradevault.dto.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class BreakdownCubeRow {
+    private List<String> keys;
+    private int trades;
+    private int wins;
+    private int losses;
+    private BigDecimal netPnl;
+    private BigDecimal grossProfit;
+    private BigDecimal grossLoss;
+    private double winRate;
+    private BigDecimal averagePnl;
+    private BigDecimal profitFactor;
+    private boolean lowSample;
+}
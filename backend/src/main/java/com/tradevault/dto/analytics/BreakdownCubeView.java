@@ -0,0 +1,16 @@
+package com.tradevault.dto.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BreakdownCubeView {
+    private String name;
+    private List<String> dimensions;
+    private List<BreakdownCubeRow> rows;
+    private int totalGroups;
+    private boolean truncated;
+}
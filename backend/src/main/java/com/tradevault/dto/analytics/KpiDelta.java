@@ -0,0 +1,22 @@
+package com.tradevault.dto.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Scenario minus baseline for the headline KPIs; profit factor is null when either side has none.
+ */
+@Data
+@Builder
+public class KpiDelta {
+    private BigDecimal totalPnlNet;
+    private double winRate;
+    private BigDecimal expectancy;
+    private BigDecimal profitFactor;
+    private BigDecimal averageWin;
+    private BigDecimal averageLoss;
+    private int closedTrades;
+    private int openTrades;
+}
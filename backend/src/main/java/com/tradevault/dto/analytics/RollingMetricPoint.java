@@ -1,5 +1,6 @@
 package com.tradevault.dto.analytics;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -14,4 +15,9 @@ public class RollingMetricPoint {
     private BigDecimal profitFactor;
     private BigDecimal expectancy;
     private BigDecimal averagePnl;
+    /**
+     * Only filled for the {@code rollingWindows} series of the timeseries endpoint.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal medianPnl;
 }
@@ -0,0 +1,13 @@
+package com.tradevault.dto.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class RollingSeries {
+    private int window;
+    private List<RollingMetricPoint> points;
+}
@@ -3,9 +3,17 @@ package com.tradevault.dto.trade;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.List;
+
+/**
+ * Outcome of a CSV import. {@code errors} lists at most the configured number of row errors;
+ * {@code errorsTruncated} is set when more were found.
+ */
 @Data
 @Builder
 public class ImportResult {
     private int imported;
     private int failed;
+    private List<ImportRowError> errors;
+    private boolean errorsTruncated;
 }
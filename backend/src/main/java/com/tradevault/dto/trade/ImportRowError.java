@@ -0,0 +1,16 @@
+package com.tradevault.dto.trade;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Why one CSV row was not imported. {@code line} is the file line the row starts on (the header is line 1);
+ * {@code column} is null when the reason concerns the whole row.
+ */
+@Data
+@Builder
+public class ImportRowError {
+    private long line;
+    private String column;
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.tradevault.dto.trade;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one item of a bulk write: {@code index} is its position in the request section named by
+ * {@code operation}, {@code id} the trade it touched (the new id for creates). Failed items carry {@code error}
+ * and leave their trade unchanged.
+ */
+@Value
+@Builder
+public class TradeBulkItemResult {
+    String operation;
+    int index;
+    UUID id;
+    boolean ok;
+    String error;
+}
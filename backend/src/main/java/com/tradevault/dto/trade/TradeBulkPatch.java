@@ -0,0 +1,29 @@
+package com.tradevault.dto.trade;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The same partial edit applied to every trade in {@code ids}. Null fields are left unchanged and a blank text
+ * field clears it. {@code tagIds} replaces the tags, {@code addTagIds} and {@code removeTagIds} adjust them.
+ */
+@Data
+public class TradeBulkPatch {
+    private List<UUID> ids;
+    private String setup;
+    private String strategyTag;
+    private String catalystTag;
+    private String timeframe;
+    private BigDecimal fees;
+    private BigDecimal commission;
+    private BigDecimal slippage;
+    private UUID accountId;
+    private boolean clearAccount;
+    private Set<UUID> tagIds;
+    private Set<UUID> addTagIds;
+    private Set<UUID> removeTagIds;
+}
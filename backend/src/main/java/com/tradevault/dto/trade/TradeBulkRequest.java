@@ -0,0 +1,18 @@
+package com.tradevault.dto.trade;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Trade writes applied together in one transaction. Every section is optional; a trade may appear in at most
+ * one update, patch or delete item.
+ */
+@Data
+public class TradeBulkRequest {
+    private List<TradeRequest> create;
+    private List<TradeBulkUpdate> update;
+    private List<TradeBulkPatch> patch;
+    private List<UUID> delete;
+}
@@ -0,0 +1,17 @@
+package com.tradevault.dto.trade;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class TradeBulkResponse {
+    int created;
+    int updated;
+    int patched;
+    int deleted;
+    int failed;
+    List<TradeBulkItemResult> results;
+}
@@ -0,0 +1,11 @@
+package com.tradevault.dto.trade;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class TradeBulkUpdate {
+    private UUID id;
+    private TradeRequest trade;
+}
@@ -0,0 +1,21 @@
+package com.tradevault.dto.trade;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of trades in list order, as full {@link TradeResponse}s or as sparse
+ * {@link com.tradevault.repository.TradeListRow}s. {@code nextCursor} is null on the last page. {@code total}
+ * is only set when requested; an estimated total stops counting at a cap and then reports
+ * {@code totalExact = false}.
+ */
+@Value
+@Builder
+public class TradeFeedResponse<T> {
+    List<T> items;
+    String nextCursor;
+    Long total;
+    boolean totalExact;
+}
@@ -0,0 +1,7 @@
+package com.tradevault.exception;
+
+public class AnalyticsTimeoutException extends RuntimeException {
+    public AnalyticsTimeoutException(String message) {
+        super(message);
+    }
+}
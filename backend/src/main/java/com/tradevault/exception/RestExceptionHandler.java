@@ -122,6 +122,15 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
     }
 
+    @ExceptionHandler(AnalyticsTimeoutException.class)
+    public ResponseEntity<ApiErrorResponse> handleAnalyticsTimeout(AnalyticsTimeoutException ex) {
+        ApiErrorResponse response = ApiErrorResponse.builder()
+                .error("ANALYTICS_TIMEOUT")
+                .message(ex.getMessage())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
     @ExceptionHandler(EmailNotVerifiedException.class)
     public ResponseEntity<ApiErrorResponse> handleEmailNotVerified(EmailNotVerifiedException ex) {
         ApiErrorResponse response = ApiErrorResponse.builder()
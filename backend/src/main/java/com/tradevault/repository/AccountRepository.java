@@ -3,6 +3,7 @@ package com.tradevault.repository;
 import com.tradevault.domain.entity.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,6 +11,7 @@ import java.util.UUID;
 public interface AccountRepository extends JpaRepository<Account, UUID> {
     List<Account> findByUserId(UUID userId);
     Optional<Account> findByIdAndUserId(UUID id, UUID userId);
+    List<Account> findByIdInAndUserId(Collection<UUID> ids, UUID userId);
 
     boolean existsByUserIdAndDemoSeedIdIsNotNull(UUID userId);
 
@@ -0,0 +1,104 @@
+package com.tradevault.repository;
+
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.Market;
+import com.tradevault.domain.enums.TradeStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Flat projection of the trade columns analytics needs. Loaded without touching the account or tag
+ * associations so a full journal can be read in one round trip. {@code local} holds the derived columns
+ * stored at write time, or null when the trade has none yet.
+ */
+public record TradeAnalyticsRow(
+    UUID id,
+    String symbol,
+    Market market,
+    Direction direction,
+    TradeStatus status,
+    OffsetDateTime openedAt,
+    OffsetDateTime closedAt,
+    BigDecimal quantity,
+    BigDecimal entryPrice,
+    BigDecimal exitPrice,
+    BigDecimal pnlNet,
+    BigDecimal pnlGross,
+    BigDecimal fees,
+    BigDecimal commission,
+    BigDecimal slippage,
+    BigDecimal rMultiple,
+    BigDecimal riskAmount,
+    BigDecimal riskPercent,
+    BigDecimal pnlPercent,
+    String strategyTag,
+    String setup,
+    String catalystTag,
+    TradeLocalFields local) {
+
+  public TradeAnalyticsRow(UUID id, String symbol, Market market, Direction direction, TradeStatus status,
+      OffsetDateTime openedAt, OffsetDateTime closedAt, BigDecimal quantity, BigDecimal entryPrice,
+      BigDecimal exitPrice, BigDecimal pnlNet, BigDecimal pnlGross, BigDecimal fees, BigDecimal commission,
+      BigDecimal slippage, BigDecimal rMultiple, BigDecimal riskAmount, BigDecimal riskPercent,
+      BigDecimal pnlPercent, String strategyTag, String setup, String catalystTag) {
+    this(id, symbol, market, direction, status, openedAt, closedAt, quantity, entryPrice, exitPrice, pnlNet,
+        pnlGross, fees, commission, slippage, rMultiple, riskAmount, riskPercent, pnlPercent, strategyTag, setup,
+        catalystTag, null);
+  }
+
+  /**
+   * Query constructor: the stored derived columns come in flat and are grouped into {@link #local()}.
+   */
+  public TradeAnalyticsRow(UUID id, String symbol, Market market, Direction direction, TradeStatus status,
+      OffsetDateTime openedAt, OffsetDateTime closedAt, BigDecimal quantity, BigDecimal entryPrice,
+      BigDecimal exitPrice, BigDecimal pnlNet, BigDecimal pnlGross, BigDecimal fees, BigDecimal commission,
+      BigDecimal slippage, BigDecimal rMultiple, BigDecimal riskAmount, BigDecimal riskPercent,
+      BigDecimal pnlPercent, String strategyTag, String setup, String catalystTag, String localTz,
+      LocalDate openedLocalDate, LocalDate closedLocalDate, Integer openedHour, Integer closedHour,
+      Integer openedDow, Integer closedDow, Long holdingMinutes, String holdingBucket, BigDecimal rEstimate) {
+    this(id, symbol, market, direction, status, openedAt, closedAt, quantity, entryPrice, exitPrice, pnlNet,
+        pnlGross, fees, commission, slippage, rMultiple, riskAmount, riskPercent, pnlPercent, strategyTag, setup,
+        catalystTag, TradeLocalFields.of(localTz, openedLocalDate, closedLocalDate, openedHour, closedHour,
+            openedDow, closedDow, holdingMinutes, holdingBucket, rEstimate));
+  }
+
+  public static TradeAnalyticsRow from(Trade trade) {
+    return new TradeAnalyticsRow(
+        trade.getId(),
+        trade.getSymbol(),
+        trade.getMarket(),
+        trade.getDirection(),
+        trade.getStatus(),
+        trade.getOpenedAt(),
+        trade.getClosedAt(),
+        trade.getQuantity(),
+        trade.getEntryPrice(),
+        trade.getExitPrice(),
+        trade.getPnlNet(),
+        trade.getPnlGross(),
+        trade.getFees(),
+        trade.getCommission(),
+        trade.getSlippage(),
+        trade.getRMultiple(),
+        trade.getRiskAmount(),
+        trade.getRiskPercent(),
+        trade.getPnlPercent(),
+        trade.getStrategyTag(),
+        trade.getSetup(),
+        trade.getCatalystTag(),
+        TradeLocalFields.of(
+            trade.getLocalTz(),
+            trade.getOpenedLocalDate(),
+            trade.getClosedLocalDate(),
+            trade.getOpenedHour(),
+            trade.getClosedHour(),
+            trade.getOpenedDow(),
+            trade.getClosedDow(),
+            trade.getHoldingMinutes(),
+            trade.getHoldingBucket(),
+            trade.getREstimate()));
+  }
+}
@@ -0,0 +1,239 @@
+package com.tradevault.repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to {@code trade_coach_group_stats} and {@code trade_coach_state}, the persisted coach aggregates.
+ * Deltas are added in place with {@code ON CONFLICT DO UPDATE}, so a trade write touches only the groups the
+ * trade moved between.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeCoachAggregateRepository {
+
+  private static final String UPSERT_GROUP = """
+      INSERT INTO trade_coach_group_stats (user_id, dimension, group_key, trade_count, wins, losses,
+                                           total_net, total_costs, sum_wins, sum_losses, total_r, r_count)
+      VALUES (:userId, :dimension, :groupKey, :count, :wins, :losses,
+              :totalNet, :totalCosts, :sumWins, :sumLosses, :totalR, :rCount)
+      ON CONFLICT (user_id, dimension, group_key) DO UPDATE SET
+        trade_count = trade_coach_group_stats.trade_count + EXCLUDED.trade_count,
+        wins = trade_coach_group_stats.wins + EXCLUDED.wins,
+        losses = trade_coach_group_stats.losses + EXCLUDED.losses,
+        total_net = trade_coach_group_stats.total_net + EXCLUDED.total_net,
+        total_costs = trade_coach_group_stats.total_costs + EXCLUDED.total_costs,
+        sum_wins = trade_coach_group_stats.sum_wins + EXCLUDED.sum_wins,
+        sum_losses = trade_coach_group_stats.sum_losses + EXCLUDED.sum_losses,
+        total_r = trade_coach_group_stats.total_r + EXCLUDED.total_r,
+        r_count = trade_coach_group_stats.r_count + EXCLUDED.r_count
+      """;
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  /**
+   * Serializes coach maintenance for one user until the surrounding transaction ends. It shares the daily
+   * rollup's key, which is harmless since the lock is re-entrant within a transaction.
+   */
+  public void lockUser(UUID userId) {
+    jdbc.query("SELECT pg_advisory_xact_lock(:key)",
+        new MapSqlParameterSource("key", userId.getMostSignificantBits() ^ userId.getLeastSignificantBits()),
+        rs -> null);
+  }
+
+  public Optional<CoachState> findState(UUID userId) {
+    return jdbc.query("""
+            SELECT cluster_minutes, total_trades, closed_trades, missing_closed_at, missing_pnl_net,
+                   missing_entry_exit, inconsistent_pnl, revision, advice, advice_config
+            FROM trade_coach_state WHERE user_id = :userId
+            """,
+        new MapSqlParameterSource("userId", userId),
+        (rs, rowNum) -> new CoachState(
+            rs.getInt("cluster_minutes"),
+            new QualityCounts(
+                rs.getInt("total_trades"),
+                rs.getInt("closed_trades"),
+                rs.getInt("missing_closed_at"),
+                rs.getInt("missing_pnl_net"),
+                rs.getInt("missing_entry_exit"),
+                rs.getInt("inconsistent_pnl")),
+            rs.getLong("revision"),
+            rs.getString("advice"),
+            rs.getString("advice_config"))).stream().findFirst();
+  }
+
+  public List<GroupRow> findGroups(UUID userId) {
+    return jdbc.query("""
+            SELECT dimension, group_key, trade_count, wins, losses, total_net, total_costs,
+                   sum_wins, sum_losses, total_r, r_count
+            FROM trade_coach_group_stats WHERE user_id = :userId
+            """,
+        new MapSqlParameterSource("userId", userId),
+        (rs, rowNum) -> groupRow(rs));
+  }
+
+  /**
+   * Replaces the user's aggregates with a full build and clears any stored advice.
+   */
+  public void replace(UUID userId, int clusterMinutes, QualityCounts counts, List<GroupRow> groups) {
+    jdbc.update("DELETE FROM trade_coach_group_stats WHERE user_id = :userId", new MapSqlParameterSource("userId", userId));
+    upsertGroups(userId, groups);
+    jdbc.update("""
+        INSERT INTO trade_coach_state (user_id, cluster_minutes, total_trades, closed_trades, missing_closed_at,
+                                       missing_pnl_net, missing_entry_exit, inconsistent_pnl, revision, built_at)
+        VALUES (:userId, :clusterMinutes, :total, :closed, :missingClosedAt,
+                :missingPnlNet, :missingEntryExit, :inconsistentPnl, 0, now())
+        ON CONFLICT (user_id) DO UPDATE SET
+          cluster_minutes = EXCLUDED.cluster_minutes,
+          total_trades = EXCLUDED.total_trades,
+          closed_trades = EXCLUDED.closed_trades,
+          missing_closed_at = EXCLUDED.missing_closed_at,
+          missing_pnl_net = EXCLUDED.missing_pnl_net,
+          missing_entry_exit = EXCLUDED.missing_entry_exit,
+          inconsistent_pnl = EXCLUDED.inconsistent_pnl,
+          revision = trade_coach_state.revision + 1,
+          advice = NULL,
+          advice_config = NULL,
+          built_at = now()
+        """, counts(userId, counts).addValue("clusterMinutes", clusterMinutes));
+  }
+
+  /**
+   * Adds signed deltas to the user's groups and counters, drops groups left without trades and clears the
+   * stored advice.
+   */
+  public void applyDelta(UUID userId, QualityCounts counts, List<GroupRow> groups) {
+    upsertGroups(userId, groups);
+    jdbc.update("DELETE FROM trade_coach_group_stats WHERE user_id = :userId AND trade_count = 0",
+        new MapSqlParameterSource("userId", userId));
+    jdbc.update("""
+        UPDATE trade_coach_state SET
+          total_trades = total_trades + :total,
+          closed_trades = closed_trades + :closed,
+          missing_closed_at = missing_closed_at + :missingClosedAt,
+          missing_pnl_net = missing_pnl_net + :missingPnlNet,
+          missing_entry_exit = missing_entry_exit + :missingEntryExit,
+          inconsistent_pnl = inconsistent_pnl + :inconsistentPnl,
+          revision = revision + 1,
+          advice = NULL,
+          advice_config = NULL
+        WHERE user_id = :userId
+        """, counts(userId, counts));
+  }
+
+  /**
+   * Stores the default advice if the aggregates are still at {@code revision}. Returns false when a write
+   * moved them on in the meantime.
+   */
+  public boolean saveAdvice(UUID userId, long revision, String adviceConfig, String advice) {
+    return jdbc.update("""
+        UPDATE trade_coach_state SET advice = :advice, advice_config = :adviceConfig
+        WHERE user_id = :userId AND revision = :revision
+        """,
+        new MapSqlParameterSource("userId", userId)
+            .addValue("revision", revision)
+            .addValue("adviceConfig", adviceConfig)
+            .addValue("advice", advice)) == 1;
+  }
+
+  public void delete(UUID userId) {
+    MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+    jdbc.update("DELETE FROM trade_coach_group_stats WHERE user_id = :userId", params);
+    jdbc.update("DELETE FROM trade_coach_state WHERE user_id = :userId", params);
+  }
+
+  /**
+   * Users whose last full build is older than {@code builtBefore}, oldest first.
+   */
+  public List<UUID> findStatesBuiltBefore(OffsetDateTime builtBefore, int limit) {
+    return jdbc.queryForList("""
+            SELECT user_id FROM trade_coach_state
+            WHERE built_at < :builtBefore
+            ORDER BY built_at
+            LIMIT :limit
+            """,
+        new MapSqlParameterSource("builtBefore", builtBefore).addValue("limit", limit), UUID.class);
+  }
+
+  /**
+   * Users that have trades but no materialized coach aggregates, or whose stored advice was cleared.
+   */
+  public List<UUID> findUsersWithoutAdvice(int limit) {
+    return jdbc.queryForList("""
+            SELECT u.id FROM users u
+            LEFT JOIN trade_coach_state s ON s.user_id = u.id
+            WHERE EXISTS (SELECT 1 FROM trades t WHERE t.user_id = u.id)
+              AND (s.user_id IS NULL OR s.advice IS NULL)
+            LIMIT :limit
+            """,
+        new MapSqlParameterSource("limit", limit), UUID.class);
+  }
+
+  private void upsertGroups(UUID userId, List<GroupRow> groups) {
+    if (groups.isEmpty()) {
+      return;
+    }
+    MapSqlParameterSource[] batch = groups.stream()
+        .map(group -> new MapSqlParameterSource("userId", userId)
+            .addValue("dimension", group.dimension())
+            .addValue("groupKey", group.key())
+            .addValue("count", group.count())
+            .addValue("wins", group.wins())
+            .addValue("losses", group.losses())
+            .addValue("totalNet", group.totalNet())
+            .addValue("totalCosts", group.totalCosts())
+            .addValue("sumWins", group.sumWins())
+            .addValue("sumLosses", group.sumLosses())
+            .addValue("totalR", group.totalR())
+            .addValue("rCount", group.rCount()))
+        .toArray(MapSqlParameterSource[]::new);
+    jdbc.batchUpdate(UPSERT_GROUP, batch);
+  }
+
+  private static MapSqlParameterSource counts(UUID userId, QualityCounts counts) {
+    return new MapSqlParameterSource("userId", userId)
+        .addValue("total", counts.total())
+        .addValue("closed", counts.closed())
+        .addValue("missingClosedAt", counts.missingClosedAt())
+        .addValue("missingPnlNet", counts.missingPnlNet())
+        .addValue("missingEntryExit", counts.missingEntryExit())
+        .addValue("inconsistentPnl", counts.inconsistentPnl());
+  }
+
+  private static GroupRow groupRow(ResultSet rs) throws SQLException {
+    return new GroupRow(
+        rs.getString("dimension"),
+        rs.getString("group_key"),
+        rs.getInt("trade_count"),
+        rs.getInt("wins"),
+        rs.getInt("losses"),
+        rs.getBigDecimal("total_net"),
+        rs.getBigDecimal("total_costs"),
+        rs.getBigDecimal("sum_wins"),
+        rs.getBigDecimal("sum_losses"),
+        rs.getBigDecimal("total_r"),
+        rs.getInt("r_count"));
+  }
+
+  public record GroupRow(String dimension, String key, int count, int wins, int losses, BigDecimal totalNet,
+                         BigDecimal totalCosts, BigDecimal sumWins, BigDecimal sumLosses, BigDecimal totalR,
+                         int rCount) {
+  }
+
+  public record QualityCounts(int total, int closed, int missingClosedAt, int missingPnlNet, int missingEntryExit,
+                              int inconsistentPnl) {
+  }
+
+  public record CoachState(int clusterMinutes, QualityCounts counts, long revision, String advice,
+                           String adviceConfig) {
+  }
+}
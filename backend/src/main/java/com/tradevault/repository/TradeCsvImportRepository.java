@@ -0,0 +1,168 @@
+package com.tradevault.repository;
+
+import com.tradevault.domain.entity.Trade;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based writes for the broker CSV import: one query resolves which grouped trades already exist, and trades
+ * and {@code trade_import_rows} are written as JDBC batches of {@code INSERT ... ON CONFLICT} statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeCsvImportRepository {
+
+  /**
+   * Trades are matched on their id, which the caller resolved from {@link #findTradeIds}. An update keeps the
+   * creation time and user-entered fields and recomputes {@code r_estimate} from the stored risk like
+   * {@code TradeDerivedColumns} does.
+   */
+  private static final String UPSERT_TRADE = """
+      INSERT INTO trades (id, user_id, symbol, market, direction, status, opened_at, closed_at, quantity,
+                          entry_price, exit_price, pnl_gross, pnl_net, created_at, updated_at, local_tz,
+                          opened_local_date, closed_local_date, opened_hour, closed_hour, opened_dow, closed_dow,
+                          holding_minutes, holding_bucket, r_estimate)
+      VALUES (:id, :userId, :symbol, CAST(:market AS market_type), CAST(:direction AS direction_type),
+              CAST(:status AS status_type), :openedAt, :closedAt, :quantity,
+              :entryPrice, :exitPrice, :pnlGross, :pnlNet, :createdAt, :updatedAt, :localTz,
+              :openedLocalDate, :closedLocalDate, :openedHour, :closedHour, :openedDow, :closedDow,
+              :holdingMinutes, :holdingBucket, :rEstimate)
+      ON CONFLICT (id) DO UPDATE SET
+        symbol = EXCLUDED.symbol,
+        market = EXCLUDED.market,
+        direction = EXCLUDED.direction,
+        status = EXCLUDED.status,
+        opened_at = EXCLUDED.opened_at,
+        closed_at = EXCLUDED.closed_at,
+        quantity = EXCLUDED.quantity,
+        entry_price = EXCLUDED.entry_price,
+        exit_price = EXCLUDED.exit_price,
+        pnl_gross = EXCLUDED.pnl_gross,
+        pnl_net = EXCLUDED.pnl_net,
+        updated_at = EXCLUDED.updated_at,
+        local_tz = EXCLUDED.local_tz,
+        opened_local_date = EXCLUDED.opened_local_date,
+        closed_local_date = EXCLUDED.closed_local_date,
+        opened_hour = EXCLUDED.opened_hour,
+        closed_hour = EXCLUDED.closed_hour,
+        opened_dow = EXCLUDED.opened_dow,
+        closed_dow = EXCLUDED.closed_dow,
+        holding_minutes = EXCLUDED.holding_minutes,
+        holding_bucket = EXCLUDED.holding_bucket,
+        r_estimate = CASE
+          WHEN trades.r_multiple IS NOT NULL THEN trades.r_multiple
+          WHEN trades.risk_amount IS NOT NULL AND trades.risk_amount <> 0
+            THEN ROUND(COALESCE(EXCLUDED.pnl_net, 0) / trades.risk_amount, 4)
+          END
+      WHERE trades.user_id = EXCLUDED.user_id
+      """;
+
+  private static final String INSERT_IMPORT_ROW = """
+      INSERT INTO trade_import_rows (id, user_id, transaction_id, imported_at)
+      VALUES (:id, :userId, :transactionId, :importedAt)
+      ON CONFLICT (user_id, transaction_id) DO NOTHING
+      """;
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  /**
+   * Ids of the user's trades matching any of {@code keys} by symbol and open instant. When several trades share
+   * a key the oldest one wins.
+   */
+  public Map<TradeKey, UUID> findTradeIds(UUID userId, Collection<TradeKey> keys) {
+    Map<TradeKey, UUID> ids = new HashMap<>();
+    if (keys.isEmpty()) {
+      return ids;
+    }
+    Set<String> symbols = keys.stream().map(TradeKey::symbol).collect(Collectors.toSet());
+    Set<OffsetDateTime> openedAts = keys.stream()
+        .map(key -> key.openedAt().atOffset(ZoneOffset.UTC))
+        .collect(Collectors.toSet());
+    jdbc.query("""
+            SELECT id, symbol, opened_at FROM trades
+            WHERE user_id = :userId AND symbol IN (:symbols) AND opened_at IN (:openedAts)
+            ORDER BY created_at, id
+            """,
+        new MapSqlParameterSource("userId", userId)
+            .addValue("symbols", symbols)
+            .addValue("openedAts", openedAts),
+        rs -> {
+          TradeKey key = new TradeKey(rs.getString("symbol"), rs.getObject("opened_at", OffsetDateTime.class).toInstant());
+          if (keys.contains(key)) {
+            ids.putIfAbsent(key, rs.getObject("id", UUID.class));
+          }
+        });
+    return ids;
+  }
+
+  /**
+   * Inserts new trades and updates existing ones of the same user in one batch. Every trade needs its id set.
+   */
+  public void upsertTrades(UUID userId, List<Trade> trades) {
+    if (trades.isEmpty()) {
+      return;
+    }
+    MapSqlParameterSource[] batch = trades.stream()
+        .map(trade -> new MapSqlParameterSource("id", trade.getId())
+            .addValue("userId", userId)
+            .addValue("symbol", trade.getSymbol())
+            .addValue("market", trade.getMarket().name())
+            .addValue("direction", trade.getDirection().name())
+            .addValue("status", trade.getStatus().name())
+            .addValue("openedAt", trade.getOpenedAt())
+            .addValue("closedAt", trade.getClosedAt())
+            .addValue("quantity", trade.getQuantity())
+            .addValue("entryPrice", trade.getEntryPrice())
+            .addValue("exitPrice", trade.getExitPrice())
+            .addValue("pnlGross", trade.getPnlGross())
+            .addValue("pnlNet", trade.getPnlNet())
+            .addValue("createdAt", trade.getCreatedAt())
+            .addValue("updatedAt", trade.getUpdatedAt())
+            .addValue("localTz", trade.getLocalTz())
+            .addValue("openedLocalDate", trade.getOpenedLocalDate())
+            .addValue("closedLocalDate", trade.getClosedLocalDate())
+            .addValue("openedHour", trade.getOpenedHour())
+            .addValue("closedHour", trade.getClosedHour())
+            .addValue("openedDow", trade.getOpenedDow())
+            .addValue("closedDow", trade.getClosedDow())
+            .addValue("holdingMinutes", trade.getHoldingMinutes())
+            .addValue("holdingBucket", trade.getHoldingBucket())
+            .addValue("rEstimate", trade.getREstimate()))
+        .toArray(MapSqlParameterSource[]::new);
+    jdbc.batchUpdate(UPSERT_TRADE, batch);
+  }
+
+  /**
+   * Records broker transaction ids as imported; ids the user already imported keep their first import time.
+   */
+  public void insertImportRows(UUID userId, Collection<String> transactionIds, OffsetDateTime importedAt) {
+    if (transactionIds.isEmpty()) {
+      return;
+    }
+    MapSqlParameterSource[] batch = transactionIds.stream()
+        .map(transactionId -> new MapSqlParameterSource("id", UUID.randomUUID())
+            .addValue("userId", userId)
+            .addValue("transactionId", transactionId)
+            .addValue("importedAt", importedAt))
+        .toArray(MapSqlParameterSource[]::new);
+    jdbc.batchUpdate(INSERT_IMPORT_ROW, batch);
+  }
+
+  /**
+   * How an imported position is matched to an existing trade: its symbol and open instant.
+   */
+  public record TradeKey(String symbol, Instant openedAt) {
+  }
+}
@@ -0,0 +1,239 @@
+package com.tradevault.repository;
+
+import com.tradevault.domain.enums.PnlBasis;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to {@code trade_daily_rollup}. The rollup is recomputed from {@code trades} with the same
+ * local-date expression the calendar queries use, so both paths agree on which day a trade belongs to:
+ * the stored local date when the trade's fields are in the requested zone, the converted timestamp otherwise.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeDailyRollupRepository {
+
+  private static final String INSERT_DAYS = """
+      INSERT INTO trade_daily_rollup (user_id, tz, basis, local_date, net_pnl, gross_pnl, fees, trade_count, wins, losses)
+      SELECT t.user_id, :tz, :basis, x.local_date,
+             COALESCE(SUM(t.pnl_net), 0),
+             COALESCE(SUM(t.pnl_gross), 0),
+             COALESCE(SUM(t.fees), 0),
+             COUNT(*),
+             SUM(CASE WHEN t.pnl_net > 0 THEN 1 ELSE 0 END),
+             SUM(CASE WHEN t.pnl_net < 0 THEN 1 ELSE 0 END)
+      FROM trades t
+      CROSS JOIN LATERAL (SELECT CASE WHEN t.local_tz = :tz THEN t.%4$s
+                                      ELSE CAST((t.%1$s AT TIME ZONE :tz) AS date) END AS local_date) x
+      WHERE t.user_id = :userId
+        AND t.%1$s IS NOT NULL
+        %2$s
+        %3$s
+      GROUP BY t.user_id, x.local_date
+      """;
+
+  /**
+   * The same per-day aggregate as {@link #INSERT_DAYS}, returned instead of stored, for zones that are not
+   * materialized.
+   */
+  private static final String SELECT_DAYS = """
+      SELECT x.local_date,
+             COALESCE(SUM(t.pnl_net), 0) AS net_pnl,
+             COALESCE(SUM(t.pnl_gross), 0) AS gross_pnl,
+             COALESCE(SUM(t.fees), 0) AS fees,
+             COUNT(*) AS trade_count,
+             SUM(CASE WHEN t.pnl_net > 0 THEN 1 ELSE 0 END) AS wins,
+             SUM(CASE WHEN t.pnl_net < 0 THEN 1 ELSE 0 END) AS losses
+      FROM trades t
+      CROSS JOIN LATERAL (SELECT CASE WHEN t.local_tz = :tz THEN t.%4$s
+                                      ELSE CAST((t.%1$s AT TIME ZONE :tz) AS date) END AS local_date) x
+      WHERE t.user_id = :userId
+        AND t.%1$s IS NOT NULL
+        %2$s
+        %3$s
+      GROUP BY x.local_date
+      ORDER BY x.local_date
+      """;
+
+  private static final String DAY_RANGE = """
+      AND t.%1$s >= :fromInstant
+        AND t.%1$s < :toInstant
+        AND x.local_date >= :fromDate
+        AND x.local_date <= :toDate""";
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  /**
+   * Serializes rollup maintenance for one user until the surrounding transaction ends, so a rebuild
+   * and a concurrent trade write cannot each miss the other's uncommitted rows.
+   */
+  public void lockUser(UUID userId) {
+    jdbc.query("SELECT pg_advisory_xact_lock(:key)",
+        new MapSqlParameterSource("key", userId.getMostSignificantBits() ^ userId.getLeastSignificantBits()),
+        rs -> null);
+  }
+
+  public boolean zoneExists(UUID userId, String tz) {
+    Boolean exists = jdbc.queryForObject(
+        "SELECT EXISTS (SELECT 1 FROM trade_daily_rollup_zone WHERE user_id = :userId AND tz = :tz)",
+        zone(userId, tz), Boolean.class);
+    return Boolean.TRUE.equals(exists);
+  }
+
+  /**
+   * Registers the zone for maintenance. Returns false when another transaction already registered it.
+   */
+  public boolean claimZone(UUID userId, String tz) {
+    return jdbc.update("""
+        INSERT INTO trade_daily_rollup_zone (user_id, tz, built_at)
+        VALUES (:userId, :tz, now())
+        ON CONFLICT (user_id, tz) DO NOTHING
+        """, zone(userId, tz)) == 1;
+  }
+
+  public List<String> findZones(UUID userId) {
+    return jdbc.queryForList("SELECT tz FROM trade_daily_rollup_zone WHERE user_id = :userId ORDER BY tz",
+        new MapSqlParameterSource("userId", userId), String.class);
+  }
+
+  /**
+   * Drops every materialized zone of the user except {@code tz}, with its days.
+   */
+  public void deleteOtherZones(UUID userId, String tz) {
+    jdbc.update("DELETE FROM trade_daily_rollup WHERE user_id = :userId AND tz <> :tz", zone(userId, tz));
+    jdbc.update("DELETE FROM trade_daily_rollup_zone WHERE user_id = :userId AND tz <> :tz", zone(userId, tz));
+  }
+
+  public void markBuilt(UUID userId, String tz) {
+    jdbc.update("UPDATE trade_daily_rollup_zone SET built_at = now() WHERE user_id = :userId AND tz = :tz",
+        zone(userId, tz));
+  }
+
+  public void deleteZoneDays(UUID userId, String tz) {
+    jdbc.update("DELETE FROM trade_daily_rollup WHERE user_id = :userId AND tz = :tz", zone(userId, tz));
+  }
+
+  public void insertAllDays(UUID userId, String tz, PnlBasis basis) {
+    jdbc.update(INSERT_DAYS.formatted(timeColumn(basis), statusPredicate(basis), "", localDateColumn(basis)),
+        zone(userId, tz).addValue("basis", basis.name()));
+  }
+
+  /**
+   * Recomputes the local days {@code fromDate..toDate}. The instant bounds only need to cover those days;
+   * they let the trades index narrow the scan before the local-date filter applies.
+   */
+  public void refreshDays(UUID userId, String tz, PnlBasis basis, LocalDate fromDate, LocalDate toDate,
+      OffsetDateTime fromInstant, OffsetDateTime toInstant) {
+    MapSqlParameterSource params = zone(userId, tz)
+        .addValue("basis", basis.name())
+        .addValue("fromDate", fromDate)
+        .addValue("toDate", toDate)
+        .addValue("fromInstant", fromInstant)
+        .addValue("toInstant", toInstant);
+    jdbc.update("""
+        DELETE FROM trade_daily_rollup
+        WHERE user_id = :userId AND tz = :tz AND basis = :basis
+          AND local_date >= :fromDate AND local_date <= :toDate
+        """, params);
+    jdbc.update(INSERT_DAYS.formatted(timeColumn(basis), statusPredicate(basis),
+        DAY_RANGE.formatted(timeColumn(basis)), localDateColumn(basis)), params);
+  }
+
+  public List<DailyRollup> findDays(UUID userId, String tz, PnlBasis basis, LocalDate fromDate, LocalDate toDate) {
+    return jdbc.query("""
+            SELECT local_date, net_pnl, gross_pnl, fees, trade_count, wins, losses
+            FROM trade_daily_rollup
+            WHERE user_id = :userId AND tz = :tz AND basis = :basis
+              AND local_date >= :fromDate AND local_date <= :toDate
+            ORDER BY local_date
+            """,
+        zone(userId, tz).addValue("basis", basis.name()).addValue("fromDate", fromDate).addValue("toDate", toDate),
+        TradeDailyRollupRepository::dailyRollup);
+  }
+
+  /**
+   * Aggregates the local days {@code fromDate..toDate} straight from {@code trades} without storing them. The
+   * instant bounds work as in {@link #refreshDays}.
+   */
+  public List<DailyRollup> computeDays(UUID userId, String tz, PnlBasis basis, LocalDate fromDate, LocalDate toDate,
+      OffsetDateTime fromInstant, OffsetDateTime toInstant) {
+    return jdbc.query(SELECT_DAYS.formatted(timeColumn(basis), statusPredicate(basis),
+            DAY_RANGE.formatted(timeColumn(basis)), localDateColumn(basis)),
+        zone(userId, tz)
+            .addValue("fromDate", fromDate)
+            .addValue("toDate", toDate)
+            .addValue("fromInstant", fromInstant)
+            .addValue("toInstant", toInstant),
+        TradeDailyRollupRepository::dailyRollup);
+  }
+
+  /**
+   * Zones whose last full build is older than {@code builtBefore}, oldest first.
+   */
+  public List<ZoneRef> findZonesBuiltBefore(OffsetDateTime builtBefore, int limit) {
+    return jdbc.query("""
+            SELECT user_id, tz FROM trade_daily_rollup_zone
+            WHERE built_at < :builtBefore
+            ORDER BY built_at
+            LIMIT :limit
+            """,
+        new MapSqlParameterSource("builtBefore", builtBefore).addValue("limit", limit),
+        (rs, rowNum) -> new ZoneRef(rs.getObject("user_id", UUID.class), rs.getString("tz")));
+  }
+
+  /**
+   * Users that have trades but no materialized zone yet.
+   */
+  public List<UUID> findUsersWithoutZones(int limit) {
+    return jdbc.queryForList("""
+            SELECT u.id FROM users u
+            WHERE EXISTS (SELECT 1 FROM trades t WHERE t.user_id = u.id)
+              AND NOT EXISTS (SELECT 1 FROM trade_daily_rollup_zone z WHERE z.user_id = u.id)
+            LIMIT :limit
+            """,
+        new MapSqlParameterSource("limit", limit), UUID.class);
+  }
+
+  private static DailyRollup dailyRollup(ResultSet rs, int rowNum) throws SQLException {
+    return new DailyRollup(
+        rs.getObject("local_date", LocalDate.class),
+        rs.getBigDecimal("net_pnl"),
+        rs.getBigDecimal("gross_pnl"),
+        rs.getBigDecimal("fees"),
+        rs.getLong("trade_count"),
+        rs.getLong("wins"),
+        rs.getLong("losses"));
+  }
+
+  private static MapSqlParameterSource zone(UUID userId, String tz) {
+    return new MapSqlParameterSource("userId", userId).addValue("tz", tz);
+  }
+
+  private static String timeColumn(PnlBasis basis) {
+    return basis == PnlBasis.OPEN ? "opened_at" : "closed_at";
+  }
+
+  private static String localDateColumn(PnlBasis basis) {
+    return basis == PnlBasis.OPEN ? "opened_local_date" : "closed_local_date";
+  }
+
+  private static String statusPredicate(PnlBasis basis) {
+    return basis == PnlBasis.CLOSE ? "AND t.status = 'CLOSED'" : "";
+  }
+
+  public record DailyRollup(LocalDate date, BigDecimal netPnl, BigDecimal grossPnl, BigDecimal fees,
+                            long tradeCount, long wins, long losses) {
+  }
+
+  public record ZoneRef(UUID userId, String tz) {
+  }
+}
@@ -0,0 +1,76 @@
+package com.tradevault.repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads a user's trades for the CSV export through a forward-only cursor. The driver only fetches
+ * {@value #FETCH_SIZE} rows at a time when the statement runs inside a transaction, so callers must open one;
+ * rows are handed to the consumer as they arrive and never collected.
+ */
+@Repository
+public class TradeExportRepository {
+
+  static final int FETCH_SIZE = 500;
+
+  private static final String SELECT_TRADES = """
+      SELECT t.symbol, CAST(t.market AS text) AS market, CAST(t.direction AS text) AS direction,
+             t.opened_at, t.closed_at, t.quantity, t.entry_price, t.exit_price,
+             t.fees, t.commission, t.slippage, t.stop_loss_price, t.take_profit_price,
+             t.setup, t.strategy_tag, t.catalyst_tag, t.notes
+      FROM trades t
+      WHERE t.user_id = :userId
+      %s
+      ORDER BY t.opened_at, t.created_at, t.id
+      """;
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public TradeExportRepository(NamedParameterJdbcTemplate jdbc) {
+    JdbcTemplate cursor = new JdbcTemplate(jdbc.getJdbcTemplate().getDataSource());
+    cursor.setFetchSize(FETCH_SIZE);
+    this.jdbc = new NamedParameterJdbcTemplate(cursor);
+  }
+
+  /**
+   * Passes the user's trades opened within {@code [from, to]} (either bound may be null) to {@code consumer}
+   * in open order.
+   */
+  public void forEachTrade(UUID userId, OffsetDateTime from, OffsetDateTime to, Consumer<TradeExportRow> consumer) {
+    MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+    StringBuilder range = new StringBuilder();
+    if (from != null) {
+      range.append("AND t.opened_at >= :from\n");
+      params.addValue("from", from);
+    }
+    if (to != null) {
+      range.append("AND t.opened_at <= :to\n");
+      params.addValue("to", to);
+    }
+    jdbc.query(SELECT_TRADES.formatted(range), params, rs -> {
+      consumer.accept(new TradeExportRow(
+          rs.getString("symbol"),
+          rs.getString("market"),
+          rs.getString("direction"),
+          rs.getObject("opened_at", OffsetDateTime.class),
+          rs.getObject("closed_at", OffsetDateTime.class),
+          rs.getBigDecimal("quantity"),
+          rs.getBigDecimal("entry_price"),
+          rs.getBigDecimal("exit_price"),
+          rs.getBigDecimal("fees"),
+          rs.getBigDecimal("commission"),
+          rs.getBigDecimal("slippage"),
+          rs.getBigDecimal("stop_loss_price"),
+          rs.getBigDecimal("take_profit_price"),
+          rs.getString("setup"),
+          rs.getString("strategy_tag"),
+          rs.getString("catalyst_tag"),
+          rs.getString("notes")));
+    });
+  }
+}
@@ -0,0 +1,27 @@
+package com.tradevault.repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * The trade columns written by the CSV export, in export order.
+ */
+public record TradeExportRow(
+    String symbol,
+    String market,
+    String direction,
+    OffsetDateTime openedAt,
+    OffsetDateTime closedAt,
+    BigDecimal quantity,
+    BigDecimal entryPrice,
+    BigDecimal exitPrice,
+    BigDecimal fees,
+    BigDecimal commission,
+    BigDecimal slippage,
+    BigDecimal stopLossPrice,
+    BigDecimal takeProfitPrice,
+    String setup,
+    String strategyTag,
+    String catalystTag,
+    String notes) {
+}
@@ -0,0 +1,11 @@
+package com.tradevault.repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A trade's position in the list order {@code (openedAt DESC, createdAt DESC, id DESC)}; a page continues
+ * strictly after the keyset of its predecessor's last row.
+ */
+public record TradeKeyset(OffsetDateTime openedAt, OffsetDateTime createdAt, UUID id) {
+}
@@ -0,0 +1,135 @@
+package com.tradevault.repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The fields a {@link TradeListRow} can carry, named as in {@code TradeResponse} plus {@code accountName}.
+ * Each field knows the SQL expression that produces it, so a sparse field set also shrinks the select list.
+ */
+public enum TradeListField {
+  ID("id", "t.id", Kind.UUID),
+  SYMBOL("symbol", "t.symbol", Kind.TEXT),
+  MARKET("market", "CAST(t.market AS text)", Kind.TEXT),
+  DIRECTION("direction", "CAST(t.direction AS text)", Kind.TEXT),
+  STATUS("status", "CAST(t.status AS text)", Kind.TEXT),
+  OPENED_AT("openedAt", "t.opened_at", Kind.TIMESTAMP),
+  CLOSED_AT("closedAt", "t.closed_at", Kind.TIMESTAMP),
+  QUANTITY("quantity", "t.quantity", Kind.DECIMAL),
+  ENTRY_PRICE("entryPrice", "t.entry_price", Kind.DECIMAL),
+  EXIT_PRICE("exitPrice", "t.exit_price", Kind.DECIMAL),
+  STOP_LOSS_PRICE("stopLossPrice", "t.stop_loss_price", Kind.DECIMAL),
+  TAKE_PROFIT_PRICE("takeProfitPrice", "t.take_profit_price", Kind.DECIMAL),
+  FEES("fees", "t.fees", Kind.DECIMAL),
+  COMMISSION("commission", "t.commission", Kind.DECIMAL),
+  SLIPPAGE("slippage", "t.slippage", Kind.DECIMAL),
+  PNL_NET("pnlNet", "t.pnl_net", Kind.DECIMAL),
+  PNL_GROSS("pnlGross", "t.pnl_gross", Kind.DECIMAL),
+  PNL_PERCENT("pnlPercent", "t.pnl_percent", Kind.DECIMAL),
+  R_MULTIPLE("rMultiple", "t.r_multiple", Kind.DECIMAL),
+  RISK_AMOUNT("riskAmount", "t.risk_amount", Kind.DECIMAL),
+  RISK_PERCENT("riskPercent", "t.risk_percent", Kind.DECIMAL),
+  CAPITAL_USED("capitalUsed", "t.capital_used", Kind.DECIMAL),
+  TIMEFRAME("timeframe", "t.timeframe", Kind.TEXT),
+  SETUP("setup", "t.setup", Kind.TEXT),
+  STRATEGY_TAG("strategyTag", "t.strategy_tag", Kind.TEXT),
+  CATALYST_TAG("catalystTag", "t.catalyst_tag", Kind.TEXT),
+  NOTES("notes", "t.notes", Kind.TEXT),
+  CREATED_AT("createdAt", "t.created_at", Kind.TIMESTAMP),
+  UPDATED_AT("updatedAt", "t.updated_at", Kind.TIMESTAMP),
+  ACCOUNT_ID("accountId", "t.account_id", Kind.UUID),
+  ACCOUNT_NAME("accountName", "a.name", Kind.TEXT),
+  TAGS("tags", """
+      COALESCE((SELECT array_agg(tg.name ORDER BY tg.name)
+                FROM trade_tags tt
+                JOIN tags tg ON tg.id = tt.tag_id
+                WHERE tt.trade_id = t.id), '{}')""", Kind.TEXT_ARRAY);
+
+  private static final Map<String, TradeListField> BY_NAME = Arrays.stream(values())
+      .collect(Collectors.toMap(field -> field.jsonName.toLowerCase(Locale.ROOT), Function.identity()));
+
+  private final String jsonName;
+  private final String expression;
+  private final Kind kind;
+
+  TradeListField(String jsonName, String expression, Kind kind) {
+    this.jsonName = jsonName;
+    this.expression = expression;
+    this.kind = kind;
+  }
+
+  public String jsonName() {
+    return jsonName;
+  }
+
+  String expression() {
+    return expression;
+  }
+
+  String alias() {
+    return "f_" + name().toLowerCase(Locale.ROOT);
+  }
+
+  Object read(ResultSet rs) throws SQLException {
+    return kind.read(rs, alias());
+  }
+
+  /**
+   * Parses a comma list such as {@code symbol,pnlNet,tags}; names are matched case-insensitively. A blank
+   * list selects every field. {@code id} is always included so rows stay addressable.
+   */
+  public static Set<TradeListField> parse(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return EnumSet.allOf(TradeListField.class);
+    }
+    Set<TradeListField> selected = EnumSet.of(ID);
+    for (String name : fields.split(",")) {
+      String trimmed = name.trim();
+      if (trimmed.isEmpty()) {
+        continue;
+      }
+      TradeListField field = BY_NAME.get(trimmed.toLowerCase(Locale.ROOT));
+      if (field == null) {
+        throw new IllegalArgumentException("Unknown trade field: " + trimmed);
+      }
+      selected.add(field);
+    }
+    return selected;
+  }
+
+  private enum Kind {
+    UUID, TEXT, DECIMAL, TIMESTAMP, TEXT_ARRAY;
+
+    Object read(ResultSet rs, String column) throws SQLException {
+      return switch (this) {
+        case UUID -> rs.getObject(column, java.util.UUID.class);
+        case TEXT -> rs.getString(column);
+        case DECIMAL -> rs.getBigDecimal(column);
+        case TIMESTAMP -> rs.getObject(column, OffsetDateTime.class);
+        case TEXT_ARRAY -> textArray(rs.getArray(column));
+      };
+    }
+
+    private static List<String> textArray(Array array) throws SQLException {
+      if (array == null) {
+        return Collections.emptyList();
+      }
+      try {
+        return List.of((String[]) array.getArray());
+      } finally {
+        array.free();
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.tradevault.repository;
+
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.TradeStatus;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Read-optimized trade list: one native query per page returns flat {@link TradeListRow}s with the account
+ * name joined and tag names aggregated, without loading entities into the persistence context. Filters and
+ * keyset order match {@link TradeRepositoryCustom#findTradeKeysets}, so cursors are interchangeable between
+ * the two paths. Only the selected fields are read; the account join and the tag aggregate are left out of
+ * the statement when their fields are not requested.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TradeListRepository {
+
+  private static final String SELECT_ROWS = """
+      SELECT t.opened_at AS k_opened_at, t.created_at AS k_created_at, t.id AS k_id,
+             %1$s
+      FROM trades t
+      %2$s
+      WHERE t.user_id = :userId
+      %3$s
+      ORDER BY t.opened_at DESC, t.created_at DESC, t.id DESC
+      LIMIT :limit
+      """;
+
+  private static final String ACCOUNT_JOIN = "LEFT JOIN accounts a ON a.id = t.account_id";
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  /**
+   * Up to {@code limit} rows strictly after {@code after} (or from the start when null). {@code symbol} and
+   * {@code strategy} match case-insensitively.
+   */
+  public List<TradeListRow> findRows(UUID userId,
+      OffsetDateTime openedAtFrom,
+      OffsetDateTime openedAtTo,
+      OffsetDateTime closedAtFrom,
+      OffsetDateTime closedAtTo,
+      String symbol,
+      String strategy,
+      Direction direction,
+      TradeStatus status,
+      TradeKeyset after,
+      int limit,
+      Set<TradeListField> fields) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("userId", userId)
+        .addValue("limit", limit);
+    StringBuilder where = new StringBuilder();
+    condition(where, params, "t.opened_at >= :openedAtFrom", "openedAtFrom", openedAtFrom);
+    condition(where, params, "t.opened_at <= :openedAtTo", "openedAtTo", openedAtTo);
+    condition(where, params, "t.closed_at >= :closedAtFrom", "closedAtFrom", closedAtFrom);
+    condition(where, params, "t.closed_at <= :closedAtTo", "closedAtTo", closedAtTo);
+    condition(where, params, "lower(t.symbol) = :symbol", "symbol",
+        symbol == null ? null : symbol.toLowerCase(Locale.ROOT));
+    condition(where, params, "lower(t.strategy_tag) = :strategy", "strategy",
+        strategy == null ? null : strategy.toLowerCase(Locale.ROOT));
+    condition(where, params, "t.direction = CAST(:direction AS direction_type)", "direction",
+        direction == null ? null : direction.name());
+    condition(where, params, "t.status = CAST(:status AS status_type)", "status",
+        status == null ? null : status.name());
+    if (after != null) {
+      where.append("AND (t.opened_at, t.created_at, t.id) < (:afterOpenedAt, :afterCreatedAt, :afterId)\n");
+      params.addValue("afterOpenedAt", after.openedAt())
+          .addValue("afterCreatedAt", after.createdAt())
+          .addValue("afterId", after.id());
+    }
+
+    String columns = fields.stream()
+        .map(field -> field.expression() + " AS " + field.alias())
+        .collect(Collectors.joining(",\n       "));
+    String joins = fields.contains(TradeListField.ACCOUNT_NAME) ? ACCOUNT_JOIN : "";
+    String sql = SELECT_ROWS.formatted(columns, joins, where);
+
+    return jdbc.query(sql, params, (rs, rowNum) -> {
+      Map<String, Object> values = new LinkedHashMap<>();
+      for (TradeListField field : fields) {
+        values.put(field.jsonName(), field.read(rs));
+      }
+      TradeKeyset keyset = new TradeKeyset(rs.getObject("k_opened_at", OffsetDateTime.class),
+          rs.getObject("k_created_at", OffsetDateTime.class),
+          rs.getObject("k_id", UUID.class));
+      return new TradeListRow(keyset, values);
+    });
+  }
+
+  private static void condition(StringBuilder where, MapSqlParameterSource params, String predicate, String name,
+      Object value) {
+    if (value != null) {
+      where.append("AND ").append(predicate).append('\n');
+      params.addValue(name, value);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.tradevault.repository;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.Map;
+
+/**
+ * Flat, read-only projection of one trade in list order, holding only the requested
+ * {@link TradeListField}s keyed by their JSON name; it serializes as that map, so unrequested fields are
+ * absent from the payload while requested ones are present even when null. {@code keyset} positions the
+ * row for the next page and is not serialized.
+ */
+public record TradeListRow(TradeKeyset keyset, Map<String, Object> fields) {
+
+  @JsonValue
+  public Map<String, Object> fields() {
+    return fields;
+  }
+
+  public Object get(TradeListField field) {
+    return fields.get(field.jsonName());
+  }
+}
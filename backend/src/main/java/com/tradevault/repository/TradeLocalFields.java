@@ -0,0 +1,40 @@
+package com.tradevault.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The derived columns stored on a trade at write time: local date, hour and ISO day of week of the open and
+ * close times in {@code tz}, holding time and R estimate. The local fields only apply to readers grouping by
+ * {@code tz}; the rest hold in any zone.
+ */
+public record TradeLocalFields(
+    String tz,
+    LocalDate openedDate,
+    LocalDate closedDate,
+    Integer openedHour,
+    Integer closedHour,
+    Integer openedDow,
+    Integer closedDow,
+    Long holdingMinutes,
+    String holdingBucket,
+    BigDecimal rEstimate) {
+
+  /**
+   * The stored fields, or null for a trade written before they existed.
+   */
+  static TradeLocalFields of(String tz, LocalDate openedDate, LocalDate closedDate, Integer openedHour,
+      Integer closedHour, Integer openedDow, Integer closedDow, Long holdingMinutes, String holdingBucket,
+      BigDecimal rEstimate) {
+    if (tz == null) {
+      return null;
+    }
+    return new TradeLocalFields(tz, openedDate, closedDate, openedHour, closedHour, openedDow, closedDow,
+        holdingMinutes, holdingBucket, rEstimate);
+  }
+
+  public boolean isIn(ZoneId zone) {
+    return tz.equals(zone.getId());
+  }
+}
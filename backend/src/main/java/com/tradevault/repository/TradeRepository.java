@@ -5,6 +5,7 @@ import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.TradeStatus;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,6 +13,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -53,7 +55,8 @@ public interface TradeRepository extends JpaRepository<Trade, UUID>, JpaSpecific
   @Query(value = """
       WITH x AS (
         SELECT t.pnl_net AS pnl_net,
-               CAST((t.closed_at AT TIME ZONE :tz) AS date) AS local_date
+               CASE WHEN t.local_tz = :tz THEN t.closed_local_date
+                    ELSE CAST((t.closed_at AT TIME ZONE :tz) AS date) END AS local_date
         FROM trades t
         WHERE t.user_id = :userId
           AND t.status = 'CLOSED'
@@ -77,7 +80,8 @@ public interface TradeRepository extends JpaRepository<Trade, UUID>, JpaSpecific
   @Query(value = """
       WITH x AS (
         SELECT t.pnl_net AS pnl_net,
-               CAST((t.opened_at AT TIME ZONE :tz) AS date) AS local_date
+               CASE WHEN t.local_tz = :tz THEN t.opened_local_date
+                    ELSE CAST((t.opened_at AT TIME ZONE :tz) AS date) END AS local_date
         FROM trades t
         WHERE t.user_id = :userId
           AND t.opened_at IS NOT NULL
@@ -101,7 +105,8 @@ public interface TradeRepository extends JpaRepository<Trade, UUID>, JpaSpecific
       WITH x AS (
         SELECT t.pnl_net AS pnl_net,
                t.pnl_gross AS pnl_gross,
-               CAST((t.closed_at AT TIME ZONE :tz) AS date) AS local_date
+               CASE WHEN t.local_tz = :tz THEN t.closed_local_date
+                    ELSE CAST((t.closed_at AT TIME ZONE :tz) AS date) END AS local_date
         FROM trades t
         WHERE t.user_id = :userId
           AND t.status = 'CLOSED'
@@ -124,7 +129,8 @@ public interface TradeRepository extends JpaRepository<Trade, UUID>, JpaSpecific
       WHERE t.user_id = :userId
         AND t.status = 'CLOSED'
         AND t.closed_at IS NOT NULL
-        AND CAST((t.closed_at AT TIME ZONE :tz) AS date) = :date
+        AND ((t.local_tz = :tz AND t.closed_local_date = :date)
+          OR (t.local_tz IS DISTINCT FROM :tz AND CAST((t.closed_at AT TIME ZONE :tz) AS date) = :date))
       ORDER BY t.closed_at
       """, nativeQuery = true)
   List<UUID> findClosedTradeIdsForLocalDate(@Param("userId") UUID userId,
@@ -151,9 +157,78 @@ public interface TradeRepository extends JpaRepository<Trade, UUID>, JpaSpecific
 
   List<Trade> findByUserId(UUID userId);
 
+  @Query(value = """
+      SELECT 'symbol' AS kind, t.symbol AS value FROM trades t
+      WHERE t.user_id = :userId AND t.symbol IS NOT NULL GROUP BY t.symbol
+      UNION ALL
+      SELECT 'market' AS kind, CAST(t.market AS text) AS value FROM trades t
+      WHERE t.user_id = :userId AND t.market IS NOT NULL GROUP BY t.market
+      UNION ALL
+      SELECT 'strategy' AS kind, t.strategy_tag AS value FROM trades t
+      WHERE t.user_id = :userId AND t.strategy_tag IS NOT NULL GROUP BY t.strategy_tag
+      UNION ALL
+      SELECT 'setup' AS kind, t.setup AS value FROM trades t
+      WHERE t.user_id = :userId AND t.setup IS NOT NULL GROUP BY t.setup
+      UNION ALL
+      SELECT 'catalyst' AS kind, t.catalyst_tag AS value FROM trades t
+      WHERE t.user_id = :userId AND t.catalyst_tag IS NOT NULL GROUP BY t.catalyst_tag
+      """, nativeQuery = true)
+  List<FilterOptionValue> findFilterOptionValues(@Param("userId") UUID userId);
+
   Optional<Trade> findByIdAndUserId(UUID id, UUID userId);
 
-  Optional<Trade> findByUserIdAndSymbolAndOpenedAt(UUID userId, String symbol, OffsetDateTime openedAt);
+  List<Trade> findByIdInAndUserId(Collection<UUID> ids, UUID userId);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM trade_tags WHERE trade_id IN (:tradeIds)", nativeQuery = true)
+  int deleteTradeTags(@Param("tradeIds") Collection<UUID> tradeIds);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM trade_tags WHERE trade_id IN (:tradeIds) AND tag_id IN (:tagIds)", nativeQuery = true)
+  int deleteTradeTags(@Param("tradeIds") Collection<UUID> tradeIds, @Param("tagIds") Collection<UUID> tagIds);
+
+  /**
+   * Links every given trade to every given tag in one statement; pairs that exist already and ids the user does
+   * not own are skipped.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = """
+      INSERT INTO trade_tags (trade_id, tag_id)
+      SELECT t.id, g.id
+      FROM trades t
+      CROSS JOIN tags g
+      WHERE t.user_id = :userId
+        AND t.id IN (:tradeIds)
+        AND g.user_id = :userId
+        AND g.id IN (:tagIds)
+      ON CONFLICT DO NOTHING
+      """, nativeQuery = true)
+  int addTradeTags(@Param("userId") UUID userId, @Param("tradeIds") Collection<UUID> tradeIds,
+      @Param("tagIds") Collection<UUID> tagIds);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM trades WHERE user_id = :userId AND id IN (:ids)", nativeQuery = true)
+  int deleteTrades(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+
+  /**
+   * Recomputes the zone-dependent derived columns of all the user's trades in {@code zone} with the V20 backfill
+   * expressions. Holding time and R estimate do not depend on the zone and are left alone. A zone Postgres does
+   * not know updates nothing; readers then keep converting timestamps for those trades.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(value = """
+      UPDATE trades
+      SET local_tz = :zone,
+          opened_local_date = CAST((opened_at AT TIME ZONE :zone) AS date),
+          closed_local_date = CAST((closed_at AT TIME ZONE :zone) AS date),
+          opened_hour = EXTRACT(HOUR FROM (opened_at AT TIME ZONE :zone)),
+          closed_hour = EXTRACT(HOUR FROM (closed_at AT TIME ZONE :zone)),
+          opened_dow = EXTRACT(ISODOW FROM (opened_at AT TIME ZONE :zone)),
+          closed_dow = EXTRACT(ISODOW FROM (closed_at AT TIME ZONE :zone))
+      WHERE user_id = :userId
+        AND EXISTS (SELECT 1 FROM pg_timezone_names z WHERE z.name = :zone)
+      """, nativeQuery = true)
+  int updateLocalFields(@Param("userId") UUID userId, @Param("zone") String zone);
 
   boolean existsByUserIdAndDemoSeedIdIsNotNull(UUID userId);
 
@@ -174,6 +249,13 @@ public interface TradeRepository extends JpaRepository<Trade, UUID>, JpaSpecific
     long getLosses();
   }
 
+  interface FilterOptionValue {
+
+    String getKind();
+
+    String getValue();
+  }
+
   interface MonthlyPnlAggregate {
 
     java.math.BigDecimal getNetPnl();
@@ -3,7 +3,11 @@ package com.tradevault.repository;
 import com.tradevault.domain.entity.Trade;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.repository.spec.TradeAnalyticsQuery;
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -21,6 +25,37 @@ public interface TradeRepositoryCustom {
       TradeStatus status,
       Pageable pageable);
 
+  /**
+   * Up to {@code limit} trades matching the search filters in list order, starting strictly after
+   * {@code after} when it is given. Runs no count and reads no skipped rows, so deep pages cost the same as
+   * the first.
+   */
+  List<TradeKeyset> findTradeKeysets(UUID userId,
+      OffsetDateTime openedAtFrom,
+      OffsetDateTime openedAtTo,
+      OffsetDateTime closedAtFrom,
+      OffsetDateTime closedAtTo,
+      String symbol,
+      String strategy,
+      Direction direction,
+      TradeStatus status,
+      TradeKeyset after,
+      int limit);
+
+  /**
+   * Number of trades matching the search filters; a positive {@code cap} stops counting after that many.
+   */
+  long countTrades(UUID userId,
+      OffsetDateTime openedAtFrom,
+      OffsetDateTime openedAtTo,
+      OffsetDateTime closedAtFrom,
+      OffsetDateTime closedAtTo,
+      String symbol,
+      String strategy,
+      Direction direction,
+      TradeStatus status,
+      long cap);
+
   @Deprecated(forRemoval = false)
   Page<Trade> search(UUID userId,
       OffsetDateTime openedAtFrom,
@@ -32,4 +67,10 @@ public interface TradeRepositoryCustom {
       Direction direction,
       TradeStatus status,
       Pageable pageable);
+
+  List<TradeAnalyticsRow> findAnalyticsRows(TradeAnalyticsQuery query);
+
+  Optional<TradeAnalyticsRow> findAnalyticsRow(UUID userId, UUID id);
+
+  List<TradeAnalyticsRow> findAnalyticsRows(UUID userId, Collection<UUID> ids);
 }
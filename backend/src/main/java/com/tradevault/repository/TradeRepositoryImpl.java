@@ -3,8 +3,10 @@ package com.tradevault.repository;
 import com.tradevault.domain.entity.Trade;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.repository.spec.TradeAnalyticsQuery;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
@@ -14,8 +16,10 @@ import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -66,6 +70,127 @@ public class TradeRepositoryImpl implements TradeRepositoryCustom {
     return new PageImpl<>(ids, pageable, total);
   }
 
+  @Override
+  public List<TradeKeyset> findTradeKeysets(UUID userId,
+      OffsetDateTime openedAtFrom,
+      OffsetDateTime openedAtTo,
+      OffsetDateTime closedAtFrom,
+      OffsetDateTime closedAtTo,
+      String symbol,
+      String strategy,
+      Direction direction,
+      TradeStatus status,
+      TradeKeyset after,
+      int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<TradeKeyset> keysetQuery = cb.createQuery(TradeKeyset.class);
+    Root<Trade> root = keysetQuery.from(Trade.class);
+    List<Predicate> predicates = buildSearchPredicates(cb, root, userId, openedAtFrom, openedAtTo,
+        closedAtFrom, closedAtTo, symbol, strategy, direction, status);
+    if (after != null) {
+      predicates.add(afterKeyset(cb, root, after));
+    }
+    keysetQuery.select(cb.construct(TradeKeyset.class, root.get("openedAt"), root.get("createdAt"), root.get("id")));
+    keysetQuery.where(predicates.toArray(Predicate[]::new));
+    keysetQuery.orderBy(cb.desc(root.get("openedAt")), cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+    return entityManager.createQuery(keysetQuery).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public long countTrades(UUID userId,
+      OffsetDateTime openedAtFrom,
+      OffsetDateTime openedAtTo,
+      OffsetDateTime closedAtFrom,
+      OffsetDateTime closedAtTo,
+      String symbol,
+      String strategy,
+      Direction direction,
+      TradeStatus status,
+      long cap) {
+    if (cap > 0) {
+      return cappedCount(userId, openedAtFrom, openedAtTo, closedAtFrom, closedAtTo, symbol, strategy, direction, status, cap);
+    }
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+    Root<Trade> root = countQuery.from(Trade.class);
+    countQuery.select(cb.count(root));
+    countQuery.where(buildSearchPredicates(cb, root, userId, openedAtFrom, openedAtTo, closedAtFrom, closedAtTo,
+        symbol, strategy, direction, status).toArray(Predicate[]::new));
+    return entityManager.createQuery(countQuery).getSingleResult();
+  }
+
+  /**
+   * Counts matching trades up to {@code cap} in the database: the inner query stops after {@code cap} index
+   * entries, so the cost is bounded on large journals and no ids are transferred. The caller reports the cap.
+   * The filters mirror {@link #buildSearchPredicates}.
+   */
+  private long cappedCount(UUID userId,
+      OffsetDateTime openedAtFrom,
+      OffsetDateTime openedAtTo,
+      OffsetDateTime closedAtFrom,
+      OffsetDateTime closedAtTo,
+      String symbol,
+      String strategy,
+      Direction direction,
+      TradeStatus status,
+      long cap) {
+    StringBuilder sql = new StringBuilder("SELECT count(*) FROM (SELECT 1 FROM trades t WHERE t.user_id = :userId");
+    if (openedAtFrom != null) {
+      sql.append(" AND t.opened_at >= :openedAtFrom");
+    }
+    if (openedAtTo != null) {
+      sql.append(" AND t.opened_at <= :openedAtTo");
+    }
+    if (closedAtFrom != null) {
+      sql.append(" AND t.closed_at >= :closedAtFrom");
+    }
+    if (closedAtTo != null) {
+      sql.append(" AND t.closed_at <= :closedAtTo");
+    }
+    if (symbol != null) {
+      sql.append(" AND lower(t.symbol) = :symbol");
+    }
+    if (strategy != null) {
+      sql.append(" AND lower(t.strategy_tag) = :strategy");
+    }
+    if (direction != null) {
+      sql.append(" AND t.direction = CAST(:direction AS direction_type)");
+    }
+    if (status != null) {
+      sql.append(" AND t.status = CAST(:status AS status_type)");
+    }
+    sql.append(" LIMIT :cap) capped");
+
+    Query query = entityManager.createNativeQuery(sql.toString());
+    query.setParameter("userId", userId);
+    query.setParameter("cap", cap);
+    if (openedAtFrom != null) {
+      query.setParameter("openedAtFrom", openedAtFrom);
+    }
+    if (openedAtTo != null) {
+      query.setParameter("openedAtTo", openedAtTo);
+    }
+    if (closedAtFrom != null) {
+      query.setParameter("closedAtFrom", closedAtFrom);
+    }
+    if (closedAtTo != null) {
+      query.setParameter("closedAtTo", closedAtTo);
+    }
+    if (symbol != null) {
+      query.setParameter("symbol", symbol.toLowerCase(Locale.ROOT));
+    }
+    if (strategy != null) {
+      query.setParameter("strategy", strategy.toLowerCase(Locale.ROOT));
+    }
+    if (direction != null) {
+      query.setParameter("direction", direction.name());
+    }
+    if (status != null) {
+      query.setParameter("status", status.name());
+    }
+    return ((Number) query.getSingleResult()).longValue();
+  }
+
   @Override
   public Page<Trade> search(UUID userId,
       OffsetDateTime openedAtFrom,
@@ -103,6 +228,52 @@ public class TradeRepositoryImpl implements TradeRepositoryCustom {
     return new PageImpl<>(content, pageable, total);
   }
 
+  @Override
+  public List<TradeAnalyticsRow> findAnalyticsRows(TradeAnalyticsQuery query) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<TradeAnalyticsRow> rowQuery = cb.createQuery(TradeAnalyticsRow.class);
+    Root<Trade> root = rowQuery.from(Trade.class);
+    selectAnalyticsRow(cb, rowQuery, root);
+    rowQuery.where(query.toPredicates(cb, root).toArray(Predicate[]::new));
+    return entityManager.createQuery(rowQuery).getResultList();
+  }
+
+  @Override
+  public Optional<TradeAnalyticsRow> findAnalyticsRow(UUID userId, UUID id) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<TradeAnalyticsRow> rowQuery = cb.createQuery(TradeAnalyticsRow.class);
+    Root<Trade> root = rowQuery.from(Trade.class);
+    selectAnalyticsRow(cb, rowQuery, root);
+    rowQuery.where(cb.equal(root.get("user").get("id"), userId), cb.equal(root.get("id"), id));
+    return entityManager.createQuery(rowQuery).getResultList().stream().findFirst();
+  }
+
+  @Override
+  public List<TradeAnalyticsRow> findAnalyticsRows(UUID userId, Collection<UUID> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<TradeAnalyticsRow> rowQuery = cb.createQuery(TradeAnalyticsRow.class);
+    Root<Trade> root = rowQuery.from(Trade.class);
+    selectAnalyticsRow(cb, rowQuery, root);
+    rowQuery.where(cb.equal(root.get("user").get("id"), userId), root.get("id").in(ids));
+    return entityManager.createQuery(rowQuery).getResultList();
+  }
+
+  private static void selectAnalyticsRow(CriteriaBuilder cb, CriteriaQuery<TradeAnalyticsRow> rowQuery, Root<Trade> root) {
+    rowQuery.select(cb.construct(TradeAnalyticsRow.class,
+        root.get("id"), root.get("symbol"), root.get("market"), root.get("direction"), root.get("status"),
+        root.get("openedAt"), root.get("closedAt"),
+        root.get("quantity"), root.get("entryPrice"), root.get("exitPrice"),
+        root.get("pnlNet"), root.get("pnlGross"), root.get("fees"), root.get("commission"), root.get("slippage"),
+        root.get("rMultiple"), root.get("riskAmount"), root.get("riskPercent"), root.get("pnlPercent"),
+        root.get("strategyTag"), root.get("setup"), root.get("catalystTag"),
+        root.get("localTz"), root.get("openedLocalDate"), root.get("closedLocalDate"),
+        root.get("openedHour"), root.get("closedHour"), root.get("openedDow"), root.get("closedDow"),
+        root.get("holdingMinutes"), root.get("holdingBucket"), root.get("rEstimate")));
+  }
+
   private List<Predicate> buildSearchPredicates(CriteriaBuilder cb,
       Root<Trade> root,
       UUID userId,
@@ -147,6 +318,22 @@ public class TradeRepositoryImpl implements TradeRepositoryCustom {
     return predicates;
   }
 
+  /**
+   * {@code (openedAt, createdAt, id) < after} in descending list order, spelled out because the criteria API
+   * has no row comparison. The leading {@code openedAt <= } bound lets the list index seek to the cursor.
+   */
+  private Predicate afterKeyset(CriteriaBuilder cb, Root<Trade> root, TradeKeyset after) {
+    Path<OffsetDateTime> openedAt = root.get("openedAt");
+    Path<OffsetDateTime> createdAt = root.get("createdAt");
+    Path<UUID> id = root.get("id");
+    return cb.and(
+        cb.lessThanOrEqualTo(openedAt, after.openedAt()),
+        cb.or(
+            cb.lessThan(openedAt, after.openedAt()),
+            cb.and(cb.equal(openedAt, after.openedAt()), cb.lessThan(createdAt, after.createdAt())),
+            cb.and(cb.equal(openedAt, after.openedAt()), cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))));
+  }
+
   private void applySort(CriteriaBuilder cb, Root<Trade> root, CriteriaQuery<?> query, Sort sort) {
     if (sort == null || sort.isUnsorted()) {
       return;
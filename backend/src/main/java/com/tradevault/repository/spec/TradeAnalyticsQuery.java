@@ -0,0 +1,147 @@
+package com.tradevault.repository.spec;
+
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.Market;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.DateMode;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * The analytics filter set as SQL predicates. Comma lists match case-insensitively against any of their
+ * values; a list that parses to no values matches nothing. The date range applies to the opened or closed
+ * timestamp depending on the {@link DateMode}, and trades without that timestamp are excluded.
+ */
+public record TradeAnalyticsQuery(UUID userId,
+    OffsetDateTime from,
+    OffsetDateTime to,
+    Set<String> symbols,
+    Direction direction,
+    TradeStatus status,
+    Set<String> strategies,
+    Set<String> setups,
+    Set<String> catalysts,
+    Set<Market> markets,
+    DateMode dateMode) {
+
+  public static TradeAnalyticsQuery of(UUID userId,
+      OffsetDateTime from,
+      OffsetDateTime to,
+      String symbol,
+      Direction direction,
+      TradeStatus status,
+      String strategy,
+      String setup,
+      String catalyst,
+      String market,
+      DateMode dateMode) {
+    return new TradeAnalyticsQuery(
+        userId,
+        ceilToMicros(from),
+        to == null ? null : to.truncatedTo(ChronoUnit.MICROS),
+        parseFilterValues(symbol),
+        direction,
+        status,
+        parseFilterValues(strategy),
+        parseFilterValues(setup),
+        parseFilterValues(catalyst),
+        parseMarkets(market),
+        dateMode == null ? DateMode.CLOSE : dateMode);
+  }
+
+  public static TradeAnalyticsQuery forUser(UUID userId) {
+    return of(userId, null, null, null, null, null, null, null, null, null, DateMode.CLOSE);
+  }
+
+  public Specification<Trade> toSpecification() {
+    return (root, query, cb) -> cb.and(toPredicates(cb, root).toArray(Predicate[]::new));
+  }
+
+  public List<Predicate> toPredicates(CriteriaBuilder cb, Root<Trade> root) {
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(cb.equal(root.get("user").get("id"), userId));
+
+    Path<OffsetDateTime> eventTime = root.get(dateMode == DateMode.OPEN ? "openedAt" : "closedAt");
+    if (from != null) {
+      predicates.add(cb.greaterThanOrEqualTo(eventTime, from));
+    }
+    if (to != null) {
+      predicates.add(cb.lessThanOrEqualTo(eventTime, to));
+    }
+    addLowercaseIn(cb, root.get("symbol"), symbols, predicates);
+    addLowercaseIn(cb, root.get("strategyTag"), strategies, predicates);
+    addLowercaseIn(cb, root.get("setup"), setups, predicates);
+    addLowercaseIn(cb, root.get("catalystTag"), catalysts, predicates);
+    if (markets != null) {
+      predicates.add(markets.isEmpty() ? cb.disjunction() : root.get("market").in(markets));
+    }
+    if (direction != null) {
+      predicates.add(cb.equal(root.get("direction"), direction));
+    }
+    if (status != null) {
+      predicates.add(cb.equal(root.get("status"), status));
+    }
+    return predicates;
+  }
+
+  private static void addLowercaseIn(CriteriaBuilder cb, Expression<String> column, Set<String> values,
+      List<Predicate> predicates) {
+    if (values == null) {
+      return;
+    }
+    predicates.add(values.isEmpty() ? cb.disjunction() : cb.lower(column).in(values));
+  }
+
+  /**
+   * The values of a comma list, trimmed and lower-cased, without blanks; null for a blank list.
+   */
+  public static Set<String> parseFilterValues(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    return Arrays.stream(value.split(","))
+        .map(String::trim)
+        .filter(s -> !s.isBlank())
+        .map(s -> s.toLowerCase(Locale.ROOT))
+        .collect(Collectors.toSet());
+  }
+
+  private static Set<Market> parseMarkets(String value) {
+    Set<String> names = parseFilterValues(value);
+    if (names == null) {
+      return null;
+    }
+    Set<Market> markets = EnumSet.noneOf(Market.class);
+    for (Market market : Market.values()) {
+      if (names.contains(market.name().toLowerCase(Locale.ROOT))) {
+        markets.add(market);
+      }
+    }
+    return markets;
+  }
+
+  // Timestamps are stored with microsecond precision; round the bounds inward so the database does not
+  // round a sub-microsecond bound outward when binding it.
+  private static OffsetDateTime ceilToMicros(OffsetDateTime value) {
+    if (value == null) {
+      return null;
+    }
+    OffsetDateTime truncated = value.truncatedTo(ChronoUnit.MICROS);
+    return truncated.equals(value) ? value : truncated.plus(1, ChronoUnit.MICROS);
+  }
+}
@@ -1,5 +1,6 @@
 package com.tradevault.service;
 
+import com.tradevault.analytics.TradeCoachAggregateService;
 import com.tradevault.domain.entity.Account;
 import com.tradevault.domain.entity.NotebookFolder;
 import com.tradevault.domain.entity.NotebookNote;
@@ -73,6 +74,9 @@ public class DemoDataService {
     private final NotebookTagLinkRepository notebookTagLinkRepository;
     private final NotebookAttachmentRepository notebookAttachmentRepository;
     private final NotebookTemplateRepository notebookTemplateRepository;
+    private final TradeVersionService tradeVersionService;
+    private final TradeDailyRollupService tradeDailyRollupService;
+    private final TradeCoachAggregateService tradeCoachAggregateService;
 
     @Transactional
     public void generateDemoDataForUser(UUID userId, boolean forceForBrandNewUser) {
@@ -122,6 +126,9 @@ public class DemoDataService {
         user.setDemoSeedId(demoSeedId);
         user.setDemoRemovedAt(null);
         userRepository.save(user);
+        tradeDailyRollupService.rebuild(userId);
+        tradeCoachAggregateService.invalidate(userId);
+        tradeVersionService.bump(userId);
     }
 
     @Transactional
@@ -164,6 +171,9 @@ public class DemoDataService {
             user.setDemoRemovedAt(OffsetDateTime.now());
         }
         userRepository.save(user);
+        tradeDailyRollupService.rebuild(userId);
+        tradeCoachAggregateService.invalidate(userId);
+        tradeVersionService.bump(userId);
 
         DemoRemovalCount removedCount = DemoRemovalCount.builder()
                 .trades(removedTrades)
@@ -182,136 +192,144 @@ public class DemoDataService {
 
     private List<Trade> createDemoTrades(User user, Account account, UUID demoSeedId, LocalDate startDate) {
         List<Trade> trades = new ArrayList<>();
-
         for (int i = 0; i < 48; i++) {
-            SymbolProfile profile = SYMBOL_PROFILES.get(i % SYMBOL_PROFILES.size());
-            Direction direction = i % 2 == 0 ? Direction.LONG : Direction.SHORT;
-            TradeStatus status = i % 6 == 0 ? TradeStatus.OPEN : TradeStatus.CLOSED;
-
-            int dayOffset = i % 42;
-            OffsetDateTime openedAt = startDate
-                    .plusDays(dayOffset)
-                    .atTime(8 + (i % 8), 5 + ((i * 11) % 50))
-                    .atZone(DEMO_ZONE)
-                    .toOffsetDateTime();
-
-            BigDecimal entryPrice = profile.basePrice()
-                    .add(profile.step().multiply(BigDecimal.valueOf((i % 5) - 2L)))
-                    .setScale(profile.scale(), RoundingMode.HALF_UP);
-
-            BigDecimal outcomeFactor = OUTCOME_FACTORS.get(i % OUTCOME_FACTORS.size());
-            boolean forceFlat = status == TradeStatus.CLOSED && i % 13 == 0;
-            if (forceFlat) {
-                outcomeFactor = BigDecimal.ZERO;
-            }
+            Trade trade = syntheticTrade(user, startDate, 42, i);
+            trade.setAccount(account);
+            trade.setDemoSeedId(demoSeedId);
+            TradeDerivedColumns.apply(trade, TimezoneService.userZone(user));
+            trades.add(trade);
+        }
+        return trades;
+    }
+
+    /**
+     * The {@code i}-th trade of a deterministic journal drawn from the demo symbol, strategy, setup and
+     * outcome distributions, opened on one of {@code spanDays} days from {@code startDate}. The demo seed
+     * uses the first 48; benchmarks use it to build journals of any size.
+     */
+    public static Trade syntheticTrade(User user, LocalDate startDate, int spanDays, int i) {
+        SymbolProfile profile = SYMBOL_PROFILES.get(i % SYMBOL_PROFILES.size());
+        Direction direction = i % 2 == 0 ? Direction.LONG : Direction.SHORT;
+        TradeStatus status = i % 6 == 0 ? TradeStatus.OPEN : TradeStatus.CLOSED;
+
+        int dayOffset = i % spanDays;
+        OffsetDateTime openedAt = startDate
+                .plusDays(dayOffset)
+                .atTime(8 + (i % 8), 5 + ((i * 11) % 50))
+                .atZone(DEMO_ZONE)
+                .toOffsetDateTime();
+
+        BigDecimal entryPrice = profile.basePrice()
+                .add(profile.step().multiply(BigDecimal.valueOf((i % 5) - 2L)))
+                .setScale(profile.scale(), RoundingMode.HALF_UP);
+
+        BigDecimal outcomeFactor = OUTCOME_FACTORS.get(i % OUTCOME_FACTORS.size());
+        boolean forceFlat = status == TradeStatus.CLOSED && i % 13 == 0;
+        if (forceFlat) {
+            outcomeFactor = BigDecimal.ZERO;
+        }
 
-            BigDecimal movement = profile.step()
-                    .multiply(outcomeFactor.abs().add(bd("0.5")))
-                    .setScale(profile.scale(), RoundingMode.HALF_UP);
-            BigDecimal signedMove;
-            if (outcomeFactor.compareTo(BigDecimal.ZERO) == 0) {
-                signedMove = BigDecimal.ZERO;
+        BigDecimal movement = profile.step()
+                .multiply(outcomeFactor.abs().add(bd("0.5")))
+                .setScale(profile.scale(), RoundingMode.HALF_UP);
+        BigDecimal signedMove;
+        if (outcomeFactor.compareTo(BigDecimal.ZERO) == 0) {
+            signedMove = BigDecimal.ZERO;
+        } else {
+            boolean positive = outcomeFactor.signum() > 0;
+            if (direction == Direction.LONG) {
+                signedMove = positive ? movement : movement.negate();
             } else {
-                boolean positive = outcomeFactor.signum() > 0;
-                if (direction == Direction.LONG) {
-                    signedMove = positive ? movement : movement.negate();
-                } else {
-                    signedMove = positive ? movement.negate() : movement;
-                }
+                signedMove = positive ? movement.negate() : movement;
             }
+        }
 
-            BigDecimal exitPrice = status == TradeStatus.CLOSED
-                    ? entryPrice.add(signedMove).setScale(profile.scale(), RoundingMode.HALF_UP)
-                    : null;
-
-            BigDecimal fees = status == TradeStatus.CLOSED
-                    ? bd("0.35").add(BigDecimal.valueOf(i % 3L).multiply(bd("0.07"))).setScale(4, RoundingMode.HALF_UP)
-                    : BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
-            BigDecimal commission = status == TradeStatus.CLOSED
-                    ? bd("0.45").add(BigDecimal.valueOf(i % 2L).multiply(bd("0.06"))).setScale(4, RoundingMode.HALF_UP)
-                    : BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
-            BigDecimal slippage = status == TradeStatus.CLOSED
-                    ? BigDecimal.valueOf(i % 4L).multiply(bd("0.03")).setScale(4, RoundingMode.HALF_UP)
-                    : BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
-
-            if (forceFlat) {
-                fees = BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
-                commission = BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
-                slippage = BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
-            }
+        BigDecimal exitPrice = status == TradeStatus.CLOSED
+                ? entryPrice.add(signedMove).setScale(profile.scale(), RoundingMode.HALF_UP)
+                : null;
+
+        BigDecimal fees = status == TradeStatus.CLOSED
+                ? bd("0.35").add(BigDecimal.valueOf(i % 3L).multiply(bd("0.07"))).setScale(4, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
+        BigDecimal commission = status == TradeStatus.CLOSED
+                ? bd("0.45").add(BigDecimal.valueOf(i % 2L).multiply(bd("0.06"))).setScale(4, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
+        BigDecimal slippage = status == TradeStatus.CLOSED
+                ? BigDecimal.valueOf(i % 4L).multiply(bd("0.03")).setScale(4, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
+
+        if (forceFlat) {
+            fees = BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
+            commission = BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
+            slippage = BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
+        }
 
-            BigDecimal quantity = profile.quantity().setScale(4, RoundingMode.HALF_UP);
-            BigDecimal capitalUsed = entryPrice.multiply(quantity).setScale(4, RoundingMode.HALF_UP);
-            BigDecimal riskAmount = capitalUsed
-                    .multiply(bd("0.008").add(BigDecimal.valueOf(i % 4L).multiply(bd("0.002"))))
-                    .setScale(4, RoundingMode.HALF_UP);
-            BigDecimal riskPercent = capitalUsed.compareTo(BigDecimal.ZERO) == 0
-                    ? BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP)
-                    : riskAmount.divide(capitalUsed, 4, RoundingMode.HALF_UP).multiply(bd("100")).setScale(4, RoundingMode.HALF_UP);
-
-            BigDecimal pnlGross = null;
-            BigDecimal pnlNet = null;
-            BigDecimal pnlPercent = null;
-            BigDecimal rMultiple = null;
-            OffsetDateTime closedAt = null;
-
-            if (status == TradeStatus.CLOSED && exitPrice != null) {
-                closedAt = openedAt.plusMinutes(35L + ((i % 7L) * 19L));
-                BigDecimal priceDiff = direction == Direction.LONG
-                        ? exitPrice.subtract(entryPrice)
-                        : entryPrice.subtract(exitPrice);
-                pnlGross = priceDiff.multiply(quantity).setScale(4, RoundingMode.HALF_UP);
-                pnlNet = pnlGross.subtract(fees).subtract(commission).subtract(slippage).setScale(4, RoundingMode.HALF_UP);
-                if (riskAmount.compareTo(BigDecimal.ZERO) != 0) {
-                    pnlPercent = pnlNet.divide(riskAmount, 4, RoundingMode.HALF_UP).multiply(bd("100")).setScale(4, RoundingMode.HALF_UP);
-                    rMultiple = pnlNet.divide(riskAmount, 4, RoundingMode.HALF_UP);
-                }
+        BigDecimal quantity = profile.quantity().setScale(4, RoundingMode.HALF_UP);
+        BigDecimal capitalUsed = entryPrice.multiply(quantity).setScale(4, RoundingMode.HALF_UP);
+        BigDecimal riskAmount = capitalUsed
+                .multiply(bd("0.008").add(BigDecimal.valueOf(i % 4L).multiply(bd("0.002"))))
+                .setScale(4, RoundingMode.HALF_UP);
+        BigDecimal riskPercent = capitalUsed.compareTo(BigDecimal.ZERO) == 0
+                ? BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP)
+                : riskAmount.divide(capitalUsed, 4, RoundingMode.HALF_UP).multiply(bd("100")).setScale(4, RoundingMode.HALF_UP);
+
+        BigDecimal pnlGross = null;
+        BigDecimal pnlNet = null;
+        BigDecimal pnlPercent = null;
+        BigDecimal rMultiple = null;
+        OffsetDateTime closedAt = null;
+
+        if (status == TradeStatus.CLOSED && exitPrice != null) {
+            closedAt = openedAt.plusMinutes(35L + ((i % 7L) * 19L));
+            BigDecimal priceDiff = direction == Direction.LONG
+                    ? exitPrice.subtract(entryPrice)
+                    : entryPrice.subtract(exitPrice);
+            pnlGross = priceDiff.multiply(quantity).setScale(4, RoundingMode.HALF_UP);
+            pnlNet = pnlGross.subtract(fees).subtract(commission).subtract(slippage).setScale(4, RoundingMode.HALF_UP);
+            if (riskAmount.compareTo(BigDecimal.ZERO) != 0) {
+                pnlPercent = pnlNet.divide(riskAmount, 4, RoundingMode.HALF_UP).multiply(bd("100")).setScale(4, RoundingMode.HALF_UP);
+                rMultiple = pnlNet.divide(riskAmount, 4, RoundingMode.HALF_UP);
             }
-
-            BigDecimal stopLossPrice = direction == Direction.LONG
-                    ? entryPrice.subtract(profile.step().multiply(bd("2.2")))
-                    : entryPrice.add(profile.step().multiply(bd("2.2")));
-            BigDecimal takeProfitPrice = direction == Direction.LONG
-                    ? entryPrice.add(profile.step().multiply(bd("3.4")))
-                    : entryPrice.subtract(profile.step().multiply(bd("3.4")));
-
-            Trade trade = Trade.builder()
-                    .user(user)
-                    .account(account)
-                    .symbol(profile.symbol())
-                    .market(profile.market())
-                    .direction(direction)
-                    .status(status)
-                    .openedAt(openedAt)
-                    .closedAt(closedAt)
-                    .timeframe(TIMEFRAMES.get(i % TIMEFRAMES.size()))
-                    .quantity(quantity)
-                    .entryPrice(entryPrice)
-                    .exitPrice(exitPrice)
-                    .stopLossPrice(stopLossPrice.setScale(profile.scale(), RoundingMode.HALF_UP))
-                    .takeProfitPrice(takeProfitPrice.setScale(profile.scale(), RoundingMode.HALF_UP))
-                    .fees(fees)
-                    .commission(commission)
-                    .slippage(slippage)
-                    .pnlGross(pnlGross)
-                    .pnlNet(pnlNet)
-                    .pnlPercent(pnlPercent)
-                    .riskAmount(riskAmount)
-                    .riskPercent(riskPercent)
-                    .rMultiple(rMultiple)
-                    .capitalUsed(capitalUsed)
-                    .setup(SETUPS.get(i % SETUPS.size()))
-                    .strategyTag(STRATEGIES.get(i % STRATEGIES.size()))
-                    .catalystTag(CATALYSTS.get(i % CATALYSTS.size()))
-                    .notes("Demo trade #" + (i + 1) + " generated for onboarding.")
-                    .createdAt(openedAt.minusMinutes(8))
-                    .updatedAt((status == TradeStatus.CLOSED && closedAt != null) ? closedAt.plusMinutes(3) : openedAt.plusMinutes(20))
-                    .demoSeedId(demoSeedId)
-                    .build();
-            trades.add(trade);
         }
 
-        return trades;
+        BigDecimal stopLossPrice = direction == Direction.LONG
+                ? entryPrice.subtract(profile.step().multiply(bd("2.2")))
+                : entryPrice.add(profile.step().multiply(bd("2.2")));
+        BigDecimal takeProfitPrice = direction == Direction.LONG
+                ? entryPrice.add(profile.step().multiply(bd("3.4")))
+                : entryPrice.subtract(profile.step().multiply(bd("3.4")));
+
+        return Trade.builder()
+                .user(user)
+                .symbol(profile.symbol())
+                .market(profile.market())
+                .direction(direction)
+                .status(status)
+                .openedAt(openedAt)
+                .closedAt(closedAt)
+                .timeframe(TIMEFRAMES.get(i % TIMEFRAMES.size()))
+                .quantity(quantity)
+                .entryPrice(entryPrice)
+                .exitPrice(exitPrice)
+                .stopLossPrice(stopLossPrice.setScale(profile.scale(), RoundingMode.HALF_UP))
+                .takeProfitPrice(takeProfitPrice.setScale(profile.scale(), RoundingMode.HALF_UP))
+                .fees(fees)
+                .commission(commission)
+                .slippage(slippage)
+                .pnlGross(pnlGross)
+                .pnlNet(pnlNet)
+                .pnlPercent(pnlPercent)
+                .riskAmount(riskAmount)
+                .riskPercent(riskPercent)
+                .rMultiple(rMultiple)
+                .capitalUsed(capitalUsed)
+                .setup(SETUPS.get(i % SETUPS.size()))
+                .strategyTag(STRATEGIES.get(i % STRATEGIES.size()))
+                .catalystTag(CATALYSTS.get(i % CATALYSTS.size()))
+                .notes("Demo trade #" + (i + 1) + " generated for onboarding.")
+                .createdAt(openedAt.minusMinutes(8))
+                .updatedAt((status == TradeStatus.CLOSED && closedAt != null) ? closedAt.plusMinutes(3) : openedAt.plusMinutes(20))
+                .build();
     }
 
     private List<NotebookTag> createNotebookTags(User user, UUID demoSeedId) {
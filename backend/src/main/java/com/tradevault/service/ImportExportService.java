@@ -1,121 +1,327 @@
 package com.tradevault.service;
 
+import com.tradevault.analytics.TradeCoachAggregateService;
+import com.tradevault.config.TradeImportConfig;
 import com.tradevault.domain.entity.Trade;
 import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.Market;
 import com.tradevault.domain.enums.TradeStatus;
 import com.tradevault.dto.trade.ImportResult;
+import com.tradevault.dto.trade.ImportRowError;
+import com.tradevault.repository.TradeExportRepository;
+import com.tradevault.repository.TradeExportRow;
 import com.tradevault.repository.TradeRepository;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @RequiredArgsConstructor
 public class ImportExportService {
+    private static final List<String> REQUIRED_COLUMNS = List.of("symbol", "market", "direction", "openedAt", "quantity", "entryPrice");
+    private static final CSVFormat IMPORT_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .build();
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final CSVFormat EXPORT_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader("symbol", "market", "direction", "openedAt", "closedAt", "quantity", "entryPrice", "exitPrice",
+                    "fees", "commission", "slippage", "stopLossPrice", "takeProfitPrice", "setup", "strategyTag",
+                    "catalystTag", "notes")
+            .setRecordSeparator('\n')
+            .build();
+
     private final TradeRepository tradeRepository;
+    private final TradeExportRepository tradeExportRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final TradeImportConfig tradeImportConfig;
     private final CurrentUserService currentUserService;
+    private final TradeVersionService tradeVersionService;
+    private final TradeDailyRollupService tradeDailyRollupService;
+    private final TradeCoachAggregateService tradeCoachAggregateService;
 
+    /**
+     * Imports trades from a CSV with a header row. Rows are parsed and validated one at a time and saved in
+     * chunks of {@code trades.import.chunk-size}, each chunk in its own transaction with JDBC batching, so memory
+     * stays bounded by the chunk size. Invalid rows are skipped and reported with their line, column and reason;
+     * when a chunk is rejected by the database its rows are retried one by one so only the offending rows fail.
+     */
     public ImportResult importCsv(MultipartFile file) throws IOException {
         User user = currentUserService.getCurrentUser();
-        int imported = 0;
-        int failed = 0;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
-             CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
+        ZoneId zone = TimezoneService.userZone(user);
+        int chunkSize = Math.max(1, tradeImportConfig.getChunkSize());
+        ImportReport report = new ImportReport(Math.max(0, tradeImportConfig.getMaxErrors()));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+             CSVParser parser = new CSVParser(reader, IMPORT_FORMAT)) {
+            List<String> missing = REQUIRED_COLUMNS.stream()
+                    .filter(column -> !parser.getHeaderMap().containsKey(column))
+                    .toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("CSV is missing required columns: " + String.join(", ", missing));
+            }
+            List<PendingTrade> chunk = new ArrayList<>(chunkSize);
+            long lastLine = parser.getCurrentLineNumber();
             for (CSVRecord record : parser) {
+                long line = lastLine + 1;
+                lastLine = parser.getCurrentLineNumber();
+                List<ImportRowError> errors = new ArrayList<>();
+                Trade trade = mapRecord(record, line, user, zone, errors);
+                if (!errors.isEmpty()) {
+                    report.rowFailed(errors);
+                    continue;
+                }
+                chunk.add(new PendingTrade(line, trade));
+                if (chunk.size() == chunkSize) {
+                    saveChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            saveChunk(chunk, report);
+        }
+        if (report.imported > 0) {
+            tradeDailyRollupService.rebuild(user.getId());
+            tradeCoachAggregateService.invalidate(user.getId());
+            tradeVersionService.bump(user.getId());
+        }
+        return ImportResult.builder()
+                .imported(report.imported)
+                .failed(report.failed)
+                .errors(report.errors)
+                .errorsTruncated(report.truncated)
+                .build();
+    }
+
+    private void saveChunk(List<PendingTrade> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> tradeRepository.saveAllAndFlush(chunk.stream().map(PendingTrade::trade).toList()));
+            report.imported += chunk.size();
+        } catch (DataAccessException chunkFailure) {
+            for (PendingTrade pending : chunk) {
+                pending.trade().setId(null);
                 try {
-                    Trade trade = mapRecord(record, user);
-                    tradeRepository.save(trade);
-                    imported++;
-                } catch (Exception ex) {
-                    failed++;
+                    transaction.executeWithoutResult(status -> tradeRepository.saveAndFlush(pending.trade()));
+                    report.imported++;
+                } catch (DataAccessException rowFailure) {
+                    report.rowFailed(List.of(rowError(pending.line(), null,
+                            "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage())));
                 }
             }
         }
-        return ImportResult.builder().imported(imported).failed(failed).build();
     }
 
-    public String exportCsv(OffsetDateTime from, OffsetDateTime to) throws IOException {
-        User user = currentUserService.getCurrentUser();
-        List<Trade> trades = tradeRepository.findByUserId(user.getId());
-        StringBuilder sb = new StringBuilder();
-        sb.append("symbol,market,direction,openedAt,closedAt,quantity,entryPrice,exitPrice,fees,commission,slippage,stopLossPrice,takeProfitPrice,setup,strategyTag,catalystTag,notes\n");
-        for (Trade trade : trades) {
-            if ((from != null && trade.getOpenedAt().isBefore(from)) || (to != null && trade.getOpenedAt().isAfter(to))) {
-                continue;
+    /**
+     * Streams the user's trades opened within {@code [from, to]} as CSV. The user is resolved now; the returned
+     * body reads the trades through a database cursor inside a read-only transaction and writes each row straight
+     * to the response, optionally gzipped, so memory use does not grow with the number of trades.
+     */
+    public StreamingResponseBody exportCsv(OffsetDateTime from, OffsetDateTime to, boolean gzip) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        UUID userId = currentUserService.getCurrentUser().getId();
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+            writeCsv(userId, from, to, writer);
+            writer.flush();
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish();
             }
-            sb.append(trade.getSymbol()).append(',')
-                    .append(trade.getMarket()).append(',')
-                    .append(trade.getDirection()).append(',')
-                    .append(trade.getOpenedAt()).append(',')
-                    .append(trade.getClosedAt()).append(',')
-                    .append(trade.getQuantity()).append(',')
-                    .append(trade.getEntryPrice()).append(',')
-                    .append(trade.getExitPrice()).append(',')
-                    .append(trade.getFees()).append(',')
-                    .append(trade.getCommission()).append(',')
-                    .append(trade.getSlippage()).append(',')
-                    .append(trade.getStopLossPrice()).append(',')
-                    .append(trade.getTakeProfitPrice()).append(',')
-                    .append(safe(trade.getSetup())).append(',')
-                    .append(safe(trade.getStrategyTag())).append(',')
-                    .append(safe(trade.getCatalystTag())).append(',')
-                    .append(safe(trade.getNotes()))
-                    .append("\n");
-        }
-        return sb.toString();
-    }
-
-    private Trade mapRecord(CSVRecord record, User user) {
+        };
+    }
+
+    void writeCsv(UUID userId, OffsetDateTime from, OffsetDateTime to, Writer writer) throws IOException {
+        CSVPrinter printer = new CSVPrinter(writer, EXPORT_FORMAT);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            transaction.executeWithoutResult(status -> tradeExportRepository.forEachTrade(userId, from, to, row -> {
+                try {
+                    printer.printRecord(exportValues(row));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        printer.flush();
+    }
+
+    private static Object[] exportValues(TradeExportRow row) {
+        return new Object[]{
+                row.symbol(), row.market(), row.direction(), row.openedAt(), row.closedAt(),
+                plain(row.quantity()), plain(row.entryPrice()), plain(row.exitPrice()),
+                plain(row.fees()), plain(row.commission()), plain(row.slippage()),
+                plain(row.stopLossPrice()), plain(row.takeProfitPrice()),
+                row.setup(), row.strategyTag(), row.catalystTag(), row.notes()
+        };
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? null : value.toPlainString();
+    }
+
+    private Trade mapRecord(CSVRecord record, long line, User user, ZoneId zone, List<ImportRowError> errors) {
         Trade trade = new Trade();
         trade.setUser(user);
-        trade.setSymbol(record.get("symbol"));
-        trade.setMarket(Market.valueOf(record.get("market").toUpperCase()));
-        trade.setDirection(Direction.valueOf(record.get("direction").toUpperCase()));
-        trade.setOpenedAt(parseDate(record.get("openedAt")));
-        trade.setClosedAt(parseDate(record.get("closedAt")));
-        trade.setQuantity(new BigDecimal(record.get("quantity")));
-        trade.setEntryPrice(new BigDecimal(record.get("entryPrice")));
-        trade.setExitPrice(parseDecimal(record.get("exitPrice")));
-        trade.setFees(parseDecimal(record.get("fees")));
-        trade.setCommission(parseDecimal(record.get("commission")));
-        trade.setSlippage(parseDecimal(record.get("slippage")));
-        trade.setStopLossPrice(parseDecimal(record.get("stopLossPrice")));
-        trade.setTakeProfitPrice(parseDecimal(record.get("takeProfitPrice")));
-        trade.setSetup(record.get("setup"));
-        trade.setStrategyTag(record.get("strategyTag"));
-        trade.setCatalystTag(record.get("catalystTag"));
-        trade.setNotes(record.get("notes"));
+        trade.setSymbol(requiredText(record, line, "symbol", errors));
+        trade.setMarket(enumValue(record, line, "market", Market.class, errors));
+        trade.setDirection(enumValue(record, line, "direction", Direction.class, errors));
+        trade.setOpenedAt(dateTime(record, line, "openedAt", true, errors));
+        trade.setClosedAt(dateTime(record, line, "closedAt", false, errors));
+        trade.setQuantity(decimal(record, line, "quantity", true, errors));
+        trade.setEntryPrice(decimal(record, line, "entryPrice", true, errors));
+        trade.setExitPrice(decimal(record, line, "exitPrice", false, errors));
+        trade.setFees(decimal(record, line, "fees", false, errors));
+        trade.setCommission(decimal(record, line, "commission", false, errors));
+        trade.setSlippage(decimal(record, line, "slippage", false, errors));
+        trade.setStopLossPrice(decimal(record, line, "stopLossPrice", false, errors));
+        trade.setTakeProfitPrice(decimal(record, line, "takeProfitPrice", false, errors));
+        trade.setSetup(boundedText(record, line, "setup", 255, errors));
+        trade.setStrategyTag(boundedText(record, line, "strategyTag", 120, errors));
+        trade.setCatalystTag(boundedText(record, line, "catalystTag", 120, errors));
+        trade.setNotes(text(record, "notes"));
+        if (trade.getOpenedAt() != null && trade.getClosedAt() != null && trade.getClosedAt().isBefore(trade.getOpenedAt())) {
+            errors.add(rowError(line, "closedAt", "must not be before openedAt"));
+        }
         trade.setStatus(trade.getClosedAt() != null ? TradeStatus.CLOSED : TradeStatus.OPEN);
         trade.setCreatedAt(OffsetDateTime.now());
         trade.setUpdatedAt(trade.getCreatedAt());
+        TradeDerivedColumns.apply(trade, zone);
         return trade;
     }
 
-    private OffsetDateTime parseDate(String value) {
-        if (value == null || value.isBlank()) return null;
-        return OffsetDateTime.parse(value);
+    /**
+     * The trimmed value of {@code column}, or null when the file has no such column or the cell is blank.
+     */
+    private static String text(CSVRecord record, String column) {
+        if (!record.isMapped(column) || !record.isSet(column)) {
+            return null;
+        }
+        String value = record.get(column).trim();
+        return value.isEmpty() ? null : value;
     }
 
-    private BigDecimal parseDecimal(String value) {
-        if (value == null || value.isBlank()) return null;
-        return new BigDecimal(value);
+    private static String requiredText(CSVRecord record, long line, String column, List<ImportRowError> errors) {
+        String value = text(record, column);
+        if (value == null) {
+            errors.add(rowError(line, column, "is required"));
+        }
+        return value;
     }
 
-    private String safe(String value) {
-        return value == null ? "" : value;
+    private static String boundedText(CSVRecord record, long line, String column, int maxLength, List<ImportRowError> errors) {
+        String value = text(record, column);
+        if (value != null && value.length() > maxLength) {
+            errors.add(rowError(line, column, "must be at most " + maxLength + " characters"));
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E enumValue(CSVRecord record, long line, String column, Class<E> type, List<ImportRowError> errors) {
+        String value = requiredText(record, line, column, errors);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            errors.add(rowError(line, column, "must be one of " + Arrays.toString(type.getEnumConstants())));
+            return null;
+        }
+    }
+
+    private static OffsetDateTime dateTime(CSVRecord record, long line, String column, boolean required, List<ImportRowError> errors) {
+        String value = required ? requiredText(record, line, column, errors) : text(record, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            errors.add(rowError(line, column, "must be an ISO-8601 date-time with offset"));
+            return null;
+        }
+    }
+
+    private static BigDecimal decimal(CSVRecord record, long line, String column, boolean required, List<ImportRowError> errors) {
+        String value = required ? requiredText(record, line, column, errors) : text(record, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            errors.add(rowError(line, column, "must be a number"));
+            return null;
+        }
+    }
+
+    private static ImportRowError rowError(long line, String column, String reason) {
+        return ImportRowError.builder().line(line).column(column).reason(reason).build();
+    }
+
+    private record PendingTrade(long line, Trade trade) {
+    }
+
+    /**
+     * Running totals of one import; keeps at most {@code maxErrors} row errors.
+     */
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+        private boolean truncated;
+
+        private ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void rowFailed(List<ImportRowError> rowErrors) {
+            failed++;
+            for (ImportRowError error : rowErrors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(error);
+                } else {
+                    truncated = true;
+                }
+            }
+        }
     }
 }
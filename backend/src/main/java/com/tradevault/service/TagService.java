@@ -18,6 +18,7 @@ import java.util.stream.Collectors;
 public class TagService {
     private final TagRepository tagRepository;
     private final CurrentUserService currentUserService;
+    private final TradeVersionService tradeVersionService;
 
     public List<TagResponse> list(TagType type) {
         var user = currentUserService.getCurrentUser();
@@ -36,6 +37,8 @@ public class TagService {
         var user = currentUserService.getCurrentUser();
         var tag = tagRepository.findByIdAndUserId(id, user.getId()).orElseThrow();
         tagRepository.delete(tag);
+        // Deleting a tag unlinks it from the user's trades.
+        tradeVersionService.bump(user.getId());
     }
 
     private TagResponse toResponse(Tag tag) {
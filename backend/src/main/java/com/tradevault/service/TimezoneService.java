@@ -15,11 +15,22 @@ public class TimezoneService {
         if (candidate == null || candidate.isBlank()) {
             candidate = user != null ? user.getTimezone() : null;
         }
-        if (candidate == null || candidate.isBlank()) {
-            candidate = DEFAULT_TIMEZONE;
+        return zoneOf(candidate);
+    }
+
+    /**
+     * The user's own zone, the one trade derived columns are stored in.
+     */
+    public static ZoneId userZone(User user) {
+        return zoneOf(user == null ? null : user.getTimezone());
+    }
+
+    private static ZoneId zoneOf(String tz) {
+        if (tz == null || tz.isBlank()) {
+            return ZoneId.of(DEFAULT_TIMEZONE);
         }
         try {
-            return ZoneId.of(candidate);
+            return ZoneId.of(tz);
         } catch (DateTimeException ex) {
             return ZoneId.of(DEFAULT_TIMEZONE);
         }
@@ -4,7 +4,7 @@ import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.PnlBasis;
 import com.tradevault.dto.trade.DailyPnlResponse;
 import com.tradevault.dto.trade.MonthlyPnlSummaryResponse;
-import com.tradevault.repository.TradeRepository;
+import com.tradevault.repository.TradeDailyRollupRepository.DailyRollup;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -21,7 +21,7 @@ import java.math.BigDecimal;
 public class TradeCalendarService {
     private static final Logger log = LoggerFactory.getLogger(TradeCalendarService.class);
 
-    private final TradeRepository tradeRepository;
+    private final TradeDailyRollupService tradeDailyRollupService;
     private final CurrentUserService currentUserService;
     private final TimezoneService timezoneService;
 
@@ -32,20 +32,17 @@ public class TradeCalendarService {
         /*log.info("[CALENDAR] fetchDailyPnl userId={}, from={}, to={}, tz={}, basis={}, statusExpectation={}",
                 user.getId(), from, to, zone.getId(), basis, statusExpectation);*/
 
-        List<TradeRepository.DailyPnlAggregate> aggregates = switch (basis) {
-            case OPEN -> tradeRepository.aggregateDailyPnlByOpenedDate(user.getId(), from, to, zone.getId());
-            case CLOSE -> tradeRepository.aggregateDailyPnlByClosedDate(user.getId(), from, to, zone.getId());
-        };
+        List<DailyRollup> days = tradeDailyRollupService.dailyRollup(user, zone, basis, from, to);
 
-        /*log.info("[CALENDAR] fetchDailyPnl result size={}", (aggregates != null ? aggregates.size() : 0));*/
+        /*log.info("[CALENDAR] fetchDailyPnl result size={}", days.size());*/
 
-        return aggregates.stream()
+        return days.stream()
                 .map(row -> new DailyPnlResponse(
-                        row.getDate(),
-                        row.getNetPnl(),
-                        row.getTradeCount(),
-                        row.getWins(),
-                        row.getLosses()
+                        row.date(),
+                        row.netPnl(),
+                        row.tradeCount(),
+                        row.wins(),
+                        row.losses()
                 ))
                 .toList();
     }
@@ -56,15 +53,20 @@ public class TradeCalendarService {
         LocalDate monthStart = LocalDate.of(year, month, 1);
         LocalDate monthEnd = monthStart.with(TemporalAdjusters.lastDayOfMonth());
 
-        TradeRepository.MonthlyPnlAggregate aggregate = switch (basis) {
-            case CLOSE -> tradeRepository.aggregateMonthlyPnlByClosedDate(user.getId(), monthStart, monthEnd, zone.getId());
-            case OPEN -> throw new IllegalArgumentException("Monthly summary supports CLOSE basis only");
-        };
+        if (basis == PnlBasis.OPEN) {
+            throw new IllegalArgumentException("Monthly summary supports CLOSE basis only");
+        }
+        List<DailyRollup> days = tradeDailyRollupService.dailyRollup(user, zone, PnlBasis.CLOSE, monthStart, monthEnd);
 
-        BigDecimal netPnl = aggregate != null && aggregate.getNetPnl() != null ? aggregate.getNetPnl() : BigDecimal.ZERO;
-        BigDecimal grossPnl = aggregate != null && aggregate.getGrossPnl() != null ? aggregate.getGrossPnl() : BigDecimal.ZERO;
-        long tradeCount = aggregate != null ? aggregate.getTradeCount() : 0;
-        long tradingDays = aggregate != null ? aggregate.getTradingDays() : 0;
+        BigDecimal netPnl = BigDecimal.ZERO;
+        BigDecimal grossPnl = BigDecimal.ZERO;
+        long tradeCount = 0;
+        for (DailyRollup day : days) {
+            netPnl = netPnl.add(day.netPnl());
+            grossPnl = grossPnl.add(day.grossPnl());
+            tradeCount += day.tradeCount();
+        }
+        long tradingDays = days.size();
 
         return new MonthlyPnlSummaryResponse(
                 year,
@@ -1,15 +1,15 @@
 package com.tradevault.service;
 
+import com.tradevault.analytics.TradeCoachAggregateService;
 import com.tradevault.domain.entity.Trade;
-import com.tradevault.domain.entity.TradeImportRow;
 import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.Market;
 import com.tradevault.domain.enums.TradeStatus;
 import com.tradevault.dto.trade.TradeCsvImportGroupResult;
 import com.tradevault.dto.trade.TradeCsvImportSummary;
-import com.tradevault.repository.TradeImportRowRepository;
-import com.tradevault.repository.TradeRepository;
+import com.tradevault.repository.TradeCsvImportRepository;
+import com.tradevault.repository.TradeCsvImportRepository.TradeKey;
 import com.tradevault.security.AuthenticatedUserResolver;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVFormat;
@@ -19,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -36,11 +37,11 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -69,10 +70,17 @@ public class TradeCsvImportService {
     );
     private static final BigDecimal SHARE_TOLERANCE = new BigDecimal("0.0001");
 
-    private final TradeRepository tradeRepository;
-    private final TradeImportRowRepository tradeImportRowRepository;
+    private final TradeCsvImportRepository tradeCsvImportRepository;
     private final AuthenticatedUserResolver authenticatedUserResolver;
-
+    private final TradeVersionService tradeVersionService;
+    private final TradeDailyRollupService tradeDailyRollupService;
+    private final TradeCoachAggregateService tradeCoachAggregateService;
+
+    /**
+     * Imports a broker export, one trade per ISIN. Existing trades are matched by symbol and open time with one
+     * query, and all trades and transaction ids are then written in one batch each.
+     */
+    @Transactional
     public TradeCsvImportSummary importCsv(MultipartFile file) throws IOException {
         User user = authenticatedUserResolver.getCurrentUser();
         List<ParsedRow> parsedRows = new ArrayList<>();
@@ -104,18 +112,27 @@ public class TradeCsvImportService {
         }
 
         parsedRows.sort((a, b) -> a.time().compareTo(b.time()));
-        Set<String> existingTransactionIds = loadExistingTransactionIds(user, parsedRows);
         Map<String, List<ParsedRow>> grouped = groupByIsin(parsedRows);
 
+        Map<String, GroupComputation> computations = new LinkedHashMap<>();
+        grouped.forEach((isin, rows) -> computations.put(isin, computeGroup(rows)));
+        Map<TradeKey, UUID> tradeIds = tradeCsvImportRepository.findTradeIds(user.getId(), computations.values().stream()
+                .filter(computation -> !computation.skipped())
+                .map(computation -> tradeKey(computation.metrics()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        ZoneId zone = TimezoneService.userZone(user);
+        Map<UUID, Trade> trades = new LinkedHashMap<>();
+        Set<String> transactionIds = new LinkedHashSet<>();
         int tradesCreated = 0;
         int tradesUpdated = 0;
         int groupsSkipped = 0;
         List<TradeCsvImportGroupResult> groupResults = new ArrayList<>();
 
-        for (Map.Entry<String, List<ParsedRow>> entry : grouped.entrySet()) {
+        for (Map.Entry<String, GroupComputation> entry : computations.entrySet()) {
             String isin = entry.getKey();
-            List<ParsedRow> rows = entry.getValue();
-            GroupComputation computation = computeGroup(rows);
+            GroupComputation computation = entry.getValue();
             if (computation.skipped()) {
                 groupsSkipped++;
                 groupResults.add(TradeCsvImportGroupResult.builder()
@@ -125,11 +142,18 @@ public class TradeCsvImportService {
                         .build());
                 continue;
             }
-            GroupMetrics metrics = computation.metrics();
-            UpsertResult upsert = upsertTrade(user, metrics);
-            tradeRepository.save(upsert.trade());
-            saveImportRows(user, rows, existingTransactionIds);
-            if (upsert.updated()) {
+            TradeKey key = tradeKey(computation.metrics());
+            UUID existingId = key == null ? null : tradeIds.get(key);
+            Trade trade = toTrade(user, computation.metrics(), existingId == null ? UUID.randomUUID() : existingId, zone);
+            if (key != null && existingId == null) {
+                tradeIds.put(key, trade.getId());
+            }
+            trades.put(trade.getId(), trade);
+            grouped.get(isin).stream()
+                    .map(ParsedRow::transactionId)
+                    .filter(Objects::nonNull)
+                    .forEach(transactionIds::add);
+            if (existingId != null) {
                 tradesUpdated++;
                 groupResults.add(TradeCsvImportGroupResult.builder()
                         .isin(isin)
@@ -143,6 +167,13 @@ public class TradeCsvImportService {
                         .build());
             }
         }
+        tradeCsvImportRepository.upsertTrades(user.getId(), new ArrayList<>(trades.values()));
+        tradeCsvImportRepository.insertImportRows(user.getId(), transactionIds, OffsetDateTime.now(ZoneOffset.UTC));
+        if (tradesCreated + tradesUpdated > 0) {
+            tradeDailyRollupService.rebuild(user.getId());
+            tradeCoachAggregateService.invalidate(user.getId());
+            tradeVersionService.bump(user.getId());
+        }
 
         return TradeCsvImportSummary.builder()
                 .totalRows(totalRows)
@@ -243,13 +274,16 @@ public class TradeCsvImportService {
         return total.divide(totalShares, 10, RoundingMode.HALF_UP);
     }
 
-    private UpsertResult upsertTrade(User user, GroupMetrics metrics) {
-        UUID userId = user.getId();
-        Optional<Trade> existing = Optional.empty();
-        if (metrics.symbol() != null) {
-            existing = tradeRepository.findByUserIdAndSymbolAndOpenedAt(userId, metrics.symbol(), metrics.openedAt());
-        }
-        Trade trade = existing.orElseGet(Trade::new);
+    private static TradeKey tradeKey(GroupMetrics metrics) {
+        return metrics.symbol() == null ? null : new TradeKey(metrics.symbol(), metrics.openedAt().toInstant());
+    }
+
+    /**
+     * The trade a group writes; {@code id} is the matched trade's id or a new one.
+     */
+    private static Trade toTrade(User user, GroupMetrics metrics, UUID id, ZoneId zone) {
+        Trade trade = new Trade();
+        trade.setId(id);
         trade.setUser(user);
         trade.setSymbol(metrics.symbol());
         trade.setMarket(Market.STOCK);
@@ -264,40 +298,8 @@ public class TradeCsvImportService {
         trade.setPnlNet(metrics.pnlNet());
         trade.setCreatedAt(metrics.openedAt());
         trade.setUpdatedAt(metrics.updatedAt());
-        return new UpsertResult(trade, existing.isPresent());
-    }
-
-    private void saveImportRows(User user, List<ParsedRow> rows, Set<String> existingTransactionIds) {
-        List<TradeImportRow> importRows = rows.stream()
-                .map(ParsedRow::transactionId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .filter(txId -> !existingTransactionIds.contains(txId))
-                .map(txId -> TradeImportRow.builder()
-                        .user(user)
-                        .transactionId(txId)
-                        .importedAt(OffsetDateTime.now(ZoneOffset.UTC))
-                        .build())
-                .toList();
-        if (!importRows.isEmpty()) {
-            tradeImportRowRepository.saveAll(importRows);
-            importRows.stream()
-                    .map(TradeImportRow::getTransactionId)
-                    .forEach(existingTransactionIds::add);
-        }
-    }
-
-    private Set<String> loadExistingTransactionIds(User user, List<ParsedRow> rows) {
-        Set<String> transactionIds = rows.stream()
-                .map(ParsedRow::transactionId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        if (transactionIds.isEmpty()) {
-            return new java.util.HashSet<>();
-        }
-        return tradeImportRowRepository.findAllByUserIdAndTransactionIdIn(user.getId(), transactionIds).stream()
-                .map(TradeImportRow::getTransactionId)
-                .collect(Collectors.toCollection(java.util.HashSet::new));
+        TradeDerivedColumns.apply(trade, zone);
+        return trade;
     }
 
     private Map<String, List<ParsedRow>> groupByIsin(List<ParsedRow> rows) {
@@ -437,6 +439,4 @@ public class TradeCsvImportService {
             return new GroupComputation(false, null, metrics);
         }
     }
-
-    record UpsertResult(Trade trade, boolean updated) {}
 }
@@ -0,0 +1,97 @@
+package com.tradevault.service;
+
+import com.tradevault.repository.TradeDailyRollupRepository;
+import com.tradevault.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Backfills the daily rollup for users that have trades but no materialized zone (in their profile zone),
+ * and periodically rebuilds the oldest zones so any drift from writes outside the app is corrected.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TradeDailyRollupScheduler {
+    private final TradeDailyRollupService tradeDailyRollupService;
+    private final TradeDailyRollupRepository tradeDailyRollupRepository;
+    private final UserRepository userRepository;
+    private final TimezoneService timezoneService;
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${trades.rollup.rebuild.batch-size:50}")
+    private int batchSize;
+
+    @Value("${trades.rollup.rebuild.max-age-ms:86400000}")
+    private long maxAgeMs;
+
+    @Value("${trades.rollup.rebuild.pg-lock-key:92100420260707}")
+    private long advisoryLockKey;
+
+    @Scheduled(initialDelayString = "${trades.rollup.rebuild.initial-delay-ms:120000}",
+            fixedDelayString = "${trades.rollup.rebuild.fixed-delay-ms:600000}")
+    public void rebuildRollups() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Skipping trade rollup rebuild: previous run is still active");
+            return;
+        }
+
+        boolean lockAcquired = false;
+        try {
+            lockAcquired = tryAcquireDistributedLock();
+            if (!lockAcquired) {
+                log.debug("Skipping trade rollup rebuild: advisory lock is held by another instance");
+                return;
+            }
+            int backfilled = 0;
+            for (UUID userId : tradeDailyRollupRepository.findUsersWithoutZones(batchSize)) {
+                userRepository.findById(userId).ifPresent(user ->
+                        tradeDailyRollupService.ensureBuilt(userId, timezoneService.resolveZone(null, user)));
+                backfilled++;
+            }
+            int rebuilt = 0;
+            OffsetDateTime builtBefore = OffsetDateTime.now().minusNanos(maxAgeMs * 1_000_000L);
+            for (TradeDailyRollupRepository.ZoneRef zone : tradeDailyRollupRepository.findZonesBuiltBefore(builtBefore, batchSize)) {
+                tradeDailyRollupService.rebuild(zone.userId(), zone.tz());
+                rebuilt++;
+            }
+            log.debug("Trade rollup rebuild completed backfilled={} rebuilt={} batchSize={}", backfilled, rebuilt, batchSize);
+        } catch (RuntimeException ex) {
+            log.warn("Trade rollup rebuild failed", ex);
+        } finally {
+            if (lockAcquired) {
+                releaseDistributedLock();
+            }
+            running.set(false);
+        }
+    }
+
+    private boolean tryAcquireDistributedLock() {
+        Boolean acquired = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_lock(?)",
+                Boolean.class,
+                advisoryLockKey
+        );
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    private void releaseDistributedLock() {
+        Boolean released = jdbcTemplate.queryForObject(
+                "SELECT pg_advisory_unlock(?)",
+                Boolean.class,
+                advisoryLockKey
+        );
+        if (!Boolean.TRUE.equals(released)) {
+            log.warn("Failed to release trade rollup advisory lock key={}", advisoryLockKey);
+        }
+    }
+}
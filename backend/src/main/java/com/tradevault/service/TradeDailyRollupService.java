@@ -0,0 +1,123 @@
+package com.tradevault.service;
+
+import com.tradevault.domain.entity.User;
+import com.tradevault.domain.enums.PnlBasis;
+import com.tradevault.repository.TradeDailyRollupRepository;
+import com.tradevault.repository.TradeDailyRollupRepository.DailyRollup;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Maintains {@code trade_daily_rollup}, the per-day P&L the calendar reads. Only the user's profile zone is
+ * materialized, the first time it is read; after that every trade write recomputes only the local days it
+ * touched, and imports and large bulk writes rebuild it from scratch. Other zones a client asks for are
+ * aggregated from {@code trades} on each read and never stored, so they add nothing to the cost of a write.
+ */
+@Service
+@RequiredArgsConstructor
+public class TradeDailyRollupService {
+    private final TradeDailyRollupRepository rollupRepository;
+    private final EntityManager entityManager;
+
+    @Transactional
+    public List<DailyRollup> dailyRollup(User user, ZoneId zone, PnlBasis basis, LocalDate from, LocalDate to) {
+        if (!zone.equals(TimezoneService.userZone(user))) {
+            entityManager.flush();
+            return rollupRepository.computeDays(user.getId(), zone.getId(), basis, from, to,
+                    from.minusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC),
+                    to.plusDays(2).atStartOfDay().atOffset(ZoneOffset.UTC));
+        }
+        ensureBuilt(user.getId(), zone);
+        return rollupRepository.findDays(user.getId(), zone.getId(), basis, from, to);
+    }
+
+    /**
+     * Materializes {@code zone}, which must be the user's profile zone, and drops any zone left over from an
+     * earlier profile zone.
+     */
+    @Transactional
+    public void ensureBuilt(UUID userId, ZoneId zone) {
+        String tz = zone.getId();
+        if (rollupRepository.zoneExists(userId, tz)) {
+            return;
+        }
+        entityManager.flush();
+        rollupRepository.lockUser(userId);
+        if (rollupRepository.claimZone(userId, tz)) {
+            rollupRepository.deleteOtherZones(userId, tz);
+            buildZone(userId, tz);
+        }
+    }
+
+    /**
+     * Recomputes the local days that the given open and close times fall on, in every materialized zone.
+     * Callers pass both the previous and the new times of a changed trade so the day it left is fixed too.
+     */
+    @Transactional
+    public void refreshDays(UUID userId, Collection<OffsetDateTime> openedTimes, Collection<OffsetDateTime> closedTimes) {
+        entityManager.flush();
+        rollupRepository.lockUser(userId);
+        for (String tz : rollupRepository.findZones(userId)) {
+            ZoneId zone = ZoneId.of(tz);
+            refreshDays(userId, tz, PnlBasis.OPEN, localDates(openedTimes, zone));
+            refreshDays(userId, tz, PnlBasis.CLOSE, localDates(closedTimes, zone));
+        }
+    }
+
+    @Transactional
+    public void rebuild(UUID userId) {
+        entityManager.flush();
+        rollupRepository.lockUser(userId);
+        for (String tz : rollupRepository.findZones(userId)) {
+            buildZone(userId, tz);
+        }
+    }
+
+    @Transactional
+    public void rebuild(UUID userId, String tz) {
+        rollupRepository.lockUser(userId);
+        if (rollupRepository.zoneExists(userId, tz)) {
+            buildZone(userId, tz);
+        }
+    }
+
+    private void buildZone(UUID userId, String tz) {
+        rollupRepository.deleteZoneDays(userId, tz);
+        rollupRepository.insertAllDays(userId, tz, PnlBasis.OPEN);
+        rollupRepository.insertAllDays(userId, tz, PnlBasis.CLOSE);
+        rollupRepository.markBuilt(userId, tz);
+    }
+
+    private void refreshDays(UUID userId, String tz, PnlBasis basis, Set<LocalDate> dates) {
+        for (LocalDate date : dates) {
+            // The neighbouring days absorb any disagreement between Java's and the database's zone rules.
+            OffsetDateTime fromInstant = date.minusDays(2).atStartOfDay().atOffset(ZoneOffset.UTC);
+            OffsetDateTime toInstant = date.plusDays(3).atStartOfDay().atOffset(ZoneOffset.UTC);
+            rollupRepository.refreshDays(userId, tz, basis, date.minusDays(1), date.plusDays(1), fromInstant, toInstant);
+        }
+    }
+
+    private static Set<LocalDate> localDates(Collection<OffsetDateTime> times, ZoneId zone) {
+        Set<LocalDate> dates = new TreeSet<>();
+        if (times != null) {
+            times.stream()
+                    .filter(Objects::nonNull)
+                    .map(time -> time.atZoneSameInstant(zone).toLocalDate())
+                    .forEach(dates::add);
+        }
+        return dates;
+    }
+}
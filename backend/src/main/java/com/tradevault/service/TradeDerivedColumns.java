@@ -0,0 +1,64 @@
+package com.tradevault.service;
+
+import com.tradevault.domain.entity.Trade;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Computes the derived trade columns that analytics, coach and calendar reads use instead of converting every
+ * trade per request. Every trade write sets them in the owner's zone, and a zone change recomputes them for
+ * the whole journal. The V20 migration backfills existing trades with the same rules in SQL.
+ */
+public final class TradeDerivedColumns {
+    private TradeDerivedColumns() {
+    }
+
+    public static void apply(Trade trade, ZoneId zone) {
+        trade.setLocalTz(zone.getId());
+        ZonedDateTime opened = trade.getOpenedAt() == null ? null : trade.getOpenedAt().atZoneSameInstant(zone);
+        ZonedDateTime closed = trade.getClosedAt() == null ? null : trade.getClosedAt().atZoneSameInstant(zone);
+        trade.setOpenedLocalDate(opened == null ? null : opened.toLocalDate());
+        trade.setOpenedHour(opened == null ? null : opened.getHour());
+        trade.setOpenedDow(opened == null ? null : opened.getDayOfWeek().getValue());
+        trade.setClosedLocalDate(closed == null ? null : closed.toLocalDate());
+        trade.setClosedHour(closed == null ? null : closed.getHour());
+        trade.setClosedDow(closed == null ? null : closed.getDayOfWeek().getValue());
+        Long holdingMinutes = holdingMinutes(trade.getOpenedAt(), trade.getClosedAt());
+        trade.setHoldingMinutes(holdingMinutes);
+        trade.setHoldingBucket(holdingBucket(holdingMinutes));
+        trade.setREstimate(rEstimate(trade.getRMultiple(), trade.getRiskAmount(), trade.getPnlNet()));
+    }
+
+    public static Long holdingMinutes(OffsetDateTime openedAt, OffsetDateTime closedAt) {
+        if (openedAt == null || closedAt == null) return null;
+        return Duration.between(openedAt, closedAt).toMinutes();
+    }
+
+    public static String holdingBucket(Long minutes) {
+        if (minutes == null) return null;
+        if (minutes < 5) return "<5m";
+        if (minutes < 15) return "5-15m";
+        if (minutes < 60) return "15-60m";
+        if (minutes < 240) return "1-4h";
+        return ">4h";
+    }
+
+    /**
+     * The recorded R multiple, else net P&L (zero when missing) over the risk amount.
+     */
+    public static BigDecimal rEstimate(BigDecimal rMultiple, BigDecimal riskAmount, BigDecimal pnlNet) {
+        if (rMultiple != null) {
+            return rMultiple;
+        }
+        if (riskAmount != null && riskAmount.compareTo(BigDecimal.ZERO) != 0) {
+            BigDecimal pnl = pnlNet == null ? BigDecimal.ZERO : pnlNet;
+            return pnl.divide(riskAmount, 4, RoundingMode.HALF_UP);
+        }
+        return null;
+    }
+}
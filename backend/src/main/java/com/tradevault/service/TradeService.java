@@ -1,17 +1,31 @@
 package com.tradevault.service;
 
+import com.tradevault.analytics.TradeCoachAggregateService;
 import com.tradevault.domain.entity.Account;
 import com.tradevault.domain.entity.Tag;
 import com.tradevault.domain.entity.Trade;
 import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.Direction;
+import com.tradevault.dto.trade.TradeBulkItemResult;
+import com.tradevault.dto.trade.TradeBulkPatch;
+import com.tradevault.dto.trade.TradeBulkRequest;
+import com.tradevault.dto.trade.TradeBulkResponse;
+import com.tradevault.dto.trade.TradeBulkUpdate;
+import com.tradevault.dto.trade.TradeFeedResponse;
 import com.tradevault.dto.trade.TradeRequest;
 import com.tradevault.dto.trade.TradeResponse;
 import com.tradevault.exception.TradeSearchValidationException;
 import com.tradevault.repository.AccountRepository;
 import com.tradevault.repository.TagRepository;
+import com.tradevault.repository.TradeAnalyticsRow;
+import com.tradevault.repository.TradeKeyset;
+import com.tradevault.repository.TradeListField;
+import com.tradevault.repository.TradeListRepository;
+import com.tradevault.repository.TradeListRow;
 import com.tradevault.repository.TradeRepository;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -22,12 +36,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -45,11 +66,26 @@ public class TradeService {
     private static final DateTimeFormatter DATE_ONLY_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
     private static final DateTimeFormatter OFFSET_DATE_TIME_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
     private static final DateTimeFormatter LOCAL_DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final int MIN_FEED_LIMIT = 1;
+    private static final int MAX_FEED_LIMIT = 100;
+    private static final long ESTIMATED_TOTAL_CAP = 10_000;
+    private static final List<String> FEED_TOTAL_MODES = List.of("none", "exact", "estimate");
+    private static final int MAX_BULK_ITEMS = 5_000;
+    /**
+     * Bulk writes touching more trades than this rebuild the rollups and drop the coach aggregates instead of
+     * refreshing the touched days and applying per-trade deltas, which past this size costs more than a rebuild.
+     */
+    private static final int INCREMENTAL_BULK_LIMIT = 200;
     private final TradeRepository tradeRepository;
+    private final TradeListRepository tradeListRepository;
     private final AccountRepository accountRepository;
     private final TagRepository tagRepository;
     private final CurrentUserService currentUserService;
     private final TimezoneService timezoneService;
+    private final TradeVersionService tradeVersionService;
+    private final TradeDailyRollupService tradeDailyRollupService;
+    private final TradeCoachAggregateService tradeCoachAggregateService;
+    private final Validator validator;
 
     public Page<TradeResponse> search(int page, int size,
                                       String openedAtFromRaw,
@@ -63,11 +99,106 @@ public class TradeService {
                                       Direction direction,
                                       com.tradevault.domain.enums.TradeStatus status) {
         User user = currentUserService.getCurrentUser();
+        SearchFilter filter = resolveSearchFilter(user, openedAtFromRaw, openedAtToRaw, closedAtFrom, closedAtTo, closedDate, tz, symbol, strategy, direction, status);
+        var pageable = PageRequest.of(Math.max(page, 0), size, Sort.by(Sort.Direction.DESC, "openedAt", "createdAt"));
+
+        Page<UUID> idPage = tradeRepository.searchTradeIds(
+                user.getId(),
+                filter.openedAtFrom(),
+                filter.openedAtTo(),
+                filter.closedAtFrom(),
+                filter.closedAtTo(),
+                filter.symbol(),
+                filter.strategy(),
+                filter.direction(),
+                filter.status(),
+                pageable
+        );
+
+        if (idPage.isEmpty()) {
+            return new org.springframework.data.domain.PageImpl<>(List.of(), pageable, idPage.getTotalElements());
+        }
+
+        List<TradeResponse> responses = loadTradesInOrderWithTagsAndAccount(idPage.getContent()).stream()
+                .map(this::toResponse)
+                .toList();
+        return new org.springframework.data.domain.PageImpl<>(responses, pageable, idPage.getTotalElements());
+    }
+
+    /**
+     * Search results a page at a time by keyset: {@code cursor} is the {@code nextCursor} of the previous
+     * page. {@code total} is {@code none} (default), {@code exact} or {@code estimate}.
+     */
+    public TradeFeedResponse<TradeResponse> searchFeed(int limit,
+                                        String cursor,
+                                        String total,
+                                        String openedAtFromRaw,
+                                        String openedAtToRaw,
+                                        OffsetDateTime closedAtFrom,
+                                        OffsetDateTime closedAtTo,
+                                        LocalDate closedDate,
+                                        String tz,
+                                        String symbol,
+                                        String strategy,
+                                        Direction direction,
+                                        com.tradevault.domain.enums.TradeStatus status) {
+        User user = currentUserService.getCurrentUser();
+        SearchFilter filter = resolveSearchFilter(user, openedAtFromRaw, openedAtToRaw, closedAtFrom, closedAtTo, closedDate, tz, symbol, strategy, direction, status);
+        return feed(user, filter, limit, cursor, total);
+    }
+
+    /**
+     * All of the user's trades a page at a time by keyset, like {@link #searchFeed} without filters.
+     */
+    public TradeFeedResponse<TradeResponse> listFeed(int limit, String cursor, String total) {
+        User user = currentUserService.getCurrentUser();
+        return feed(user, SearchFilter.NONE, limit, cursor, total);
+    }
+
+    /**
+     * Like {@link #searchFeed}, but each page is read in one native query as flat rows holding only
+     * {@code fields} (a comma list of response field names, all of them when blank). Cursors are shared with
+     * the feed endpoints.
+     */
+    public TradeFeedResponse<TradeListRow> searchRows(int limit,
+                                                      String cursor,
+                                                      String total,
+                                                      String fields,
+                                                      String openedAtFromRaw,
+                                                      String openedAtToRaw,
+                                                      OffsetDateTime closedAtFrom,
+                                                      OffsetDateTime closedAtTo,
+                                                      LocalDate closedDate,
+                                                      String tz,
+                                                      String symbol,
+                                                      String strategy,
+                                                      Direction direction,
+                                                      com.tradevault.domain.enums.TradeStatus status) {
+        User user = currentUserService.getCurrentUser();
+        SearchFilter filter = resolveSearchFilter(user, openedAtFromRaw, openedAtToRaw, closedAtFrom, closedAtTo, closedDate, tz, symbol, strategy, direction, status);
+        return rows(user, filter, limit, cursor, total, fields);
+    }
+
+    public TradeFeedResponse<TradeListRow> listRows(int limit, String cursor, String total, String fields) {
+        User user = currentUserService.getCurrentUser();
+        return rows(user, SearchFilter.NONE, limit, cursor, total, fields);
+    }
+
+    private SearchFilter resolveSearchFilter(User user,
+                                             String openedAtFromRaw,
+                                             String openedAtToRaw,
+                                             OffsetDateTime closedAtFrom,
+                                             OffsetDateTime closedAtTo,
+                                             LocalDate closedDate,
+                                             String tz,
+                                             String symbol,
+                                             String strategy,
+                                             Direction direction,
+                                             com.tradevault.domain.enums.TradeStatus status) {
         ZoneId zone = timezoneService.resolveZone(tz, user);
         OffsetDateTime openedAtFrom = parseDateTimeFilter(openedAtFromRaw, zone, false, "openedAtFrom");
         OffsetDateTime openedAtTo = parseDateTimeFilter(openedAtToRaw, zone, true, "openedAtTo");
         logSearchParams(symbol, strategy);
-        var pageable = PageRequest.of(Math.max(page, 0), size, Sort.by(Sort.Direction.DESC, "openedAt", "createdAt"));
         var normalizedSymbol = normalizeSearchToken(symbol);
         var normalizedStrategy = normalizeSearchToken(strategy);
         if (closedDate != null) {
@@ -76,28 +207,102 @@ public class TradeService {
         }
         validateDateRange(openedAtFrom, openedAtTo, "openedAtFrom", "openedAtTo");
         validateDateRange(closedAtFrom, closedAtTo, "closedAtFrom", "closedAtTo");
+        return new SearchFilter(openedAtFrom, openedAtTo, closedAtFrom, closedAtTo, normalizedSymbol, normalizedStrategy, direction, status);
+    }
 
-        Page<UUID> idPage = tradeRepository.searchTradeIds(
-                user.getId(),
-                openedAtFrom,
-                openedAtTo,
-                closedAtFrom,
-                closedAtTo,
-                normalizedSymbol,
-                normalizedStrategy,
-                direction,
-                status,
-                pageable
-        );
-
-        if (idPage.isEmpty()) {
-            return new org.springframework.data.domain.PageImpl<>(List.of(), pageable, idPage.getTotalElements());
-        }
+    private TradeFeedResponse<TradeResponse> feed(User user, SearchFilter filter, int limit, String cursor, String total) {
+        int normalizedLimit = normalizeFeedLimit(limit);
+        String totalMode = parseTotalMode(total);
+        TradeKeyset after = parseCursor(cursor);
 
-        List<TradeResponse> responses = loadTradesInOrderWithTagsAndAccount(idPage.getContent()).stream()
+        List<TradeKeyset> keysets = tradeRepository.findTradeKeysets(user.getId(),
+                filter.openedAtFrom(), filter.openedAtTo(), filter.closedAtFrom(), filter.closedAtTo(),
+                filter.symbol(), filter.strategy(), filter.direction(), filter.status(),
+                after, normalizedLimit + 1);
+        boolean hasMore = keysets.size() > normalizedLimit;
+        List<TradeKeyset> pageKeysets = hasMore ? keysets.subList(0, normalizedLimit) : keysets;
+        List<TradeResponse> items = loadTradesInOrderWithTagsAndAccount(pageKeysets.stream().map(TradeKeyset::id).toList()).stream()
                 .map(this::toResponse)
                 .toList();
-        return new org.springframework.data.domain.PageImpl<>(responses, pageable, idPage.getTotalElements());
+
+        return withTotal(TradeFeedResponse.<TradeResponse>builder()
+                .items(items)
+                .nextCursor(hasMore ? encodeCursor(pageKeysets.get(pageKeysets.size() - 1)) : null), user, filter, totalMode);
+    }
+
+    private TradeFeedResponse<TradeListRow> rows(User user, SearchFilter filter, int limit, String cursor, String total, String fields) {
+        int normalizedLimit = normalizeFeedLimit(limit);
+        String totalMode = parseTotalMode(total);
+        TradeKeyset after = parseCursor(cursor);
+        Set<TradeListField> selected = TradeListField.parse(fields);
+
+        List<TradeListRow> rows = tradeListRepository.findRows(user.getId(),
+                filter.openedAtFrom(), filter.openedAtTo(), filter.closedAtFrom(), filter.closedAtTo(),
+                filter.symbol(), filter.strategy(), filter.direction(), filter.status(),
+                after, normalizedLimit + 1, selected);
+        boolean hasMore = rows.size() > normalizedLimit;
+        List<TradeListRow> items = hasMore ? rows.subList(0, normalizedLimit) : rows;
+
+        return withTotal(TradeFeedResponse.<TradeListRow>builder()
+                .items(items)
+                .nextCursor(hasMore ? encodeCursor(items.get(items.size() - 1).keyset()) : null), user, filter, totalMode);
+    }
+
+    private <T> TradeFeedResponse<T> withTotal(TradeFeedResponse.TradeFeedResponseBuilder<T> response,
+                                               User user,
+                                               SearchFilter filter,
+                                               String totalMode) {
+        if ("none".equals(totalMode)) {
+            return response.build();
+        }
+        long cap = "estimate".equals(totalMode) ? ESTIMATED_TOTAL_CAP + 1 : 0;
+        long count = tradeRepository.countTrades(user.getId(),
+                filter.openedAtFrom(), filter.openedAtTo(), filter.closedAtFrom(), filter.closedAtTo(),
+                filter.symbol(), filter.strategy(), filter.direction(), filter.status(), cap);
+        boolean exact = cap == 0 || count <= ESTIMATED_TOTAL_CAP;
+        return response
+                .total(exact ? count : ESTIMATED_TOTAL_CAP)
+                .totalExact(exact)
+                .build();
+    }
+
+    private static int normalizeFeedLimit(int limit) {
+        return Math.max(MIN_FEED_LIMIT, Math.min(MAX_FEED_LIMIT, limit));
+    }
+
+    private static String parseTotalMode(String total) {
+        if (total == null || total.isBlank()) {
+            return "none";
+        }
+        String mode = total.trim().toLowerCase(Locale.ROOT);
+        if (!FEED_TOTAL_MODES.contains(mode)) {
+            throw new IllegalArgumentException("total must be one of " + String.join(", ", FEED_TOTAL_MODES));
+        }
+        return mode;
+    }
+
+    /**
+     * Cursors are URL-safe Base64 so clients pass them back untouched; their layout is not part of the API.
+     */
+    private static TradeKeyset parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid trade cursor");
+            }
+            return new TradeKeyset(OffsetDateTime.parse(parts[0]), OffsetDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid trade cursor");
+        }
+    }
+
+    private static String encodeCursor(TradeKeyset keyset) {
+        String raw = keyset.openedAt() + "|" + keyset.createdAt() + "|" + keyset.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
     private OffsetDateTime parseDateTimeFilter(String rawValue, ZoneId zone, boolean endOfDayForDateOnly, String fieldName) {
@@ -214,28 +419,8 @@ public class TradeService {
         validateClosedTrade(request);
         Trade trade = new Trade();
         trade.setUser(user);
-        trade.setSymbol(request.getSymbol());
-        trade.setMarket(request.getMarket());
-        trade.setDirection(request.getDirection());
-        trade.setStatus(request.getStatus());
-        trade.setOpenedAt(request.getOpenedAt());
-        trade.setClosedAt(request.getClosedAt());
-        trade.setQuantity(request.getQuantity());
-        trade.setEntryPrice(request.getEntryPrice());
-        trade.setExitPrice(request.getExitPrice());
-        trade.setStopLossPrice(request.getStopLossPrice());
-        trade.setTakeProfitPrice(request.getTakeProfitPrice());
-        trade.setFees(defaultZero(request.getFees()));
-        trade.setCommission(defaultZero(request.getCommission()));
-        trade.setSlippage(defaultZero(request.getSlippage()));
         // Do NOT trust client-provided PnL values on create; compute authoritatively below
-        trade.setRiskAmount(request.getRiskAmount());
-        trade.setCapitalUsed(request.getCapitalUsed());
-        trade.setTimeframe(request.getTimeframe());
-        trade.setSetup(request.getSetup());
-        trade.setStrategyTag(request.getStrategyTag());
-        trade.setCatalystTag(request.getCatalystTag());
-        trade.setNotes(request.getNotes());
+        applyRequestFields(trade, request);
         trade.setCreatedAt(OffsetDateTime.now());
         trade.setUpdatedAt(trade.getCreatedAt());
         if (request.getAccountId() != null) {
@@ -251,7 +436,12 @@ public class TradeService {
         // Always compute authoritative derived metrics on create
         recalculateRiskPercent(trade);
         recalculateAndApplyPnl(trade);
-        return toResponse(tradeRepository.save(trade));
+        TradeDerivedColumns.apply(trade, TimezoneService.userZone(user));
+        Trade saved = tradeRepository.save(trade);
+        tradeDailyRollupService.refreshDays(user.getId(), Arrays.asList(saved.getOpenedAt()), Arrays.asList(saved.getClosedAt()));
+        tradeCoachAggregateService.apply(user.getId(), saved.getId(), null);
+        tradeVersionService.bump(user.getId());
+        return toResponse(saved);
     }
 
     @Transactional
@@ -260,30 +450,12 @@ public class TradeService {
         Trade trade = tradeRepository.findByIdAndUserId(id, user.getId()).orElseThrow(() -> new EntityNotFoundException("Trade not found"));
         validateClosedTrade(request);
         boolean shouldRecalculate = pnlInputsChanged(trade, request);
+        OffsetDateTime previousOpenedAt = trade.getOpenedAt();
+        OffsetDateTime previousClosedAt = trade.getClosedAt();
+        TradeAnalyticsRow previous = TradeAnalyticsRow.from(trade);
 
-        // Map incoming fields onto entity (do not trust client-provided PnL values)
-        trade.setSymbol(request.getSymbol());
-        trade.setMarket(request.getMarket());
-        trade.setDirection(request.getDirection());
-        trade.setStatus(request.getStatus());
-        trade.setOpenedAt(request.getOpenedAt());
-        trade.setClosedAt(request.getClosedAt());
-        trade.setQuantity(request.getQuantity());
-        trade.setEntryPrice(request.getEntryPrice());
-        trade.setExitPrice(request.getExitPrice());
-        trade.setStopLossPrice(request.getStopLossPrice());
-        trade.setTakeProfitPrice(request.getTakeProfitPrice());
-        trade.setFees(defaultZero(request.getFees()));
-        trade.setCommission(defaultZero(request.getCommission()));
-        trade.setSlippage(defaultZero(request.getSlippage()));
-        // Never accept client PnL fields on update; we'll recompute if needed
-        trade.setRiskAmount(request.getRiskAmount());
-        trade.setCapitalUsed(request.getCapitalUsed());
-        trade.setTimeframe(request.getTimeframe());
-        trade.setSetup(request.getSetup());
-        trade.setStrategyTag(request.getStrategyTag());
-        trade.setCatalystTag(request.getCatalystTag());
-        trade.setNotes(request.getNotes());
+        // Map incoming fields onto entity (do not trust client-provided PnL values; we'll recompute if needed)
+        applyRequestFields(trade, request);
         if (request.getAccountId() != null) {
             Account account = accountRepository.findByIdAndUserId(request.getAccountId(), user.getId())
                     .orElseThrow(() -> new EntityNotFoundException("Account not found"));
@@ -301,14 +473,207 @@ public class TradeService {
         if (shouldRecalculate) {
             recalculateAndApplyPnl(trade);
         }
+        TradeDerivedColumns.apply(trade, TimezoneService.userZone(user));
         trade.setUpdatedAt(OffsetDateTime.now());
-        return toResponse(tradeRepository.save(trade));
+        Trade saved = tradeRepository.save(trade);
+        tradeDailyRollupService.refreshDays(user.getId(),
+                Arrays.asList(previousOpenedAt, saved.getOpenedAt()),
+                Arrays.asList(previousClosedAt, saved.getClosedAt()));
+        tradeCoachAggregateService.apply(user.getId(), saved.getId(), previous);
+        tradeVersionService.bump(user.getId());
+        return toResponse(saved);
+    }
+
+    /**
+     * Applies creates, updates, patches and deletes in one transaction. Target trades, accounts and tags are
+     * loaded with one query each, new and changed trades are flushed in JDBC batches, patch tag edits and
+     * deletes run as set-based statements, and rollups, coach aggregates and the trade version are refreshed
+     * once at the end: only the days and deltas of the written trades, unless more than
+     * {@value #INCREMENTAL_BULK_LIMIT} were written. Items that fail validation or do not belong to the user are
+     * reported and skipped.
+     */
+    @Transactional
+    public TradeBulkResponse bulk(TradeBulkRequest request) {
+        User user = currentUserService.getCurrentUser();
+        List<TradeRequest> creates = orEmpty(request.getCreate());
+        List<TradeBulkUpdate> updates = orEmpty(request.getUpdate());
+        List<TradeBulkPatch> patches = orEmpty(request.getPatch());
+        List<UUID> deletes = orEmpty(request.getDelete());
+        int items = creates.size() + updates.size() + deletes.size()
+                + patches.stream().mapToInt(patch -> orEmpty(patch.getIds()).size()).sum();
+        if (items > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("A bulk request may touch at most " + MAX_BULK_ITEMS + " trades");
+        }
+
+        Set<UUID> targetIds = new HashSet<>(deletes);
+        updates.stream().map(TradeBulkUpdate::getId).forEach(targetIds::add);
+        patches.forEach(patch -> targetIds.addAll(orEmpty(patch.getIds())));
+        targetIds.remove(null);
+        Map<UUID, Trade> targets = targetIds.isEmpty() ? Map.of() : tradeRepository.findByIdInAndUserId(targetIds, user.getId()).stream()
+                .collect(Collectors.toMap(Trade::getId, Function.identity()));
+
+        Set<UUID> accountIds = new HashSet<>();
+        Set<UUID> tagIds = new HashSet<>();
+        creates.forEach(item -> collectReferences(item, accountIds, tagIds));
+        updates.forEach(item -> collectReferences(item.getTrade(), accountIds, tagIds));
+        patches.forEach(patch -> accountIds.add(patch.getAccountId()));
+        accountIds.remove(null);
+        tagIds.remove(null);
+        Map<UUID, Account> accounts = accountIds.isEmpty() ? Map.of() : accountRepository.findByIdInAndUserId(accountIds, user.getId()).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        Map<UUID, Tag> tags = tagIds.isEmpty() ? Map.of() : tagRepository.findByIdInAndUserId(tagIds, user.getId()).stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity()));
+
+        ZoneId zone = TimezoneService.userZone(user);
+        OffsetDateTime now = OffsetDateTime.now();
+        List<TradeBulkItemResult> results = new ArrayList<>();
+        Set<UUID> claimed = new HashSet<>();
+        Map<UUID, TradeAnalyticsRow> previous = new HashMap<>();
+        List<Trade> written = new ArrayList<>();
+
+        List<Trade> created = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        for (int i = 0; i < creates.size(); i++) {
+            TradeRequest item = creates.get(i);
+            String error = requestError(item, accounts);
+            if (error != null) {
+                results.add(bulkFailure("create", i, null, error));
+                continue;
+            }
+            Trade trade = new Trade();
+            trade.setUser(user);
+            applyRequestFields(trade, item);
+            trade.setCreatedAt(now);
+            trade.setUpdatedAt(now);
+            trade.setAccount(item.getAccountId() == null ? null : accounts.get(item.getAccountId()));
+            if (item.getTagIds() != null && !item.getTagIds().isEmpty()) {
+                trade.setTags(resolveTags(item.getTagIds(), tags));
+            }
+            recalculateRiskPercent(trade);
+            recalculateAndApplyPnl(trade);
+            TradeDerivedColumns.apply(trade, zone);
+            created.add(trade);
+            createdIndexes.add(i);
+        }
+        tradeRepository.saveAll(created);
+        for (int i = 0; i < created.size(); i++) {
+            results.add(bulkSuccess("create", createdIndexes.get(i), created.get(i).getId()));
+            previous.put(created.get(i).getId(), null);
+        }
+        written.addAll(created);
+
+        int updated = 0;
+        for (int i = 0; i < updates.size(); i++) {
+            TradeBulkUpdate item = updates.get(i);
+            String error = targetError(item.getId(), targets, claimed);
+            if (error == null) {
+                error = item.getTrade() == null ? "Trade fields are required" : requestError(item.getTrade(), accounts);
+            }
+            if (error != null) {
+                results.add(bulkFailure("update", i, item.getId(), error));
+                continue;
+            }
+            Trade trade = targets.get(item.getId());
+            previous.put(trade.getId(), TradeAnalyticsRow.from(trade));
+            written.add(trade);
+            TradeRequest fields = item.getTrade();
+            boolean shouldRecalculate = pnlInputsChanged(trade, fields);
+            applyRequestFields(trade, fields);
+            trade.setAccount(fields.getAccountId() == null ? null : accounts.get(fields.getAccountId()));
+            if (fields.getTagIds() != null) {
+                trade.setTags(resolveTags(fields.getTagIds(), tags));
+            }
+            recalculateRiskPercent(trade);
+            if (shouldRecalculate) {
+                recalculateAndApplyPnl(trade);
+            }
+            TradeDerivedColumns.apply(trade, zone);
+            trade.setUpdatedAt(now);
+            results.add(bulkSuccess("update", i, trade.getId()));
+            updated++;
+        }
+
+        int patched = 0;
+        for (int i = 0; i < patches.size(); i++) {
+            TradeBulkPatch patch = patches.get(i);
+            String patchError = patch.getAccountId() != null && !accounts.containsKey(patch.getAccountId()) ? "Account not found" : null;
+            List<UUID> patchedIds = new ArrayList<>();
+            for (UUID id : orEmpty(patch.getIds())) {
+                String error = patchError != null ? patchError : targetError(id, targets, claimed);
+                if (error != null) {
+                    results.add(bulkFailure("patch", i, id, error));
+                    continue;
+                }
+                Trade trade = targets.get(id);
+                previous.put(id, TradeAnalyticsRow.from(trade));
+                written.add(trade);
+                applyPatch(trade, patch, accounts.get(patch.getAccountId()), zone, now);
+                patchedIds.add(id);
+                results.add(bulkSuccess("patch", i, id));
+            }
+            applyPatchTags(user, patch, patchedIds);
+            patched += patchedIds.size();
+        }
+
+        List<UUID> deletedIds = new ArrayList<>();
+        for (int i = 0; i < deletes.size(); i++) {
+            UUID id = deletes.get(i);
+            String error = targetError(id, targets, claimed);
+            if (error != null) {
+                results.add(bulkFailure("delete", i, id, error));
+                continue;
+            }
+            deletedIds.add(id);
+            previous.put(id, TradeAnalyticsRow.from(targets.get(id)));
+            results.add(bulkSuccess("delete", i, id));
+        }
+        if (!deletedIds.isEmpty()) {
+            tradeRepository.deleteTrades(user.getId(), deletedIds);
+        }
+
+        if (previous.size() > INCREMENTAL_BULK_LIMIT) {
+            tradeDailyRollupService.rebuild(user.getId());
+            tradeCoachAggregateService.invalidate(user.getId());
+        } else if (!previous.isEmpty()) {
+            List<OffsetDateTime> openedAts = new ArrayList<>();
+            List<OffsetDateTime> closedAts = new ArrayList<>();
+            for (TradeAnalyticsRow row : previous.values()) {
+                if (row != null) {
+                    openedAts.add(row.openedAt());
+                    closedAts.add(row.closedAt());
+                }
+            }
+            for (Trade trade : written) {
+                openedAts.add(trade.getOpenedAt());
+                closedAts.add(trade.getClosedAt());
+            }
+            tradeDailyRollupService.refreshDays(user.getId(), openedAts, closedAts);
+            tradeCoachAggregateService.apply(user.getId(), previous);
+        }
+        if (!previous.isEmpty()) {
+            tradeVersionService.bump(user.getId());
+        }
+        List<String> operations = List.of("create", "update", "patch", "delete");
+        results.sort(Comparator.comparingInt((TradeBulkItemResult result) -> operations.indexOf(result.getOperation()))
+                .thenComparingInt(TradeBulkItemResult::getIndex));
+        return TradeBulkResponse.builder()
+                .created(created.size())
+                .updated(updated)
+                .patched(patched)
+                .deleted(deletedIds.size())
+                .failed((int) results.stream().filter(result -> !result.isOk()).count())
+                .results(results)
+                .build();
     }
 
+    @Transactional
     public void delete(UUID id) {
         User user = currentUserService.getCurrentUser();
         Trade trade = tradeRepository.findByIdAndUserId(id, user.getId()).orElseThrow(() -> new EntityNotFoundException("Trade not found"));
         tradeRepository.delete(trade);
+        tradeDailyRollupService.refreshDays(user.getId(), Arrays.asList(trade.getOpenedAt()), Arrays.asList(trade.getClosedAt()));
+        tradeCoachAggregateService.apply(user.getId(), trade.getId(), TradeAnalyticsRow.from(trade));
+        tradeVersionService.bump(user.getId());
     }
 
     public java.util.List<TradeResponse> listClosedTradesByDate(LocalDate date, String tz) {
@@ -398,6 +763,157 @@ public class TradeService {
                 .toList();
     }
 
+    private void applyPatch(Trade trade, TradeBulkPatch patch, Account account, ZoneId zone, OffsetDateTime now) {
+        if (patch.getSetup() != null) {
+            trade.setSetup(blankToNull(patch.getSetup()));
+        }
+        if (patch.getStrategyTag() != null) {
+            trade.setStrategyTag(blankToNull(patch.getStrategyTag()));
+        }
+        if (patch.getCatalystTag() != null) {
+            trade.setCatalystTag(blankToNull(patch.getCatalystTag()));
+        }
+        if (patch.getTimeframe() != null) {
+            trade.setTimeframe(blankToNull(patch.getTimeframe()));
+        }
+        boolean costsChanged = false;
+        if (patch.getFees() != null) {
+            costsChanged |= !equalBD(trade.getFees(), patch.getFees());
+            trade.setFees(patch.getFees());
+        }
+        if (patch.getCommission() != null) {
+            costsChanged |= !equalBD(trade.getCommission(), patch.getCommission());
+            trade.setCommission(patch.getCommission());
+        }
+        if (patch.getSlippage() != null) {
+            costsChanged |= !equalBD(trade.getSlippage(), patch.getSlippage());
+            trade.setSlippage(patch.getSlippage());
+        }
+        if (patch.isClearAccount()) {
+            trade.setAccount(null);
+        } else if (account != null) {
+            trade.setAccount(account);
+        }
+        if (costsChanged) {
+            recalculateAndApplyPnl(trade);
+        }
+        TradeDerivedColumns.apply(trade, zone);
+        trade.setUpdatedAt(now);
+    }
+
+    /**
+     * Tag edits of a patch as set statements over all of its trades, so a retag costs the same for one trade
+     * as for thousands.
+     */
+    private void applyPatchTags(User user, TradeBulkPatch patch, List<UUID> tradeIds) {
+        if (tradeIds.isEmpty()) {
+            return;
+        }
+        if (patch.getTagIds() != null) {
+            tradeRepository.deleteTradeTags(tradeIds);
+            if (!patch.getTagIds().isEmpty()) {
+                tradeRepository.addTradeTags(user.getId(), tradeIds, patch.getTagIds());
+            }
+        }
+        if (patch.getRemoveTagIds() != null && !patch.getRemoveTagIds().isEmpty()) {
+            tradeRepository.deleteTradeTags(tradeIds, patch.getRemoveTagIds());
+        }
+        if (patch.getAddTagIds() != null && !patch.getAddTagIds().isEmpty()) {
+            tradeRepository.addTradeTags(user.getId(), tradeIds, patch.getAddTagIds());
+        }
+    }
+
+    private String requestError(TradeRequest request, Map<UUID, Account> accounts) {
+        Set<ConstraintViolation<TradeRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getStatus() == com.tradevault.domain.enums.TradeStatus.CLOSED && request.getExitPrice() == null) {
+            return "Exit price is required when status is CLOSED";
+        }
+        if (request.getAccountId() != null && !accounts.containsKey(request.getAccountId())) {
+            return "Account not found";
+        }
+        return null;
+    }
+
+    /**
+     * Why {@code id} cannot be changed by this item, or null after claiming it so no later item touches the
+     * same trade.
+     */
+    private static String targetError(UUID id, Map<UUID, Trade> targets, Set<UUID> claimed) {
+        if (id == null) {
+            return "Trade id is required";
+        }
+        if (!targets.containsKey(id)) {
+            return "Trade not found";
+        }
+        if (!claimed.add(id)) {
+            return "Trade is changed by another item of this request";
+        }
+        return null;
+    }
+
+    private static void collectReferences(TradeRequest request, Set<UUID> accountIds, Set<UUID> tagIds) {
+        if (request == null) {
+            return;
+        }
+        accountIds.add(request.getAccountId());
+        if (request.getTagIds() != null) {
+            tagIds.addAll(request.getTagIds());
+        }
+    }
+
+    private static Set<Tag> resolveTags(Set<UUID> ids, Map<UUID, Tag> tags) {
+        return ids.stream()
+                .map(tags::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static TradeBulkItemResult bulkSuccess(String operation, int index, UUID id) {
+        return TradeBulkItemResult.builder().operation(operation).index(index).id(id).ok(true).build();
+    }
+
+    private static TradeBulkItemResult bulkFailure(String operation, int index, UUID id, String error) {
+        return TradeBulkItemResult.builder().operation(operation).index(index).id(id).ok(false).error(error).build();
+    }
+
+    private static <T> List<T> orEmpty(List<T> values) {
+        return values == null ? List.of() : values;
+    }
+
+    private static String blankToNull(String value) {
+        return value.isBlank() ? null : value.trim();
+    }
+
+    private void applyRequestFields(Trade trade, TradeRequest request) {
+        trade.setSymbol(request.getSymbol());
+        trade.setMarket(request.getMarket());
+        trade.setDirection(request.getDirection());
+        trade.setStatus(request.getStatus());
+        trade.setOpenedAt(request.getOpenedAt());
+        trade.setClosedAt(request.getClosedAt());
+        trade.setQuantity(request.getQuantity());
+        trade.setEntryPrice(request.getEntryPrice());
+        trade.setExitPrice(request.getExitPrice());
+        trade.setStopLossPrice(request.getStopLossPrice());
+        trade.setTakeProfitPrice(request.getTakeProfitPrice());
+        trade.setFees(defaultZero(request.getFees()));
+        trade.setCommission(defaultZero(request.getCommission()));
+        trade.setSlippage(defaultZero(request.getSlippage()));
+        trade.setRiskAmount(request.getRiskAmount());
+        trade.setCapitalUsed(request.getCapitalUsed());
+        trade.setTimeframe(request.getTimeframe());
+        trade.setSetup(request.getSetup());
+        trade.setStrategyTag(request.getStrategyTag());
+        trade.setCatalystTag(request.getCatalystTag());
+        trade.setNotes(request.getNotes());
+    }
+
     private BigDecimal defaultZero(BigDecimal value) {
         return value == null ? BigDecimal.ZERO : value;
     }
@@ -562,4 +1078,15 @@ public class TradeService {
                 .tags((trade.getTags() == null ? java.util.Collections.<String>emptySet() : trade.getTags().stream().map(Tag::getName).collect(Collectors.toSet())))
                 .build();
     }
+
+    private record SearchFilter(OffsetDateTime openedAtFrom,
+                                OffsetDateTime openedAtTo,
+                                OffsetDateTime closedAtFrom,
+                                OffsetDateTime closedAtTo,
+                                String symbol,
+                                String strategy,
+                                Direction direction,
+                                com.tradevault.domain.enums.TradeStatus status) {
+        private static final SearchFilter NONE = new SearchFilter(null, null, null, null, null, null, null, null);
+    }
 }
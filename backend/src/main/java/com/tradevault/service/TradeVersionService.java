@@ -0,0 +1,49 @@
+package com.tradevault.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user counter that changes whenever a user's trades change. Cached analytics are keyed by it, so a
+ * bump makes every cached result for that user unreachable.
+ */
+@Service
+public class TradeVersionService {
+    private final long initialVersion = System.currentTimeMillis();
+    private final Map<UUID, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long currentVersion(UUID userId) {
+        AtomicLong version = versions.get(userId);
+        return version == null ? initialVersion : version.get();
+    }
+
+    /**
+     * Bumps the user's version once the surrounding transaction commits, or immediately when there is none.
+     * Bumping after commit keeps readers from caching pre-commit data under the new version.
+     */
+    public void bump(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(userId);
+                }
+            });
+            return;
+        }
+        increment(userId);
+    }
+
+    private void increment(UUID userId) {
+        versions.computeIfAbsent(userId, key -> new AtomicLong(initialVersion)).incrementAndGet();
+    }
+}
@@ -1,15 +1,19 @@
 package com.tradevault.service;
 
+import com.tradevault.analytics.TradeCoachAggregateService;
 import com.tradevault.dto.auth.UserDto;
 import com.tradevault.dto.user.UserSettingsRequest;
+import com.tradevault.repository.TradeRepository;
 import com.tradevault.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZoneId;
 import java.util.Locale;
 import java.util.Set;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -18,6 +22,9 @@ public class UserService {
 
     private final CurrentUserService currentUserService;
     private final UserRepository userRepository;
+    private final TradeRepository tradeRepository;
+    private final TradeCoachAggregateService tradeCoachAggregateService;
+    private final TradeVersionService tradeVersionService;
 
     public UserDto getCurrentUserProfile() {
         var user = currentUserService.getCurrentUser();
@@ -31,6 +38,7 @@ public class UserService {
         var user = currentUserService.getCurrentUser();
         var entity = userRepository.findById(user.getId())
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        ZoneId previousZone = TimezoneService.userZone(entity);
         entity.setBaseCurrency(request.getBaseCurrency());
         entity.setTimezone(request.getTimezone());
         String themePreference = request.getThemePreference();
@@ -44,6 +52,22 @@ public class UserService {
         }
         entity.setThemePreference(themePreference);
         userRepository.save(entity);
+        ZoneId zone = TimezoneService.userZone(entity);
+        if (!zone.equals(previousZone)) {
+            recomputeDerivedColumns(entity.getId(), zone);
+        }
         return UserDto.from(entity);
     }
+
+    /**
+     * Moves the user's stored trade local fields to {@code zone} with one set-based UPDATE. Readers fall back to
+     * converting timestamps for trades whose fields are in another zone, so results stay correct meanwhile.
+     * Analytics and coach results grouped in the old zone are dropped: the coach aggregates are rebuilt on the
+     * next read and the version bump retires cached analytics.
+     */
+    private void recomputeDerivedColumns(UUID userId, ZoneId zone) {
+        tradeRepository.updateLocalFields(userId, zone.getId());
+        tradeCoachAggregateService.invalidate(userId);
+        tradeVersionService.bump(userId);
+    }
 }
@@ -0,0 +1,4 @@
+-- Analytics filters run in SQL; the date range uses opened_at or closed_at depending on the date mode.
+CREATE INDEX IF NOT EXISTS idx_trades_user_opened_at ON trades (user_id, opened_at);
+CREATE INDEX IF NOT EXISTS idx_trades_user_setup_lower ON trades (user_id, lower(setup));
+CREATE INDEX IF NOT EXISTS idx_trades_user_catalyst_lower ON trades (user_id, lower(catalyst_tag));
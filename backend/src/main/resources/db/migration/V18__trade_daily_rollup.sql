@@ -0,0 +1,25 @@
+-- Per-day P&L rollup read by the calendar and monthly summary instead of aggregating every trade.
+-- Rows exist only for days with at least one trade; basis OPEN groups by opened_at, CLOSE by closed_at of closed trades.
+CREATE TABLE IF NOT EXISTS trade_daily_rollup (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    tz VARCHAR(64) NOT NULL,
+    basis VARCHAR(8) NOT NULL,
+    local_date DATE NOT NULL,
+    net_pnl NUMERIC(20,4) NOT NULL DEFAULT 0,
+    gross_pnl NUMERIC(20,4) NOT NULL DEFAULT 0,
+    fees NUMERIC(20,4) NOT NULL DEFAULT 0,
+    trade_count INTEGER NOT NULL,
+    wins INTEGER NOT NULL,
+    losses INTEGER NOT NULL,
+    PRIMARY KEY (user_id, tz, basis, local_date)
+);
+
+-- Time zones materialized per user; a zone is built on first read and maintained on every trade write afterwards.
+CREATE TABLE IF NOT EXISTS trade_daily_rollup_zone (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    tz VARCHAR(64) NOT NULL,
+    built_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, tz)
+);
+
+CREATE INDEX IF NOT EXISTS idx_trade_daily_rollup_zone_built_at ON trade_daily_rollup_zone (built_at);
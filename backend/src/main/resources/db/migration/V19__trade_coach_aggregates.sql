@@ -0,0 +1,36 @@
+-- Running coach totals per user: closed-trade stats per dimension ('overall', 'hour', 'symbol', 'holding', 'day', 'cluster')
+-- and group key, maintained by signed deltas on every trade write. Rows exist only for groups with at least one trade.
+CREATE TABLE IF NOT EXISTS trade_coach_group_stats (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    dimension VARCHAR(16) NOT NULL,
+    group_key VARCHAR(128) NOT NULL,
+    trade_count INTEGER NOT NULL,
+    wins INTEGER NOT NULL,
+    losses INTEGER NOT NULL,
+    total_net NUMERIC NOT NULL DEFAULT 0,
+    total_costs NUMERIC NOT NULL DEFAULT 0,
+    sum_wins NUMERIC NOT NULL DEFAULT 0,
+    sum_losses NUMERIC NOT NULL DEFAULT 0,
+    total_r NUMERIC NOT NULL DEFAULT 0,
+    r_count INTEGER NOT NULL,
+    PRIMARY KEY (user_id, dimension, group_key)
+);
+
+-- One row per user whose coach aggregates are materialized. advice holds the default coach view as JSON and is
+-- cleared by every delta; revision lets a reader store advice only if no delta landed while it was computed.
+CREATE TABLE IF NOT EXISTS trade_coach_state (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    cluster_minutes INTEGER NOT NULL,
+    total_trades INTEGER NOT NULL,
+    closed_trades INTEGER NOT NULL,
+    missing_closed_at INTEGER NOT NULL,
+    missing_pnl_net INTEGER NOT NULL,
+    missing_entry_exit INTEGER NOT NULL,
+    inconsistent_pnl INTEGER NOT NULL,
+    revision BIGINT NOT NULL DEFAULT 0,
+    advice TEXT,
+    advice_config VARCHAR(64),
+    built_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_trade_coach_state_built_at ON trade_coach_state (built_at);
@@ -0,0 +1,48 @@
+-- Values derived from a trade's own columns, stored at write time so analytics, coach and calendar reads do not
+-- recompute them per trade. Local fields are in local_tz, the owner's time zone when the trade was written; readers
+-- use them only when local_tz is the zone they group by and convert closed_at/opened_at otherwise.
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS local_tz VARCHAR(64);
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS opened_local_date DATE;
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS closed_local_date DATE;
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS opened_hour INTEGER;
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS closed_hour INTEGER;
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS opened_dow INTEGER;
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS closed_dow INTEGER;
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS holding_minutes BIGINT;
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS holding_bucket VARCHAR(8);
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS r_estimate NUMERIC(20,4);
+
+-- Backfill in each owner's zone; unknown or blank zones fall back to the application default like TimezoneService does.
+WITH zones AS (
+    SELECT u.id AS user_id,
+           CASE WHEN EXISTS (SELECT 1 FROM pg_timezone_names z WHERE z.name = u.timezone)
+                THEN u.timezone ELSE 'Europe/Bucharest' END AS tz
+    FROM users u
+)
+UPDATE trades t
+SET local_tz = z.tz,
+    opened_local_date = CAST((t.opened_at AT TIME ZONE z.tz) AS date),
+    closed_local_date = CAST((t.closed_at AT TIME ZONE z.tz) AS date),
+    opened_hour = EXTRACT(HOUR FROM (t.opened_at AT TIME ZONE z.tz)),
+    closed_hour = EXTRACT(HOUR FROM (t.closed_at AT TIME ZONE z.tz)),
+    opened_dow = EXTRACT(ISODOW FROM (t.opened_at AT TIME ZONE z.tz)),
+    closed_dow = EXTRACT(ISODOW FROM (t.closed_at AT TIME ZONE z.tz)),
+    holding_minutes = TRUNC(EXTRACT(EPOCH FROM (t.closed_at - t.opened_at)) / 60),
+    holding_bucket = CASE
+        WHEN t.opened_at IS NULL OR t.closed_at IS NULL THEN NULL
+        WHEN TRUNC(EXTRACT(EPOCH FROM (t.closed_at - t.opened_at)) / 60) < 5 THEN '<5m'
+        WHEN TRUNC(EXTRACT(EPOCH FROM (t.closed_at - t.opened_at)) / 60) < 15 THEN '5-15m'
+        WHEN TRUNC(EXTRACT(EPOCH FROM (t.closed_at - t.opened_at)) / 60) < 60 THEN '15-60m'
+        WHEN TRUNC(EXTRACT(EPOCH FROM (t.closed_at - t.opened_at)) / 60) < 240 THEN '1-4h'
+        ELSE '>4h' END,
+    r_estimate = CASE
+        WHEN t.r_multiple IS NOT NULL THEN t.r_multiple
+        WHEN t.risk_amount IS NOT NULL AND t.risk_amount <> 0 THEN ROUND(COALESCE(t.pnl_net, 0) / t.risk_amount, 4)
+        END
+FROM zones z
+WHERE z.user_id = t.user_id;
+
+-- Calendar day lookups and rollup rebuilds read the stored local date instead of converting every trade.
+CREATE INDEX IF NOT EXISTS idx_trades_user_closed_local_date ON trades (user_id, local_tz, closed_local_date)
+    WHERE status = 'CLOSED';
+CREATE INDEX IF NOT EXISTS idx_trades_user_opened_local_date ON trades (user_id, local_tz, opened_local_date);
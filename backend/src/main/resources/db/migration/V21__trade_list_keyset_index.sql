@@ -0,0 +1,9 @@
+-- Trade lists page by keyset on (opened_at DESC, created_at DESC, id DESC). created_at becomes mandatory so the
+-- keyset is total; trades written without one take their open time, which is what imports already store.
+UPDATE trades SET created_at = opened_at WHERE created_at IS NULL;
+ALTER TABLE trades ALTER COLUMN created_at SET NOT NULL;
+
+-- Serves the list order and every page after a cursor; its (user_id, opened_at) prefix also covers the opened_at
+-- range filters the narrower V17 index was added for.
+CREATE INDEX IF NOT EXISTS idx_trades_user_list_order ON trades (user_id, opened_at DESC, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_trades_user_opened_at;
@@ -0,0 +1,21 @@
+-- Only the owner's profile zone stays materialized; the calendar aggregates any other requested zone on read.
+-- Drop the zones earlier reads of other zones left behind, so trade writes stop refreshing them.
+WITH profile AS (
+    SELECT u.id AS user_id,
+           CASE WHEN EXISTS (SELECT 1 FROM pg_timezone_names z WHERE z.name = u.timezone)
+                THEN u.timezone ELSE 'Europe/Bucharest' END AS tz
+    FROM users u
+)
+DELETE FROM trade_daily_rollup r
+USING profile p
+WHERE r.user_id = p.user_id AND r.tz <> p.tz;
+
+WITH profile AS (
+    SELECT u.id AS user_id,
+           CASE WHEN EXISTS (SELECT 1 FROM pg_timezone_names z WHERE z.name = u.timezone)
+                THEN u.timezone ELSE 'Europe/Bucharest' END AS tz
+    FROM users u
+)
+DELETE FROM trade_daily_rollup_zone r
+USING profile p
+WHERE r.user_id = p.user_id AND r.tz <> p.tz;
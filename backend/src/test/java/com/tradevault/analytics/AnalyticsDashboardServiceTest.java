@@ -0,0 +1,70 @@
+package com.tradevault.analytics;
+
+import com.tradevault.config.TradeCoachConfig;
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.entity.User;
+import com.tradevault.dto.analytics.AnalyticsDashboardResponse;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.service.CurrentUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+class AnalyticsDashboardServiceTest {
+
+    private TradeRepository tradeRepository;
+    private AnalyticsService analyticsService;
+    private TradeCoachService tradeCoachService;
+    private AnalyticsDashboardService dashboardService;
+
+    @BeforeEach
+    void setup() {
+        tradeRepository = Mockito.mock(TradeRepository.class);
+        CurrentUserService currentUserService = Mockito.mock(CurrentUserService.class);
+        analyticsService = new AnalyticsService(tradeRepository, currentUserService, AnalyticsFixtures.disabledCache(), AnalyticsFixtures.serialSections(), AnalyticsFixtures.metrics());
+        TradeCoachConfig coachConfig = new TradeCoachConfig();
+        coachConfig.setStoredAdvice(false);
+        tradeCoachService = new TradeCoachService(tradeRepository, currentUserService, coachConfig, AnalyticsFixtures.disabledCache(), AnalyticsFixtures.metrics(), null);
+        dashboardService = new AnalyticsDashboardService(analyticsService, tradeCoachService);
+        User user = User.builder().id(UUID.randomUUID()).email("dashboard@example.com").build();
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+        List<Trade> trades = AnalyticsFixtures.mixedJournal(7L, 400);
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(trades, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+        when(tradeRepository.findFilterOptionValues(Mockito.any())).thenReturn(AnalyticsFixtures.filterOptionValues(trades));
+    }
+
+    @Test
+    void dashboardLoadsTradesOnceAndMatchesSingleEndpoints() {
+        AnalyticsDashboardResponse dashboard = dashboardService.dashboard(null, null, "aapl,nq", null, null, null, null, null, null, "CLOSE",
+                null, "symbol, hour,dow", true, null, false, "week", 20, "7,50", null);
+        Mockito.verify(tradeRepository, Mockito.times(1)).findAnalyticsRows(Mockito.any());
+
+        assertEquals(analyticsService.summarize(null, null, "aapl,nq", null, null, null, null, null, null, "CLOSE", true, null, false), dashboard.getSummary());
+        assertEquals(analyticsService.timeseries(null, null, "aapl,nq", null, null, null, null, null, null, "CLOSE", "week", 20, "7,50"), dashboard.getTimeseries());
+        assertEquals(List.of("symbol", "hour", "dow"), List.copyOf(dashboard.getBreakdowns().keySet()));
+        assertEquals(analyticsService.breakdown(null, null, "aapl,nq", null, null, null, null, null, null, "CLOSE", "hour"), dashboard.getBreakdowns().get("hour"));
+        assertEquals(tradeCoachService.coach(null, null, "aapl,nq", null, null, null, null, null, null, "CLOSE", true, false, null), dashboard.getCoach());
+    }
+
+    @Test
+    void dashboardReturnsOnlyRequestedSections() {
+        AnalyticsDashboardResponse dashboard = dashboardService.dashboard(null, null, null, null, null, null, null, null, null, null,
+                "coach", null, false, null, false, null, null, null, null);
+
+        assertNull(dashboard.getSummary());
+        assertNull(dashboard.getTimeseries());
+        assertNull(dashboard.getBreakdowns());
+        assertEquals(tradeCoachService.coach(null, null, null, null, null, null, null, null, null, null, false, false, null), dashboard.getCoach());
+        assertThrows(IllegalArgumentException.class, () -> dashboardService.dashboard(null, null, null, null, null, null, null, null, null, null,
+                "summary,heatmap", null, false, null, false, null, null, null, null));
+    }
+}
@@ -0,0 +1,229 @@
+package com.tradevault.analytics;
+
+import com.tradevault.config.AnalyticsCacheConfig;
+import com.tradevault.config.AnalyticsParallelConfig;
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.Market;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.DateMode;
+import com.tradevault.repository.TradeAnalyticsRow;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.repository.spec.TradeAnalyticsQuery;
+import com.tradevault.service.TradeVersionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Deterministic trade journals for analytics tests. The mixed dataset deliberately contains the
+ * awkward rows real journals accumulate: missing P&L, mixed decimal scales, open trades with a close
+ * time, closed trades without one, negative holding times and identical close timestamps.
+ */
+final class AnalyticsFixtures {
+
+    private static final String[] SYMBOLS = {"AAPL", "aapl", "NQ", "EURUSD", "TSLA", " MSFT ", "BTCUSD", ""};
+    private static final String[] STRATEGIES = {"Breakout", "Pullback", null, "", "Unspecified", "breakout", "Reversal", "  "};
+    private static final String[] SETUPS = {"Opening range", "VWAP reclaim", null, "Gap fill", ""};
+    private static final String[] CATALYSTS = {"Earnings", null, "Macro", "None", ""};
+    private static final Market[] MARKETS = {Market.STOCK, Market.FUTURES, Market.FOREX, Market.CRYPTO, null};
+
+    private AnalyticsFixtures() {
+    }
+
+    static AnalyticsResultCache disabledCache() {
+        AnalyticsCacheConfig config = new AnalyticsCacheConfig();
+        config.setEnabled(false);
+        return new AnalyticsResultCache(config, new TradeVersionService(), new SimpleMeterRegistry());
+    }
+
+    static AnalyticsSectionExecutor serialSections() {
+        return new AnalyticsSectionExecutor(new AnalyticsParallelConfig(), new SimpleMeterRegistry());
+    }
+
+    static AnalyticsMetrics metrics() {
+        return new AnalyticsMetrics(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Evaluates the query the way its SQL predicates do, standing in for the repository in unit tests.
+     */
+    static List<TradeAnalyticsRow> matching(List<Trade> trades, TradeAnalyticsQuery query) {
+        return trades.stream()
+                .filter(trade -> matches(trade, query))
+                .map(TradeAnalyticsRow::from)
+                .toList();
+    }
+
+    static List<TradeRepository.FilterOptionValue> filterOptionValues(List<Trade> trades) {
+        List<TradeRepository.FilterOptionValue> values = new ArrayList<>();
+        trades.stream().map(Trade::getSymbol).filter(v -> v != null).distinct().forEach(v -> values.add(new OptionValue("symbol", v)));
+        trades.stream().map(Trade::getMarket).filter(v -> v != null).distinct().forEach(v -> values.add(new OptionValue("market", v.name())));
+        trades.stream().map(Trade::getStrategyTag).filter(v -> v != null).distinct().forEach(v -> values.add(new OptionValue("strategy", v)));
+        trades.stream().map(Trade::getSetup).filter(v -> v != null).distinct().forEach(v -> values.add(new OptionValue("setup", v)));
+        trades.stream().map(Trade::getCatalystTag).filter(v -> v != null).distinct().forEach(v -> values.add(new OptionValue("catalyst", v)));
+        return values;
+    }
+
+    private static boolean matches(Trade trade, TradeAnalyticsQuery query) {
+        if (query.from() != null || query.to() != null) {
+            OffsetDateTime time = query.dateMode() == DateMode.OPEN ? trade.getOpenedAt() : trade.getClosedAt();
+            if (time == null) return false;
+            if (query.from() != null && time.isBefore(query.from())) return false;
+            if (query.to() != null && time.isAfter(query.to())) return false;
+        }
+        return lowercaseIn(trade.getSymbol(), query.symbols())
+                && lowercaseIn(trade.getStrategyTag(), query.strategies())
+                && lowercaseIn(trade.getSetup(), query.setups())
+                && lowercaseIn(trade.getCatalystTag(), query.catalysts())
+                && (query.markets() == null || (trade.getMarket() != null && query.markets().contains(trade.getMarket())))
+                && (query.direction() == null || trade.getDirection() == query.direction())
+                && (query.status() == null || trade.getStatus() == query.status());
+    }
+
+    private static boolean lowercaseIn(String value, Set<String> values) {
+        return values == null || (value != null && values.contains(value.toLowerCase(Locale.ROOT)));
+    }
+
+    private record OptionValue(String kind, String value) implements TradeRepository.FilterOptionValue {
+        @Override
+        public String getKind() {
+            return kind;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+    }
+
+    static List<Trade> mixedJournal(long seed, int size) {
+        Random random = new Random(seed);
+        OffsetDateTime base = OffsetDateTime.of(2024, 1, 1, 6, 30, 0, 0, ZoneOffset.UTC);
+        List<Trade> trades = new ArrayList<>(size);
+        OffsetDateTime previousClose = null;
+        for (int i = 0; i < size; i++) {
+            Trade trade = new Trade();
+            trade.setId(new UUID(seed, i));
+            trade.setSymbol(SYMBOLS[random.nextInt(SYMBOLS.length)]);
+            trade.setMarket(MARKETS[random.nextInt(MARKETS.length)]);
+            trade.setDirection(random.nextInt(20) == 0 ? null : random.nextBoolean() ? Direction.LONG : Direction.SHORT);
+            trade.setStatus(random.nextInt(7) == 0 ? TradeStatus.OPEN : TradeStatus.CLOSED);
+            trade.setStrategyTag(STRATEGIES[random.nextInt(STRATEGIES.length)]);
+            trade.setSetup(SETUPS[random.nextInt(SETUPS.length)]);
+            trade.setCatalystTag(CATALYSTS[random.nextInt(CATALYSTS.length)]);
+
+            long openMinute = random.nextInt(60 * 24 * 240);
+            ZoneOffset offset = random.nextInt(4) == 0 ? ZoneOffset.ofHours(2) : ZoneOffset.UTC;
+            OffsetDateTime openedAt = base.plusMinutes(openMinute)
+                    .plusNanos(random.nextInt(4) == 0 ? random.nextInt(1_000_000) * 1_000L : 0)
+                    .withOffsetSameInstant(offset);
+            int closeRoll = random.nextInt(40);
+            OffsetDateTime closedAt;
+            if (closeRoll == 0) {
+                closedAt = null;
+            } else if (closeRoll == 1) {
+                closedAt = openedAt.minusMinutes(random.nextInt(90) + 1);
+            } else if (closeRoll == 2 && previousClose != null) {
+                closedAt = previousClose.withOffsetSameInstant(random.nextBoolean() ? ZoneOffset.UTC : ZoneOffset.ofHours(3));
+            } else {
+                int holdingMinutes = switch (random.nextInt(5)) {
+                    case 0 -> random.nextInt(5);
+                    case 1 -> 5 + random.nextInt(10);
+                    case 2 -> 15 + random.nextInt(45);
+                    case 3 -> 60 + random.nextInt(180);
+                    default -> 240 + random.nextInt(60 * 24 * 3);
+                };
+                closedAt = openedAt.plusMinutes(holdingMinutes).plusSeconds(random.nextInt(60));
+            }
+            if (trade.getStatus() == TradeStatus.OPEN && random.nextInt(3) != 0) {
+                closedAt = null;
+            }
+            trade.setOpenedAt(random.nextInt(150) == 0 ? null : openedAt);
+            trade.setClosedAt(closedAt);
+            if (closedAt != null) {
+                previousClose = closedAt;
+            }
+
+            BigDecimal pnlNet = randomPnl(random);
+            trade.setPnlNet(pnlNet);
+            BigDecimal fees = random.nextInt(6) == 0 ? null : BigDecimal.valueOf(random.nextInt(500), 2).setScale(4);
+            BigDecimal commission = random.nextInt(4) == 0 ? null : BigDecimal.valueOf(random.nextInt(300), 2);
+            BigDecimal slippage = random.nextInt(3) == 0 ? null : BigDecimal.valueOf(random.nextInt(90), 4);
+            trade.setFees(fees);
+            trade.setCommission(commission);
+            trade.setSlippage(slippage);
+            if (pnlNet != null && random.nextInt(8) != 0) {
+                trade.setPnlGross(pnlNet.add(fees == null ? BigDecimal.ZERO : fees));
+            }
+            if (random.nextInt(3) != 0) {
+                trade.setRMultiple(BigDecimal.valueOf(random.nextInt(1200) - 500, 2).setScale(random.nextBoolean() ? 4 : 2));
+            }
+            if (random.nextInt(3) == 0) {
+                trade.setRiskAmount(BigDecimal.valueOf(50 + random.nextInt(200)).setScale(4));
+            }
+            if (random.nextInt(4) == 0) {
+                trade.setRiskPercent(BigDecimal.valueOf(random.nextInt(300), 2));
+            }
+            if (random.nextInt(3) != 0) {
+                trade.setPnlPercent(BigDecimal.valueOf(random.nextInt(2000) - 900, 3));
+            }
+            trades.add(trade);
+        }
+        return trades;
+    }
+
+    static List<Trade> tinyJournal() {
+        OffsetDateTime base = OffsetDateTime.of(2024, 3, 4, 14, 0, 0, 0, ZoneOffset.UTC);
+        List<Trade> trades = new ArrayList<>();
+        trades.add(closed("AAPL", "Breakout", base, base.plusMinutes(3), new BigDecimal("10.5000")));
+        trades.add(closed("AAPL", "Breakout", base.plusDays(1), base.plusDays(1).plusMinutes(20), new BigDecimal("-4.25")));
+        trades.add(closed("NQ", null, base.plusDays(2), base.plusDays(2).plusHours(2), new BigDecimal("10.5")));
+        trades.add(closed("NQ", "Fade", base.plusDays(9), base.plusDays(9).plusHours(6), BigDecimal.ZERO));
+        return trades;
+    }
+
+    static List<Trade> flatJournal() {
+        OffsetDateTime base = OffsetDateTime.of(2024, 5, 6, 9, 0, 0, 0, ZoneOffset.UTC);
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            trades.add(closed("ES", "Scalp", base.plusHours(i), base.plusHours(i).plusMinutes(1), new BigDecimal("25.0000")));
+        }
+        return trades;
+    }
+
+    private static Trade closed(String symbol, String strategy, OffsetDateTime openedAt, OffsetDateTime closedAt, BigDecimal pnl) {
+        Trade trade = new Trade();
+        trade.setId(UUID.randomUUID());
+        trade.setSymbol(symbol);
+        trade.setStrategyTag(strategy);
+        trade.setMarket(Market.STOCK);
+        trade.setDirection(Direction.LONG);
+        trade.setStatus(TradeStatus.CLOSED);
+        trade.setOpenedAt(openedAt);
+        trade.setClosedAt(closedAt);
+        trade.setPnlNet(pnl);
+        trade.setPnlGross(pnl);
+        return trade;
+    }
+
+    private static BigDecimal randomPnl(Random random) {
+        int roll = random.nextInt(30);
+        if (roll == 0) return null;
+        if (roll == 1) return BigDecimal.ZERO;
+        if (roll == 2) return new BigDecimal("0.0000");
+        if (roll == 3) return BigDecimal.valueOf(random.nextInt(200) - 100);
+        if (roll == 4) return BigDecimal.valueOf(random.nextInt(20) * 125L, 2);
+        if (roll == 5) return BigDecimal.valueOf(random.nextInt(2) == 0 ? 250_000_00L : -180_000_00L, 2);
+        long cents = Math.round(random.nextGaussian() * 18_000) + 1_500;
+        return BigDecimal.valueOf(cents, 2).setScale(4);
+    }
+}
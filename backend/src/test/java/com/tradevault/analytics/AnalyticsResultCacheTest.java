@@ -0,0 +1,164 @@
+package com.tradevault.analytics;
+
+import com.tradevault.config.AnalyticsCacheConfig;
+import com.tradevault.dto.analytics.AnalyticsBreakdownCubeResponse;
+import com.tradevault.dto.analytics.AnalyticsBreakdownResponse;
+import com.tradevault.dto.analytics.AnalyticsTimeseriesResponse;
+import com.tradevault.dto.analytics.BreakdownCubeRow;
+import com.tradevault.dto.analytics.BreakdownCubeView;
+import com.tradevault.dto.analytics.BreakdownRow;
+import com.tradevault.dto.analytics.RollingMetricPoint;
+import com.tradevault.dto.analytics.RollingSeries;
+import com.tradevault.service.TradeVersionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AnalyticsResultCacheTest {
+
+    private AnalyticsCacheConfig config;
+    private TradeVersionService tradeVersionService;
+    private SimpleMeterRegistry meterRegistry;
+    private AnalyticsResultCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        config = new AnalyticsCacheConfig();
+        tradeVersionService = new TradeVersionService();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AnalyticsResultCache(config, tradeVersionService, meterRegistry);
+    }
+
+    @Test
+    void equivalentFiltersShareOneEntry() {
+        UUID userId = UUID.randomUUID();
+        OffsetDateTime from = OffsetDateTime.of(2024, 3, 1, 0, 0, 0, 0, ZoneOffset.ofHours(2));
+        AnalyticsFilterKey first = AnalyticsFilterKey.of(from, null, "AAPL, nq", null, null, null, null, null, null, null, false, null);
+        AnalyticsFilterKey second = AnalyticsFilterKey.of(from.withOffsetSameInstant(ZoneOffset.UTC), null, "nq,aapl,AAPL", null, null, null, null, null, null, "close", false, " ");
+
+        Object cached = cache.get(userId, "breakdown", first, "symbol", this::load);
+        assertSame(cached, cache.get(userId, "breakdown", second, "symbol", this::load));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void separatorOnlyListDoesNotMatchUnfilteredKey() {
+        assertNotEquals(
+                AnalyticsFilterKey.of(null, null, null, null, null, null, null, null, null, null, false, null),
+                AnalyticsFilterKey.of(null, null, " , ", null, null, null, null, null, null, null, false, null));
+    }
+
+    @Test
+    void versionBumpInvalidatesOnlyThatUser() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        AnalyticsFilterKey key = AnalyticsFilterKey.of(null, null, null, null, null, null, null, null, null, null, false, null);
+        cache.get(userId, "summary", key, null, this::load);
+        cache.get(otherUserId, "summary", key, null, this::load);
+
+        tradeVersionService.bump(userId);
+        cache.get(userId, "summary", key, null, this::load);
+        cache.get(otherUserId, "summary", key, null, this::load);
+
+        assertEquals(3, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "invalidated").counter().count());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedUserWhenOverWeight() {
+        config.setMaxWeight(25);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        AnalyticsFilterKey key = AnalyticsFilterKey.of(null, null, null, null, null, null, null, null, null, null, false, null);
+        cache.get(first, "breakdown", key, "symbol", () -> response(10));
+        cache.get(second, "breakdown", key, "symbol", () -> response(10));
+        cache.get(first, "breakdown", key, "symbol", () -> response(10));
+        cache.get(second, "breakdown", key, "hour", () -> response(10));
+
+        assertEquals(2, cache.size());
+        assertEquals(22, cache.weight());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "weight").counter().count());
+        cache.get(first, "breakdown", key, "symbol", this::load);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void capsEntriesPerUser() {
+        config.setMaxEntriesPerUser(2);
+        UUID userId = UUID.randomUUID();
+        AnalyticsFilterKey key = AnalyticsFilterKey.of(null, null, null, null, null, null, null, null, null, null, false, null);
+        for (String groupBy : List.of("symbol", "setup", "hour")) {
+            cache.get(userId, "breakdown", key, groupBy, this::load);
+        }
+        cache.get(userId, "breakdown", key, "symbol", this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(4, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        config.setEnabled(false);
+        UUID userId = UUID.randomUUID();
+        AnalyticsFilterKey key = AnalyticsFilterKey.of(null, null, null, null, null, null, null, null, null, null, false, null);
+        cache.get(userId, "summary", key, null, this::load);
+        cache.get(userId, "summary", key, null, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void weighsEveryRollingWindowOfATimeseries() {
+        AnalyticsTimeseriesResponse response = AnalyticsTimeseriesResponse.builder()
+                .rolling(points(5))
+                .rollingWindows(List.of(
+                        RollingSeries.builder().window(20).points(points(30)).build(),
+                        RollingSeries.builder().window(50).points(points(10)).build()))
+                .build();
+
+        assertEquals(1 + 5 + (1 + 30) + (1 + 10), AnalyticsResultCache.weigh(response));
+    }
+
+    @Test
+    void weighsEveryViewOfABreakdownCube() {
+        AnalyticsBreakdownCubeResponse response = AnalyticsBreakdownCubeResponse.builder()
+                .views(List.of(
+                        BreakdownCubeView.builder().name("symbol").rows(Collections.nCopies(12, BreakdownCubeRow.builder().build())).build(),
+                        BreakdownCubeView.builder().name("symbol:hour").rows(Collections.nCopies(40, BreakdownCubeRow.builder().build())).build()))
+                .build();
+
+        assertEquals(1 + (1 + 12) + (1 + 40), AnalyticsResultCache.weigh(response));
+    }
+
+    private AnalyticsBreakdownResponse load() {
+        loads.incrementAndGet();
+        return response(1);
+    }
+
+    private static List<RollingMetricPoint> points(int count) {
+        return Collections.nCopies(count, RollingMetricPoint.builder().build());
+    }
+
+    private static AnalyticsBreakdownResponse response(int rows) {
+        return AnalyticsBreakdownResponse.builder()
+                .rows(Collections.nCopies(rows, BreakdownRow.builder().name("row").build()))
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.tradevault.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.entity.User;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.service.CurrentUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the exact JSON produced by {@link AnalyticsService} for a set of deterministic journals.
+ * Run with {@code -Danalytics.golden.update=true} to rewrite the expected files after an intended change.
+ */
+class AnalyticsServiceGoldenTest {
+
+    private static final boolean UPDATE = Boolean.getBoolean("analytics.golden.update");
+    private static final Path GOLDEN_DIR = Path.of("src/test/resources/analytics/golden");
+    private static final OffsetDateTime FROM = OffsetDateTime.of(2024, 2, 1, 0, 0, 0, 0, ZoneOffset.ofHours(2));
+    private static final OffsetDateTime TO = OffsetDateTime.of(2024, 6, 30, 0, 0, 0, 0, ZoneOffset.ofHours(3)).plusDays(1).minusNanos(1);
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private TradeRepository tradeRepository;
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setup() {
+        tradeRepository = Mockito.mock(TradeRepository.class);
+        CurrentUserService currentUserService = Mockito.mock(CurrentUserService.class);
+        analyticsService = new AnalyticsService(tradeRepository, currentUserService, AnalyticsFixtures.disabledCache(), AnalyticsFixtures.serialSections(), AnalyticsFixtures.metrics());
+        User user = User.builder().id(UUID.randomUUID()).email("golden@example.com").build();
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+    }
+
+    @Test
+    void mixedJournalMatchesGolden() throws IOException {
+        stubTrades(AnalyticsFixtures.mixedJournal(42L, 360));
+        Map<String, Supplier<Object>> cases = new LinkedHashMap<>();
+        cases.put("summary-default", () -> analyticsService.summarize(null, null, null, null, null, null, null, null, null, "CLOSE", false, null, false));
+        cases.put("summary-open-outliers", () -> analyticsService.summarize(null, null, null, null, null, null, null, null, null, "OPEN", true, null, false));
+        cases.put("summary-range-lists", () -> analyticsService.summarize(FROM, TO, "aapl, nq ,eurusd", null, null, "breakout,pullback", null, null, "stock,futures", "CLOSE", false, null, false));
+        cases.put("summary-open-range", () -> analyticsService.summarize(FROM, TO, null, Direction.LONG, null, null, "vwap reclaim, gap fill", "earnings,macro", null, "open", false, null, false));
+        cases.put("summary-holding-bucket", () -> analyticsService.summarize(null, null, null, null, TradeStatus.CLOSED, null, null, null, null, "CLOSE", false, "15-60m", false));
+        cases.put("summary-status-open", () -> analyticsService.summarize(null, null, null, null, TradeStatus.OPEN, null, null, null, null, "CLOSE", false, null, false));
+        cases.put("summary-no-match", () -> analyticsService.summarize(null, null, "does-not-exist", null, null, null, null, null, null, "CLOSE", false, null, false));
+        cases.put("timeseries-day", () -> analyticsService.timeseries(null, null, null, null, null, null, null, null, null, "CLOSE", "day", null, null));
+        cases.put("timeseries-week-rolling", () -> analyticsService.timeseries(FROM, TO, null, Direction.SHORT, null, null, null, null, null, "OPEN", "week", 7, null));
+        cases.put("timeseries-rolling-large", () -> analyticsService.timeseries(null, null, null, null, null, null, null, null, null, "CLOSE", null, 40, null));
+        cases.put("timeseries-rolling-windows", () -> analyticsService.timeseries(null, null, null, null, null, null, null, null, null, "CLOSE", "day", 20, "200, 50,20,7"));
+        for (String groupBy : List.of("symbol", "strategy", "setup", "catalyst", "dow", "hour", "holdingBucket", "unknown")) {
+            cases.put("breakdown-" + groupBy, () -> analyticsService.breakdown(null, null, null, null, null, null, null, null, null, "CLOSE", groupBy));
+        }
+        cases.put("breakdown-hour-open-range", () -> analyticsService.breakdown(FROM, TO, null, null, null, null, null, null, null, "OPEN", "hour"));
+        assertCases("mixed", cases);
+    }
+
+    @Test
+    void smallJournalsMatchGolden() throws IOException {
+        stubTrades(AnalyticsFixtures.tinyJournal());
+        Map<String, Supplier<Object>> tiny = new LinkedHashMap<>();
+        tiny.put("summary", () -> analyticsService.summarize(null, null, null, null, null, null, null, null, null, null, false, null, false));
+        tiny.put("summary-outliers", () -> analyticsService.summarize(null, null, null, null, null, null, null, null, null, null, true, null, false));
+        tiny.put("timeseries", () -> analyticsService.timeseries(null, null, null, null, null, null, null, null, null, null, "week", 2, null));
+        assertCases("tiny", tiny);
+
+        stubTrades(AnalyticsFixtures.flatJournal());
+        Map<String, Supplier<Object>> flat = new LinkedHashMap<>();
+        flat.put("summary", () -> analyticsService.summarize(null, null, null, null, null, null, null, null, null, null, true, null, false));
+        assertCases("flat", flat);
+
+        stubTrades(List.of());
+        Map<String, Supplier<Object>> empty = new LinkedHashMap<>();
+        empty.put("summary", () -> analyticsService.summarize(null, null, null, null, null, null, null, null, null, null, false, null, false));
+        empty.put("timeseries", () -> analyticsService.timeseries(null, null, null, null, null, null, null, null, null, null, null, 20, null));
+        empty.put("breakdown", () -> analyticsService.breakdown(null, null, null, null, null, null, null, null, null, null, "dow"));
+        assertCases("empty", empty);
+    }
+
+    private void stubTrades(List<Trade> trades) {
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(trades, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+        when(tradeRepository.findFilterOptionValues(Mockito.any()))
+                .thenReturn(AnalyticsFixtures.filterOptionValues(trades));
+    }
+
+    private void assertCases(String dataset, Map<String, Supplier<Object>> cases) throws IOException {
+        for (Map.Entry<String, Supplier<Object>> entry : cases.entrySet()) {
+            String actual = mapper.writeValueAsString(entry.getValue().get()) + "\n";
+            String fileName = dataset + "-" + entry.getKey() + ".json";
+            if (UPDATE) {
+                Files.createDirectories(GOLDEN_DIR);
+                Files.writeString(GOLDEN_DIR.resolve(fileName), actual, StandardCharsets.UTF_8);
+                continue;
+            }
+            assertEquals(readGolden(fileName), actual, "Golden mismatch for " + fileName);
+        }
+    }
+
+    private String readGolden(String fileName) throws IOException {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream("analytics/golden/" + fileName)) {
+            assertNotNull(input, "Golden file " + fileName + " is missing");
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -2,13 +2,21 @@ package com.tradevault.analytics;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradevault.config.AnalyticsParallelConfig;
 import com.tradevault.domain.entity.Trade;
 import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.AnalyticsBreakdownCubeResponse;
 import com.tradevault.dto.analytics.AnalyticsResponse;
+import com.tradevault.dto.analytics.BreakdownCubeRow;
+import com.tradevault.dto.analytics.BreakdownCubeView;
+import com.tradevault.dto.analytics.BreakdownRow;
+import com.tradevault.repository.TradeAnalyticsRow;
 import com.tradevault.repository.TradeRepository;
 import com.tradevault.service.CurrentUserService;
+import com.tradevault.service.TradeDerivedColumns;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -17,12 +25,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -36,7 +52,7 @@ class AnalyticsServiceTest {
     void setup() {
         tradeRepository = Mockito.mock(TradeRepository.class);
         currentUserService = Mockito.mock(CurrentUserService.class);
-        analyticsService = new AnalyticsService(tradeRepository, currentUserService);
+        analyticsService = new AnalyticsService(tradeRepository, currentUserService, AnalyticsFixtures.disabledCache(), AnalyticsFixtures.serialSections(), AnalyticsFixtures.metrics());
         User user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
         when(currentUserService.getCurrentUser()).thenReturn(user);
     }
@@ -44,7 +60,8 @@ class AnalyticsServiceTest {
     @Test
     void summarizeComputesCoreMetricsFromFixture() throws IOException {
         List<Trade> trades = loadFixtureTrades();
-        when(tradeRepository.findByUserId(Mockito.any())).thenReturn(trades);
+        when(tradeRepository.findAnalyticsRows(Mockito.any()))
+                .thenReturn(trades.stream().map(TradeAnalyticsRow::from).toList());
 
         AnalyticsResponse response = analyticsService.summarize(
                 null,
@@ -58,7 +75,8 @@ class AnalyticsServiceTest {
                 null,
                 "CLOSE",
                 false,
-                null
+                null,
+                false
         );
 
         List<Trade> closedTrades = trades.stream()
@@ -78,6 +96,219 @@ class AnalyticsServiceTest {
         assertNotNull(response.getDistribution().getP50());
     }
 
+    @Test
+    void largeSamplesUseSketchesUnlessExactIsRequested() {
+        List<Trade> trades = AnalyticsFixtures.mixedJournal(5L, 70_000);
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(trades, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+
+        AnalyticsResponse exact = analyticsService.summarize(null, null, null, null, null, null, null, null, null, "CLOSE", false, null, true);
+        AnalyticsResponse sketched = analyticsService.summarize(null, null, null, null, null, null, null, null, null, "CLOSE", false, null, false);
+
+        assertEquals(exact.getKpi().getTotalPnlNet(), sketched.getKpi().getTotalPnlNet());
+        assertEquals(exact.getKpi().getTotalTrades(), sketched.getKpi().getTotalTrades());
+        assertEquals(exact.getDistribution().getOutlierCount(), sketched.getDistribution().getOutlierCount());
+        assertEquals(exact.getDistribution().getStandardDeviation(), sketched.getDistribution().getStandardDeviation(), 1e-6);
+        BigDecimal spread = exact.getDistribution().getP90().subtract(exact.getDistribution().getP10());
+        BigDecimal tolerance = spread.multiply(BigDecimal.valueOf(0.05));
+        assertTrue(exact.getDistribution().getP50().subtract(sketched.getDistribution().getP50()).abs().compareTo(tolerance) <= 0);
+        assertTrue(exact.getKpi().getMedianPnl().subtract(sketched.getKpi().getMedianPnl()).abs().compareTo(tolerance) <= 0);
+        int exactTotal = exact.getDistribution().getPnlHistogram().stream().mapToInt(bucket -> bucket.getCount()).sum();
+        int sketchedTotal = sketched.getDistribution().getPnlHistogram().stream().mapToInt(bucket -> bucket.getCount()).sum();
+        assertEquals(exactTotal, sketchedTotal);
+        assertEquals(exact.getRisk().getTradesWithRisk(), sketched.getRisk().getTradesWithRisk());
+    }
+
+    @Test
+    void parallelSectionsMatchSerialResults() {
+        List<Trade> trades = AnalyticsFixtures.mixedJournal(11L, 2_000);
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(trades, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+        AnalyticsParallelConfig config = new AnalyticsParallelConfig();
+        config.setEnabled(true);
+        config.setMinTrades(0);
+        config.setParallelism(4);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AnalyticsService parallelService = new AnalyticsService(tradeRepository, currentUserService,
+                AnalyticsFixtures.disabledCache(), new AnalyticsSectionExecutor(config, registry), new AnalyticsMetrics(registry));
+
+        assertEquals(analyticsService.summarize(null, null, null, null, null, null, null, null, null, "CLOSE", true, null, false),
+                parallelService.summarize(null, null, null, null, null, null, null, null, null, "CLOSE", true, null, false));
+        assertEquals(analyticsService.timeseries(null, null, null, null, null, null, null, null, null, "OPEN", "day", 20, "7,50"),
+                parallelService.timeseries(null, null, null, null, null, null, null, null, null, "OPEN", "day", 20, "7,50"));
+        assertEquals(1, registry.get("analytics.section").tags("endpoint", "summary", "section", "risk", "mode", "parallel").timer().count());
+    }
+
+    @Test
+    void stagesAreTimedAndRowsUsedAreTrackedPerEndpoint() {
+        List<Trade> trades = AnalyticsFixtures.mixedJournal(17L, 2_500);
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(trades, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AnalyticsMetrics metrics = new AnalyticsMetrics(registry);
+        AnalyticsService service = new AnalyticsService(tradeRepository, currentUserService,
+                AnalyticsFixtures.disabledCache(), new AnalyticsSectionExecutor(new AnalyticsParallelConfig(), registry), metrics);
+        AnalyticsDataset dataset = service.dataset(null, null, null, null, null, null, null, null, null, "CLOSE");
+
+        AnalyticsResponse summary = service.summarize(dataset, false, null, false, null);
+        service.breakdown(dataset, "symbol");
+
+        assertEquals(1, registry.get("analytics.stage").tags("endpoint", "summary", "stage", "load", "trades", "1k-10k").timer().count());
+        assertEquals(1, registry.get("analytics.stage").tags("endpoint", "summary", "stage", "columnar").timer().count());
+        assertEquals(1, registry.get("analytics.stage").tags("endpoint", "summary", "stage", "filter").timer().count());
+        assertEquals(1, registry.get("analytics.stage").tags("endpoint", "breakdown", "stage", "group").timer().count());
+        assertTrue(registry.find("analytics.stage").tags("endpoint", "breakdown", "stage", "load").timers().isEmpty());
+        assertEquals(1, registry.get("analytics.section").tags("endpoint", "summary", "section", "kpi", "trades", "1k-10k").timer().count());
+        assertEquals(2_500, registry.get("analytics.rows.loaded").tags("endpoint", "summary").gauge().value());
+        assertEquals(summary.getKpi().getTotalTrades(), (int) registry.get("analytics.rows.used").tags("endpoint", "summary").gauge().value());
+        assertEquals(2, registry.get("analytics.rows").tags("kind", "used").summaries().size());
+    }
+
+    @Test
+    void streamedSummarySendsEverySectionInOrderAndStopsWhenCancelled() {
+        List<Trade> trades = AnalyticsFixtures.mixedJournal(23L, 1_500);
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(trades, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+        AnalyticsDataset dataset = analyticsService.dataset(null, null, null, null, null, null, null, null, null, "CLOSE");
+
+        List<String> events = new ArrayList<>();
+        Map<String, Object> merged = new HashMap<>();
+        AnalyticsResponse streamed = analyticsService.summarizeStreaming(dataset, false, null, false, null, new AnalyticsEventSink() {
+            @Override
+            public void send(String event, Map<String, Object> data) {
+                events.add(event);
+                merged.putAll(data);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        });
+
+        assertEquals(List.copyOf(AnalyticsService.SUMMARY_EVENTS.keySet()), events);
+        AnalyticsResponse expected = analyticsService.summarize(null, null, null, null, null, null, null, null, null, "CLOSE", false, null, false);
+        assertEquals(expected, streamed);
+        assertEquals(expected.getKpi(), merged.get("kpi"));
+        assertEquals(expected.getEquityCurve(), merged.get("equityCurve"));
+        assertEquals(expected.getRolling50(), merged.get("rolling50"));
+
+        List<String> cancelledEvents = new ArrayList<>();
+        assertThrows(CancellationException.class, () -> analyticsService.summarizeStreaming(dataset, false, null, false, null, new AnalyticsEventSink() {
+            @Override
+            public void send(String event, Map<String, Object> data) {
+                cancelledEvents.add(event);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelledEvents.size() >= 2;
+            }
+        }));
+        assertEquals(List.of("kpi", "costs"), cancelledEvents);
+    }
+
+    @Test
+    void storedLocalFieldsGiveTheSameResultsAsConvertingTimestamps() {
+        List<Trade> converted = AnalyticsFixtures.mixedJournal(13L, 1_500);
+        List<Trade> stored = AnalyticsFixtures.mixedJournal(13L, 1_500);
+        stored.forEach(trade -> TradeDerivedColumns.apply(trade, ZoneId.of("Europe/Bucharest")));
+        AnalyticsService storedService = new AnalyticsService(storedRepository(stored), currentUserService,
+                AnalyticsFixtures.disabledCache(), AnalyticsFixtures.serialSections(), AnalyticsFixtures.metrics());
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(converted, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+
+        assertEquals(analyticsService.summarize(null, null, null, null, null, null, null, null, null, "CLOSE", false, null, true),
+                storedService.summarize(null, null, null, null, null, null, null, null, null, "CLOSE", false, null, true));
+        assertEquals(analyticsService.timeseries(null, null, null, null, null, null, null, null, null, "OPEN", "week", 20, "7,50"),
+                storedService.timeseries(null, null, null, null, null, null, null, null, null, "OPEN", "week", 20, "7,50"));
+        assertEquals(analyticsService.breakdown(null, null, null, null, null, null, null, null, null, "CLOSE", "dow"),
+                storedService.breakdown(null, null, null, null, null, null, null, null, null, "CLOSE", "dow"));
+    }
+
+    @Test
+    void localFieldsAreGroupedInTheUsersProfileZone() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        User user = User.builder().id(UUID.randomUUID()).email("zone@example.com").timezone(zone.getId()).build();
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+        List<Trade> converted = AnalyticsFixtures.mixedJournal(5L, 600);
+        List<Trade> stored = AnalyticsFixtures.mixedJournal(5L, 600);
+        stored.forEach(trade -> TradeDerivedColumns.apply(trade, zone));
+        AnalyticsService storedService = new AnalyticsService(storedRepository(stored), currentUserService,
+                AnalyticsFixtures.disabledCache(), AnalyticsFixtures.serialSections(), AnalyticsFixtures.metrics());
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(converted, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+
+        Map<String, Long> expected = converted.stream()
+                .filter(trade -> trade.getStatus() == TradeStatus.CLOSED && trade.getClosedAt() != null)
+                .collect(Collectors.groupingBy(trade -> String.format("%02d", trade.getClosedAt().atZoneSameInstant(zone).getHour()),
+                        Collectors.counting()));
+        for (AnalyticsService service : List.of(analyticsService, storedService)) {
+            Map<String, Long> hours = service.breakdown(null, null, null, null, null, null, null, null, null, "CLOSE", "hour")
+                    .getRows().stream()
+                    .filter(row -> row.getTrades() > 0)
+                    .collect(Collectors.toMap(BreakdownRow::getName, row -> (long) row.getTrades()));
+            assertEquals(expected, hours);
+        }
+    }
+
+    private static TradeRepository storedRepository(List<Trade> trades) {
+        TradeRepository repository = Mockito.mock(TradeRepository.class);
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(trades, invocation.getArgument(0)))
+                .when(repository).findAnalyticsRows(Mockito.any());
+        return repository;
+    }
+
+    @Test
+    void breakdownCubeMatchesSingleBreakdownsAndCrossesSumToThem() {
+        List<Trade> trades = AnalyticsFixtures.mixedJournal(17L, 3_000);
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(trades, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+
+        AnalyticsBreakdownCubeResponse cube = analyticsService.breakdownCube(null, null, null, null, null, null, null, null, null, "OPEN",
+                "symbol, hour,strategy:hour,symbol", 0);
+        AnalyticsBreakdownCubeResponse top = analyticsService.breakdownCube(null, null, null, null, null, null, null, null, null, "OPEN",
+                "strategy:hour", 3);
+
+        assertEquals(List.of("symbol", "hour", "strategy:hour"), cube.getViews().stream().map(BreakdownCubeView::getName).toList());
+        for (String groupBy : List.of("symbol", "hour")) {
+            Map<String, BreakdownRow> expected = analyticsService.breakdown(null, null, null, null, null, null, null, null, null, "OPEN", groupBy)
+                    .getRows().stream().filter(row -> row.getTrades() > 0)
+                    .collect(Collectors.toMap(BreakdownRow::getName, row -> row));
+            BreakdownCubeView view = cube.getViews().stream().filter(v -> v.getName().equals(groupBy)).findFirst().orElseThrow();
+            assertEquals(expected.size(), view.getRows().size());
+            for (BreakdownCubeRow row : view.getRows()) {
+                BreakdownRow single = expected.get(row.getKeys().get(0));
+                assertEquals(single.getTrades(), row.getTrades());
+                assertEquals(single.getNetPnl(), row.getNetPnl());
+                assertEquals(single.getWinRate(), row.getWinRate(), 1e-9);
+                assertEquals(single.getAveragePnl(), row.getAveragePnl());
+                assertEquals(single.getProfitFactor(), row.getProfitFactor());
+            }
+        }
+
+        BreakdownCubeView cross = cube.getViews().get(2);
+        BreakdownCubeView hours = cube.getViews().get(1);
+        assertEquals(hours.getRows().stream().mapToInt(BreakdownCubeRow::getTrades).sum(),
+                cross.getRows().stream().mapToInt(BreakdownCubeRow::getTrades).sum());
+        assertEquals(hours.getRows().stream().map(BreakdownCubeRow::getNetPnl).reduce(BigDecimal.ZERO, BigDecimal::add).compareTo(
+                cross.getRows().stream().map(BreakdownCubeRow::getNetPnl).reduce(BigDecimal.ZERO, BigDecimal::add)), 0);
+        assertFalse(cross.isTruncated());
+
+        BreakdownCubeView truncated = top.getViews().get(0);
+        assertTrue(truncated.isTruncated());
+        assertEquals(cross.getTotalGroups(), truncated.getTotalGroups());
+        assertEquals(cross.getRows().subList(0, 3), truncated.getRows());
+    }
+
+    @Test
+    void breakdownCubeRejectsUnknownDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.breakdownCube(
+                null, null, null, null, null, null, null, null, null, "OPEN", "symbol:market", 0));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.breakdownCube(
+                null, null, null, null, null, null, null, null, null, "OPEN", "symbol:hour:dow", 0));
+    }
+
     private List<Trade> loadFixtureTrades() throws IOException {
         ObjectMapper mapper = new ObjectMapper();
         try (InputStream input = getClass().getClassLoader().getResourceAsStream("trades-database.json")) {
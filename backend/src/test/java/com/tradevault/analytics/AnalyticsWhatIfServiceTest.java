@@ -0,0 +1,115 @@
+package com.tradevault.analytics;
+
+import com.tradevault.config.AnalyticsCacheConfig;
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.entity.User;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.AnalyticsWhatIfResponse;
+import com.tradevault.dto.analytics.KpiSummary;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.service.CurrentUserService;
+import com.tradevault.service.TradeVersionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+class AnalyticsWhatIfServiceTest {
+    private static final ZoneId DISPLAY_ZONE = ZoneId.of("Europe/Bucharest");
+
+    private TradeRepository tradeRepository;
+    private AnalyticsService analyticsService;
+    private List<Trade> trades;
+
+    @BeforeEach
+    void setup() {
+        tradeRepository = Mockito.mock(TradeRepository.class);
+        CurrentUserService currentUserService = Mockito.mock(CurrentUserService.class);
+        analyticsService = new AnalyticsService(tradeRepository, currentUserService, AnalyticsFixtures.disabledCache(), AnalyticsFixtures.serialSections(), AnalyticsFixtures.metrics());
+        User user = User.builder().id(UUID.randomUUID()).email("what-if@example.com").build();
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+        trades = AnalyticsFixtures.mixedJournal(31L, 3_000);
+        Mockito.doAnswer(invocation -> AnalyticsFixtures.matching(trades, invocation.getArgument(0)))
+                .when(tradeRepository).findAnalyticsRows(Mockito.any());
+        when(tradeRepository.findFilterOptionValues(Mockito.any())).thenReturn(AnalyticsFixtures.filterOptionValues(trades));
+    }
+
+    @Test
+    void scenarioMatchesTheSummaryOfTheSameFilters() {
+        AnalyticsWhatIfService service = new AnalyticsWhatIfService(analyticsService, AnalyticsFixtures.disabledCache(), AnalyticsFixtures.metrics());
+        OffsetDateTime from = OffsetDateTime.of(2024, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        OffsetDateTime to = OffsetDateTime.of(2024, 7, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+        AnalyticsWhatIfResponse response = service.whatIf(from, to, "aapl, NQ,tsla", "long", null, "breakout,pullback", null, null,
+                "stock,futures,forex", null, null, "1-4h", null, "OPEN", true);
+
+        KpiSummary expected = analyticsService.summarize(from, to, "aapl, NQ,tsla", Direction.LONG, null, "breakout,pullback", null, null,
+                "stock,futures,forex", "OPEN", false, "1-4h", true).getKpi();
+        assertEquals(expected, response.getScenario());
+        assertEquals(analyticsService.summarize(null, null, null, null, null, null, null, null, null, null, false, null, true).getKpi(),
+                response.getBaseline());
+        assertEquals(response.getScenario().getTotalPnlNet().subtract(response.getBaseline().getTotalPnlNet()),
+                response.getDelta().getTotalPnlNet());
+        assertEquals(response.getScenario().getClosedTrades() - response.getBaseline().getClosedTrades(),
+                response.getDelta().getClosedTrades());
+        assertEquals(trades.size(), response.getTotalTrades());
+    }
+
+    @Test
+    void exclusionsAndHourRangesCombineAsBitmapOperations() {
+        AnalyticsWhatIfService service = new AnalyticsWhatIfService(analyticsService, AnalyticsFixtures.disabledCache(), AnalyticsFixtures.metrics());
+
+        AnalyticsWhatIfResponse response = service.whatIf(null, null, null, null, "closed", null, null, null, null,
+                "9-11, 14", "mon-wed,5", null, "symbol:AAPL, strategy:breakout,hour:10", null, false);
+
+        Set<Integer> hours = Set.of(9, 11, 14);
+        Set<Integer> days = Set.of(1, 2, 3, 5);
+        long expected = trades.stream()
+                .filter(trade -> trade.getStatus() == TradeStatus.CLOSED && trade.getClosedAt() != null)
+                .filter(trade -> hours.contains(trade.getClosedAt().atZoneSameInstant(DISPLAY_ZONE).getHour()))
+                .filter(trade -> days.contains(trade.getClosedAt().atZoneSameInstant(DISPLAY_ZONE).getDayOfWeek().getValue()))
+                .filter(trade -> trade.getSymbol() == null || !trade.getSymbol().toLowerCase(Locale.ROOT).equals("aapl"))
+                .filter(trade -> trade.getStrategyTag() == null || !trade.getStrategyTag().toLowerCase(Locale.ROOT).equals("breakout"))
+                .count();
+        assertEquals(expected, response.getMatchedTrades());
+        assertEquals(expected, response.getScenario().getClosedTrades());
+    }
+
+    @Test
+    void snapshotIsLoadedOncePerTradeVersion() {
+        AnalyticsResultCache cache = new AnalyticsResultCache(new AnalyticsCacheConfig(), new TradeVersionService(), new SimpleMeterRegistry());
+        AnalyticsWhatIfService service = new AnalyticsWhatIfService(analyticsService, cache, AnalyticsFixtures.metrics());
+
+        service.whatIf(null, null, "nq", null, null, null, null, null, null, null, null, null, null, null, false);
+        service.whatIf(null, null, null, null, null, null, null, null, null, "9-17", null, null, "market:crypto", null, false);
+
+        Mockito.verify(tradeRepository, Mockito.times(1)).findAnalyticsRows(Mockito.any());
+    }
+
+    @Test
+    void rejectsMalformedFilters() {
+        AnalyticsWhatIfService service = new AnalyticsWhatIfService(analyticsService, AnalyticsFixtures.disabledCache(), AnalyticsFixtures.metrics());
+
+        assertThrows(IllegalArgumentException.class, () -> service.whatIf(null, null, null, null, null, null, null, null, null,
+                "24", null, null, null, null, false));
+        assertThrows(IllegalArgumentException.class, () -> service.whatIf(null, null, null, null, null, null, null, null, null,
+                "11-9", null, null, null, null, false));
+        assertThrows(IllegalArgumentException.class, () -> service.whatIf(null, null, null, null, null, null, null, null, null,
+                null, null, null, "symbol", null, false));
+        assertThrows(IllegalArgumentException.class, () -> service.whatIf(null, null, null, null, null, null, null, null, null,
+                null, null, null, "colour:red", null, false));
+    }
+}
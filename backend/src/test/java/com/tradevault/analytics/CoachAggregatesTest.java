@@ -0,0 +1,273 @@
+package com.tradevault.analytics;
+
+import com.tradevault.config.TradeCoachConfig;
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.entity.User;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.CoachResponse;
+import com.tradevault.dto.analytics.DateMode;
+import com.tradevault.repository.TradeAnalyticsRow;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.service.CurrentUserService;
+import com.tradevault.service.TradeDerivedColumns;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class CoachAggregatesTest {
+    private static final int CLUSTER_MINUTES = 180;
+    private static final ZoneId ZONE = ZoneId.of("Europe/Bucharest");
+
+    @Test
+    void incrementalWritesMatchAFullRebuild() {
+        List<TradeAnalyticsRow> journal = AnalyticsFixtures.mixedJournal(7L, 900).stream().map(TradeAnalyticsRow::from).toList();
+        Map<UUID, TradeAnalyticsRow> current = new LinkedHashMap<>();
+        journal.subList(0, 600).forEach(row -> current.put(row.id(), row));
+        CoachAggregates aggregates = build(current.values());
+
+        Random random = new Random(11);
+        for (TradeAnalyticsRow created : journal.subList(600, journal.size())) {
+            write(aggregates, current, null, created);
+            TradeAnalyticsRow existing = pick(current, random);
+            write(aggregates, current, existing, changed(existing, random));
+            if (random.nextInt(3) == 0) {
+                write(aggregates, current, pick(current, random), null);
+            }
+        }
+
+        CoachAggregates rebuilt = build(current.values());
+        assertTrue(rebuilt.clusters.count > 0, "Expected the journal to contain clusters");
+        assertSameTotals(rebuilt, aggregates);
+        assertEquals(rebuilt.dataQuality(), aggregates.dataQuality());
+    }
+
+    @Test
+    void batchedWritesOfNearbyTradesMatchAFullRebuild() {
+        List<TradeAnalyticsRow> journal = AnalyticsFixtures.mixedJournal(13L, 900).stream().map(TradeAnalyticsRow::from).toList();
+        Map<UUID, TradeAnalyticsRow> current = new LinkedHashMap<>();
+        journal.subList(0, 600).forEach(row -> current.put(row.id(), row));
+        CoachAggregates aggregates = build(current.values());
+
+        Random random = new Random(17);
+        for (int start = 600; start < journal.size(); start += 30) {
+            Map<UUID, TradeAnalyticsRow> before = new LinkedHashMap<>();
+            Map<UUID, TradeAnalyticsRow> after = new LinkedHashMap<>();
+            journal.subList(start, start + 30).forEach(row -> {
+                before.put(row.id(), null);
+                after.put(row.id(), row);
+            });
+            for (int i = 0; i < 20; i++) {
+                TradeAnalyticsRow existing = pick(current, random);
+                if (!before.containsKey(existing.id())) {
+                    before.put(existing.id(), existing);
+                    after.put(existing.id(), random.nextInt(4) == 0 ? null : changed(existing, random));
+                }
+            }
+            writeBatch(aggregates, current, before, after);
+        }
+
+        CoachAggregates rebuilt = build(current.values());
+        assertTrue(rebuilt.clusters.count > 0, "Expected the journal to contain clusters");
+        assertSameTotals(rebuilt, aggregates);
+        assertEquals(rebuilt.dataQuality(), aggregates.dataQuality());
+    }
+
+    @Test
+    void adviceFromStoredAggregatesMatchesTheComputedCoach() {
+        List<TradeAnalyticsRow> rows = AnalyticsFixtures.mixedJournal(5L, 700).stream().map(TradeAnalyticsRow::from).toList();
+        TradeRepository tradeRepository = Mockito.mock(TradeRepository.class);
+        CurrentUserService currentUserService = Mockito.mock(CurrentUserService.class);
+        when(currentUserService.getCurrentUser()).thenReturn(User.builder().id(UUID.randomUUID()).email("coach@example.com").build());
+        when(tradeRepository.findAnalyticsRows(Mockito.any())).thenReturn(rows);
+        TradeCoachConfig config = new TradeCoachConfig();
+        config.setStoredAdvice(false);
+        config.setOvertradingClusterMinutes(CLUSTER_MINUTES);
+        TradeCoachService tradeCoachService = new TradeCoachService(tradeRepository, currentUserService, config,
+                AnalyticsFixtures.disabledCache(), AnalyticsFixtures.metrics(), null);
+
+        CoachResponse computed = tradeCoachService.coach(null, null, null, null, null, null, null, null, null, null, false, false, null);
+        CoachAggregates aggregates = build(rows);
+        CoachAggregates stored = TradeCoachAggregateService.toAggregates(TradeCoachAggregateService.counts(aggregates),
+                TradeCoachAggregateService.groupRows(aggregates));
+
+        assertFalse(computed.getAdvice().isEmpty());
+        assertEquals(computed, tradeCoachService.advise(stored, DateMode.CLOSE, rows.size()));
+    }
+
+    @Test
+    void storedDerivedColumnsGiveTheSameMetricsAsConvertingTimestamps() {
+        List<Trade> converted = AnalyticsFixtures.mixedJournal(9L, 800);
+        List<Trade> stored = AnalyticsFixtures.mixedJournal(9L, 800);
+        stored.forEach(trade -> TradeDerivedColumns.apply(trade, ZONE));
+        for (DateMode mode : DateMode.values()) {
+            for (int i = 0; i < converted.size(); i++) {
+                assertEquals(CoachTradeMetrics.of(TradeAnalyticsRow.from(converted.get(i)), mode, ZONE),
+                        CoachTradeMetrics.of(TradeAnalyticsRow.from(stored.get(i)), mode, ZONE));
+            }
+        }
+    }
+
+    @Test
+    void clusterSweepCountsEveryTradeWithANeighbourWithinTheThresholdOnce() {
+        List<CoachTradeMetrics> metrics = AnalyticsFixtures.mixedJournal(3L, 1500).stream()
+                .map(TradeAnalyticsRow::from)
+                .map(row -> TradeCoachAggregateService.closedMetrics(row, ZONE))
+                .filter(Objects::nonNull)
+                .toList();
+        for (int minutes : new int[]{1, 10, 45, 240}) {
+            CoachGroupStats expected = new CoachGroupStats();
+            Duration threshold = Duration.ofMinutes(minutes);
+            for (CoachTradeMetrics metric : metrics) {
+                boolean member = metrics.stream().anyMatch(other -> other != metric
+                        && Duration.between(metric.eventTime(), other.eventTime()).abs().compareTo(threshold) < 0);
+                if (member) {
+                    expected.add(metric);
+                }
+            }
+            assertSameStats(minutes + "m", expected, CoachAggregates.clusterStats(metrics, minutes));
+        }
+    }
+
+    /**
+     * Mirrors {@link TradeCoachAggregateService#apply}: signed row and trade deltas, and cluster membership
+     * re-evaluated over the trades within two windows only.
+     */
+    private static void write(CoachAggregates aggregates, Map<UUID, TradeAnalyticsRow> current,
+                              TradeAnalyticsRow before, TradeAnalyticsRow after) {
+        UUID id = before != null ? before.id() : after.id();
+        if (after == null) {
+            current.remove(id);
+        } else {
+            current.put(id, after);
+        }
+        CoachTradeMetrics oldMetric = TradeCoachAggregateService.closedMetrics(before, ZONE);
+        CoachTradeMetrics newMetric = TradeCoachAggregateService.closedMetrics(after, ZONE);
+        if (before != null) {
+            aggregates.addRow(before, -1);
+            if (oldMetric != null) aggregates.addTrade(oldMetric, -1);
+        }
+        if (after != null) {
+            aggregates.addRow(after, 1);
+            if (newMetric != null) aggregates.addTrade(newMetric, 1);
+        }
+        Duration reach = Duration.ofMinutes(2L * CLUSTER_MINUTES);
+        List<CoachTradeMetrics> neighbours = current.values().stream()
+                .filter(row -> !row.id().equals(id))
+                .map(row -> TradeCoachAggregateService.closedMetrics(row, ZONE))
+                .filter(Objects::nonNull)
+                .filter(metric -> within(metric, oldMetric, reach) || within(metric, newMetric, reach))
+                .toList();
+        aggregates.addClusterChange(neighbours, oldMetric, newMetric, CLUSTER_MINUTES);
+    }
+
+    /**
+     * Mirrors the bulk {@link TradeCoachAggregateService#apply}: every trade's signed deltas, then one cluster
+     * re-evaluation over the trades within two windows of any changed trade.
+     */
+    private static void writeBatch(CoachAggregates aggregates, Map<UUID, TradeAnalyticsRow> current,
+                                   Map<UUID, TradeAnalyticsRow> before, Map<UUID, TradeAnalyticsRow> after) {
+        List<CoachTradeMetrics> removed = new ArrayList<>();
+        List<CoachTradeMetrics> added = new ArrayList<>();
+        before.forEach((id, row) -> {
+            if (row == null) return;
+            aggregates.addRow(row, -1);
+            CoachTradeMetrics metric = TradeCoachAggregateService.closedMetrics(row, ZONE);
+            if (metric != null) {
+                aggregates.addTrade(metric, -1);
+                removed.add(metric);
+            }
+        });
+        after.forEach((id, row) -> {
+            if (row == null) {
+                current.remove(id);
+                return;
+            }
+            current.put(id, row);
+            aggregates.addRow(row, 1);
+            CoachTradeMetrics metric = TradeCoachAggregateService.closedMetrics(row, ZONE);
+            if (metric != null) {
+                aggregates.addTrade(metric, 1);
+                added.add(metric);
+            }
+        });
+        Duration reach = Duration.ofMinutes(2L * CLUSTER_MINUTES);
+        List<CoachTradeMetrics> neighbours = current.values().stream()
+                .filter(row -> !before.containsKey(row.id()))
+                .map(row -> TradeCoachAggregateService.closedMetrics(row, ZONE))
+                .filter(Objects::nonNull)
+                .filter(metric -> removed.stream().anyMatch(anchor -> within(metric, anchor, reach))
+                        || added.stream().anyMatch(anchor -> within(metric, anchor, reach)))
+                .toList();
+        aggregates.addClusterChange(neighbours, removed, added, CLUSTER_MINUTES);
+    }
+
+    private static boolean within(CoachTradeMetrics metric, CoachTradeMetrics anchor, Duration reach) {
+        return anchor != null && Duration.between(anchor.eventTime(), metric.eventTime()).abs().compareTo(reach) <= 0;
+    }
+
+    private static CoachAggregates build(Collection<TradeAnalyticsRow> rows) {
+        List<CoachTradeMetrics> metrics = rows.stream()
+                .map(row -> TradeCoachAggregateService.closedMetrics(row, ZONE))
+                .filter(Objects::nonNull)
+                .toList();
+        return CoachAggregates.of(new ArrayList<>(rows), metrics, CLUSTER_MINUTES);
+    }
+
+    private static TradeAnalyticsRow pick(Map<UUID, TradeAnalyticsRow> current, Random random) {
+        return new ArrayList<>(current.values()).get(random.nextInt(current.size()));
+    }
+
+    private static TradeAnalyticsRow changed(TradeAnalyticsRow row, Random random) {
+        OffsetDateTime closedAt = row.closedAt() == null ? row.openedAt() : row.closedAt().plusMinutes(random.nextInt(600) - 300);
+        TradeStatus status = random.nextInt(10) == 0 ? TradeStatus.OPEN : TradeStatus.CLOSED;
+        BigDecimal pnlNet = BigDecimal.valueOf(random.nextInt(40_000) - 20_000, 2);
+        String symbol = random.nextBoolean() ? row.symbol() : "NQ";
+        return new TradeAnalyticsRow(row.id(), symbol, row.market(), row.direction(), status, row.openedAt(), closedAt,
+                row.quantity(), row.entryPrice(), row.exitPrice(), pnlNet, row.pnlGross(), row.fees(), row.commission(),
+                row.slippage(), row.rMultiple(), row.riskAmount(), row.riskPercent(), row.pnlPercent(),
+                row.strategyTag(), row.setup(), row.catalystTag());
+    }
+
+    private static void assertSameTotals(CoachAggregates expected, CoachAggregates actual) {
+        assertSameStats("overall", expected.overall, actual.overall);
+        assertSameStats("clusters", expected.clusters, actual.clusters);
+        assertSameGroups(expected.hours, actual.hours);
+        assertSameGroups(expected.symbols, actual.symbols);
+        assertSameGroups(expected.holdingBuckets, actual.holdingBuckets);
+        assertSameGroups(expected.days, actual.days);
+    }
+
+    private static <K> void assertSameGroups(Map<K, CoachGroupStats> expected, Map<K, CoachGroupStats> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((key, stats) -> assertSameStats(String.valueOf(key), stats, actual.get(key)));
+    }
+
+    private static void assertSameStats(String group, CoachGroupStats expected, CoachGroupStats actual) {
+        assertEquals(expected.count, actual.count, group);
+        assertEquals(expected.wins, actual.wins, group);
+        assertEquals(expected.losses, actual.losses, group);
+        assertEquals(expected.rCount, actual.rCount, group);
+        assertEquals(0, expected.totalNet.compareTo(actual.totalNet), group);
+        assertEquals(0, expected.totalCosts.compareTo(actual.totalCosts), group);
+        assertEquals(0, expected.sumWins.compareTo(actual.sumWins), group);
+        assertEquals(0, expected.sumLosses.compareTo(actual.sumLosses), group);
+        assertEquals(0, expected.totalR.compareTo(actual.totalR), group);
+    }
+}
@@ -6,6 +6,7 @@ import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.TradeStatus;
 import com.tradevault.dto.analytics.CoachResponse;
+import com.tradevault.repository.TradeAnalyticsRow;
 import com.tradevault.repository.TradeRepository;
 import com.tradevault.service.CurrentUserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +20,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -33,7 +36,8 @@ class TradeCoachServiceTest {
         tradeRepository = Mockito.mock(TradeRepository.class);
         currentUserService = Mockito.mock(CurrentUserService.class);
         TradeCoachConfig config = new TradeCoachConfig();
-        tradeCoachService = new TradeCoachService(tradeRepository, currentUserService, config);
+        config.setStoredAdvice(false);
+        tradeCoachService = new TradeCoachService(tradeRepository, currentUserService, config, AnalyticsFixtures.disabledCache(), AnalyticsFixtures.metrics(), null);
         User user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
         when(currentUserService.getCurrentUser()).thenReturn(user);
     }
@@ -41,7 +45,7 @@ class TradeCoachServiceTest {
     @Test
     void coachBuildsRuleBasedAdvice() {
         List<Trade> trades = buildTrades();
-        when(tradeRepository.findByUserId(Mockito.any())).thenReturn(trades);
+        when(tradeRepository.findAnalyticsRows(Mockito.any())).thenReturn(trades.stream().map(TradeAnalyticsRow::from).toList());
 
         CoachResponse response = tradeCoachService.coach(
                 null,
@@ -54,7 +58,9 @@ class TradeCoachServiceTest {
                 null,
                 null,
                 "CLOSE",
-                false
+                false,
+                false,
+                null
         );
 
         List<String> ids = response.getAdvice().stream().map(card -> card.getId()).toList();
@@ -66,6 +72,30 @@ class TradeCoachServiceTest {
         assertTrue(ids.contains("coach-data-quality"), "Expected data quality advice");
     }
 
+    @Test
+    void clusterThresholdCanBeTunedPerRequest() {
+        List<Trade> trades = new ArrayList<>();
+        OffsetDateTime start = OffsetDateTime.of(2024, 2, 5, 9, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < 12; i++) {
+            OffsetDateTime closedAt = start.plusMinutes(20L * i);
+            trades.add(buildTrade("ES", Direction.LONG, TradeStatus.CLOSED, closedAt.minusMinutes(2), closedAt,
+                    BigDecimal.valueOf(-30), BigDecimal.valueOf(10)));
+        }
+        when(tradeRepository.findAnalyticsRows(Mockito.any())).thenReturn(trades.stream().map(TradeAnalyticsRow::from).toList());
+
+        List<String> configured = adviceIds(tradeCoachService.coach(null, null, null, null, null, null, null, null, null, null, false, false, null));
+        List<String> widened = adviceIds(tradeCoachService.coach(null, null, null, null, null, null, null, null, null, null, false, false, 30));
+
+        assertFalse(configured.contains("coach-overtrading-clusters"), "Trades 20 minutes apart are not clustered at 10 minutes");
+        assertTrue(widened.contains("coach-overtrading-clusters"), "Expected clusters at a 30 minute threshold");
+        assertThrows(IllegalArgumentException.class,
+                () -> tradeCoachService.coach(null, null, null, null, null, null, null, null, null, null, false, false, 0));
+    }
+
+    private static List<String> adviceIds(CoachResponse response) {
+        return response.getAdvice().stream().map(card -> card.getId()).toList();
+    }
+
     private List<Trade> buildTrades() {
         List<Trade> trades = new ArrayList<>();
         OffsetDateTime baseDate = OffsetDateTime.of(2024, 1, 10, 7, 0, 0, 0, ZoneOffset.ofHours(2));
@@ -0,0 +1,108 @@
+package com.tradevault.analytics.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    @Test
+    void smallSamplesAreExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        double[] values = {5, -3, 12, 7, 7, 0, 1};
+        for (double value : values) {
+            sketch.accept(value);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int percentile = 1; percentile <= 100; percentile++) {
+            int index = Math.max(0, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+            assertEquals(sorted[index], sketch.quantile(percentile / 100.0), "p" + percentile);
+        }
+        assertEquals(4, sketch.rank(7, false));
+        assertEquals(6, sketch.rank(7, true));
+        assertEquals(-3, sketch.min());
+        assertEquals(12, sketch.max());
+    }
+
+    @Test
+    void largeSamplesStayWithinRankError() {
+        Random random = new Random(3);
+        int size = 200_000;
+        double[] values = new double[size];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.round(random.nextGaussian() * 18_000);
+            sketch.accept(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(size, sketch.count());
+        for (double fraction : new double[]{0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            double estimate = sketch.quantile(fraction);
+            assertRankClose(values, estimate, fraction, 0.01);
+        }
+    }
+
+    @Test
+    void mergedPartialsMatchTheWholeStream() {
+        Random random = new Random(9);
+        int size = 120_000;
+        double[] values = new double[size];
+        QuantileSketch[] perDay = new QuantileSketch[30];
+        RunningMoments[] momentsPerDay = new RunningMoments[30];
+        for (int day = 0; day < perDay.length; day++) {
+            perDay[day] = new QuantileSketch();
+            momentsPerDay[day] = new RunningMoments();
+        }
+        DoubleSummaryStatistics twoPass = new DoubleSummaryStatistics();
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(20_000) - 9_000;
+            perDay[i % perDay.length].accept(values[i]);
+            momentsPerDay[i % perDay.length].accept(values[i]);
+            twoPass.accept(values[i]);
+        }
+        QuantileSketch merged = new QuantileSketch();
+        RunningMoments moments = new RunningMoments();
+        for (int day = 0; day < perDay.length; day++) {
+            merged.merge(perDay[day]);
+            moments.merge(momentsPerDay[day]);
+        }
+        Arrays.sort(values);
+        assertEquals(size, merged.count());
+        assertEquals(values[0], merged.min());
+        assertEquals(values[size - 1], merged.max());
+        for (double fraction : new double[]{0.05, 0.5, 0.95}) {
+            assertRankClose(values, merged.quantile(fraction), fraction, 0.015);
+        }
+
+        double mean = twoPass.getAverage();
+        double squares = Arrays.stream(values).map(value -> (value - mean) * (value - mean)).sum();
+        assertEquals(mean, moments.mean(), 1e-6);
+        assertEquals(Math.sqrt(squares / size), moments.standardDeviation(), 1e-6);
+    }
+
+    private static void assertRankClose(double[] sorted, double estimate, double fraction, double tolerance) {
+        int below = lowerBound(sorted, estimate);
+        int atMost = lowerBound(sorted, Math.nextUp(estimate));
+        double target = fraction * sorted.length;
+        double error = target < below ? below - target : target > atMost ? target - atMost : 0;
+        assertTrue(error / sorted.length <= tolerance,
+                "quantile " + fraction + " off by " + error / sorted.length + " of the sample");
+    }
+
+    private static int lowerBound(double[] sorted, double key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
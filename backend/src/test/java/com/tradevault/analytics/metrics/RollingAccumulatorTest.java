@@ -0,0 +1,115 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.analytics.columnar.TradeColumns;
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.analytics.RollingMetricPoint;
+import com.tradevault.dto.analytics.RollingSeries;
+import com.tradevault.repository.TradeAnalyticsRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingAccumulatorTest {
+
+    @Test
+    void matchesRecomputingEveryWindow() {
+        List<BigDecimal> pnl = randomPnl(new Random(11), 400);
+        TradeColumns columns = columns(pnl);
+        int[] rows = IntStream.range(0, pnl.size()).toArray();
+        RollingAccumulator accumulator = new RollingAccumulator(columns, rows.length, new int[]{1, 2, 7, 50, 400, 401}, 0, true);
+        MetricPass.run(rows, accumulator);
+        List<RollingSeries> series = accumulator.finish();
+
+        for (RollingSeries window : series) {
+            int size = window.getWindow();
+            List<RollingMetricPoint> points = window.getPoints();
+            assertEquals(Math.max(0, pnl.size() - size + 1), points.size(), "window " + size);
+            for (int end = size - 1; end < pnl.size(); end++) {
+                List<BigDecimal> slice = pnl.subList(end - size + 1, end + 1);
+                RollingMetricPoint point = points.get(end - size + 1);
+                BigDecimal net = slice.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+                long wins = slice.stream().filter(value -> value.signum() > 0).count();
+                assertEquals(net.divide(BigDecimal.valueOf(size), 2, RoundingMode.HALF_UP), point.getAveragePnl());
+                assertEquals((double) wins / size * 100, point.getWinRate(), 1e-9);
+                assertEquals(median(slice), point.getMedianPnl(), "window " + size + " ending at " + end);
+            }
+        }
+    }
+
+    @Test
+    void medianIsOnlyComputedWhenAskedFor() {
+        List<BigDecimal> pnl = randomPnl(new Random(3), 60);
+        TradeColumns columns = columns(pnl);
+        int[] rows = IntStream.range(0, pnl.size()).toArray();
+        RollingAccumulator withMedian = new RollingAccumulator(columns, rows.length, new int[]{20}, 0, true);
+        RollingAccumulator withoutMedian = new RollingAccumulator(columns, rows.length, 20);
+        MetricPass.run(rows, withMedian, withoutMedian);
+
+        List<RollingMetricPoint> expected = RollingAccumulator.points(withMedian.finish(), 20);
+        List<RollingMetricPoint> points = RollingAccumulator.points(withoutMedian.finish(), 20);
+        assertEquals(expected.size(), points.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertNull(points.get(i).getMedianPnl());
+            expected.get(i).setMedianPnl(null);
+            assertEquals(expected.get(i), points.get(i));
+        }
+    }
+
+    @Test
+    void windowsLargerThanTheSampleAreEmpty() {
+        TradeColumns columns = columns(List.of(BigDecimal.ONE, BigDecimal.TEN));
+        RollingAccumulator accumulator = new RollingAccumulator(columns, 2, 3, 0);
+        MetricPass.run(new int[]{0, 1}, accumulator);
+        List<RollingSeries> series = accumulator.finish();
+        assertTrue(RollingAccumulator.points(series, 3).isEmpty());
+        assertTrue(RollingAccumulator.points(series, 0).isEmpty());
+        assertTrue(RollingAccumulator.points(series, 20).isEmpty());
+    }
+
+    private static BigDecimal median(List<BigDecimal> values) {
+        BigDecimal[] sorted = values.toArray(BigDecimal[]::new);
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        BigDecimal median = sorted.length % 2 == 0
+                ? sorted[mid - 1].add(sorted[mid]).divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP)
+                : sorted[mid];
+        return median.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static List<BigDecimal> randomPnl(Random random, int size) {
+        List<BigDecimal> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Few distinct values so windows hold many duplicates.
+            values.add(random.nextInt(5) == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(random.nextInt(41) - 20, 1).setScale(4));
+        }
+        return values;
+    }
+
+    private static TradeColumns columns(List<BigDecimal> pnl) {
+        OffsetDateTime base = OffsetDateTime.of(2024, 1, 2, 10, 0, 0, 0, ZoneOffset.UTC);
+        List<TradeAnalyticsRow> rows = new ArrayList<>(pnl.size());
+        for (int i = 0; i < pnl.size(); i++) {
+            Trade trade = new Trade();
+            trade.setStatus(TradeStatus.CLOSED);
+            trade.setOpenedAt(base.plusHours(i));
+            trade.setClosedAt(base.plusHours(i).plusMinutes(5));
+            trade.setPnlNet(pnl.get(i));
+            rows.add(TradeAnalyticsRow.from(trade));
+        }
+        return TradeColumns.of(rows, ZoneId.of("UTC"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.tradevault.analytics.metrics;
+
+import com.tradevault.dto.analytics.TimeSeriesPoint;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesDownsamplerTest {
+
+    @Test
+    void keepsEndpointsAndExtremesWithinTheBudget() {
+        Random random = new Random(7);
+        long[] values = new long[5_000];
+        for (int i = 1; i < values.length; i++) {
+            values[i] = values[i - 1] + random.nextInt(2_001) - 1_000;
+        }
+        values[3_217] = -10_000_000L;
+        SeriesDownsampler downsampler = new SeriesDownsampler(values.length, 200, 2);
+        for (int i = 0; i < values.length; i++) {
+            downsampler.add(19_000 + i, values[i], 2);
+        }
+        List<TimeSeriesPoint> points = downsampler.finish();
+
+        assertTrue(points.size() <= 200);
+        assertEquals(19_000, points.get(0).getDate().toEpochDay());
+        assertEquals(19_000 + values.length - 1, points.get(points.size() - 1).getDate().toEpochDay());
+        assertTrue(points.stream().anyMatch(point -> point.getValue().compareTo(BigDecimal.valueOf(-10_000_000L, 2)) == 0));
+        for (int i = 1; i < points.size(); i++) {
+            assertTrue(points.get(i - 1).getDate().isBefore(points.get(i).getDate()));
+        }
+    }
+
+    @Test
+    void shortSeriesAndNoBudgetKeepEveryPoint() {
+        for (int maxPoints : new int[]{0, 50}) {
+            SeriesDownsampler downsampler = new SeriesDownsampler(50, maxPoints, 0);
+            IntStream.range(0, 50).forEach(i -> downsampler.add(i, i, 0));
+            assertEquals(50, downsampler.finish().size());
+        }
+    }
+
+    @Test
+    void evenThinningKeepsExactlyTheBudget() {
+        long kept = IntStream.range(0, 1_000).filter(i -> SeriesDownsampler.keepEvenly(i, 1_000, 100)).count();
+        assertTrue(kept <= 100);
+        assertTrue(SeriesDownsampler.keepEvenly(0, 1_000, 100));
+        assertTrue(SeriesDownsampler.keepEvenly(999, 1_000, 100));
+    }
+}
@@ -0,0 +1,79 @@
+package com.tradevault.config;
+
+import com.tradevault.domain.entity.User;
+import com.tradevault.security.CustomUserDetails;
+import com.tradevault.service.TradeVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalGetInterceptorTest {
+
+    private final TradeVersionService tradeVersionService = new TradeVersionService();
+    private final ConditionalGetInterceptor interceptor = new ConditionalGetInterceptor(tradeVersionService);
+    private final User user = User.builder().id(UUID.randomUUID()).email("test@example.com").timezone("Europe/Bucharest").build();
+
+    @BeforeEach
+    void authenticate() {
+        CustomUserDetails details = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, List.of()));
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithNotModifiedUntilTradesChange() {
+        String etag = etag(request("symbol", "AAPL", "from", "2024-01-01"));
+
+        MockHttpServletRequest repeat = request("from", "2024-01-01", "symbol", "AAPL");
+        repeat.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(repeat, response, null));
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getHeader("ETag"));
+
+        tradeVersionService.bump(user.getId());
+        MockHttpServletRequest afterWrite = request("symbol", "AAPL", "from", "2024-01-01");
+        afterWrite.addHeader("If-None-Match", etag);
+        assertTrue(interceptor.preHandle(afterWrite, new MockHttpServletResponse(), null));
+        assertNotEquals(etag, afterWrite.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE));
+    }
+
+    @Test
+    void etagDependsOnParametersButNotOnBlankOnes() {
+        assertEquals(etag(request("symbol", "AAPL")), etag(request("symbol", "AAPL", "strategy", "")));
+        assertNotEquals(etag(request("symbol", "AAPL")), etag(request("symbol", "MSFT")));
+    }
+
+    private String etag(MockHttpServletRequest request) {
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        Object etag = request.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+        assertNotNull(etag);
+        return etag.toString();
+    }
+
+    private static MockHttpServletRequest request(String... parameters) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/analytics/summary");
+        for (int i = 0; i < parameters.length; i += 2) {
+            request.addParameter(parameters[i], parameters[i + 1]);
+        }
+        return request;
+    }
+}
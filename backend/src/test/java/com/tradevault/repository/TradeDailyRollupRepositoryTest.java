@@ -0,0 +1,156 @@
+package com.tradevault.repository;
+
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.entity.User;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.Market;
+import com.tradevault.domain.enums.PnlBasis;
+import com.tradevault.domain.enums.Role;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.service.TradeDailyRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+class TradeDailyRollupRepositoryTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Bucharest");
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 31);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("tradevault")
+            .withUsername("tradevault")
+            .withPassword("tradevault");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    TradeRepository tradeRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TradeDailyRollupService tradeDailyRollupService;
+
+    @Autowired
+    TradeDailyRollupRepository tradeDailyRollupRepository;
+
+    @AfterEach
+    void cleanUp() {
+        tradeRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rollupMatchesTradeAggregationAndFollowsMovedTrades() {
+        User user = userRepository.save(User.builder()
+                .id(UUID.randomUUID())
+                .email("rollup@test.com")
+                .passwordHash("hash")
+                .role(Role.USER)
+                .timezone("Europe/Bucharest")
+                .build());
+        tradeRepository.save(buildTrade(user, TradeStatus.CLOSED,
+                OffsetDateTime.of(LocalDateTime.of(2024, 1, 1, 22, 30), ZoneOffset.UTC), new BigDecimal("100")));
+        tradeRepository.save(buildTrade(user, TradeStatus.CLOSED,
+                OffsetDateTime.of(LocalDateTime.of(2024, 1, 2, 21, 30), ZoneOffset.UTC), new BigDecimal("-40")));
+        Trade moved = tradeRepository.save(buildTrade(user, TradeStatus.CLOSED,
+                OffsetDateTime.of(LocalDateTime.of(2024, 1, 1, 10, 0), ZoneOffset.UTC), new BigDecimal("55")));
+        tradeRepository.save(buildTrade(user, TradeStatus.OPEN,
+                OffsetDateTime.of(LocalDateTime.of(2024, 1, 2, 5, 0), ZoneOffset.UTC), new BigDecimal("999")));
+
+        assertMatchesAggregation(user, ZONE);
+
+        OffsetDateTime previousClosedAt = moved.getClosedAt();
+        moved.setClosedAt(OffsetDateTime.of(LocalDateTime.of(2024, 1, 5, 12, 0), ZoneOffset.UTC));
+        tradeRepository.save(moved);
+        tradeDailyRollupService.refreshDays(user.getId(), List.of(moved.getOpenedAt()),
+                List.of(previousClosedAt, moved.getClosedAt()));
+
+        assertMatchesAggregation(user, ZONE);
+        assertThat(tradeDailyRollupService.dailyRollup(user, ZONE, PnlBasis.CLOSE, FROM, TO))
+                .extracting(TradeDailyRollupRepository.DailyRollup::date)
+                .containsExactly(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 5));
+    }
+
+    @Test
+    void otherZonesAreAggregatedOnReadWithoutBeingStored() {
+        User user = userRepository.save(User.builder()
+                .id(UUID.randomUUID())
+                .email("rollup-zones@test.com")
+                .passwordHash("hash")
+                .role(Role.USER)
+                .timezone("Europe/Bucharest")
+                .build());
+        tradeRepository.save(buildTrade(user, TradeStatus.CLOSED,
+                OffsetDateTime.of(LocalDateTime.of(2024, 1, 1, 23, 30), ZoneOffset.UTC), new BigDecimal("100")));
+        tradeRepository.save(buildTrade(user, TradeStatus.CLOSED,
+                OffsetDateTime.of(LocalDateTime.of(2024, 1, 2, 3, 30), ZoneOffset.UTC), new BigDecimal("-40")));
+
+        assertMatchesAggregation(user, ZoneId.of("America/New_York"));
+        assertMatchesAggregation(user, ZoneId.of("Asia/Tokyo"));
+        assertThat(tradeDailyRollupRepository.findZones(user.getId())).isEmpty();
+
+        assertMatchesAggregation(user, ZONE);
+        assertThat(tradeDailyRollupRepository.findZones(user.getId())).containsExactly(ZONE.getId());
+    }
+
+    private void assertMatchesAggregation(User user, ZoneId zone) {
+        UUID userId = user.getId();
+        List<TradeDailyRollupRepository.DailyRollup> rollup =
+                tradeDailyRollupService.dailyRollup(user, zone, PnlBasis.CLOSE, FROM, TO);
+        List<TradeRepository.DailyPnlAggregate> expected =
+                tradeRepository.aggregateDailyPnlByClosedDate(userId, FROM, TO, zone.getId());
+        assertThat(rollup).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(rollup.get(i).date()).isEqualTo(expected.get(i).getDate());
+            assertThat(rollup.get(i).netPnl()).isEqualByComparingTo(expected.get(i).getNetPnl());
+            assertThat(rollup.get(i).tradeCount()).isEqualTo(expected.get(i).getTradeCount());
+            assertThat(rollup.get(i).wins()).isEqualTo(expected.get(i).getWins());
+            assertThat(rollup.get(i).losses()).isEqualTo(expected.get(i).getLosses());
+        }
+    }
+
+    private Trade buildTrade(User user, TradeStatus status, OffsetDateTime closedAt, BigDecimal pnlNet) {
+        return Trade.builder()
+                .user(user)
+                .symbol("AAPL")
+                .market(Market.STOCK)
+                .direction(Direction.LONG)
+                .status(status)
+                .openedAt(closedAt.minusHours(2))
+                .closedAt(closedAt)
+                .quantity(new BigDecimal("1"))
+                .entryPrice(new BigDecimal("100"))
+                .exitPrice(new BigDecimal("110"))
+                .pnlNet(pnlNet)
+                .build();
+    }
+}
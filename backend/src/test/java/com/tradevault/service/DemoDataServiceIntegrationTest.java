@@ -207,7 +207,8 @@ class DemoDataServiceIntegrationTest {
                 null,
                 "CLOSE",
                 false,
-                null
+                null,
+                false
         );
 
         demoDataService.removeDemoDataForUser(user.getId());
@@ -224,7 +225,8 @@ class DemoDataServiceIntegrationTest {
                 null,
                 "CLOSE",
                 false,
-                null
+                null,
+                false
         );
 
         assertThat(before.getKpi().getTotalTrades()).isGreaterThan(0);
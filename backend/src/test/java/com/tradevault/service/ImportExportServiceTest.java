@@ -0,0 +1,196 @@
+package com.tradevault.service;
+
+import com.tradevault.analytics.TradeCoachAggregateService;
+import com.tradevault.config.TradeImportConfig;
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.entity.User;
+import com.tradevault.dto.trade.ImportResult;
+import com.tradevault.dto.trade.ImportRowError;
+import com.tradevault.repository.TradeExportRepository;
+import com.tradevault.repository.TradeExportRow;
+import com.tradevault.repository.TradeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImportExportServiceTest {
+    private static final String HEADER = "symbol,market,direction,openedAt,closedAt,quantity,entryPrice,exitPrice,fees,commission,slippage,stopLossPrice,takeProfitPrice,setup,strategyTag,catalystTag,notes\n";
+
+    private TradeRepository tradeRepository;
+    private TradeExportRepository tradeExportRepository;
+    private TradeImportConfig tradeImportConfig;
+    private PlatformTransactionManager transactionManager;
+    private ImportExportService service;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        tradeRepository = Mockito.mock(TradeRepository.class);
+        tradeExportRepository = Mockito.mock(TradeExportRepository.class);
+        tradeImportConfig = new TradeImportConfig();
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CurrentUserService currentUserService = Mockito.mock(CurrentUserService.class);
+        user = User.builder().id(UUID.randomUUID()).email("export@test.com").build();
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+        service = new ImportExportService(tradeRepository, tradeExportRepository, transactionManager,
+                tradeImportConfig, currentUserService, Mockito.mock(TradeVersionService.class), Mockito.mock(TradeDailyRollupService.class),
+                Mockito.mock(TradeCoachAggregateService.class));
+        Mockito.doAnswer(invocation -> {
+            Consumer<TradeExportRow> consumer = invocation.getArgument(3);
+            consumer.accept(new TradeExportRow("AAPL", "STOCK", "LONG",
+                    OffsetDateTime.parse("2024-03-01T14:30:00Z"), null,
+                    new BigDecimal("10.0000"), new BigDecimal("1E+2"), null,
+                    BigDecimal.ZERO, null, null, null, null,
+                    "Opening range, 5m", null, null, "Said \"wait\"\nthen entered"));
+            return null;
+        }).when(tradeExportRepository).forEachTrade(eq(user.getId()), any(), any(), any());
+    }
+
+    @Test
+    void writesEscapedRowsWithEmptyNullsInsideOneReadOnlyTransaction() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportCsv(null, null, false).writeTo(out);
+
+        assertEquals(HEADER
+                        + "AAPL,STOCK,LONG,2024-03-01T14:30Z,,10.0000,100,,0,,,,,\"Opening range, 5m\",,,\"Said \"\"wait\"\"\nthen entered\"\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(transactionManager).getTransaction(Mockito.argThat(definition -> definition.isReadOnly()));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void gzipOutputDecompressesToTheSameCsv() throws Exception {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        service.exportCsv(null, null, false).writeTo(plain);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        service.exportCsv(null, null, true).writeTo(compressed);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertEquals(plain.toString(StandardCharsets.UTF_8), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void rejectsInvertedRangeBeforeStreaming() {
+        OffsetDateTime from = OffsetDateTime.parse("2024-03-02T00:00:00Z");
+
+        assertThrows(IllegalArgumentException.class, () -> service.exportCsv(from, from.minusDays(1), false));
+        verify(tradeExportRepository, Mockito.never()).forEachTrade(any(), any(), any(), any());
+    }
+
+    @Test
+    void reportsEveryInvalidColumnWithItsLineAndSavesTheValidRows() throws Exception {
+        String csv = HEADER
+                + "AAPL,STOCK,LONG,2024-03-01T14:30:00Z,,10,100,,,,,,,,,,\n"
+                + ",STOCK,SIDEWAYS,2024-03-01T14:30:00Z,,ten,100,,,,,,,,,,\n"
+                + "MSFT,STOCK,SHORT,2024-03-02T14:30:00Z,2024-03-01T14:30:00Z,5,300,290,,,,,,,,,\n"
+                + "NVDA,STOCK,LONG,2024-03-03T14:30:00Z,,1,900,,,,,,,,,,\"multi\nline note\"\n"
+                + "TSLA,STOCK,LONG,yesterday,,1,200,,,,,,,,,,\n";
+
+        ImportResult result = service.importCsv(csv("trades.csv", csv));
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(
+                error(3, "symbol", "is required"),
+                error(3, "direction", "must be one of [LONG, SHORT]"),
+                error(3, "quantity", "must be a number"),
+                error(4, "closedAt", "must not be before openedAt"),
+                error(7, "openedAt", "must be an ISO-8601 date-time with offset")), result.getErrors());
+        assertFalse(result.isErrorsTruncated());
+    }
+
+    @Test
+    void overLongTagsAreRowErrorsInsteadOfFailingTheChunk() throws Exception {
+        String csv = HEADER
+                + "AAPL,STOCK,LONG,2024-03-01T14:30:00Z,,10,100,,,,,,,," + "s".repeat(121) + ",,\n";
+
+        ImportResult result = service.importCsv(csv("trades.csv", csv));
+
+        assertEquals(0, result.getImported());
+        assertEquals(List.of(error(2, "strategyTag", "must be at most 120 characters")), result.getErrors());
+        verify(tradeRepository, Mockito.never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void savesInChunksOfTheConfiguredSize() throws Exception {
+        tradeImportConfig.setChunkSize(2);
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 5; i++) {
+            csv.append("AAPL,STOCK,LONG,2024-03-01T14:30:00Z,,").append(i + 1).append(",100,,,,,,,,,,\n");
+        }
+
+        ImportResult result = service.importCsv(csv("trades.csv", csv.toString()));
+
+        assertEquals(5, result.getImported());
+        verify(tradeRepository, Mockito.times(3)).saveAllAndFlush(anyList());
+        verify(transactionManager, Mockito.times(3)).commit(any());
+    }
+
+    @Test
+    void retriesARejectedChunkRowByRowSoOnlyTheBadRowFails() throws Exception {
+        when(tradeRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("batch rejected"));
+        when(tradeRepository.saveAndFlush(Mockito.<Trade>argThat(trade -> "BAD".equals(trade.getSymbol()))))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        String csv = HEADER
+                + "AAPL,STOCK,LONG,2024-03-01T14:30:00Z,,10,100,,,,,,,,,,\n"
+                + "BAD,STOCK,LONG,2024-03-01T14:30:00Z,,10,100,,,,,,,,,,\n";
+
+        ImportResult result = service.importCsv(csv("trades.csv", csv));
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(0).getReason().contains("value too long"));
+    }
+
+    @Test
+    void capsTheErrorReportAndRejectsFilesWithoutRequiredColumns() throws Exception {
+        tradeImportConfig.setMaxErrors(1);
+        String csv = HEADER
+                + ",STOCK,LONG,2024-03-01T14:30:00Z,,10,100,,,,,,,,,,\n"
+                + ",STOCK,LONG,2024-03-01T14:30:00Z,,10,100,,,,,,,,,,\n";
+
+        ImportResult result = service.importCsv(csv("trades.csv", csv));
+
+        assertEquals(2, result.getFailed());
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.isErrorsTruncated());
+        assertThrows(IllegalArgumentException.class, () -> service.importCsv(csv("trades.csv", "symbol,market\nAAPL,STOCK\n")));
+    }
+
+    private static MockMultipartFile csv(String name, String content) {
+        return new MockMultipartFile("file", name, "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ImportRowError error(long line, String column, String reason) {
+        return ImportRowError.builder().line(line).column(column).reason(reason).build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.tradevault.service;
+
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.entity.User;
+import com.tradevault.domain.enums.Role;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.trade.TradeCsvImportSummary;
+import com.tradevault.repository.TradeImportRowRepository;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.repository.UserRepository;
+import com.tradevault.security.AuthenticatedUserResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@Testcontainers
+class TradeCsvImportIntegrationTest {
+    private static final String HEADER = "Action,Time,ISIN,Ticker,Name,ID,No. of shares,Price / share,Currency (Price / share),Exchange rate,Result,Currency (Result),Total,Currency (Total)";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("tradevault")
+            .withUsername("tradevault")
+            .withPassword("tradevault");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TradeCsvImportService tradeCsvImportService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeImportRowRepository tradeImportRowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private AuthenticatedUserResolver authenticatedUserResolver;
+
+    @AfterEach
+    void cleanUp() {
+        tradeImportRowRepository.deleteAll();
+        tradeRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void reimportUpdatesMatchedTradesInPlaceAndKeepsTransactionIdsUnique() throws Exception {
+        User user = userRepository.save(User.builder()
+                .email("broker-import@example.com")
+                .passwordHash("hashed")
+                .role(Role.USER)
+                .build());
+        when(authenticatedUserResolver.getCurrentUser()).thenReturn(user);
+
+        TradeCsvImportSummary first = tradeCsvImportService.importCsv(file(
+                "Market buy,2024-01-01 10:00:00,ISIN1,AAA,Name,tx1,10,100,USD,1,,USD,1000,USD",
+                "Market buy,2024-01-02 10:00:00,ISIN2,BBB,Name,tx2,5,20,USD,1,,USD,100,USD"));
+        assertThat(first.getTradesCreated()).isEqualTo(2);
+        Trade aaa = tradeRepository.findAll().stream().filter(trade -> trade.getSymbol().equals("AAA")).findFirst().orElseThrow();
+        assertThat(aaa.getStatus()).isEqualTo(TradeStatus.OPEN);
+        assertThat(aaa.getOpenedHour()).isEqualTo(10);
+        aaa.setRiskAmount(new BigDecimal("50"));
+        aaa.setSetup("Opening range");
+        tradeRepository.save(aaa);
+
+        TradeCsvImportSummary second = tradeCsvImportService.importCsv(file(
+                "Market buy,2024-01-01 10:00:00,ISIN1,AAA,Name,tx1,10,100,USD,1,,USD,1000,USD",
+                "Limit sell,2024-01-03 11:30:00,ISIN1,AAA,Name,tx3,10,110,USD,1,100,USD,1100,USD"));
+
+        assertThat(second.getTradesUpdated()).isEqualTo(1);
+        assertThat(second.getTradesCreated()).isZero();
+        List<Trade> trades = tradeRepository.findAll();
+        assertThat(trades).hasSize(2);
+        Trade updated = tradeRepository.findById(aaa.getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(TradeStatus.CLOSED);
+        assertThat(updated.getExitPrice()).isEqualByComparingTo("110");
+        assertThat(updated.getPnlNet()).isEqualByComparingTo("100");
+        assertThat(updated.getClosedHour()).isEqualTo(11);
+        assertThat(updated.getHoldingBucket()).isEqualTo(">4h");
+        assertThat(updated.getREstimate()).isEqualByComparingTo("2");
+        assertThat(updated.getSetup()).isEqualTo("Opening range");
+        assertThat(tradeImportRowRepository.count()).isEqualTo(3);
+    }
+
+    private static MockMultipartFile file(String... rows) {
+        String csv = HEADER + "\n" + String.join("\n", rows);
+        return new MockMultipartFile("file", "trades.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
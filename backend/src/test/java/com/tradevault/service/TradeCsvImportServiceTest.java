@@ -1,11 +1,12 @@
 package com.tradevault.service;
 
+import com.tradevault.analytics.TradeCoachAggregateService;
 import com.tradevault.domain.entity.Trade;
-import com.tradevault.domain.entity.TradeImportRow;
 import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.TradeStatus;
-import com.tradevault.repository.TradeImportRowRepository;
-import com.tradevault.repository.TradeRepository;
+import com.tradevault.dto.trade.TradeCsvImportSummary;
+import com.tradevault.repository.TradeCsvImportRepository;
+import com.tradevault.repository.TradeCsvImportRepository.TradeKey;
 import com.tradevault.security.AuthenticatedUserResolver;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -14,7 +15,10 @@ import org.springframework.mock.web.MockMultipartFile;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -135,43 +139,69 @@ class TradeCsvImportServiceTest {
 
     @Test
     void importCsvUsesAllRowsForComputationEvenWhenTransactionAlreadyImported() throws Exception {
-        TradeRepository tradeRepository = Mockito.mock(TradeRepository.class);
-        TradeImportRowRepository tradeImportRowRepository = Mockito.mock(TradeImportRowRepository.class);
-        AuthenticatedUserResolver authenticatedUserResolver = Mockito.mock(AuthenticatedUserResolver.class);
-
+        TradeCsvImportRepository tradeCsvImportRepository = Mockito.mock(TradeCsvImportRepository.class);
         User user = User.builder().id(UUID.randomUUID()).email("user@example.com").build();
-        when(authenticatedUserResolver.getCurrentUser()).thenReturn(user);
+        when(tradeCsvImportRepository.findTradeIds(eq(user.getId()), any())).thenReturn(new HashMap<>());
 
-        TradeImportRow existing = TradeImportRow.builder()
-                .id(UUID.randomUUID())
-                .user(user)
-                .transactionId("buy-tx")
-                .importedAt(OffsetDateTime.parse("2024-01-01T12:00:00Z"))
-                .build();
-        when(tradeImportRowRepository.findAllByUserIdAndTransactionIdIn(eq(user.getId()), any()))
-                .thenReturn(List.of(existing));
-        when(tradeRepository.save(any(Trade.class))).thenAnswer(invocation -> invocation.getArgument(0, Trade.class));
+        TradeCsvImportSummary summary = service(tradeCsvImportRepository, user).importCsv(file(
+                "Market buy,2024-01-01 10:00:00,ISIN1,AAA,Name,buy-tx,10,100,USD,1,,USD,1000,USD",
+                "Stop sell,2024-01-02 10:00:00,ISIN1,AAA,Name,sell-tx,10,110,USD,1,100,USD,1100,USD"));
 
-        TradeCsvImportService service = new TradeCsvImportService(tradeRepository, tradeImportRowRepository, authenticatedUserResolver);
+        assertEquals(1, summary.getTradesCreated());
+        ArgumentCaptor<List<Trade>> tradeCaptor = ArgumentCaptor.forClass(List.class);
+        verify(tradeCsvImportRepository).upsertTrades(eq(user.getId()), tradeCaptor.capture());
+        Trade saved = tradeCaptor.getValue().get(0);
+        assertEquals(TradeStatus.CLOSED, saved.getStatus());
+        assertNotNull(saved.getId());
 
-        String csv = String.join("\n",
-                "Action,Time,ISIN,Ticker,Name,ID,No. of shares,Price / share,Currency (Price / share),Exchange rate,Result,Currency (Result),Total,Currency (Total)",
-                "Market buy,2024-01-01 10:00:00,ISIN1,AAA,Name,buy-tx,10,100,USD,1,,USD,1000,USD",
-                "Stop sell,2024-01-02 10:00:00,ISIN1,AAA,Name,sell-tx,10,110,USD,1,100,USD,1100,USD"
-        );
-        MockMultipartFile file = new MockMultipartFile("file", "trades.csv", "text/csv", csv.getBytes());
+        ArgumentCaptor<Collection<String>> importCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(tradeCsvImportRepository).insertImportRows(eq(user.getId()), importCaptor.capture(), any());
+        assertEquals(List.of("buy-tx", "sell-tx"), List.copyOf(importCaptor.getValue()));
+    }
 
-        service.importCsv(file);
+    @Test
+    void importCsvResolvesExistingTradesWithOneLookupAndWritesOneBatch() throws Exception {
+        TradeCsvImportRepository tradeCsvImportRepository = Mockito.mock(TradeCsvImportRepository.class);
+        User user = User.builder().id(UUID.randomUUID()).email("user@example.com").build();
+        UUID existingId = UUID.randomUUID();
+        TradeKey existingKey = new TradeKey("AAA", OffsetDateTime.parse("2024-01-01T08:00:00Z").toInstant());
+        when(tradeCsvImportRepository.findTradeIds(eq(user.getId()), any()))
+                .thenReturn(new HashMap<>(Map.of(existingKey, existingId)));
+
+        TradeCsvImportSummary summary = service(tradeCsvImportRepository, user).importCsv(file(
+                "Market buy,2024-01-01 10:00:00,ISIN1,AAA,Name,tx1,10,100,USD,1,,USD,1000,USD",
+                "Market buy,2024-01-03 10:00:00,ISIN2,BBB,Name,tx2,5,20,USD,1,,USD,100,USD",
+                "Market sell,2024-01-04 10:00:00,ISIN3,CCC,Name,tx3,5,20,USD,1,,USD,100,USD"));
+
+        assertEquals(1, summary.getTradesUpdated());
+        assertEquals(1, summary.getTradesCreated());
+        assertEquals(1, summary.getGroupsSkipped());
+        ArgumentCaptor<Collection<TradeKey>> keyCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(tradeCsvImportRepository, Mockito.times(1)).findTradeIds(eq(user.getId()), keyCaptor.capture());
+        assertEquals(2, keyCaptor.getValue().size());
+        assertTrue(keyCaptor.getValue().contains(existingKey));
+
+        ArgumentCaptor<List<Trade>> tradeCaptor = ArgumentCaptor.forClass(List.class);
+        verify(tradeCsvImportRepository, Mockito.times(1)).upsertTrades(eq(user.getId()), tradeCaptor.capture());
+        List<Trade> trades = tradeCaptor.getValue();
+        assertEquals(2, trades.size());
+        assertEquals(existingId, trades.get(0).getId());
+        assertEquals("BBB", trades.get(1).getSymbol());
+        assertNotNull(trades.get(1).getId());
+        assertEquals("Europe/Bucharest", trades.get(1).getLocalTz());
+    }
 
-        ArgumentCaptor<Trade> tradeCaptor = ArgumentCaptor.forClass(Trade.class);
-        verify(tradeRepository).save(tradeCaptor.capture());
-        Trade saved = tradeCaptor.getValue();
-        assertEquals(TradeStatus.CLOSED, saved.getStatus());
+    private static TradeCsvImportService service(TradeCsvImportRepository tradeCsvImportRepository, User user) {
+        AuthenticatedUserResolver authenticatedUserResolver = Mockito.mock(AuthenticatedUserResolver.class);
+        when(authenticatedUserResolver.getCurrentUser()).thenReturn(user);
+        return new TradeCsvImportService(tradeCsvImportRepository, authenticatedUserResolver, new TradeVersionService(),
+                Mockito.mock(TradeDailyRollupService.class),
+                Mockito.mock(TradeCoachAggregateService.class));
+    }
 
-        ArgumentCaptor<List<TradeImportRow>> importCaptor = ArgumentCaptor.forClass(List.class);
-        verify(tradeImportRowRepository).saveAll(importCaptor.capture());
-        List<TradeImportRow> savedRows = importCaptor.getValue();
-        assertEquals(1, savedRows.size());
-        assertEquals("sell-tx", savedRows.get(0).getTransactionId());
+    private static MockMultipartFile file(String... rows) {
+        String csv = "Action,Time,ISIN,Ticker,Name,ID,No. of shares,Price / share,Currency (Price / share),Exchange rate,Result,Currency (Result),Total,Currency (Total)\n"
+                + String.join("\n", rows);
+        return new MockMultipartFile("file", "trades.csv", "text/csv", csv.getBytes());
     }
 }
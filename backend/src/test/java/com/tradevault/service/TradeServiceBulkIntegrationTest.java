@@ -0,0 +1,215 @@
+package com.tradevault.service;
+
+import com.tradevault.analytics.TradeCoachAggregateService;
+import com.tradevault.domain.entity.Tag;
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.entity.User;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.Market;
+import com.tradevault.domain.enums.PnlBasis;
+import com.tradevault.domain.enums.Role;
+import com.tradevault.domain.enums.TagType;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.trade.TradeBulkItemResult;
+import com.tradevault.dto.trade.TradeBulkPatch;
+import com.tradevault.dto.trade.TradeBulkRequest;
+import com.tradevault.dto.trade.TradeBulkResponse;
+import com.tradevault.dto.trade.TradeBulkUpdate;
+import com.tradevault.dto.trade.TradeRequest;
+import com.tradevault.repository.TagRepository;
+import com.tradevault.repository.TradeCoachAggregateRepository;
+import com.tradevault.repository.TradeCoachAggregateRepository.GroupRow;
+import com.tradevault.repository.TradeDailyRollupRepository.DailyRollup;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@Testcontainers
+class TradeServiceBulkIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("tradevault")
+            .withUsername("tradevault")
+            .withPassword("tradevault");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TradeDailyRollupService tradeDailyRollupService;
+
+    @Autowired
+    private TradeCoachAggregateService tradeCoachAggregateService;
+
+    @Autowired
+    private TradeCoachAggregateRepository tradeCoachAggregateRepository;
+
+    @MockBean
+    private CurrentUserService currentUserService;
+
+    @AfterEach
+    void cleanUp() {
+        tradeRepository.deleteAll();
+        tagRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void bulkCreatesRetagsAndDeletesInOneRequest() {
+        User user = userRepository.save(User.builder()
+                .email("trade-bulk@example.com")
+                .passwordHash("hashed")
+                .role(Role.USER)
+                .build());
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+        Tag breakout = tagRepository.save(Tag.builder().user(user).name("Breakout").type(TagType.STRATEGY).build());
+        Tag revenge = tagRepository.save(Tag.builder().user(user).name("Revenge").type(TagType.MISTAKE).build());
+
+        List<TradeRequest> creates = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            TradeRequest request = new TradeRequest();
+            request.setSymbol("B" + i);
+            request.setMarket(Market.STOCK);
+            request.setDirection(Direction.LONG);
+            request.setStatus(TradeStatus.CLOSED);
+            request.setOpenedAt(OffsetDateTime.parse("2026-03-02T10:00:00Z").plusMinutes(i));
+            request.setClosedAt(OffsetDateTime.parse("2026-03-02T15:00:00Z"));
+            request.setQuantity(BigDecimal.ONE);
+            request.setEntryPrice(new BigDecimal("100"));
+            request.setExitPrice(new BigDecimal("101"));
+            request.setTagIds(Set.of(revenge.getId()));
+            creates.add(request);
+        }
+        TradeBulkRequest createRequest = new TradeBulkRequest();
+        createRequest.setCreate(creates);
+        TradeBulkResponse created = tradeService.bulk(createRequest);
+        assertThat(created.getCreated()).isEqualTo(120);
+        List<UUID> ids = created.getResults().stream().map(TradeBulkItemResult::getId).toList();
+
+        TradeBulkPatch patch = new TradeBulkPatch();
+        patch.setIds(ids.subList(0, 100));
+        patch.setStrategyTag("breakout");
+        patch.setCommission(new BigDecimal("0.5"));
+        patch.setAddTagIds(Set.of(breakout.getId()));
+        patch.setRemoveTagIds(Set.of(revenge.getId()));
+        TradeBulkRequest editRequest = new TradeBulkRequest();
+        editRequest.setPatch(List.of(patch));
+        editRequest.setDelete(ids.subList(100, 120));
+        TradeBulkResponse edited = tradeService.bulk(editRequest);
+
+        assertThat(edited.getPatched()).isEqualTo(100);
+        assertThat(edited.getDeleted()).isEqualTo(20);
+        assertThat(edited.getFailed()).isZero();
+        assertThat(tradeRepository.count()).isEqualTo(100);
+        List<Trade> remaining = tradeRepository.findAllByIdInWithTagsAndAccount(ids);
+        assertThat(remaining).hasSize(100).allSatisfy(trade -> {
+            assertThat(trade.getStrategyTag()).isEqualTo("breakout");
+            assertThat(trade.getPnlNet()).isEqualByComparingTo("0.5");
+            assertThat(trade.getTags()).extracting(Tag::getName).containsExactly("Breakout");
+        });
+    }
+
+    @Test
+    void smallBulkKeepsRollupsAndCoachAggregatesEqualToARebuild() {
+        User user = userRepository.save(User.builder()
+                .email("trade-bulk-delta@example.com")
+                .passwordHash("hashed")
+                .role(Role.USER)
+                .timezone("UTC")
+                .build());
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+        OffsetDateTime start = OffsetDateTime.parse("2026-03-02T14:00:00Z");
+        List<TradeRequest> creates = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            creates.add(closedTrade("D" + (i % 4), start.plusMinutes(7L * i), new BigDecimal(i % 3 == 0 ? "95" : "104")));
+        }
+        TradeBulkRequest seed = new TradeBulkRequest();
+        seed.setCreate(creates);
+        List<UUID> ids = tradeService.bulk(seed).getResults().stream().map(TradeBulkItemResult::getId).toList();
+        tradeCoachAggregateService.rebuild(user.getId());
+        tradeDailyRollupService.ensureBuilt(user.getId(), ZoneId.of("UTC"));
+
+        TradeBulkUpdate moved = new TradeBulkUpdate();
+        moved.setId(ids.get(3));
+        moved.setTrade(closedTrade("D3", start.plusDays(1).plusMinutes(5), new BigDecimal("90")));
+        TradeBulkPatch patch = new TradeBulkPatch();
+        patch.setIds(ids.subList(10, 14));
+        patch.setFees(new BigDecimal("2"));
+        TradeBulkRequest edit = new TradeBulkRequest();
+        edit.setCreate(List.of(closedTrade("D9", start.plusMinutes(50), new BigDecimal("101")),
+                closedTrade("D9", start.plusDays(1).plusMinutes(12), new BigDecimal("99"))));
+        edit.setUpdate(List.of(moved));
+        edit.setPatch(List.of(patch));
+        edit.setDelete(List.of(ids.get(20), ids.get(21)));
+        TradeBulkResponse response = tradeService.bulk(edit);
+        assertThat(response.getFailed()).isZero();
+
+        Set<GroupRow> maintainedGroups = Set.copyOf(tradeCoachAggregateRepository.findGroups(user.getId()));
+        var maintainedCounts = tradeCoachAggregateRepository.findState(user.getId()).orElseThrow().counts();
+        List<DailyRollup> maintainedDays = closeDays(user);
+        tradeCoachAggregateService.rebuild(user.getId());
+        tradeDailyRollupService.rebuild(user.getId());
+
+        assertThat(maintainedGroups).isEqualTo(Set.copyOf(tradeCoachAggregateRepository.findGroups(user.getId())));
+        assertThat(maintainedCounts).isEqualTo(tradeCoachAggregateRepository.findState(user.getId()).orElseThrow().counts());
+        assertThat(maintainedDays).isEqualTo(closeDays(user));
+    }
+
+    private List<DailyRollup> closeDays(User user) {
+        return tradeDailyRollupService.dailyRollup(user, ZoneId.of("UTC"), PnlBasis.CLOSE,
+                LocalDate.parse("2026-03-01"), LocalDate.parse("2026-03-05"));
+    }
+
+    private static TradeRequest closedTrade(String symbol, OffsetDateTime closedAt, BigDecimal exitPrice) {
+        TradeRequest request = new TradeRequest();
+        request.setSymbol(symbol);
+        request.setMarket(Market.STOCK);
+        request.setDirection(Direction.LONG);
+        request.setStatus(TradeStatus.CLOSED);
+        request.setOpenedAt(closedAt.minusMinutes(30));
+        request.setClosedAt(closedAt);
+        request.setQuantity(BigDecimal.ONE);
+        request.setEntryPrice(new BigDecimal("100"));
+        request.setExitPrice(exitPrice);
+        return request;
+    }
+}
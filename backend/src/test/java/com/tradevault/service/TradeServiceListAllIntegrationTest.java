@@ -1,5 +1,6 @@
 package com.tradevault.service;
 
+import com.tradevault.domain.entity.Account;
 import com.tradevault.domain.entity.Tag;
 import com.tradevault.domain.entity.Trade;
 import com.tradevault.domain.entity.User;
@@ -8,8 +9,11 @@ import com.tradevault.domain.enums.Market;
 import com.tradevault.domain.enums.Role;
 import com.tradevault.domain.enums.TagType;
 import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.trade.TradeFeedResponse;
 import com.tradevault.dto.trade.TradeResponse;
+import com.tradevault.repository.AccountRepository;
 import com.tradevault.repository.TagRepository;
+import com.tradevault.repository.TradeListRow;
 import com.tradevault.repository.TradeRepository;
 import com.tradevault.repository.UserRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -26,6 +30,8 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -61,6 +67,9 @@ class TradeServiceListAllIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AccountRepository accountRepository;
+
     @MockBean
     private CurrentUserService currentUserService;
 
@@ -68,6 +77,7 @@ class TradeServiceListAllIntegrationTest {
     void cleanUp() {
         tradeRepository.deleteAll();
         tagRepository.deleteAll();
+        accountRepository.deleteAll();
         userRepository.deleteAll();
     }
 
@@ -134,4 +144,107 @@ class TradeServiceListAllIntegrationTest {
         assertThat(page.getContent().get(0).getSymbol()).isEqualTo("AAPL");
         assertThat(page.getContent().get(0).getTags()).containsExactlyInAnyOrder("Breakout", "Momentum");
     }
+
+    @Test
+    void feedWalksEveryTradeOnceAcrossTiedOpenTimes() {
+        User user = userRepository.save(User.builder()
+                .email("trade-feed@example.com")
+                .passwordHash("hashed")
+                .role(Role.USER)
+                .build());
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+
+        OffsetDateTime openedAt = OffsetDateTime.parse("2026-02-10T10:00:00Z");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Trade trade = tradeRepository.save(Trade.builder()
+                    .user(user)
+                    .symbol("T" + i)
+                    .market(Market.STOCK)
+                    .direction(Direction.LONG)
+                    .status(TradeStatus.OPEN)
+                    .openedAt(i < 5 ? openedAt : openedAt.minusDays(i))
+                    .quantity(BigDecimal.ONE)
+                    .entryPrice(new BigDecimal("100"))
+                    .createdAt(i < 3 ? openedAt : openedAt.plusMinutes(i))
+                    .build());
+            expected.add(trade.getSymbol());
+        }
+
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            TradeFeedResponse<TradeResponse> page = tradeService.listFeed(2, cursor, "exact");
+            assertThat(page.getTotal()).isEqualTo(7);
+            page.getItems().forEach(item -> walked.add(item.getSymbol()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(walked).hasSize(7);
+        assertThat(walked.subList(0, 2)).containsExactly("T4", "T3");
+        assertThat(tradeRepository.countTrades(user.getId(), null, null, null, null, null, null, null, null, 3)).isEqualTo(3);
+        assertThat(tradeRepository.countTrades(user.getId(), openedAt, null, null, null, "t1", null,
+                Direction.LONG, TradeStatus.OPEN, 100)).isEqualTo(1);
+    }
+
+    @Test
+    void rowsCarryOnlyRequestedFieldsWithTagsAndAccountNameInFeedOrder() {
+        User user = userRepository.save(User.builder()
+                .email("trade-rows@example.com")
+                .passwordHash("hashed")
+                .role(Role.USER)
+                .build());
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+        Account account = accountRepository.save(Account.builder()
+                .user(user)
+                .name("Swing")
+                .build());
+        Tag tag = tagRepository.save(Tag.builder()
+                .user(user)
+                .name("Breakout")
+                .type(TagType.STRATEGY)
+                .build());
+
+        OffsetDateTime openedAt = OffsetDateTime.parse("2026-02-10T10:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            tradeRepository.save(Trade.builder()
+                    .user(user)
+                    .account(i == 0 ? account : null)
+                    .symbol("R" + i)
+                    .market(Market.STOCK)
+                    .direction(Direction.LONG)
+                    .status(TradeStatus.CLOSED)
+                    .openedAt(i < 3 ? openedAt : openedAt.minusDays(i))
+                    .closedAt(openedAt.plusDays(1))
+                    .quantity(BigDecimal.ONE)
+                    .entryPrice(new BigDecimal("100"))
+                    .pnlNet(new BigDecimal(i * 10))
+                    .createdAt(openedAt.plusMinutes(i))
+                    .tags(i == 0 ? Set.of(tag) : Set.of())
+                    .build());
+        }
+
+        List<String> feedOrder = new ArrayList<>();
+        List<TradeListRow> rows = new ArrayList<>();
+        String feedCursor = null;
+        String rowCursor = null;
+        do {
+            TradeFeedResponse<TradeResponse> feedPage = tradeService.listFeed(2, feedCursor, null);
+            TradeFeedResponse<TradeListRow> rowPage = tradeService.listRows(2, rowCursor, null, "symbol,pnlNet,accountName,tags");
+            feedPage.getItems().forEach(item -> feedOrder.add(item.getSymbol()));
+            rows.addAll(rowPage.getItems());
+            feedCursor = feedPage.getNextCursor();
+            rowCursor = rowPage.getNextCursor();
+        } while (rowCursor != null);
+
+        assertThat(feedCursor).isNull();
+        assertThat(rows).extracting(row -> row.fields().get("symbol")).containsExactlyElementsOf(feedOrder);
+        assertThat(rows).allSatisfy(row -> assertThat(row.fields()).containsOnlyKeys("id", "symbol", "pnlNet", "accountName", "tags"));
+        TradeListRow first = rows.stream().filter(row -> "R0".equals(row.fields().get("symbol"))).findFirst().orElseThrow();
+        assertThat(first.fields()).containsEntry("accountName", "Swing").containsEntry("tags", List.of("Breakout"));
+        TradeListRow other = rows.stream().filter(row -> "R4".equals(row.fields().get("symbol"))).findFirst().orElseThrow();
+        assertThat(other.fields()).containsEntry("accountName", null).containsEntry("tags", List.of());
+        assertThat((BigDecimal) other.fields().get("pnlNet")).isEqualByComparingTo("40");
+    }
 }
@@ -1,16 +1,30 @@
 package com.tradevault.service;
 
+import com.tradevault.analytics.TradeCoachAggregateService;
 import com.tradevault.domain.entity.Trade;
 import com.tradevault.domain.entity.User;
 import com.tradevault.domain.enums.Direction;
 import com.tradevault.domain.enums.Market;
 import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.trade.TradeBulkItemResult;
+import com.tradevault.dto.trade.TradeBulkPatch;
+import com.tradevault.dto.trade.TradeBulkRequest;
+import com.tradevault.dto.trade.TradeBulkResponse;
+import com.tradevault.dto.trade.TradeBulkUpdate;
+import com.tradevault.dto.trade.TradeFeedResponse;
 import com.tradevault.dto.trade.TradeRequest;
+import com.tradevault.dto.trade.TradeResponse;
 import com.tradevault.exception.TradeSearchValidationException;
 import com.tradevault.repository.AccountRepository;
 import com.tradevault.repository.TagRepository;
+import com.tradevault.repository.TradeAnalyticsRow;
+import com.tradevault.repository.TradeKeyset;
+import com.tradevault.repository.TradeListField;
+import com.tradevault.repository.TradeListRepository;
+import com.tradevault.repository.TradeListRow;
 import com.tradevault.repository.TradeRepository;
 import com.tradevault.service.TimezoneService;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -20,8 +34,10 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,21 +49,32 @@ import static org.mockito.Mockito.never;
 
 public class TradeServiceTest {
     private TradeRepository tradeRepository;
+    private TradeListRepository tradeListRepository;
     private AccountRepository accountRepository;
     private TagRepository tagRepository;
     private CurrentUserService currentUserService;
     private TimezoneService timezoneService;
+    private TradeVersionService tradeVersionService;
+    private TradeDailyRollupService tradeDailyRollupService;
+    private TradeCoachAggregateService tradeCoachAggregateService;
     private TradeService tradeService;
     private User user;
 
     @BeforeEach
     void setup() {
         tradeRepository = Mockito.mock(TradeRepository.class);
+        tradeListRepository = Mockito.mock(TradeListRepository.class);
         accountRepository = Mockito.mock(AccountRepository.class);
         tagRepository = Mockito.mock(TagRepository.class);
         currentUserService = Mockito.mock(CurrentUserService.class);
         timezoneService = Mockito.mock(TimezoneService.class);
-        tradeService = new TradeService(tradeRepository, accountRepository, tagRepository, currentUserService, timezoneService);
+        tradeVersionService = Mockito.mock(TradeVersionService.class);
+        tradeDailyRollupService = Mockito.mock(TradeDailyRollupService.class);
+        tradeCoachAggregateService = Mockito.mock(TradeCoachAggregateService.class);
+        tradeService = new TradeService(tradeRepository, tradeListRepository, accountRepository, tagRepository, currentUserService, timezoneService, tradeVersionService,
+                tradeDailyRollupService,
+                tradeCoachAggregateService,
+                Validation.buildDefaultValidatorFactory().getValidator());
         user = User.builder().id(UUID.randomUUID()).email("user@test.com").build();
         when(currentUserService.getCurrentUser()).thenReturn(user);
     }
@@ -279,6 +306,7 @@ public class TradeServiceTest {
         tradeService.delete(tradeId);
 
         verify(tradeRepository).delete(eq(trade));
+        verify(tradeVersionService).bump(user.getId());
     }
 
     @Test
@@ -329,6 +357,172 @@ public class TradeServiceTest {
         verify(tradeRepository, never()).searchTradeIds(any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
     }
 
+    @Test
+    void listFeedHandsOutCursorThatContinuesAfterLastItem() {
+        OffsetDateTime openedAt = OffsetDateTime.parse("2026-02-10T10:00:00.123456Z");
+        List<Trade> trades = List.of(
+                Trade.builder().id(UUID.randomUUID()).user(user).symbol("AAPL").openedAt(openedAt).createdAt(openedAt).build(),
+                Trade.builder().id(UUID.randomUUID()).user(user).symbol("MSFT").openedAt(openedAt).createdAt(openedAt.minusSeconds(1)).build(),
+                Trade.builder().id(UUID.randomUUID()).user(user).symbol("NQ").openedAt(openedAt.minusDays(1)).createdAt(openedAt).build());
+        List<TradeKeyset> keysets = trades.stream()
+                .map(trade -> new TradeKeyset(trade.getOpenedAt(), trade.getCreatedAt(), trade.getId()))
+                .toList();
+        when(tradeRepository.findTradeKeysets(eq(user.getId()), any(), any(), any(), any(), any(), any(), any(), any(), Mockito.isNull(), eq(3)))
+                .thenReturn(keysets);
+        when(tradeRepository.findAllByIdInWithTagsAndAccount(any())).thenReturn(trades);
+
+        TradeFeedResponse<TradeResponse> first = tradeService.listFeed(2, null, null);
+
+        assertEquals(List.of("AAPL", "MSFT"), first.getItems().stream().map(TradeResponse::getSymbol).toList());
+        assertNotNull(first.getNextCursor());
+        assertNull(first.getTotal());
+        verify(tradeRepository, never()).countTrades(any(), any(), any(), any(), any(), any(), any(), any(), any(), Mockito.anyLong());
+
+        tradeService.listFeed(2, first.getNextCursor(), null);
+        verify(tradeRepository).findTradeKeysets(eq(user.getId()), any(), any(), any(), any(), any(), any(), any(), any(), eq(keysets.get(1)), eq(3));
+    }
+
+    @Test
+    void lastFeedPageHasNoCursorAndEstimatedTotalIsCapped() {
+        when(tradeRepository.findTradeKeysets(eq(user.getId()), any(), any(), any(), any(), any(), any(), any(), any(), any(), Mockito.anyInt()))
+                .thenReturn(List.of());
+        when(tradeRepository.countTrades(eq(user.getId()), any(), any(), any(), any(), any(), any(), any(), any(), eq(10_001L)))
+                .thenReturn(10_001L);
+
+        TradeFeedResponse<TradeResponse> page = tradeService.listFeed(20, null, "estimate");
+
+        assertNull(page.getNextCursor());
+        assertEquals(10_000L, page.getTotal());
+        assertFalse(page.isTotalExact());
+    }
+
+    @Test
+    void feedRejectsMalformedCursorAndTotalMode() {
+        assertThrows(IllegalArgumentException.class, () -> tradeService.listFeed(20, "not-a-cursor", null));
+        assertThrows(IllegalArgumentException.class, () -> tradeService.listFeed(20, null, "approximately"));
+    }
+
+    @Test
+    void listRowsReadsOnlyRequestedFieldsAndContinuesFromLastRowKeyset() {
+        OffsetDateTime openedAt = OffsetDateTime.parse("2026-02-10T10:00:00Z");
+        List<TradeListRow> rows = List.of(
+                new TradeListRow(new TradeKeyset(openedAt, openedAt, UUID.randomUUID()), Map.of("symbol", "AAPL")),
+                new TradeListRow(new TradeKeyset(openedAt.minusHours(1), openedAt, UUID.randomUUID()), Map.of("symbol", "MSFT")));
+        Set<TradeListField> fields = EnumSet.of(TradeListField.ID, TradeListField.SYMBOL, TradeListField.PNL_NET);
+        when(tradeListRepository.findRows(eq(user.getId()), any(), any(), any(), any(), any(), any(), any(), any(), Mockito.isNull(), eq(2), eq(fields)))
+                .thenReturn(rows);
+
+        TradeFeedResponse<TradeListRow> first = tradeService.listRows(1, null, null, "symbol, PNLNET");
+
+        assertEquals(List.of(rows.get(0)), first.getItems());
+        tradeService.listRows(1, first.getNextCursor(), null, "symbol,pnlNet");
+        verify(tradeListRepository).findRows(eq(user.getId()), any(), any(), any(), any(), any(), any(), any(), any(),
+                eq(rows.get(0).keyset()), eq(2), eq(fields));
+        verify(tradeRepository, never()).findAllByIdInWithTagsAndAccount(any());
+    }
+
+    @Test
+    void listRowsRejectsUnknownFields() {
+        assertThrows(IllegalArgumentException.class, () -> tradeService.listRows(20, null, null, "symbol,password"));
+    }
+
+    @Test
+    void bulkAppliesValidItemsReportsTheRestAndBumpsVersionOnce() {
+        Trade toUpdate = Trade.builder().id(UUID.randomUUID()).user(user).symbol("AAPL").market(Market.STOCK)
+                .direction(Direction.LONG).status(TradeStatus.OPEN).openedAt(OffsetDateTime.now().minusDays(2))
+                .quantity(new BigDecimal("10")).entryPrice(new BigDecimal("100"))
+                .fees(BigDecimal.ZERO).commission(BigDecimal.ZERO).slippage(BigDecimal.ZERO).build();
+        Trade toPatch = Trade.builder().id(UUID.randomUUID()).user(user).symbol("MSFT").market(Market.STOCK)
+                .direction(Direction.LONG).status(TradeStatus.CLOSED).openedAt(OffsetDateTime.now().minusDays(3))
+                .closedAt(OffsetDateTime.now().minusDays(2)).quantity(new BigDecimal("10"))
+                .entryPrice(new BigDecimal("100")).exitPrice(new BigDecimal("110"))
+                .fees(BigDecimal.ZERO).commission(BigDecimal.ZERO).slippage(BigDecimal.ZERO)
+                .pnlGross(new BigDecimal("100")).pnlNet(new BigDecimal("100")).build();
+        UUID unknown = UUID.randomUUID();
+        when(tradeRepository.findByIdInAndUserId(any(), eq(user.getId()))).thenReturn(List.of(toUpdate, toPatch));
+        when(tradeRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Trade> saved = invocation.getArgument(0);
+            saved.forEach(trade -> trade.setId(UUID.randomUUID()));
+            return saved;
+        });
+
+        TradeRequest invalid = baseRequest();
+        invalid.setSymbol(" ");
+        TradeBulkUpdate update = new TradeBulkUpdate();
+        update.setId(toUpdate.getId());
+        TradeRequest closing = baseRequest();
+        closing.setQuantity(new BigDecimal("10"));
+        closing.setExitPrice(new BigDecimal("120"));
+        update.setTrade(closing);
+        TradeBulkPatch patch = new TradeBulkPatch();
+        patch.setIds(List.of(toPatch.getId(), toUpdate.getId()));
+        patch.setStrategyTag("Breakout");
+        patch.setFees(new BigDecimal("4"));
+        TradeBulkRequest request = new TradeBulkRequest();
+        request.setCreate(List.of(baseRequest(), invalid));
+        request.setUpdate(List.of(update));
+        request.setPatch(List.of(patch));
+        request.setDelete(List.of(unknown));
+
+        TradeBulkResponse response = tradeService.bulk(request);
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getPatched());
+        assertEquals(0, response.getDeleted());
+        assertEquals(3, response.getFailed());
+        assertEquals(List.of("create", "create", "update", "patch", "patch", "delete"),
+                response.getResults().stream().map(TradeBulkItemResult::getOperation).toList());
+        assertFalse(response.getResults().get(1).isOk());
+        assertTrue(response.getResults().get(1).getError().startsWith("symbol "));
+        assertEquals("Trade is changed by another item of this request", response.getResults().get(4).getError());
+        assertEquals("Trade not found", response.getResults().get(5).getError());
+        assertEquals(new BigDecimal("195"), toUpdate.getPnlNet());
+        assertEquals("Breakout", toPatch.getStrategyTag());
+        assertEquals(new BigDecimal("96"), toPatch.getPnlNet());
+        verify(tradeRepository, never()).deleteTrades(any(), any());
+        verify(tradeRepository, never()).save(any());
+        verify(tradeVersionService, Mockito.times(1)).bump(user.getId());
+        verify(tradeDailyRollupService, never()).rebuild(any());
+        verify(tradeCoachAggregateService, never()).invalidate(any());
+        ArgumentCaptor<Map<UUID, TradeAnalyticsRow>> previous = ArgumentCaptor.forClass(Map.class);
+        verify(tradeCoachAggregateService).apply(eq(user.getId()), previous.capture());
+        assertEquals(3, previous.getValue().size());
+        assertEquals(TradeStatus.OPEN, previous.getValue().get(toUpdate.getId()).status());
+        assertEquals(new BigDecimal("100"), previous.getValue().get(toPatch.getId()).pnlNet());
+        ArgumentCaptor<List<OffsetDateTime>> closedAts = ArgumentCaptor.forClass(List.class);
+        verify(tradeDailyRollupService).refreshDays(eq(user.getId()), any(), closedAts.capture());
+        assertTrue(closedAts.getValue().contains(toPatch.getClosedAt()));
+    }
+
+    @Test
+    void largeBulkRebuildsRollupsAndDropsCoachAggregates() {
+        when(tradeRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Trade> saved = invocation.getArgument(0);
+            saved.forEach(trade -> trade.setId(UUID.randomUUID()));
+            return saved;
+        });
+        TradeBulkRequest request = new TradeBulkRequest();
+        request.setCreate(java.util.Collections.nCopies(201, baseRequest()));
+
+        TradeBulkResponse response = tradeService.bulk(request);
+
+        assertEquals(201, response.getCreated());
+        verify(tradeDailyRollupService).rebuild(user.getId());
+        verify(tradeCoachAggregateService).invalidate(user.getId());
+        verify(tradeDailyRollupService, never()).refreshDays(any(), any(), any());
+        verify(tradeCoachAggregateService, never()).apply(any(), any());
+        verify(tradeVersionService).bump(user.getId());
+    }
+
+    @Test
+    void bulkRejectsOversizedRequests() {
+        TradeBulkRequest request = new TradeBulkRequest();
+        request.setDelete(java.util.Collections.nCopies(5_001, UUID.randomUUID()));
+
+        assertThrows(IllegalArgumentException.class, () -> tradeService.bulk(request));
+    }
+
     private TradeRequest baseRequest() {
         TradeRequest request = new TradeRequest();
         request.setSymbol("AAPL");
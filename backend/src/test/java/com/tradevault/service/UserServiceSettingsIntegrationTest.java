@@ -0,0 +1,105 @@
+package com.tradevault.service;
+
+import com.tradevault.domain.entity.Trade;
+import com.tradevault.domain.entity.User;
+import com.tradevault.domain.enums.Direction;
+import com.tradevault.domain.enums.Market;
+import com.tradevault.domain.enums.Role;
+import com.tradevault.domain.enums.TradeStatus;
+import com.tradevault.dto.user.UserSettingsRequest;
+import com.tradevault.repository.TradeRepository;
+import com.tradevault.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@Testcontainers
+class UserServiceSettingsIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("tradevault")
+            .withUsername("tradevault")
+            .withPassword("tradevault");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private CurrentUserService currentUserService;
+
+    @AfterEach
+    void cleanUp() {
+        tradeRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void timezoneChangeRecomputesLocalFieldsLikeTheJavaRules() {
+        User user = userRepository.save(User.builder()
+                .email("settings-zone@example.com")
+                .passwordHash("hashed")
+                .role(Role.USER)
+                .timezone("UTC")
+                .build());
+        when(currentUserService.getCurrentUser()).thenReturn(user);
+        Trade trade = Trade.builder()
+                .user(user)
+                .symbol("AAPL")
+                .market(Market.STOCK)
+                .direction(Direction.LONG)
+                .status(TradeStatus.CLOSED)
+                .openedAt(OffsetDateTime.parse("2024-03-04T15:00:00Z"))
+                .closedAt(OffsetDateTime.parse("2024-03-04T22:30:00Z"))
+                .quantity(BigDecimal.ONE)
+                .entryPrice(new BigDecimal("100"))
+                .build();
+        TradeDerivedColumns.apply(trade, ZoneId.of("UTC"));
+        trade = tradeRepository.save(trade);
+
+        UserSettingsRequest request = new UserSettingsRequest();
+        request.setBaseCurrency("USD");
+        request.setTimezone("Europe/Bucharest");
+        userService.updateSettings(request);
+
+        Trade stored = tradeRepository.findById(trade.getId()).orElseThrow();
+        Trade expected = Trade.builder().openedAt(trade.getOpenedAt()).closedAt(trade.getClosedAt()).build();
+        TradeDerivedColumns.apply(expected, ZoneId.of("Europe/Bucharest"));
+        assertThat(stored.getLocalTz()).isEqualTo("Europe/Bucharest");
+        assertThat(stored.getOpenedLocalDate()).isEqualTo(expected.getOpenedLocalDate());
+        assertThat(stored.getOpenedHour()).isEqualTo(expected.getOpenedHour());
+        assertThat(stored.getOpenedDow()).isEqualTo(expected.getOpenedDow());
+        assertThat(stored.getClosedLocalDate()).isEqualTo(expected.getClosedLocalDate());
+        assertThat(stored.getClosedHour()).isEqualTo(expected.getClosedHour());
+        assertThat(stored.getClosedDow()).isEqualTo(expected.getClosedDow());
+        assertThat(stored.getHoldingBucket()).isEqualTo(">4h");
+    }
+}
@@ -1,7 +1,9 @@
 package com.tradevault.service;
 
+import com.tradevault.analytics.TradeCoachAggregateService;
 import com.tradevault.domain.entity.User;
 import com.tradevault.dto.user.UserSettingsRequest;
+import com.tradevault.repository.TradeRepository;
 import com.tradevault.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +19,9 @@ public class UserServiceTest {
 
     private CurrentUserService currentUserService;
     private UserRepository userRepository;
+    private TradeRepository tradeRepository;
+    private TradeCoachAggregateService tradeCoachAggregateService;
+    private TradeVersionService tradeVersionService;
     private UserService userService;
     private User user;
 
@@ -24,7 +29,10 @@ public class UserServiceTest {
     void setup() {
         currentUserService = mock(CurrentUserService.class);
         userRepository = mock(UserRepository.class);
-        userService = new UserService(currentUserService, userRepository);
+        tradeRepository = mock(TradeRepository.class);
+        tradeCoachAggregateService = mock(TradeCoachAggregateService.class);
+        tradeVersionService = mock(TradeVersionService.class);
+        userService = new UserService(currentUserService, userRepository, tradeRepository, tradeCoachAggregateService, tradeVersionService);
         user = User.builder()
                 .id(UUID.randomUUID())
                 .email("user@test.com")
@@ -53,5 +61,32 @@ public class UserServiceTest {
         verify(userRepository, times(1)).save(any());
     }
 
+    @Test
+    void timezoneChangeMovesStoredTradeLocalFieldsAndDropsZonedResults() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        UserSettingsRequest request = new UserSettingsRequest();
+        request.setBaseCurrency("USD");
+        request.setTimezone("Europe/Bucharest");
+        userService.updateSettings(request);
+
+        verify(tradeRepository).updateLocalFields(user.getId(), "Europe/Bucharest");
+        verifyNoMoreInteractions(tradeRepository);
+        verify(tradeCoachAggregateService).invalidate(user.getId());
+        verify(tradeVersionService).bump(user.getId());
+    }
+
+    @Test
+    void unchangedTimezoneLeavesTradesAlone() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        UserSettingsRequest request = new UserSettingsRequest();
+        request.setBaseCurrency("EUR");
+        request.setTimezone("UTC");
+        userService.updateSettings(request);
+
+        verifyNoInteractions(tradeRepository, tradeCoachAggregateService, tradeVersionService);
+    }
+
 
 }
@@ -1,4 +1,7 @@
 import { apiGet } from './client'
+import { getCurrentLanguage } from '../i18n'
+
+const API_URL = import.meta.env.VITE_API_URL || '/api'
 
 export type TimeSeriesPoint = {
   date: string
@@ -28,6 +31,7 @@ export type RollingMetricPoint = {
   profitFactor: number | null
   expectancy: number
   averagePnl: number
+  medianPnl?: number
 }
 
 export type KpiSummary = {
@@ -247,6 +251,8 @@ export type AnalyticsFilters = {
   catalyst?: string[]
   holdingBucket?: string
   excludeOutliers?: boolean
+  maxPoints?: number
+  clusterMinutes?: number
 }
 
 const toQuery = (params: Record<string, string | string[] | number | boolean | undefined>) => {
@@ -271,3 +277,129 @@ export async function fetchAnalyticsSummary(filters: AnalyticsFilters = {}) {
 export async function fetchAnalyticsCoach(filters: AnalyticsFilters = {}) {
   return apiGet<CoachResponse>(`/analytics/coach${toQuery(filters)}`)
 }
+
+export type AnalyticsDashboardSection = 'summary' | 'timeseries' | 'breakdown' | 'coach'
+
+export type AnalyticsDashboardResponse = {
+  summary: AnalyticsResponse | null
+  timeseries: Record<string, unknown> | null
+  breakdowns: Record<string, { rows: BreakdownRow[] }> | null
+  coach: CoachResponse | null
+}
+
+export async function fetchAnalyticsDashboard(
+  filters: AnalyticsFilters = {},
+  sections: AnalyticsDashboardSection[] = ['summary', 'coach'],
+  groupBy: string[] = []
+) {
+  return apiGet<AnalyticsDashboardResponse>(`/analytics/dashboard${toQuery({ ...filters, sections, groupBy })}`)
+}
+
+export type WhatIfFilters = {
+  from?: string
+  to?: string
+  dateMode?: 'OPEN' | 'CLOSE'
+  symbol?: string[]
+  direction?: string[]
+  status?: string[]
+  strategy?: string[]
+  setup?: string[]
+  catalyst?: string[]
+  market?: string[]
+  hour?: string[]
+  dow?: string[]
+  holdingBucket?: string[]
+  exclude?: string[]
+  exact?: boolean
+}
+
+export type KpiDelta = {
+  totalPnlNet: number
+  winRate: number
+  expectancy: number
+  profitFactor: number | null
+  averageWin: number
+  averageLoss: number
+  closedTrades: number
+  openTrades: number
+}
+
+export type AnalyticsWhatIfResponse = {
+  baseline: KpiSummary
+  scenario: KpiSummary
+  delta: KpiDelta
+  matchedTrades: number
+  totalTrades: number
+  elapsedMillis: number
+}
+
+export async function fetchAnalyticsWhatIf(filters: WhatIfFilters = {}) {
+  return apiGet<AnalyticsWhatIfResponse>(`/analytics/what-if${toQuery(filters)}`)
+}
+
+export type AnalyticsStreamEvent =
+  | 'kpi'
+  | 'costs'
+  | 'equity'
+  | 'consistency'
+  | 'timeEdge'
+  | 'attribution'
+  | 'risk'
+  | 'breakdown'
+  | 'dataQuality'
+  | 'rolling'
+  | 'distribution'
+  | 'traderRead'
+  | 'filterOptions'
+  | 'coach'
+  | 'done'
+  | 'error'
+
+/**
+ * Streams the summary section by section. Each event's data holds the AnalyticsResponse fields it fills
+ * (or `coach`), so callers can merge it into the partial response. Aborting the signal stops the
+ * computation on the server.
+ */
+export async function streamAnalyticsSummary(
+  filters: AnalyticsFilters,
+  onEvent: (event: AnalyticsStreamEvent, data: Record<string, unknown>) => void,
+  signal: AbortSignal
+) {
+  const token = localStorage.getItem('token')
+  const response = await fetch(`${API_URL}/analytics/summary/stream${toQuery(filters)}`, {
+    method: 'GET',
+    headers: {
+      Accept: 'text/event-stream',
+      'Accept-Language': getCurrentLanguage(),
+      ...(token ? { Authorization: `Bearer ${token}` } : {})
+    },
+    credentials: 'include',
+    signal
+  })
+  if (!response.ok || !response.body) {
+    throw new Error(`Analytics stream failed with status ${response.status}`)
+  }
+  const reader = response.body.getReader()
+  const decoder = new TextDecoder()
+  let buffer = ''
+  while (!signal.aborted) {
+    const { value, done } = await reader.read()
+    if (done) break
+    buffer += decoder.decode(value, { stream: true }).replace(/\r/g, '')
+    let separatorIndex = buffer.indexOf('\n\n')
+    while (separatorIndex >= 0) {
+      const block = buffer.slice(0, separatorIndex)
+      buffer = buffer.slice(separatorIndex + 2)
+      let eventName = 'message'
+      const dataLines: string[] = []
+      block.split('\n').forEach((line) => {
+        if (line.startsWith('event:')) eventName = line.slice(6).trim()
+        if (line.startsWith('data:')) dataLines.push(line.slice(5).trim())
+      })
+      if (dataLines.length > 0) {
+        onEvent(eventName as AnalyticsStreamEvent, JSON.parse(dataLines.join('\n')) as Record<string, unknown>)
+      }
+      separatorIndex = buffer.indexOf('\n\n')
+    }
+  }
+}
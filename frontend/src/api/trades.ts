@@ -89,6 +89,69 @@ export type TradeSearchFilters = {
   accountId?: string
 }
 
+export type TradeFeedResponse<T = TradeResponse> = {
+  items: T[]
+  nextCursor: string | null
+  total: number | null
+  totalExact: boolean
+}
+
+export type TradeFeedParams = {
+  limit?: number
+  cursor?: string
+  total?: 'none' | 'exact' | 'estimate'
+}
+
+export type TradeListRow = Partial<Omit<TradeResponse, 'tags'>> & {
+  id: string
+  accountName?: string | null
+  tags?: string[]
+}
+
+export type TradeRowParams = TradeFeedParams & {
+  fields?: string
+}
+
+export type TradeBulkPatch = {
+  ids: string[]
+  setup?: string
+  strategyTag?: string
+  catalystTag?: string
+  timeframe?: string
+  fees?: number
+  commission?: number
+  slippage?: number
+  accountId?: string
+  clearAccount?: boolean
+  tagIds?: string[]
+  addTagIds?: string[]
+  removeTagIds?: string[]
+}
+
+export type TradeBulkRequest = {
+  create?: TradeRequest[]
+  update?: { id: string; trade: TradeRequest }[]
+  patch?: TradeBulkPatch[]
+  delete?: string[]
+}
+
+export type TradeBulkItemResult = {
+  operation: 'create' | 'update' | 'patch' | 'delete'
+  index: number
+  id: string | null
+  ok: boolean
+  error: string | null
+}
+
+export type TradeBulkResponse = {
+  created: number
+  updated: number
+  patched: number
+  deleted: number
+  failed: number
+  results: TradeBulkItemResult[]
+}
+
 export type DailyPnlResponse = {
   date: string
   netPnl: number
@@ -141,6 +204,22 @@ export async function searchTrades(filters: TradeSearchFilters = {}) {
   return apiGet<PageResponse<TradeResponse>>(`/trades/search${toQuery(filters)}`)
 }
 
+export async function listTradeFeed(params: TradeFeedParams = {}) {
+  return apiGet<TradeFeedResponse>(`/trades/feed${toQuery(params)}`)
+}
+
+export async function searchTradeFeed(filters: Omit<TradeSearchFilters, 'page' | 'size'> & TradeFeedParams = {}) {
+  return apiGet<TradeFeedResponse>(`/trades/search/feed${toQuery(filters)}`)
+}
+
+export async function listTradeRows(params: TradeRowParams = {}) {
+  return apiGet<TradeFeedResponse<TradeListRow>>(`/trades/rows${toQuery(params)}`)
+}
+
+export async function searchTradeRows(filters: Omit<TradeSearchFilters, 'page' | 'size'> & TradeRowParams = {}) {
+  return apiGet<TradeFeedResponse<TradeListRow>>(`/trades/search/rows${toQuery(filters)}`)
+}
+
 export async function fetchDailyPnl(params: { from: string; to: string; tz?: string; basis?: 'open' | 'close' }) {
   return apiGet<DailyPnlResponse[]>(`/trades/daily-pnl${toQuery(params)}`)
 }
@@ -161,6 +240,10 @@ export async function createTrade(request: TradeRequest) {
   return apiPost('/trades', request)
 }
 
+export async function bulkTrades(request: TradeBulkRequest) {
+  return apiPost<TradeBulkResponse>('/trades/bulk', request)
+}
+
 export async function updateTrade(id: string, request: TradeRequest) {
   return apiPut<TradeResponse>(`/trades/${id}`, request)
 }